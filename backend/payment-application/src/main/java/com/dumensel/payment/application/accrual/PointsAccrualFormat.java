@@ -0,0 +1,22 @@
+package com.dumensel.payment.application.accrual;
+
+/**
+ * Points accrual input formats
+ * NDJSON: {"userId":"...","points":12.50} (satır başına bir obje), CSV: userId,points (başlık satırı opsiyonel)
+ */
+public enum PointsAccrualFormat {
+    NDJSON,
+    CSV;
+
+    /**
+     * Case-insensitive parse; bilinmeyen format IllegalArgumentException (400)
+     */
+    public static PointsAccrualFormat from(String value) {
+        for (PointsAccrualFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported accrual format: " + value);
+    }
+}
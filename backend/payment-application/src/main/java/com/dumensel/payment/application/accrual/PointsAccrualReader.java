@@ -0,0 +1,267 @@
+package com.dumensel.payment.application.accrual;
+
+import com.dumensel.payment.domain.model.UserPoints;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for accrual files
+ * Satırlar request body'sinden okundukça tek tek döner; dosya belleğe alınmaz.
+ * Hatalı satır "Line N: ..." mesajlı IllegalArgumentException fırlatır (400), yükleme rollback olur.
+ *
+ * NDJSON: satır başına düz bir JSON objesi; userId (string) ve points (sayı veya sayısal string) zorunlu,
+ * diğer alanlar yok sayılır. CSV: userId,points; RFC 4180 quoting, ilk satır başlık olabilir.
+ */
+public class PointsAccrualReader implements PointsAccrualStore.RowSource {
+
+    private static final int READ_BUFFER_CHARS = 64 * 1024;
+    private static final int MAX_USER_ID_LENGTH = 100;
+    // DECIMAL(19, 2)
+    private static final BigDecimal MAX_POINTS = new BigDecimal("99999999999999999.99");
+
+    private final BufferedReader reader;
+    private final PointsAccrualFormat format;
+    private long lineNo;
+    private long rowNo;
+
+    public PointsAccrualReader(InputStream in, PointsAccrualFormat format) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_CHARS);
+        this.format = format;
+    }
+
+    @Override
+    public PointsAccrualRow next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            // UTF-8 BOM (Excel CSV çıktıları)
+            if (lineNo == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            PointsAccrualRow row = format == PointsAccrualFormat.CSV ? parseCsv(line) : parseJson(line);
+            if (row != null) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return şu ana kadar okunan satır sayısı
+     */
+    public long getRowCount() {
+        return rowNo;
+    }
+
+    private PointsAccrualRow parseCsv(String line) {
+        List<String> fields = csvFields(line);
+        if (fields.size() != 2) {
+            throw invalid("expected 2 columns (userId,points), found " + fields.size());
+        }
+        if (rowNo == 0 && "userId".equalsIgnoreCase(fields.get(0).trim())
+                && "points".equalsIgnoreCase(fields.get(1).trim())) {
+            return null;
+        }
+        return row(fields.get(0).trim(), fields.get(1).trim());
+    }
+
+    private List<String> csvFields(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw invalid("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private PointsAccrualRow parseJson(String line) {
+        JsonLine json = new JsonLine(line);
+        String userId = null;
+        String points = null;
+        json.skipWhitespace();
+        json.expect('{');
+        json.skipWhitespace();
+        if (!json.consume('}')) {
+            do {
+                json.skipWhitespace();
+                String key = json.readString();
+                json.skipWhitespace();
+                json.expect(':');
+                json.skipWhitespace();
+                String value = json.peek() == '"' ? json.readString() : json.readScalar();
+                if ("userId".equals(key)) {
+                    userId = value;
+                } else if ("points".equals(key)) {
+                    points = value;
+                }
+                json.skipWhitespace();
+            } while (json.consume(','));
+            json.expect('}');
+        }
+        json.skipWhitespace();
+        if (!json.atEnd()) {
+            throw invalid("unexpected content after JSON object");
+        }
+        return row(userId, points);
+    }
+
+    private PointsAccrualRow row(String userId, String pointsValue) {
+        if (userId == null || userId.isBlank()) {
+            throw invalid("userId is required");
+        }
+        if (userId.length() > MAX_USER_ID_LENGTH) {
+            throw invalid("userId is longer than " + MAX_USER_ID_LENGTH + " characters");
+        }
+        if (pointsValue == null || pointsValue.isEmpty() || "null".equals(pointsValue)) {
+            throw invalid("points is required");
+        }
+        BigDecimal points;
+        try {
+            points = new BigDecimal(pointsValue);
+            UserPoints.requirePositive(points);
+        } catch (NumberFormatException e) {
+            throw invalid("points is not a number: " + pointsValue);
+        } catch (IllegalArgumentException e) {
+            throw invalid(e.getMessage());
+        }
+        if (points.stripTrailingZeros().scale() > 2 || points.compareTo(MAX_POINTS) > 0) {
+            throw invalid("points must fit DECIMAL(19,2): " + pointsValue);
+        }
+        return new PointsAccrualRow(++rowNo, userId, points);
+    }
+
+    private IllegalArgumentException invalid(String message) {
+        return new IllegalArgumentException("Line " + lineNo + ": " + message);
+    }
+
+    /**
+     * Düz JSON objeleri için minimal okuyucu: string, sayı, true/false/null; iç içe obje / dizi desteklenmez
+     */
+    private class JsonLine {
+
+        private final String line;
+        private int pos;
+
+        JsonLine(String line) {
+            this.line = line;
+        }
+
+        void skipWhitespace() {
+            while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        boolean atEnd() {
+            return pos >= line.length();
+        }
+
+        char peek() {
+            return atEnd() ? 0 : line.charAt(pos);
+        }
+
+        boolean consume(char c) {
+            if (peek() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) {
+                throw invalid("malformed JSON, expected '" + c + "' at column " + (pos + 1));
+            }
+        }
+
+        String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (!atEnd()) {
+                char c = line.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (atEnd()) {
+                    break;
+                }
+                char escaped = line.charAt(pos++);
+                switch (escaped) {
+                    case '"', '\\', '/' -> value.append(escaped);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > line.length()) {
+                            throw invalid("malformed JSON unicode escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(line, pos, pos + 4, 16));
+                        } catch (NumberFormatException e) {
+                            throw invalid("malformed JSON unicode escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw invalid("malformed JSON escape \\" + escaped);
+                }
+            }
+            throw invalid("unterminated JSON string");
+        }
+
+        String readScalar() {
+            int start = pos;
+            while (!atEnd()) {
+                char c = line.charAt(pos);
+                if (c == ',' || c == '}' || Character.isWhitespace(c)) {
+                    break;
+                }
+                if (c == '{' || c == '[') {
+                    throw invalid("nested JSON values are not supported");
+                }
+                pos++;
+            }
+            if (start == pos) {
+                throw invalid("malformed JSON, missing value at column " + (pos + 1));
+            }
+            return line.substring(start, pos);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.dumensel.payment.application.accrual;
+
+import java.math.BigDecimal;
+
+/**
+ * One (userId, points) line of an accrual file
+ * rowNo dosyadaki 1 tabanlı sıradır (boş satırlar sayılmaz); kampanya ilerlemesi bu sıra ile tutulur
+ */
+public record PointsAccrualRow(long rowNo, String userId, BigDecimal points) {
+}
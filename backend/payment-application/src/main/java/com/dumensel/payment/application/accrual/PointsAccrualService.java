@@ -0,0 +1,149 @@
+package com.dumensel.payment.application.accrual;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Points Accrual Service
+ * Kampanya puan yüklemeleri: milyonlarca (userId, points) satırı tek istekte
+ *
+ * 1. Yükleme (istek içinde): dosya satır satır doğrulanıp COPY ile staging'e akar; tek transaction,
+ *    hatalı satırda hiçbir şey kalmaz
+ * 2. Uygulama (arka planda): chunk-size'lık satır aralıkları set-based olarak ledger'a EARN entry'si olarak
+ *    yazılır (chunk içinde kullanıcı başına tek entry); her chunk ilerlemesiyle birlikte commit olur
+ *
+ * Yarıda kalan kampanya (node restart, DB hatası) resume ile, staging kaybolduysa aynı dosyanın
+ * yeniden yüklenmesiyle kaldığı satırdan devam eder.
+ * Metrikler: payment.points.accrual.rows (tag: phase = staged / applied)
+ */
+@Service
+public class PointsAccrualService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PointsAccrualService.class);
+
+    private static final int MAX_CAMPAIGN_ID_LENGTH = 100;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final PointsAccrualStore store;
+    private final int chunkSize;
+    private final ExecutorService applier;
+    // Bu node'da uygulanmakta olan kampanyalar; node'lar arası güvenlik store'un chunk kilidindedir
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final Counter stagedRows;
+    private final Counter appliedRows;
+
+    public PointsAccrualService(PointsAccrualStore store,
+                                MeterRegistry meterRegistry,
+                                @Value("${payment.points.accrual.chunk-size:50000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("payment.points.accrual.chunk-size must be at least 1");
+        }
+        this.store = store;
+        this.chunkSize = chunkSize;
+        this.applier = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("points-accrual-"));
+        this.stagedRows = Counter.builder("payment.points.accrual.rows")
+            .tag("phase", "staged")
+            .description("Accrual rows loaded into staging")
+            .register(meterRegistry);
+        this.appliedRows = Counter.builder("payment.points.accrual.rows")
+            .tag("phase", "applied")
+            .description("Accrual rows applied to the points ledger")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Dosyayı yükler ve uygulamayı arka planda başlatır; in kapatılmaz.
+     * Aynı campaignId ile tekrar çağrı idempotent: yüklenmiş / tamamlanmış kampanyanın body'si okunmaz
+     */
+    public PointsAccrualStatus submit(String campaignId, PointsAccrualFormat format, InputStream in) throws IOException {
+        requireCampaignId(campaignId);
+        logger.info("Points accrual upload started. Campaign: {}, format: {}", campaignId, format);
+
+        PointsAccrualReader reader = new PointsAccrualReader(in, format);
+        PointsAccrualStatus status = store.stage(campaignId, reader);
+        stagedRows.increment(reader.getRowCount());
+        logger.info("Points accrual staged. Campaign: {}, state: {}, rows: {}, points: {}",
+            campaignId, status.state(), status.totalRows(), status.totalPoints());
+        return startApply(status);
+    }
+
+    /**
+     * Staging'deki kalan satırları uygulamaya devam eder (örn. restart sonrası APPLYING / FAILED kampanya)
+     */
+    public Optional<PointsAccrualStatus> resume(String campaignId) {
+        return store.find(campaignId).map(this::startApply);
+    }
+
+    public Optional<PointsAccrualStatus> getStatus(String campaignId) {
+        return store.find(campaignId);
+    }
+
+    private PointsAccrualStatus startApply(PointsAccrualStatus status) {
+        if (status.state() == PointsAccrualState.COMPLETED || !running.add(status.campaignId())) {
+            return status;
+        }
+        try {
+            applier.execute(() -> applyInBackground(status.campaignId(), status.appliedRows()));
+        } catch (RuntimeException e) {
+            running.remove(status.campaignId());
+            throw e;
+        }
+        return status;
+    }
+
+    private void applyInBackground(String campaignId, long appliedBefore) {
+        long applied = appliedBefore;
+        try {
+            PointsAccrualStatus status;
+            do {
+                status = store.applyChunk(campaignId, chunkSize);
+                appliedRows.increment(status.appliedRows() - applied);
+                applied = status.appliedRows();
+                logger.info("Points accrual progress. Campaign: {}, applied: {}/{} ({}%)", campaignId,
+                    status.appliedRows(), status.totalRows(), String.format("%.1f", status.getProgressPercent()));
+            } while (status.state() != PointsAccrualState.COMPLETED && !Thread.currentThread().isInterrupted());
+            logger.info("Points accrual finished. Campaign: {}, state: {}", campaignId, status.state());
+        } catch (RuntimeException e) {
+            logger.error("Points accrual failed. Campaign: {}, applied: {}", campaignId, applied, e);
+            markFailed(campaignId, e);
+        } finally {
+            running.remove(campaignId);
+        }
+    }
+
+    private void markFailed(String campaignId, RuntimeException cause) {
+        String message = cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+        try {
+            store.markFailed(campaignId, message.length() > MAX_ERROR_LENGTH
+                ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        } catch (RuntimeException e) {
+            logger.error("Could not mark points accrual as failed. Campaign: {}", campaignId, e);
+        }
+    }
+
+    private static void requireCampaignId(String campaignId) {
+        if (campaignId == null || campaignId.isBlank() || campaignId.length() > MAX_CAMPAIGN_ID_LENGTH) {
+            throw new IllegalArgumentException("Campaign id must be 1-" + MAX_CAMPAIGN_ID_LENGTH + " characters");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Yarıda kalan kampanya APPLYING kalır; commit edilmiş chunk'lar kalıcıdır, resume ile devam eder
+        applier.shutdownNow();
+    }
+}
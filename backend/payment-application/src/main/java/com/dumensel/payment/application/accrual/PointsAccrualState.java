@@ -0,0 +1,12 @@
+package com.dumensel.payment.application.accrual;
+
+/**
+ * Accrual campaign lifecycle
+ * LOADED -> APPLYING -> COMPLETED; uygulama hatasında FAILED (resume veya yeniden yükleme ile devam eder)
+ */
+public enum PointsAccrualState {
+    LOADED,
+    APPLYING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,29 @@
+package com.dumensel.payment.application.accrual;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Accrual campaign progress
+ */
+public record PointsAccrualStatus(
+    String campaignId,
+    PointsAccrualState state,
+    long totalRows,
+    BigDecimal totalPoints,
+    long appliedRows,
+    String errorMessage,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+
+    /**
+     * Uygulanan satır yüzdesi (0-100); boş kampanya tamamlanınca 100
+     */
+    public double getProgressPercent() {
+        if (totalRows == 0) {
+            return state == PointsAccrualState.COMPLETED ? 100.0 : 0.0;
+        }
+        return appliedRows * 100.0 / totalRows;
+    }
+}
@@ -0,0 +1,38 @@
+package com.dumensel.payment.application.accrual;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Port for staging and applying accrual campaigns
+ * Infrastructure layer implements this with COPY into a staging table and set-based chunk applies
+ */
+public interface PointsAccrualStore {
+
+    Optional<PointsAccrualStatus> find(String campaignId);
+
+    /**
+     * Kampanya satırlarını tek transaction'da staging'e yükler ve kampanyayı LOADED yapar.
+     * Kampanya LOADED / APPLYING / COMPLETED ise rows okunmaz, mevcut durum döner.
+     * FAILED kampanyada satırlar yeniden yüklenir; uygulama applied_rows'tan devam eder, bu yüzden
+     * satır sayısı / toplamı ilk yüklemeden farklı dosya IllegalStateException ile reddedilir.
+     */
+    PointsAccrualStatus stage(String campaignId, RowSource rows) throws IOException;
+
+    /**
+     * applied_rows'tan sonraki en fazla chunkSize satırı uygular; ilerleme aynı transaction'da kaydedilir.
+     * Son chunk'ta kampanya COMPLETED olur. Staging satırları eksikse (örn. crash sonrası boşalan
+     * UNLOGGED tablo) IllegalStateException, hiçbir şey uygulanmaz.
+     */
+    PointsAccrualStatus applyChunk(String campaignId, int chunkSize);
+
+    void markFailed(String campaignId, String errorMessage);
+
+    @FunctionalInterface
+    interface RowSource {
+        /**
+         * @return sonraki satır; dosya bittiyse null
+         */
+        PointsAccrualRow next() throws IOException;
+    }
+}
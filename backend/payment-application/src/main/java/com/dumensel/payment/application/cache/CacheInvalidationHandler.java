@@ -0,0 +1,22 @@
+package com.dumensel.payment.application.cache;
+
+/**
+ * Cache Invalidation Handler
+ * Node içi bir cache'in, başka node'lardaki yazmalar sonucu gelen invalidate mesajlarını alması için
+ *
+ * Infrastructure layer (invalidation bus) bu arayüzü implement eden bean'lere mesajları dağıtır
+ */
+public interface CacheInvalidationHandler {
+
+    /**
+     * Mesaj konusu (örn. "payments"); yazan taraf aynı konu ile yayınlar
+     */
+    String topic();
+
+    void invalidate(String key);
+
+    /**
+     * Mesaj kaçırılmış olabilir (örn. bus bağlantısı koptu): tüm cache temizlenir
+     */
+    void invalidateAll();
+}
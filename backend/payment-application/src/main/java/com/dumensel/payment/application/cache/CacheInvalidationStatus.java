@@ -0,0 +1,16 @@
+package com.dumensel.payment.application.cache;
+
+/**
+ * Cache Invalidation Status
+ * Invalidation bus'ın bağlantı durumu; bağlı değilken diğer node'ların yazmaları kaçırılabilir
+ *
+ * Infrastructure layer (invalidation bus) implement eder
+ */
+@FunctionalInterface
+public interface CacheInvalidationStatus {
+
+    /**
+     * Invalidate mesajları şu anda alınıyor mu
+     */
+    boolean isConnected();
+}
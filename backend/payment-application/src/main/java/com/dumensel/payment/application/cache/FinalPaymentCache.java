@@ -0,0 +1,186 @@
+package com.dumensel.payment.application.cache;
+
+import com.dumensel.payment.application.dto.PaymentResponse;
+import com.dumensel.payment.domain.model.PaymentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Final Payment Cache
+ * GET /api/v1/payments/{id} için node içi cache; sadece sonuçlanmış (PaymentStatus.isFinal) ödemeler tutulur
+ *
+ * Sonuçlanmış ödeme pratikte değişmez, bu yüzden status polling'i transaction, sorgu ve
+ * mapping olmadan cevaplanır. Ödeme her kaydedildiğinde (örn. refund: SUCCESS -> REFUNDED)
+ * kayıt silinir. Yükleme sırasında aynı ödemeye (stripe'ına) invalidate geldiyse yüklenen sonuç
+ * cache'e yazılmaz (eski sonucun invalidate'i ezmesini önler); başka ödemelerin invalidate'leri
+ * yoğun yazma altında da yüklemeyi boşa çıkarmaz. Diğer node'lardaki yazmalar
+ * CacheInvalidationHandler üzerinden (topic: payments) gelir; invalidation bus bağlı değilken
+ * bu yazmalar kaçırılabilir, okumalar DB'den yapılır ve cache'e yazılmaz (yeniden bağlanınca cache temizlenir).
+ *
+ * Config (payment.cache.payments.*):
+ * - enabled, max-entries, ttl-seconds
+ * Invalidation bus kapalıyken (payment.cache.invalidation.enabled=false) cache de kapalıdır
+ *
+ * Metrikler (tag: cache=payments):
+ * - payment.cache.requests (tag: result=hit|miss|bypass), payment.cache.evictions, payment.cache.size
+ */
+@Component
+@ConditionalOnExpression("${payment.cache.payments.enabled:true} and ${payment.cache.invalidation.enabled:true}")
+public class FinalPaymentCache implements CacheInvalidationHandler {
+
+    private static final String PREFIX = "payment.cache.payments.";
+    public static final String TOPIC = "payments";
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final CacheInvalidationStatus invalidationStatus;
+    private final ExpiringLruCache<String, PaymentResponse> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong clears = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+
+    /**
+     * Invalidation bus tüm handler'lara (bu cache dahil) bağımlı: döngüye girmemek için ilk okumada çözülür
+     */
+    @Autowired
+    public FinalPaymentCache(Environment environment, MeterRegistry meterRegistry,
+                             ObjectProvider<CacheInvalidationStatus> statusProvider) {
+        this(environment, meterRegistry, lazy(statusProvider));
+    }
+
+    public FinalPaymentCache(Environment environment, MeterRegistry meterRegistry,
+                             CacheInvalidationStatus invalidationStatus) {
+        this.invalidationStatus = invalidationStatus;
+        this.cache = new ExpiringLruCache<>(
+            environment.getProperty(PREFIX + "max-entries", Integer.class, 10_000),
+            Duration.ofSeconds(environment.getProperty(PREFIX + "ttl-seconds", Long.class, 600L)));
+
+        this.hits = Counter.builder("payment.cache.requests")
+            .description("Payment cache lookups")
+            .tag("cache", TOPIC)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("payment.cache.requests")
+            .description("Payment cache lookups")
+            .tag("cache", TOPIC)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        this.bypasses = Counter.builder("payment.cache.requests")
+            .description("Payment cache lookups")
+            .tag("cache", TOPIC)
+            .tag("result", "bypass")
+            .register(meterRegistry);
+        FunctionCounter.builder("payment.cache.evictions", cache, ExpiringLruCache::evictionCount)
+            .description("Entries evicted because the cache was full")
+            .tag("cache", TOPIC)
+            .register(meterRegistry);
+        Gauge.builder("payment.cache.size", cache, ExpiringLruCache::size)
+            .description("Entries in the cache")
+            .tag("cache", TOPIC)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Cache'te varsa dön, yoksa loader ile yükle; sonuç final ise cache'e al
+     */
+    public PaymentResponse getOrLoad(String paymentId, Supplier<PaymentResponse> loader) {
+        if (!invalidationStatus.isConnected()) {
+            bypasses.increment();
+            return loader.get();
+        }
+        
+        Optional<PaymentResponse> cached = cache.get(paymentId);
+        if (cached.isPresent()) {
+            hits.increment();
+            return cached.get();
+        }
+        misses.increment();
+        
+        int index = index(paymentId);
+        long stamp = generations.get(index);
+        long clearStamp = clears.get();
+        PaymentResponse loaded = loader.get();
+        if (PaymentStatus.valueOf(loaded.getStatus()).isFinal() && unchanged(index, stamp, clearStamp)) {
+            cache.put(paymentId, loaded);
+            // put ile kontrol arasında invalidate geldiyse geri al
+            if (!unchanged(index, stamp, clearStamp)) {
+                cache.invalidate(paymentId);
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    /**
+     * Sadece cache'e bak, yükleme yapma
+     */
+    public Optional<PaymentResponse> getIfPresent(String paymentId) {
+        if (!invalidationStatus.isConnected()) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+        Optional<PaymentResponse> cached = cache.get(paymentId);
+        (cached.isPresent() ? hits : misses).increment();
+        return cached;
+    }
+
+    /**
+     * Ödeme kaydedildikten (commit) sonra çağrılır
+     */
+    @Override
+    public void invalidate(String paymentId) {
+        generations.incrementAndGet(index(paymentId));
+        cache.invalidate(paymentId);
+    }
+
+    @Override
+    public void invalidateAll() {
+        clears.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private boolean unchanged(int index, long stamp, long clearStamp) {
+        return generations.get(index) == stamp && clears.get() == clearStamp;
+    }
+
+    private static CacheInvalidationStatus lazy(ObjectProvider<CacheInvalidationStatus> statusProvider) {
+        return new CacheInvalidationStatus() {
+            private volatile CacheInvalidationStatus resolved;
+
+            @Override
+            public boolean isConnected() {
+                CacheInvalidationStatus current = resolved;
+                if (current == null) {
+                    current = statusProvider.getIfAvailable();
+                    if (current == null) {
+                        return false;
+                    }
+                    resolved = current;
+                }
+                return current.isConnected();
+            }
+        };
+    }
+
+    private static int index(String paymentId) {
+        return Math.floorMod(paymentId.hashCode(), GENERATION_STRIPES);
+    }
+}
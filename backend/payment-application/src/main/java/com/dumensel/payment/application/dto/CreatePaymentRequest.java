@@ -24,7 +24,7 @@ public class CreatePaymentRequest {
     private String buyerId;
     
     @NotBlank(message = "Payment provider is required")
-    @Pattern(regexp = "CRAFTGATE|AKBANK", message = "Invalid payment provider")
+    @Pattern(regexp = "CRAFTGATE|AKBANK|AUTO", message = "Invalid payment provider")
     private String provider;
     
     @NotNull(message = "Card info is required")
@@ -0,0 +1,38 @@
+package com.dumensel.payment.application.dto;
+
+import java.util.List;
+
+/**
+ * Payment History Page DTO
+ * Application Layer - one keyset page of a buyer's payments, newest first
+ * nextCursor null ise son sayfadır
+ */
+public class PaymentHistoryPage {
+    private List<PaymentResponse> items;
+    private String nextCursor;
+
+    // Default constructor for Jackson
+    public PaymentHistoryPage() {
+    }
+
+    public PaymentHistoryPage(List<PaymentResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PaymentResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PaymentResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
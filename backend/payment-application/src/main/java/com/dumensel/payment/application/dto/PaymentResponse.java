@@ -2,6 +2,7 @@ package com.dumensel.payment.application.dto;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO for payment response
@@ -15,9 +16,11 @@ public class PaymentResponse {
     private String provider;
     private String buyerId;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
     private String externalPaymentId;
     private String errorMessage;
     private String errorCode;
+    private List<String> attemptedProviders;
 
     // Constructors
     public PaymentResponse() {
@@ -88,6 +91,14 @@ public class PaymentResponse {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getExternalPaymentId() {
         return externalPaymentId;
     }
@@ -111,5 +122,12 @@ public class PaymentResponse {
     public void setErrorCode(String errorCode) {
         this.errorCode = errorCode;
     }
-}
 
+    public List<String> getAttemptedProviders() {
+        return attemptedProviders;
+    }
+
+    public void setAttemptedProviders(List<String> attemptedProviders) {
+        this.attemptedProviders = attemptedProviders;
+    }
+}
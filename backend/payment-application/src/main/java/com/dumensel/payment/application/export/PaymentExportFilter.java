@@ -0,0 +1,21 @@
+package com.dumensel.payment.application.export;
+
+import com.dumensel.payment.domain.model.PaymentProvider;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payment export filter
+ * created_at aralığı [from, to); provider null ise tüm provider'lar
+ */
+public record PaymentExportFilter(LocalDateTime from, LocalDateTime to, PaymentProvider provider) {
+
+    public PaymentExportFilter {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Export range requires both from and to");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range 'from' must be before 'to'");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.dumensel.payment.application.export;
+
+/**
+ * Payment export output formats
+ */
+public enum PaymentExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    PaymentExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Case-insensitive parse; bilinmeyen format IllegalArgumentException (400)
+     */
+    public static PaymentExportFormat from(String value) {
+        for (PaymentExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value);
+    }
+}
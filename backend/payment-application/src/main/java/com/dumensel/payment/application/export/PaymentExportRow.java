@@ -0,0 +1,34 @@
+package com.dumensel.payment.application.export;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of the current export row
+ * Satır başına nesne üretilmez: implementasyon cursor'ın o anki satırını okur,
+ * aynı instance bir sonraki satıra geçince yeni değerleri döner. Handler dışında saklanmamalı.
+ */
+public interface PaymentExportRow {
+
+    String id();
+
+    String conversationId();
+
+    BigDecimal amount();
+
+    String currency();
+
+    String status();
+
+    String provider();
+
+    String buyerId();
+
+    LocalDateTime createdAt();
+
+    LocalDateTime updatedAt();
+
+    String externalPaymentId();
+
+    String errorCode();
+}
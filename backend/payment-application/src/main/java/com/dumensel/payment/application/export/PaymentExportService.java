@@ -0,0 +1,189 @@
+package com.dumensel.payment.application.export;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Payment Export Service
+ * Finans için gün/aralık bazlı ödeme dökümü (NDJSON / CSV)
+ *
+ * Satırlar DB cursor'ından okunur okunmaz response stream'ine yazılır;
+ * PaymentEntity / Payment / DTO üretilmez, bellek kullanımı aralık boyutundan bağımsızdır.
+ * Metrikler: payment.export.rows (tag: format)
+ */
+@Service
+public class PaymentExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentExportService.class);
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+    private static final String[] CSV_COLUMNS = {
+        "id", "conversationId", "amount", "currency", "status", "provider", "buyerId",
+        "createdAt", "updatedAt", "externalPaymentId", "errorCode"
+    };
+
+    private final PaymentExportSource exportSource;
+    private final Map<PaymentExportFormat, Counter> exportedRows = new EnumMap<>(PaymentExportFormat.class);
+
+    public PaymentExportService(PaymentExportSource exportSource, MeterRegistry meterRegistry) {
+        this.exportSource = exportSource;
+        for (PaymentExportFormat format : PaymentExportFormat.values()) {
+            exportedRows.put(format, Counter.builder("payment.export.rows")
+                .tag("format", format.name())
+                .description("Payments written to exports")
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Filtreye uyan ödemeleri verilen formatta out'a yazar; out kapatılmaz
+     * @return number of exported payments
+     */
+    public long export(PaymentExportFilter filter, PaymentExportFormat format, OutputStream out) throws IOException {
+        logger.info("Payment export started. Format: {}, from: {}, to: {}, provider: {}",
+            format, filter.from(), filter.to(), filter.provider());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        Counter rowCounter = exportedRows.get(format);
+        long rows;
+        try {
+            if (format == PaymentExportFormat.CSV) {
+                writer.write(String.join(",", CSV_COLUMNS));
+                writer.write("\r\n");
+                rows = exportSource.stream(filter, row -> {
+                    writeCsv(row, writer);
+                    rowCounter.increment();
+                });
+            } else {
+                rows = exportSource.stream(filter, row -> {
+                    writeJson(row, writer);
+                    rowCounter.increment();
+                });
+            }
+        } catch (UncheckedIOException e) {
+            // İstemci bağlantıyı kapattı vb. - cursor kapatılmış olarak buraya düşer
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.info("Payment export finished. Format: {}, rows: {}", format, rows);
+        return rows;
+    }
+
+    static void writeJson(PaymentExportRow row, Writer writer) throws IOException {
+        writer.write("{\"id\":");
+        writeJsonString(row.id(), writer);
+        writer.write(",\"conversationId\":");
+        writeJsonString(row.conversationId(), writer);
+        writer.write(",\"amount\":");
+        writer.write(row.amount() == null ? "null" : row.amount().toPlainString());
+        writer.write(",\"currency\":");
+        writeJsonString(row.currency(), writer);
+        writer.write(",\"status\":");
+        writeJsonString(row.status(), writer);
+        writer.write(",\"provider\":");
+        writeJsonString(row.provider(), writer);
+        writer.write(",\"buyerId\":");
+        writeJsonString(row.buyerId(), writer);
+        writer.write(",\"createdAt\":");
+        writeJsonString(format(row.createdAt()), writer);
+        writer.write(",\"updatedAt\":");
+        writeJsonString(format(row.updatedAt()), writer);
+        writer.write(",\"externalPaymentId\":");
+        writeJsonString(row.externalPaymentId(), writer);
+        writer.write(",\"errorCode\":");
+        writeJsonString(row.errorCode(), writer);
+        writer.write("}\n");
+    }
+
+    static void writeCsv(PaymentExportRow row, Writer writer) throws IOException {
+        writeCsvField(row.id(), writer);
+        writer.write(',');
+        writeCsvField(row.conversationId(), writer);
+        writer.write(',');
+        writer.write(row.amount() == null ? "" : row.amount().toPlainString());
+        writer.write(',');
+        writeCsvField(row.currency(), writer);
+        writer.write(',');
+        writeCsvField(row.status(), writer);
+        writer.write(',');
+        writeCsvField(row.provider(), writer);
+        writer.write(',');
+        writeCsvField(row.buyerId(), writer);
+        writer.write(',');
+        writeCsvField(format(row.createdAt()), writer);
+        writer.write(',');
+        writeCsvField(format(row.updatedAt()), writer);
+        writer.write(',');
+        writeCsvField(row.externalPaymentId(), writer);
+        writer.write(',');
+        writeCsvField(row.errorCode(), writer);
+        writer.write("\r\n");
+    }
+
+    private static String format(LocalDateTime value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static void writeJsonString(String value, Writer writer) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * RFC 4180 quoting; =,+,-,@ ile başlayan metinler tablo programlarında formül
+     * olarak çalışmasın diye ' ile başlatılır (CSV injection)
+     */
+    private static void writeCsvField(String value, Writer writer) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@';
+        boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,19 @@
+package com.dumensel.payment.application.export;
+
+/**
+ * Port for streaming payments to an export
+ * Infrastructure layer implements this with a forward-only, fetch-size bounded DB cursor
+ */
+public interface PaymentExportSource {
+
+    /**
+     * Filtreye uyan ödemeleri created_at sırasıyla tek tek handler'a verir; tüm sonuç belleğe alınmaz
+     * @return number of rows streamed
+     */
+    long stream(PaymentExportFilter filter, RowHandler handler);
+
+    @FunctionalInterface
+    interface RowHandler {
+        void handle(PaymentExportRow row) throws java.io.IOException;
+    }
+}
@@ -0,0 +1,52 @@
+package com.dumensel.payment.application.gateway;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decayed Quantile
+ * Üstel olarak sönümlenen (exponentially decayed) streaming quantile tahmini, lock-free
+ *
+ * Örnek tahminden büyükse tahmin q * decay * quantile kadar artar, küçükse
+ * q * decay * (1 - quantile) kadar azalır; denge noktasında örneklerin (1 - quantile)'i
+ * tahminin üstündedir. Tahmin double bitleri olarak AtomicLong'da tutulur ve CAS ile güncellenir.
+ */
+class DecayedQuantile {
+
+    private final double quantile;
+    private final double decay;
+    private final AtomicLong estimateBits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+
+    /**
+     * @param quantile 0-1 arası (örn: 0.95)
+     * @param decay 0-1 arası; büyüdükçe eski örnekler daha hızlı unutulur
+     */
+    DecayedQuantile(double quantile, double decay) {
+        this.quantile = quantile;
+        this.decay = decay;
+    }
+
+    void record(double value) {
+        long current;
+        long next;
+        do {
+            current = estimateBits.get();
+            double q = Double.longBitsToDouble(current);
+            double updated;
+            if (Double.isNaN(q)) {
+                updated = value;
+            } else if (value > q) {
+                updated = Math.min(value, q + Math.max(q, 1.0) * decay * quantile);
+            } else {
+                updated = Math.max(value, q - q * decay * (1 - quantile));
+            }
+            next = Double.doubleToRawLongBits(updated);
+        } while (!estimateBits.compareAndSet(current, next));
+    }
+
+    /**
+     * Güncel tahmin; henüz örnek yoksa NaN
+     */
+    double get() {
+        return Double.longBitsToDouble(estimateBits.get());
+    }
+}
@@ -0,0 +1,67 @@
+package com.dumensel.payment.application.gateway;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gateway Bulkhead
+ * Provider başına eşzamanlı gateway çağrısı limiti ve sınırlı bekleme kuyruğu
+ *
+ * Limit doluysa çağıran en fazla maxWait kadar bekler; bekleyen sayısı
+ * maxWaitingCalls'u aşarsa beklemeden reddedilir. Böylece yavaşlayan bir
+ * provider request thread'lerinin hepsini kendi çağrılarına bağlayamaz.
+ */
+public class GatewayBulkhead {
+
+    private final int maxConcurrentCalls;
+    private final int maxWaitingCalls;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public GatewayBulkhead(int maxConcurrentCalls, int maxWaitingCalls, Duration maxWait) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitingCalls = maxWaitingCalls;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    /**
+     * Çağrı için yer ayır
+     * @return false ise limit ve bekleme kuyruğu dolu (veya bekleme süresi doldu)
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxWaitingCalls) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Şu anda gateway'de olan çağrı sayısı
+     */
+    public int getActiveCount() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    /**
+     * Yer bekleyen çağrı sayısı
+     */
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+}
@@ -0,0 +1,211 @@
+package com.dumensel.payment.application.gateway;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Gateway Circuit Breaker
+ * Provider başına, son N çağrının hata ve yavaşlık oranına bakan devre kesici
+ *
+ * CLOSED    - çağrılar geçer, sonuçlar kayan pencereye yazılır
+ * OPEN      - hata veya yavaş çağrı oranı eşiği aştı; çağrılar gateway'e gitmeden reddedilir
+ * HALF_OPEN - bekleme süresi doldu; sınırlı sayıda deneme çağrısı sonucuna göre CLOSED veya OPEN
+ *
+ * Kilit sadece sayaç güncellemesi sırasında tutulur, gateway çağrısı sırasında değil
+ * (ReentrantLock: virtual thread'leri pinlemez)
+ */
+public class GatewayCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Devre kesici ayarları
+     * Oranlar yüzde (0-100) olarak verilir
+     */
+    public record Config(
+            int slidingWindowSize,
+            int minimumNumberOfCalls,
+            float failureRateThreshold,
+            float slowCallRateThreshold,
+            Duration slowCallDuration,
+            Duration openStateDuration,
+            int halfOpenPermittedCalls) {
+    }
+
+    private final Config config;
+    private final BiConsumer<State, State> transitionListener;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Kayan pencere (ring buffer)
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int windowIndex;
+    private int windowCount;
+    private int failureCount;
+    private int slowCount;
+
+    // HALF_OPEN deneme sayaçları
+    private int halfOpenPermitsLeft;
+    private int halfOpenCalls;
+    private int halfOpenFailures;
+    private int halfOpenSlow;
+
+    private volatile State state = State.CLOSED;
+    private long openedAtNanos;
+
+    public GatewayCircuitBreaker(Config config, BiConsumer<State, State> transitionListener) {
+        this(config, transitionListener, System::nanoTime);
+    }
+
+    GatewayCircuitBreaker(Config config, BiConsumer<State, State> transitionListener, LongSupplier nanoClock) {
+        this.config = config;
+        this.transitionListener = transitionListener;
+        this.nanoClock = nanoClock;
+        this.failedCalls = new boolean[config.slidingWindowSize()];
+        this.slowCalls = new boolean[config.slidingWindowSize()];
+    }
+
+    /**
+     * Çağrıya izin var mı?
+     * true dönerse çağıran onSuccess / onError / releasePermission'dan birini çağırmalıdır
+     */
+    public boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN
+                    && nanoClock.getAsLong() - openedAtNanos >= config.openStateDuration().toNanos()) {
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN && halfOpenPermitsLeft > 0) {
+                halfOpenPermitsLeft--;
+                return true;
+            }
+            return state == State.CLOSED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * İzin alındı ama çağrı yapılmadı (ör. bulkhead reddetti)
+     */
+    public void releasePermission() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && halfOpenPermitsLeft < config.halfOpenPermittedCalls()) {
+                halfOpenPermitsLeft++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess(long durationNanos) {
+        record(false, durationNanos);
+    }
+
+    public void onError(long durationNanos) {
+        record(true, durationNanos);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private void record(boolean failed, long durationNanos) {
+        boolean slow = durationNanos >= config.slowCallDuration().toNanos();
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> recordClosed(failed, slow);
+                case HALF_OPEN -> recordHalfOpen(failed, slow);
+                case OPEN -> {
+                    // Devre açılmadan önce başlamış çağrının geç gelen sonucu; yok sayılır
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordClosed(boolean failed, boolean slow) {
+        if (windowCount == failedCalls.length) {
+            // En eski sonucu pencereden çıkar
+            if (failedCalls[windowIndex]) {
+                failureCount--;
+            }
+            if (slowCalls[windowIndex]) {
+                slowCount--;
+            }
+        } else {
+            windowCount++;
+        }
+        failedCalls[windowIndex] = failed;
+        slowCalls[windowIndex] = slow;
+        if (failed) {
+            failureCount++;
+        }
+        if (slow) {
+            slowCount++;
+        }
+        windowIndex = (windowIndex + 1) % failedCalls.length;
+
+        if (windowCount >= config.minimumNumberOfCalls()
+                && exceedsThresholds(failureCount, slowCount, windowCount)) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void recordHalfOpen(boolean failed, boolean slow) {
+        halfOpenCalls++;
+        if (failed) {
+            halfOpenFailures++;
+        }
+        if (slow) {
+            halfOpenSlow++;
+        }
+        if (halfOpenCalls >= config.halfOpenPermittedCalls()) {
+            transitionTo(exceedsThresholds(halfOpenFailures, halfOpenSlow, halfOpenCalls)
+                ? State.OPEN
+                : State.CLOSED);
+        }
+    }
+
+    private boolean exceedsThresholds(int failures, int slow, int calls) {
+        float failureRate = failures * 100f / calls;
+        float slowCallRate = slow * 100f / calls;
+        return failureRate >= config.failureRateThreshold() || slowCallRate >= config.slowCallRateThreshold();
+    }
+
+    /**
+     * Lock tutulurken çağrılır
+     */
+    private void transitionTo(State newState) {
+        State previous = state;
+        resetWindow();
+        halfOpenPermitsLeft = config.halfOpenPermittedCalls();
+        halfOpenCalls = 0;
+        halfOpenFailures = 0;
+        halfOpenSlow = 0;
+        if (newState == State.OPEN) {
+            openedAtNanos = nanoClock.getAsLong();
+        }
+        state = newState;
+        transitionListener.accept(previous, newState);
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        failureCount = 0;
+        slowCount = 0;
+    }
+}
@@ -0,0 +1,118 @@
+package com.dumensel.payment.application.gateway;
+
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.model.PaymentProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Gateway Failover Policy
+ * Teknik hatada ödemenin hangi ikincil provider'a aktarılacağına karar verir
+ *
+ * Ret (decline), HTTP 4xx, okunamayan yanıt ve sınıflandırılamayan hatalar (AKBANK_API_ERROR,
+ * AKBANK_TECHNICAL_ERROR) asla aktarılmaz. Aktarılabilir hatalar iki gruptur:
+ * - safe: istek provider'a hiç ulaşmadı (bağlantı kurulamadı, devre açık, bulkhead dolu)
+ * - unconfirmed: istek ulaşmış, yanıt gelmemiş olabilir (timeout, boş yanıt);
+ *   aktarmadan önce ilk provider'da tahsilat olmadığı findCapturedPayment ile doğrulanmalıdır
+ *
+ * Config (payment.failover.*):
+ * - enabled, safe-error-codes, unconfirmed-error-codes
+ * - chains.{provider}: sırayla denenecek ikincil provider'lar (örn: chains.akbank=CRAFTGATE)
+ *
+ * Metrikler: payment.gateway.failover (tag: from, to), payment.gateway.failover.blocked (tag: provider, reason)
+ */
+@Component
+public class GatewayFailoverPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayFailoverPolicy.class);
+
+    private static final String PREFIX = "payment.failover.";
+
+    static final String[] DEFAULT_SAFE_ERROR_CODES = {
+        "GATEWAY_CIRCUIT_OPEN",
+        "GATEWAY_BULKHEAD_FULL",
+        "AKBANK_CONNECTION_ERROR"
+    };
+
+    static final String[] DEFAULT_UNCONFIRMED_ERROR_CODES = {
+        "AKBANK_TIMEOUT",
+        "AKBANK_EMPTY_RESPONSE"
+    };
+
+    private final PaymentGatewayFactory gatewayFactory;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Set<String> safeErrorCodes;
+    private final Set<String> unconfirmedErrorCodes;
+    private final Map<PaymentProvider, List<PaymentProvider>> chains = new EnumMap<>(PaymentProvider.class);
+
+    public GatewayFailoverPolicy(Environment environment, MeterRegistry meterRegistry,
+                                 PaymentGatewayFactory gatewayFactory) {
+        this.gatewayFactory = gatewayFactory;
+        this.meterRegistry = meterRegistry;
+        this.enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, false);
+        this.safeErrorCodes = Set.of(environment.getProperty(
+            PREFIX + "safe-error-codes", String[].class, DEFAULT_SAFE_ERROR_CODES));
+        this.unconfirmedErrorCodes = Set.of(environment.getProperty(
+            PREFIX + "unconfirmed-error-codes", String[].class, DEFAULT_UNCONFIRMED_ERROR_CODES));
+
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            PaymentProvider[] chain = environment.getProperty(
+                PREFIX + "chains." + provider.name().toLowerCase(), PaymentProvider[].class, new PaymentProvider[0]);
+            chains.put(provider, List.of(chain));
+        }
+
+        if (enabled) {
+            logger.info("Gateway failover enabled: chains={}", chains);
+        }
+    }
+
+    /**
+     * Bu hata için aktarılacak provider
+     * Zincir ödemenin ilk provider'ına göre seçilir; daha önce denenmiş veya aktif gateway'i olmayanlar atlanır
+     * @return empty ise ödeme başarısız sayılmalı
+     */
+    public Optional<PaymentProvider> nextProvider(Payment payment, String errorCode) {
+        if (!enabled || !isRetryable(errorCode)) {
+            return Optional.empty();
+        }
+        PaymentProvider origin = payment.getAttemptedProviders().get(0);
+        Map<PaymentProvider, PaymentGateway> active = gatewayFactory.getActiveGateways();
+        for (PaymentProvider candidate : chains.get(origin)) {
+            if (!payment.hasAttempted(candidate) && active.containsKey(candidate)) {
+                return Optional.of(candidate);
+            }
+        }
+        recordBlocked(payment.getProvider(), "chain_exhausted");
+        return Optional.empty();
+    }
+
+    /**
+     * İstek provider'a ulaşmış olabilir mi? (aktarmadan önce tahsilat kontrolü gerekir)
+     */
+    public boolean requiresCaptureCheck(String errorCode) {
+        return unconfirmedErrorCodes.contains(errorCode);
+    }
+
+    public void recordFailover(PaymentProvider from, PaymentProvider to) {
+        meterRegistry.counter("payment.gateway.failover", "from", from.name(), "to", to.name()).increment();
+    }
+
+    public void recordBlocked(PaymentProvider provider, String reason) {
+        meterRegistry.counter("payment.gateway.failover.blocked",
+            "provider", provider.name(), "reason", reason).increment();
+    }
+
+    private boolean isRetryable(String errorCode) {
+        return safeErrorCodes.contains(errorCode) || unconfirmedErrorCodes.contains(errorCode);
+    }
+}
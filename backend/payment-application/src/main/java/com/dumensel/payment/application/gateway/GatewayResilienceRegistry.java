@@ -0,0 +1,168 @@
+package com.dumensel.payment.application.gateway;
+
+import com.dumensel.payment.application.service.PaymentGatewayException;
+import com.dumensel.payment.domain.model.PaymentProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gateway Resilience Registry
+ * Provider başına bulkhead + circuit breaker oluşturur ve gateway'leri bunlarla sarar
+ *
+ * Bir provider'ın yavaşlaması veya hata vermesi diğer provider'ların
+ * request thread'lerini ve kapasitesini etkilemez.
+ *
+ * Config (payment.resilience.default-* ve payment.resilience.providers.{provider}.*):
+ * - max-concurrent-calls, max-waiting-calls, max-wait-ms
+ * - sliding-window-size, minimum-number-of-calls
+ * - failure-rate-threshold, slow-call-rate-threshold, slow-call-duration-ms
+ * - open-state-duration-ms, half-open-permitted-calls
+ * - payment.resilience.ignored-error-codes: devre kesici için hata sayılmayan iş kuralı kodları
+ *
+ * Metrikler (tag: provider):
+ * - payment.gateway.circuit.state (0=CLOSED, 1=OPEN, 2=HALF_OPEN)
+ * - payment.gateway.circuit.transitions (tag: from, to)
+ * - payment.gateway.bulkhead.active / payment.gateway.bulkhead.waiting
+ * - payment.gateway.rejected (tag: reason)
+ */
+@Component
+public class GatewayResilienceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayResilienceRegistry.class);
+
+    private static final String PREFIX = "payment.resilience.";
+
+    /**
+     * Ret / kullanıcı kaynaklı hatalar: provider sağlıklı, sadece ödeme onaylanmadı
+     */
+    static final String[] DEFAULT_IGNORED_ERROR_CODES = {
+        "AKBANK_PAYMENT_DECLINED",
+        "AKBANK_3D_SECURE_FAILED",
+        "CRAFTGATE_ERROR",
+        "CAPTURE_LOOKUP_UNSUPPORTED"
+    };
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> ignoredErrorCodes;
+    private final Map<PaymentProvider, GatewayCircuitBreaker> circuitBreakers = new EnumMap<>(PaymentProvider.class);
+    private final Map<PaymentProvider, GatewayBulkhead> bulkheads = new EnumMap<>(PaymentProvider.class);
+    private final Map<PaymentProvider, Counter> circuitOpenRejections = new EnumMap<>(PaymentProvider.class);
+    private final Map<PaymentProvider, Counter> bulkheadRejections = new EnumMap<>(PaymentProvider.class);
+
+    public GatewayResilienceRegistry(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.ignoredErrorCodes = Set.of(environment.getProperty(
+            PREFIX + "ignored-error-codes", String[].class, DEFAULT_IGNORED_ERROR_CODES));
+
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            register(provider);
+        }
+    }
+
+    /**
+     * Gateway'i provider'ın bulkhead ve circuit breaker'ı ile sar
+     */
+    public ResilientPaymentGateway decorate(PaymentProvider provider, PaymentGateway gateway) {
+        return new ResilientPaymentGateway(provider, gateway, bulkheads.get(provider),
+            circuitBreakers.get(provider), ignoredErrorCodes, this::recordRejection);
+    }
+
+    public GatewayCircuitBreaker getCircuitBreaker(PaymentProvider provider) {
+        return circuitBreakers.get(provider);
+    }
+
+    public GatewayBulkhead getBulkhead(PaymentProvider provider) {
+        return bulkheads.get(provider);
+    }
+
+    private void register(PaymentProvider provider) {
+        String tag = provider.name();
+
+        GatewayCircuitBreaker.Config breakerConfig = new GatewayCircuitBreaker.Config(
+            intProperty(provider, "sliding-window-size", 50),
+            intProperty(provider, "minimum-number-of-calls", 20),
+            intProperty(provider, "failure-rate-threshold", 50),
+            intProperty(provider, "slow-call-rate-threshold", 80),
+            Duration.ofMillis(intProperty(provider, "slow-call-duration-ms", 5000)),
+            Duration.ofMillis(intProperty(provider, "open-state-duration-ms", 30000)),
+            intProperty(provider, "half-open-permitted-calls", 5)
+        );
+        GatewayCircuitBreaker circuitBreaker = new GatewayCircuitBreaker(breakerConfig,
+            (from, to) -> onTransition(provider, from, to));
+
+        GatewayBulkhead bulkhead = new GatewayBulkhead(
+            intProperty(provider, "max-concurrent-calls", 25),
+            intProperty(provider, "max-waiting-calls", 50),
+            Duration.ofMillis(intProperty(provider, "max-wait-ms", 500))
+        );
+
+        circuitBreakers.put(provider, circuitBreaker);
+        bulkheads.put(provider, bulkhead);
+
+        Gauge.builder("payment.gateway.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+            .description("Circuit breaker state (0=CLOSED, 1=OPEN, 2=HALF_OPEN)")
+            .tag("provider", tag)
+            .register(meterRegistry);
+        Gauge.builder("payment.gateway.bulkhead.active", bulkhead, GatewayBulkhead::getActiveCount)
+            .description("Gateway calls currently holding a bulkhead permit")
+            .tag("provider", tag)
+            .register(meterRegistry);
+        Gauge.builder("payment.gateway.bulkhead.waiting", bulkhead, GatewayBulkhead::getWaitingCount)
+            .description("Gateway calls waiting for a bulkhead permit")
+            .tag("provider", tag)
+            .register(meterRegistry);
+        circuitOpenRejections.put(provider, rejectionCounter(tag, "circuit_open"));
+        bulkheadRejections.put(provider, rejectionCounter(tag, "bulkhead_full"));
+
+        logger.info("Gateway resilience for {}: {}, maxConcurrentCalls={}",
+            provider, breakerConfig, intProperty(provider, "max-concurrent-calls", 25));
+    }
+
+    private Counter rejectionCounter(String provider, String reason) {
+        return Counter.builder("payment.gateway.rejected")
+            .description("Gateway calls rejected without reaching the provider")
+            .tag("provider", provider)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    private void onTransition(PaymentProvider provider, GatewayCircuitBreaker.State from,
+                              GatewayCircuitBreaker.State to) {
+        if (to == GatewayCircuitBreaker.State.OPEN) {
+            logger.warn("Circuit breaker for {} transitioned {} -> {}", provider, from, to);
+        } else {
+            logger.info("Circuit breaker for {} transitioned {} -> {}", provider, from, to);
+        }
+        meterRegistry.counter("payment.gateway.circuit.transitions",
+            "provider", provider.name(), "from", from.name(), "to", to.name()).increment();
+    }
+
+    private void recordRejection(PaymentProvider provider, String errorCode) {
+        if (PaymentGatewayException.CIRCUIT_OPEN.equals(errorCode)) {
+            circuitOpenRejections.get(provider).increment();
+        } else {
+            bulkheadRejections.get(provider).increment();
+        }
+    }
+
+    /**
+     * Provider'a özel değer yoksa default-* değeri, o da yoksa kod içi varsayılan
+     */
+    private int intProperty(PaymentProvider provider, String key, int fallback) {
+        int defaultValue = environment.getProperty(PREFIX + "default-" + key, Integer.class, fallback);
+        return environment.getProperty(
+            PREFIX + "providers." + provider.name().toLowerCase() + "." + key, Integer.class, defaultValue);
+    }
+}
@@ -0,0 +1,136 @@
+package com.dumensel.payment.application.gateway;
+
+import com.dumensel.payment.domain.model.PaymentProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gateway Worker Pool
+ * Asenkron ödemeler için provider başına sınırlı (bounded) worker havuzu
+ *
+ * Her provider kendi thread'lerine ve kuyruğuna sahiptir; yavaş bir banka
+ * diğer provider'ların kapasitesini tüketemez.
+ *
+ * Config:
+ * - payment.async.default-concurrency / default-queue-capacity
+ * - payment.async.providers.{provider}.concurrency / queue-capacity
+ * - spring.threads.virtual.enabled: worker'lar virtual thread olarak çalışır (Java 21)
+ */
+@Component
+public class GatewayWorkerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayWorkerPool.class);
+
+    private final Map<PaymentProvider, ThreadPoolExecutor> executors = new EnumMap<>(PaymentProvider.class);
+    private final Map<PaymentProvider, Counter> rejections = new EnumMap<>(PaymentProvider.class);
+
+    public GatewayWorkerPool(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${payment.async.default-concurrency:16}") int defaultConcurrency,
+            @Value("${payment.async.default-queue-capacity:200}") int defaultQueueCapacity) {
+
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            String prefix = "payment.async.providers." + provider.name().toLowerCase() + ".";
+            int concurrency = environment.getProperty(prefix + "concurrency", Integer.class, defaultConcurrency);
+            int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, defaultQueueCapacity);
+
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                concurrency, concurrency,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory("payment-" + provider.name().toLowerCase() + "-", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+            executor.allowCoreThreadTimeOut(true);
+            executors.put(provider, executor);
+
+            Gauge.builder("payment.async.queue.depth", executor, e -> e.getQueue().size())
+                .description("Gateway calls waiting for a worker")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+            Gauge.builder("payment.async.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Gateway calls currently in flight")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+            rejections.put(provider, Counter.builder("payment.async.rejected")
+                .description("Gateway calls rejected because the queue was full")
+                .tag("provider", provider.name())
+                .register(meterRegistry));
+
+            logger.info("Gateway worker pool for {}: concurrency={}, queueCapacity={}, virtualThreads={}",
+                provider, concurrency, queueCapacity, virtualThreads);
+        }
+    }
+
+    /**
+     * Provider kuyruğunda yer var mı? (PENDING kayıt oluşturmadan önce ucuz ön kontrol)
+     */
+    public boolean hasCapacity(PaymentProvider provider) {
+        return executors.get(provider).getQueue().remainingCapacity() > 0;
+    }
+
+    /**
+     * Gateway işini provider havuzuna gönder
+     * @throws RejectedExecutionException kuyruk doluysa
+     */
+    public void submit(PaymentProvider provider, Runnable task) {
+        try {
+            executors.get(provider).execute(task);
+        } catch (RejectedExecutionException e) {
+            rejections.get(provider).increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Provider kuyruğunda bekleyen iş sayısı
+     */
+    public int getQueueDepth(PaymentProvider provider) {
+        return executors.get(provider).getQueue().size();
+    }
+
+    /**
+     * Virtual thread'lerde eşzamanlılık sınırı yine havuz boyutudur (bulkhead);
+     * fark, bloklanan gateway çağrısının bir platform thread'i işgal etmemesidir
+     */
+    private static ThreadFactory threadFactory(String prefix, boolean virtualThreads) {
+        return virtualThreads
+            ? new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory()
+            : new CustomizableThreadFactory(prefix);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+        for (Map.Entry<PaymentProvider, ThreadPoolExecutor> entry : executors.entrySet()) {
+            try {
+                if (!entry.getValue().awaitTermination(30, TimeUnit.SECONDS)) {
+                    logger.warn("Gateway worker pool for {} did not drain in time", entry.getKey());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
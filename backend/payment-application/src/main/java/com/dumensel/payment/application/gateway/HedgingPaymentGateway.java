@@ -0,0 +1,45 @@
+package com.dumensel.payment.application.gateway;
+
+import com.dumensel.payment.domain.model.Payment;
+
+import java.util.Optional;
+
+/**
+ * Hedging Payment Gateway
+ * Decorator: checkPaymentStatus ve findCapturedPayment çağrılarını StatusCheckHedger üzerinden yapar
+ *
+ * Sadece saf okumalar hedge edilir; processPayment olduğu gibi delegate'e gider.
+ * findCapturedPayment failover'dan önce ödeme yolunda çağrılır (bkz. PaymentService.failover).
+ */
+public class HedgingPaymentGateway implements PaymentGateway {
+
+    private final StatusCheckHedger.ProviderHedge hedge;
+    private final PaymentGateway delegate;
+
+    HedgingPaymentGateway(StatusCheckHedger.ProviderHedge hedge, PaymentGateway delegate) {
+        this.hedge = hedge;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String processPayment(Payment payment) {
+        return delegate.processPayment(payment);
+    }
+
+    @Override
+    public String checkPaymentStatus(String externalPaymentId) {
+        return hedge.call(() -> delegate.checkPaymentStatus(externalPaymentId));
+    }
+
+    @Override
+    public Optional<String> findCapturedPayment(Payment payment) {
+        return hedge.call(() -> delegate.findCapturedPayment(payment));
+    }
+
+    /**
+     * Sarılan gerçek gateway
+     */
+    public PaymentGateway getDelegate() {
+        return delegate;
+    }
+}
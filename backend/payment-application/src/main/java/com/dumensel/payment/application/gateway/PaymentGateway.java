@@ -1,7 +1,10 @@
 package com.dumensel.payment.application.gateway;
 
+import com.dumensel.payment.application.service.PaymentGatewayException;
 import com.dumensel.payment.domain.model.Payment;
 
+import java.util.Optional;
+
 /**
  * Payment Gateway Interface
  * Infrastructure layer - abstraction for external payment providers
@@ -22,5 +25,16 @@ public interface PaymentGateway {
      * @return Payment status from gateway
      */
     String checkPaymentStatus(String externalPaymentId);
+    
+    /**
+     * Find a captured payment by conversationId (idempotency check before failover)
+     * @param payment Domain payment object
+     * @return External payment ID if captured, empty if the gateway has definitely not captured it
+     * @throws PaymentGatewayException if the outcome cannot be determined
+     */
+    default Optional<String> findCapturedPayment(Payment payment) {
+        throw new PaymentGatewayException("CAPTURE_LOOKUP_UNSUPPORTED",
+            "Gateway does not support capture lookup: " + getClass().getSimpleName());
+    }
 }
 
@@ -21,14 +21,21 @@ public class PaymentGatewayFactory {
     /**
      * Constructor injection ile tüm PaymentGateway implementation'ları alınır
      * Spring otomatik olarak PaymentGateway interface'ini implement eden tüm bean'leri inject eder
+     * 
+     * Her gateway provider'ının bulkhead ve circuit breaker'ı ile sarılır;
+     * getGateway() her zaman sarılmış (resilient) gateway'i döner.
+     * Status sorgusu hedge'i bulkhead'in dışındadır: ilk çağrı ve hedge ayrı ayrı permit alır ve
+     * devre kesiciye ayrı sonuç yazar; cevabı beklenmeyen yavaş çağrı da provider limitine tabidir
      */
-    public PaymentGatewayFactory(List<PaymentGateway> gatewayList) {
+    public PaymentGatewayFactory(List<PaymentGateway> gatewayList,
+                                 GatewayResilienceRegistry resilience,
+                                 StatusCheckHedger hedger) {
         this.gateways = new EnumMap<>(PaymentProvider.class);
         
         // Her gateway'i provider'ına göre map'e koy
         for (PaymentGateway gateway : gatewayList) {
             PaymentProvider provider = detectProvider(gateway);
-            gateways.put(provider, gateway);
+            gateways.put(provider, hedger.decorate(provider, resilience.decorate(provider, gateway)));
         }
     }
 
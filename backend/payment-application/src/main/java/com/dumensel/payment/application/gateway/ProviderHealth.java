@@ -0,0 +1,69 @@
+package com.dumensel.payment.application.gateway;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provider Health
+ * Bir provider'ın canlı, üstel olarak sönümlenen (exponentially decayed) p95 gecikmesi ve onay oranı
+ *
+ * p95: DecayedQuantile ile streaming tahmin.
+ * Onay oranı: EWMA (approved=1, aksi halde 0), double bitleri olarak AtomicLong'da CAS ile güncellenir.
+ */
+class ProviderHealth {
+
+    private final double decay;
+    private final DecayedQuantile p95;
+    private final AtomicLong approvalRateBits = new AtomicLong(Double.doubleToRawLongBits(1.0));
+    private final AtomicLong samples = new AtomicLong();
+
+    /**
+     * @param decay 0-1 arası; büyüdükçe eski örnekler daha hızlı unutulur
+     */
+    ProviderHealth(double decay) {
+        this.decay = decay;
+        this.p95 = new DecayedQuantile(0.95, decay);
+    }
+
+    /**
+     * Tamamlanmış gateway çağrısını kaydet
+     */
+    void recordCall(long latencyNanos, boolean approved) {
+        p95.record(latencyNanos / 1_000_000.0);
+        recordApproval(approved);
+        samples.incrementAndGet();
+    }
+
+    /**
+     * Gateway'e ulaşmadan reddedilen çağrı (devre açık / bulkhead dolu):
+     * gecikme örneği yok, sadece onay oranını düşürür
+     */
+    void recordRejection() {
+        recordApproval(false);
+    }
+
+    private void recordApproval(boolean approved) {
+        double value = approved ? 1.0 : 0.0;
+        long current;
+        long next;
+        do {
+            current = approvalRateBits.get();
+            double rate = Double.longBitsToDouble(current);
+            next = Double.doubleToRawLongBits(rate + decay * (value - rate));
+        } while (!approvalRateBits.compareAndSet(current, next));
+    }
+
+    /**
+     * Tahmini p95 gecikmesi (ms); henüz örnek yoksa NaN
+     */
+    double getP95Millis() {
+        return p95.get();
+    }
+
+    double getApprovalRate() {
+        return Double.longBitsToDouble(approvalRateBits.get());
+    }
+
+    long getSampleCount() {
+        return samples.get();
+    }
+}
@@ -0,0 +1,207 @@
+package com.dumensel.payment.application.gateway;
+
+import com.dumensel.payment.application.service.PaymentGatewayException;
+import com.dumensel.payment.domain.model.PaymentProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Provider Router
+ * provider=AUTO istekleri için canlı p95 gecikme ve onay oranına göre provider seçer
+ *
+ * Her aday için skor = latency-weight * (en iyi p95 / provider p95) + approval-weight * onay oranı;
+ * trafik payı skor^sharpness ile orantılıdır. Her provider en az floor-share kadar pay alır,
+ * böylece yavaşlayan bir banka toparlandığında bu yine ölçülebilir (probe trafiği).
+ * Devresi açık (OPEN) provider'lar, hepsi açık değilse aday olmaz.
+ *
+ * Config (payment.routing.*):
+ * - enabled: AUTO modu açık mı (varsayılan false)
+ * - providers: aday provider'lar (aktif gateway'lerle kesişimi kullanılır)
+ * - latency-weight, approval-weight, sharpness, floor-share, decay
+ *
+ * Metrikler (tag: provider): payment.routing.p95, payment.routing.approval.rate, payment.routing.selected
+ */
+@Component
+public class ProviderRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderRouter.class);
+
+    public static final String AUTO = "AUTO";
+
+    private static final String PREFIX = "payment.routing.";
+
+    private final PaymentGatewayFactory gatewayFactory;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final List<PaymentProvider> candidates;
+    private final double latencyWeight;
+    private final double approvalWeight;
+    private final double sharpness;
+    private final double floorShare;
+    private final Map<PaymentProvider, ProviderHealth> health = new EnumMap<>(PaymentProvider.class);
+
+    public ProviderRouter(Environment environment, MeterRegistry meterRegistry, PaymentGatewayFactory gatewayFactory) {
+        this.gatewayFactory = gatewayFactory;
+        this.meterRegistry = meterRegistry;
+        this.enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, false);
+        this.candidates = List.of(environment.getProperty(PREFIX + "providers", PaymentProvider[].class,
+            new PaymentProvider[] {PaymentProvider.CRAFTGATE, PaymentProvider.AKBANK}));
+        this.latencyWeight = environment.getProperty(PREFIX + "latency-weight", Double.class, 0.4);
+        this.approvalWeight = environment.getProperty(PREFIX + "approval-weight", Double.class, 0.6);
+        this.sharpness = environment.getProperty(PREFIX + "sharpness", Double.class, 3.0);
+        this.floorShare = environment.getProperty(PREFIX + "floor-share", Double.class, 0.05);
+        double decay = environment.getProperty(PREFIX + "decay", Double.class, 0.05);
+
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            ProviderHealth providerHealth = new ProviderHealth(decay);
+            health.put(provider, providerHealth);
+            Gauge.builder("payment.routing.p95", providerHealth, ProviderHealth::getP95Millis)
+                .description("Exponentially decayed p95 gateway latency in milliseconds")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+            Gauge.builder("payment.routing.approval.rate", providerHealth, ProviderHealth::getApprovalRate)
+                .description("Exponentially decayed gateway approval rate")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+        }
+
+        if (enabled) {
+            logger.info("AUTO provider routing enabled: candidates={}, latencyWeight={}, approvalWeight={}, floorShare={}",
+                candidates, latencyWeight, approvalWeight, floorShare);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * AUTO istek için provider seç
+     * @throws IllegalArgumentException AUTO modu kapalıysa veya aktif aday yoksa
+     */
+    public PaymentProvider selectProvider() {
+        if (!enabled) {
+            throw new IllegalArgumentException("AUTO provider routing is disabled");
+        }
+
+        List<PaymentProvider> available = availableCandidates();
+        if (available.isEmpty()) {
+            throw new IllegalArgumentException("No active payment gateway available for AUTO routing");
+        }
+        if (available.size() == 1) {
+            return record(available.get(0));
+        }
+
+        double[] shares = computeShares(available);
+        double pick = ThreadLocalRandom.current().nextDouble();
+        double cumulative = 0;
+        for (int i = 0; i < shares.length; i++) {
+            cumulative += shares[i];
+            if (pick < cumulative) {
+                return record(available.get(i));
+            }
+        }
+        return record(available.get(available.size() - 1));
+    }
+
+    /**
+     * Gateway çağrısı sonucunu kaydet (provider AUTO ile seçilmemiş olsa da)
+     * Fast-fail redleri (GATEWAY_CIRCUIT_OPEN / GATEWAY_BULKHEAD_FULL) gecikme örneği sayılmaz
+     */
+    public void recordOutcome(PaymentProvider provider, long latencyNanos, boolean approved, String errorCode) {
+        ProviderHealth providerHealth = health.get(provider);
+        if (PaymentGatewayException.CIRCUIT_OPEN.equals(errorCode)
+                || PaymentGatewayException.BULKHEAD_FULL.equals(errorCode)) {
+            providerHealth.recordRejection();
+        } else {
+            providerHealth.recordCall(latencyNanos, approved);
+        }
+    }
+
+    /**
+     * Adaylar arasında güncel trafik payları (toplam 1)
+     */
+    public Map<PaymentProvider, Double> getShares() {
+        List<PaymentProvider> available = availableCandidates();
+        Map<PaymentProvider, Double> result = new EnumMap<>(PaymentProvider.class);
+        double[] shares = computeShares(available);
+        for (int i = 0; i < shares.length; i++) {
+            result.put(available.get(i), shares[i]);
+        }
+        return result;
+    }
+
+    double[] computeShares(List<PaymentProvider> available) {
+        int n = available.size();
+        double[] shares = new double[n];
+        if (n == 0) {
+            return shares;
+        }
+
+        double bestP95 = Double.MAX_VALUE;
+        for (PaymentProvider provider : available) {
+            double p95 = health.get(provider).getP95Millis();
+            if (!Double.isNaN(p95)) {
+                bestP95 = Math.min(bestP95, Math.max(p95, 1.0));
+            }
+        }
+
+        double totalWeight = 0;
+        for (int i = 0; i < n; i++) {
+            ProviderHealth providerHealth = health.get(available.get(i));
+            double p95 = providerHealth.getP95Millis();
+            // Örneği olmayan provider en hızlı kabul edilir (iyimser başlangıç)
+            double latencyScore = Double.isNaN(p95) ? 1.0 : bestP95 / Math.max(p95, 1.0);
+            double score = latencyWeight * latencyScore + approvalWeight * providerHealth.getApprovalRate();
+            shares[i] = Math.pow(Math.max(score, 0.0), sharpness);
+            totalWeight += shares[i];
+        }
+
+        double floor = Math.min(floorShare, 1.0 / n);
+        double distributable = 1.0 - floor * n;
+        for (int i = 0; i < n; i++) {
+            double proportional = totalWeight > 0 ? shares[i] / totalWeight : 1.0 / n;
+            shares[i] = floor + distributable * proportional;
+        }
+        return shares;
+    }
+
+    /**
+     * Aktif gateway'i olan adaylar; devresi açık olanlar (hepsi açık değilse) hariç
+     */
+    private List<PaymentProvider> availableCandidates() {
+        Map<PaymentProvider, PaymentGateway> active = gatewayFactory.getActiveGateways();
+        List<PaymentProvider> available = new ArrayList<>();
+        List<PaymentProvider> closedCircuit = new ArrayList<>();
+        for (PaymentProvider provider : candidates) {
+            PaymentGateway gateway = active.get(provider);
+            if (gateway == null) {
+                continue;
+            }
+            available.add(provider);
+            if (gateway instanceof HedgingPaymentGateway hedging) {
+                gateway = hedging.getDelegate();
+            }
+            if (!(gateway instanceof ResilientPaymentGateway resilient)
+                    || resilient.getCircuitBreaker().getState() != GatewayCircuitBreaker.State.OPEN) {
+                closedCircuit.add(provider);
+            }
+        }
+        return closedCircuit.isEmpty() ? available : closedCircuit;
+    }
+
+    private PaymentProvider record(PaymentProvider provider) {
+        meterRegistry.counter("payment.routing.selected", "provider", provider.name()).increment();
+        return provider;
+    }
+}
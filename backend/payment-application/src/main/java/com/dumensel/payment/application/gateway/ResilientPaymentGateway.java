@@ -0,0 +1,129 @@
+package com.dumensel.payment.application.gateway;
+
+import com.dumensel.payment.application.service.PaymentGatewayException;
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.model.PaymentProvider;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Resilient Payment Gateway
+ * Decorator: gerçek gateway'i provider'ın bulkhead'i ve circuit breaker'ı ile sarar
+ *
+ * - Devre açıksa veya bulkhead doluysa istek gateway'e gitmeden
+ *   GATEWAY_CIRCUIT_OPEN / GATEWAY_BULKHEAD_FULL ile reddedilir
+ * - İş kuralı hataları (ret, 3D Secure vb.) devre kesici için hata sayılmaz;
+ *   sadece teknik hatalar (timeout, bağlantı, bilinmeyen exception) sayılır
+ */
+public class ResilientPaymentGateway implements PaymentGateway {
+
+    private final PaymentProvider provider;
+    private final PaymentGateway delegate;
+    private final GatewayBulkhead bulkhead;
+    private final GatewayCircuitBreaker circuitBreaker;
+    private final Set<String> ignoredErrorCodes;
+    private final RejectionListener rejectionListener;
+
+    /**
+     * Fast-fail reddi bildirimi (metrikler için)
+     */
+    @FunctionalInterface
+    public interface RejectionListener {
+        void rejected(PaymentProvider provider, String errorCode);
+    }
+
+    public ResilientPaymentGateway(PaymentProvider provider,
+                                   PaymentGateway delegate,
+                                   GatewayBulkhead bulkhead,
+                                   GatewayCircuitBreaker circuitBreaker,
+                                   Set<String> ignoredErrorCodes,
+                                   RejectionListener rejectionListener) {
+        this.provider = provider;
+        this.delegate = delegate;
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+        this.ignoredErrorCodes = Set.copyOf(ignoredErrorCodes);
+        this.rejectionListener = rejectionListener;
+    }
+
+    @Override
+    public String processPayment(Payment payment) {
+        return execute(() -> delegate.processPayment(payment));
+    }
+
+    @Override
+    public String checkPaymentStatus(String externalPaymentId) {
+        return execute(() -> delegate.checkPaymentStatus(externalPaymentId));
+    }
+
+    @Override
+    public Optional<String> findCapturedPayment(Payment payment) {
+        return execute(() -> delegate.findCapturedPayment(payment));
+    }
+
+    private <T> T execute(Supplier<T> call) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw reject(PaymentGatewayException.CIRCUIT_OPEN,
+                "Circuit breaker is open for provider: " + provider);
+        }
+        if (!acquireBulkhead()) {
+            circuitBreaker.releasePermission();
+            throw reject(PaymentGatewayException.BULKHEAD_FULL,
+                "Too many concurrent calls for provider: " + provider);
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (PaymentGatewayException e) {
+            if (ignoredErrorCodes.contains(e.getErrorCode())) {
+                circuitBreaker.onSuccess(System.nanoTime() - start);
+            } else {
+                circuitBreaker.onError(System.nanoTime() - start);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(System.nanoTime() - start);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private PaymentGatewayException reject(String errorCode, String message) {
+        rejectionListener.rejected(provider, errorCode);
+        return new PaymentGatewayException(errorCode, message);
+    }
+
+    public PaymentProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Sarılan gerçek gateway
+     */
+    public PaymentGateway getDelegate() {
+        return delegate;
+    }
+
+    public GatewayCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public GatewayBulkhead getBulkhead() {
+        return bulkhead;
+    }
+}
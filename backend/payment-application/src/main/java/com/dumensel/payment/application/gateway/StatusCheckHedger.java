@@ -0,0 +1,262 @@
+package com.dumensel.payment.application.gateway;
+
+import com.dumensel.payment.application.service.PaymentGatewayException;
+import com.dumensel.payment.domain.model.PaymentProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Status Check Hedger
+ * Provider sorguları için hedged request: ilk çağrı gözlenen gecikme yüzdeliğini (örn. p90)
+ * aşarsa aynı sorgu ikinci kez gönderilir ve önce dönen cevap kullanılır
+ *
+ * Hedge edilenler saf okumadır, iki kez gönderilmeleri güvenlidir: checkPaymentStatus ve
+ * failover öncesi tahsilat araması (findCapturedPayment; ödeme yolunda, ilk provider zaten yavaşken).
+ * Ek yük provider başına bir token bucket ile sınırlandırılır: her sorgu max-extra-load kadar
+ * token ekler, her hedge bir token harcar (varsayılan: en fazla %10 ek istek).
+ *
+ * Sorgular max-threads ile sınırlı, kuyruksuz bir havuzda çalışır. Havuz doluysa ilk çağrı
+ * çağıran thread'de hedge'siz yapılır, hedge ise gönderilmez (skipped).
+ *
+ * Config (payment.hedging.*):
+ * - enabled, percentile, min-delay-ms, max-extra-load, max-burst, decay, max-threads
+ * - spring.threads.virtual.enabled: hedge çağrıları virtual thread'de çalışır (Java 21)
+ *
+ * Metrikler (tag: provider):
+ * - payment.gateway.hedge.delay (ms), payment.gateway.hedge.sent, payment.gateway.hedge.won
+ * - payment.gateway.hedge.skipped (ek yük limiti veya havuz doldu)
+ */
+@Component
+public class StatusCheckHedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusCheckHedger.class);
+
+    private static final String PREFIX = "payment.hedging.";
+
+    private final boolean enabled;
+    private final ThreadPoolExecutor executor;
+    private final Map<PaymentProvider, ProviderHedge> hedges = new EnumMap<>(PaymentProvider.class);
+
+    public StatusCheckHedger(Environment environment, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, false);
+        double percentile = environment.getProperty(PREFIX + "percentile", Double.class, 0.9);
+        long minDelayMillis = environment.getProperty(PREFIX + "min-delay-ms", Long.class, 50L);
+        double maxExtraLoad = environment.getProperty(PREFIX + "max-extra-load", Double.class, 0.1);
+        int maxBurst = environment.getProperty(PREFIX + "max-burst", Integer.class, 10);
+        double decay = environment.getProperty(PREFIX + "decay", Double.class, 0.05);
+        int maxThreads = environment.getProperty(PREFIX + "max-threads", Integer.class, 32);
+
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        this.executor = new ThreadPoolExecutor(
+            0, maxThreads,
+            60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            virtualThreads
+                ? new VirtualThreadTaskExecutor("payment-hedge-").getVirtualThreadFactory()
+                : new CustomizableThreadFactory("payment-hedge-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            ProviderHedge hedge = new ProviderHedge(provider, new DecayedQuantile(percentile, decay),
+                minDelayMillis, maxExtraLoad, maxBurst, meterRegistry);
+            hedges.put(provider, hedge);
+            Gauge.builder("payment.gateway.hedge.delay", hedge, ProviderHedge::getDelayMillis)
+                .description("Status check latency after which a hedge request is sent, in milliseconds")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+        }
+
+        if (enabled) {
+            logger.info("Status check hedging enabled: percentile={}, minDelayMs={}, maxExtraLoad={}, maxThreads={}",
+                percentile, minDelayMillis, maxExtraLoad, maxThreads);
+        }
+    }
+
+    /**
+     * Gateway'i provider'ın hedge ayarları ile sar; hedging kapalıysa gateway aynen döner
+     */
+    public PaymentGateway decorate(PaymentProvider provider, PaymentGateway gateway) {
+        return enabled ? new HedgingPaymentGateway(hedges.get(provider), gateway) : gateway;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Provider başına gecikme tahmini ve ek yük bütçesi
+     */
+    class ProviderHedge {
+
+        private static final long TOKEN = 1000;
+
+        private final DecayedQuantile latency;
+        private final long minDelayMillis;
+        private final long tokensPerCall;
+        private final long maxTokens;
+        private final AtomicLong tokens = new AtomicLong();
+        private final Counter sent;
+        private final Counter won;
+        private final Counter skipped;
+
+        ProviderHedge(PaymentProvider provider, DecayedQuantile latency, long minDelayMillis,
+                      double maxExtraLoad, int maxBurst, MeterRegistry meterRegistry) {
+            this.latency = latency;
+            this.minDelayMillis = minDelayMillis;
+            this.tokensPerCall = Math.round(maxExtraLoad * TOKEN);
+            this.maxTokens = maxBurst * TOKEN;
+            this.sent = counter(meterRegistry, "payment.gateway.hedge.sent", "Hedge status checks sent", provider);
+            this.won = counter(meterRegistry, "payment.gateway.hedge.won", "Hedge status checks that answered first", provider);
+            this.skipped = counter(meterRegistry, "payment.gateway.hedge.skipped",
+                "Hedges not sent because the extra load budget was used up", provider);
+        }
+
+        <T> T call(Supplier<T> query) {
+            addTokens();
+            CompletableFuture<T> primary;
+            try {
+                primary = CompletableFuture.supplyAsync(timed(query), executor);
+            } catch (RejectedExecutionException e) {
+                skipped.increment();
+                return timed(query).get();
+            }
+            try {
+                return primary.get(getDelayMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (!tryTakeToken()) {
+                    skipped.increment();
+                    return join(primary);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentGatewayException("STATUS_CHECK_INTERRUPTED", "Status check interrupted");
+            } catch (ExecutionException e) {
+                throw unwrap(e.getCause());
+            }
+
+            CompletableFuture<T> hedge;
+            try {
+                hedge = CompletableFuture.supplyAsync(timed(query), executor);
+            } catch (RejectedExecutionException e) {
+                skipped.increment();
+                return join(primary);
+            }
+            sent.increment();
+            return join(firstSuccessful(primary, hedge));
+        }
+
+        /**
+         * İlk başarılı sonucu dön; ikisi de hata verirse ilk çağrının hatası
+         * Kazanan CAS ile belirlenir: hedge.won sonuç çağırana görünmeden önce artırılır
+         */
+        private <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            AtomicBoolean decided = new AtomicBoolean();
+            primary.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (decided.compareAndSet(false, true)) {
+                        result.complete(value);
+                    }
+                } else {
+                    hedge.whenComplete((hedgeValue, hedgeError) -> {
+                        if (hedgeError != null && decided.compareAndSet(false, true)) {
+                            result.completeExceptionally(error);
+                        }
+                    });
+                }
+            });
+            hedge.whenComplete((value, error) -> {
+                if (error == null && decided.compareAndSet(false, true)) {
+                    won.increment();
+                    result.complete(value);
+                }
+            });
+            return result;
+        }
+
+        /**
+         * Hedge gecikmesi: gözlenen yüzdelik, en az min-delay-ms; örnek yoksa min-delay-ms
+         */
+        long getDelayMillis() {
+            double estimate = latency.get();
+            return Double.isNaN(estimate) ? minDelayMillis : Math.max(minDelayMillis, Math.round(estimate));
+        }
+
+        private <T> Supplier<T> timed(Supplier<T> query) {
+            return () -> {
+                long start = System.nanoTime();
+                T result = query.get();
+                latency.record((System.nanoTime() - start) / 1_000_000.0);
+                return result;
+            };
+        }
+
+        private void addTokens() {
+            long current;
+            do {
+                current = tokens.get();
+                if (current >= maxTokens) {
+                    return;
+                }
+            } while (!tokens.compareAndSet(current, Math.min(maxTokens, current + tokensPerCall)));
+        }
+
+        private boolean tryTakeToken() {
+            long current;
+            do {
+                current = tokens.get();
+                if (current < TOKEN) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - TOKEN));
+            return true;
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new PaymentGatewayException("STATUS_CHECK_FAILED", String.valueOf(cause), cause);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String description,
+                                   PaymentProvider provider) {
+        return Counter.builder(name)
+            .description(description)
+            .tag("provider", provider.name())
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,159 @@
+package com.dumensel.payment.application.idempotency;
+
+import com.dumensel.payment.application.cache.ExpiringLruCache;
+import com.dumensel.payment.application.dto.CardInfoDto;
+import com.dumensel.payment.application.dto.CreatePaymentRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Idempotency Service
+ * Idempotency-Key ile tekrar gelen isteğe ilk cevabın byte'larını aynen döner;
+ * PaymentService'e ve payments tablosuna hiç gidilmez
+ *
+ * İki katman:
+ * - sıcak katman: node içi, boyut + TTL sınırlı LRU (mobil client'ların agresif retry'ları)
+ * - kalıcı katman: IdempotencyStore (Postgres, expires_at ile)
+ *
+ * Kayıt (Idempotency-Key, request fingerprint) ile anahtarlanır; aynı key farklı içerikle
+ * gelirse eşleşme olmaz ve istek normal akıştan (conversationId idempotency'si) geçer.
+ *
+ * Config (payment.idempotency.*):
+ * - enabled, ttl-hours, hot-max-entries, hot-ttl-seconds
+ *
+ * Metrikler:
+ * - payment.idempotency.replayed (tag: tier=memory|store), payment.idempotency.stored
+ * - payment.idempotency.hot.size
+ */
+@Component
+public class IdempotencyService {
+
+    private static final String PREFIX = "payment.idempotency.";
+
+    private final IdempotencyStore store;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ExpiringLruCache<String, StoredResponse> hot;
+    private final Counter memoryReplays;
+    private final Counter storeReplays;
+    private final Counter stored;
+
+    public IdempotencyService(IdempotencyStore store, Environment environment, MeterRegistry meterRegistry) {
+        this(store, environment, meterRegistry, Clock.systemUTC());
+    }
+
+    IdempotencyService(IdempotencyStore store, Environment environment, MeterRegistry meterRegistry, Clock clock) {
+        this.store = store;
+        this.clock = clock;
+        this.enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, true);
+        this.ttl = Duration.ofHours(environment.getProperty(PREFIX + "ttl-hours", Long.class, 24L));
+        this.hot = new ExpiringLruCache<>(
+            environment.getProperty(PREFIX + "hot-max-entries", Integer.class, 10_000),
+            Duration.ofSeconds(environment.getProperty(PREFIX + "hot-ttl-seconds", Long.class, 600L)));
+
+        this.memoryReplays = Counter.builder("payment.idempotency.replayed")
+            .description("Requests answered from a stored Idempotency-Key response")
+            .tag("tier", "memory")
+            .register(meterRegistry);
+        this.storeReplays = Counter.builder("payment.idempotency.replayed")
+            .description("Requests answered from a stored Idempotency-Key response")
+            .tag("tier", "store")
+            .register(meterRegistry);
+        this.stored = Counter.builder("payment.idempotency.stored")
+            .description("Responses stored for Idempotency-Key replay")
+            .register(meterRegistry);
+        Gauge.builder("payment.idempotency.hot.size", hot, ExpiringLruCache::size)
+            .description("Entries in the in-memory idempotency tier")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Önce sıcak katman, sonra kalıcı katman; kalıcı katmandan gelen kayıt sıcak katmana alınır
+     */
+    public Optional<StoredResponse> find(String idempotencyKey, String fingerprint) {
+        String cacheKey = cacheKey(idempotencyKey, fingerprint);
+        Optional<StoredResponse> cached = hot.get(cacheKey);
+        if (cached.isPresent()) {
+            memoryReplays.increment();
+            return cached;
+        }
+        
+        Optional<StoredResponse> persisted = store.find(idempotencyKey, fingerprint);
+        persisted.ifPresent(response -> {
+            storeReplays.increment();
+            cacheUntilExpiry(cacheKey, response);
+        });
+        return persisted;
+    }
+
+    /**
+     * Cevabı her iki katmana yaz
+     * @return client'a gönderilecek cevap; eşzamanlı tekrarda önce kaydedilen cevap kazanır
+     */
+    public StoredResponse remember(String idempotencyKey, String fingerprint,
+                                   int httpStatus, String location, byte[] body) {
+        StoredResponse response = new StoredResponse(httpStatus, location, body, clock.instant().plus(ttl));
+        StoredResponse winner = store.saveIfAbsent(idempotencyKey, fingerprint, response);
+        stored.increment();
+        cacheUntilExpiry(cacheKey(idempotencyKey, fingerprint), winner);
+        return winner;
+    }
+
+    private void cacheUntilExpiry(String cacheKey, StoredResponse response) {
+        hot.put(cacheKey, response, Duration.between(clock.instant(), response.expiresAt()));
+    }
+
+    private static String cacheKey(String idempotencyKey, String fingerprint) {
+        return idempotencyKey + '\n' + fingerprint;
+    }
+
+    /**
+     * İstek parmak izi (SHA-256, hex)
+     * CRITICAL: tam kart numarası ve CVV hash'e girmez (PCI-DSS); son 4 hane + son kullanma yeterli
+     *
+     * @param operation endpoint ayrımı (örn. "POST /api/v1/payments")
+     */
+    public static String fingerprint(String operation, CreatePaymentRequest request) {
+        StringBuilder canonical = new StringBuilder()
+            .append(operation).append('|')
+            .append(request.getConversationId()).append('|')
+            .append(request.getAmount() == null ? "" : request.getAmount().stripTrailingZeros().toPlainString()).append('|')
+            .append(request.getCurrency()).append('|')
+            .append(request.getBuyerId()).append('|')
+            .append(request.getProvider());
+        
+        CardInfoDto card = request.getCardInfo();
+        if (card != null) {
+            String cardNumber = card.getCardNumber() == null ? "" : card.getCardNumber();
+            canonical.append('|')
+                .append(cardNumber.length() > 4 ? cardNumber.substring(cardNumber.length() - 4) : "")
+                .append('|').append(card.getExpireMonth())
+                .append('|').append(card.getExpireYear())
+                .append('|').append(card.getCardHolderName());
+        }
+        
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
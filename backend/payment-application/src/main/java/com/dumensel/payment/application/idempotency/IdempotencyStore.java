@@ -0,0 +1,23 @@
+package com.dumensel.payment.application.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Idempotency Store Interface
+ * Idempotency-Key ile gelen isteklerin cevaplarının kalıcı (node'lar arası) kaydı
+ *
+ * Infrastructure layer will implement this
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Süresi dolmamış kayıt; (key, fingerprint) ikilisi ile aranır
+     */
+    Optional<StoredResponse> find(String idempotencyKey, String fingerprint);
+
+    /**
+     * Cevabı kaydet; aynı (key, fingerprint) için ilk yazılan kayıt kalır
+     * @return kalıcı kayıttaki cevap (eşzamanlı tekrarda diğer isteğin cevabı olabilir)
+     */
+    StoredResponse saveIfAbsent(String idempotencyKey, String fingerprint, StoredResponse response);
+}
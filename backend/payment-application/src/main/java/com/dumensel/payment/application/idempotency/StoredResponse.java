@@ -0,0 +1,12 @@
+package com.dumensel.payment.application.idempotency;
+
+import java.time.Instant;
+
+/**
+ * Kaydedilmiş HTTP cevabı
+ * body, client'a ilk gönderilen serialize edilmiş byte'ların aynısıdır
+ *
+ * @param location Location header (yoksa null)
+ */
+public record StoredResponse(int httpStatus, String location, byte[] body, Instant expiresAt) {
+}
@@ -0,0 +1,19 @@
+package com.dumensel.payment.application.queue;
+
+import com.dumensel.payment.domain.model.Payment;
+
+/**
+ * Payment Job Queue Interface
+ * Durable (kalıcı) gateway iş kuyruğu - birden fazla node arasında iş dağıtımı için
+ *
+ * Infrastructure layer will implement this
+ */
+public interface PaymentJobQueue {
+
+    /**
+     * PENDING ödeme için gateway işini kuyruğa ekle
+     * Çağıranın transaction'ına katılır: ödeme kaydı ile iş kaydı birlikte commit edilir
+     * Kart bilgisi iş kaydında şifreli saklanır ve gateway çağrısı başlarken veya iş kapanırken silinir
+     */
+    void enqueue(Payment payment);
+}
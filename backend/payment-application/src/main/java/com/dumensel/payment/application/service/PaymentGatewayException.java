@@ -4,6 +4,13 @@ package com.dumensel.payment.application.service;
  * Exception thrown when payment gateway operations fail
  */
 public class PaymentGatewayException extends RuntimeException {
+
+    /** Provider circuit breaker açık; istek gateway'e gönderilmedi */
+    public static final String CIRCUIT_OPEN = "GATEWAY_CIRCUIT_OPEN";
+
+    /** Provider eşzamanlılık limiti ve bekleme kuyruğu dolu; istek gateway'e gönderilmedi */
+    public static final String BULKHEAD_FULL = "GATEWAY_BULKHEAD_FULL";
+
     private final String errorCode;
 
     public PaymentGatewayException(String errorCode, String message) {
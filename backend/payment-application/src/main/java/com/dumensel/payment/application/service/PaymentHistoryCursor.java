@@ -0,0 +1,43 @@
+package com.dumensel.payment.application.service;
+
+import com.dumensel.payment.domain.model.Payment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for buyer payment history
+ * Sayfanın son ödemesinin (createdAt, id) çifti; istemci içeriğini yorumlamaz, olduğu gibi geri gönderir
+ */
+record PaymentHistoryCursor(LocalDateTime createdAt, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    static PaymentHistoryCursor of(Payment payment) {
+        return new PaymentHistoryCursor(payment.getCreatedAt(), payment.getId());
+    }
+
+    String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException cursor bu servis tarafından üretilmemişse
+     */
+    static PaymentHistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid payment history cursor");
+            }
+            return new PaymentHistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid payment history cursor", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.dumensel.payment.application.service;
+
+/**
+ * Exception thrown when the async worker queue of a provider is full
+ */
+public class PaymentQueueFullException extends RuntimeException {
+    private final String provider;
+
+    public PaymentQueueFullException(String provider, String message) {
+        super(message);
+        this.provider = provider;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+}
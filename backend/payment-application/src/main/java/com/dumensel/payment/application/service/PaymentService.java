@@ -1,14 +1,27 @@
 package com.dumensel.payment.application.service;
 
+import com.dumensel.payment.application.cache.FinalPaymentCache;
 import com.dumensel.payment.application.dto.*;
+import com.dumensel.payment.application.gateway.GatewayFailoverPolicy;
+import com.dumensel.payment.application.gateway.GatewayWorkerPool;
 import com.dumensel.payment.application.gateway.PaymentGateway;
 import com.dumensel.payment.application.gateway.PaymentGatewayFactory;
+import com.dumensel.payment.application.gateway.ProviderRouter;
+import com.dumensel.payment.application.queue.PaymentJobQueue;
 import com.dumensel.payment.domain.model.*;
 import com.dumensel.payment.domain.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 /**
  * Payment Application Service
@@ -17,64 +30,360 @@ import java.util.Optional;
 @Service
 public class PaymentService {
     
+    private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
+    
+    static final int MAX_HISTORY_PAGE_SIZE = 100;
+    
+    // Gateway PaymentGatewayException dışında bir hata fırlattı (NPE, mapping, executor reddi vb.)
+    static final String GATEWAY_INTERNAL_ERROR = "GATEWAY_INTERNAL_ERROR";
+    
     private final PaymentRepository paymentRepository;
     private final PaymentGatewayFactory gatewayFactory;
+    private final ProviderRouter providerRouter;
+    private final GatewayFailoverPolicy failoverPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Optional<FinalPaymentCache> paymentCache;
+    private final GatewayWorkerPool workerPool;
+    private final Optional<PaymentJobQueue> jobQueue;
+    private final SingleFlight<PaymentResponse> createFlights = new SingleFlight<>();
 
+    /**
+     * jobQueue sadece payment.jobs.enabled=true iken mevcuttur;
+     * yoksa asenkron ödemeler bu node'un GatewayWorkerPool'unda işlenir.
+     * paymentCache, cache veya invalidation bus kapalıyken yoktur
+     */
     public PaymentService(PaymentRepository paymentRepository, 
-                         PaymentGatewayFactory gatewayFactory) {
+                         PaymentGatewayFactory gatewayFactory,
+                         ProviderRouter providerRouter,
+                         GatewayFailoverPolicy failoverPolicy,
+                         PlatformTransactionManager transactionManager,
+                         Optional<FinalPaymentCache> paymentCache,
+                         GatewayWorkerPool workerPool,
+                         Optional<PaymentJobQueue> jobQueue) {
         this.paymentRepository = paymentRepository;
         this.gatewayFactory = gatewayFactory;
+        this.providerRouter = providerRouter;
+        this.failoverPolicy = failoverPolicy;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.paymentCache = paymentCache;
+        this.workerPool = workerPool;
+        this.jobQueue = jobQueue;
     }
 
     /**
      * Ödeme oluşturma use case
      * İdempotency: Aynı conversationId ile gelen istekler için aynı sonuç döner
+     *
+     * Gateway çağrısı (yüzlerce ms) sırasında DB bağlantısı tutulmaz:
+     * 1. reserve  - kısa transaction: idempotency kontrolü + PENDING kayıt
+     * 2. gateway  - transaction dışında, bağlantı havuzundan bağımsız
+     * 3. finalize - kısa transaction: sonucun kaydı
+     *
+     * Aynı conversationId ile eşzamanlı gelen istekler (çift tıklama, client retry)
+     * ilk isteğin sonucunu bekler; gateway'e sadece bir kez gidilir
      */
-    @Transactional
     public PaymentResponse createPayment(CreatePaymentRequest request) {
+        return createFlights.execute(request.getConversationId(), () -> doCreatePayment(request));
+    }
+
+    private PaymentResponse doCreatePayment(CreatePaymentRequest request) {
+        Reservation reservation = reserve(request);
+        
+        if (!reservation.created()) {
+            // Aynı istek daha önce yapılmış, mevcut sonucu dön
+            return mapToResponse(reservation.payment());
+        }
+        
+        Payment payment = processThroughGateway(reservation.payment());
+        return mapToResponse(payment);
+    }
+
+    /**
+     * Asenkron ödeme oluşturma use case
+     * PENDING kaydı oluşturur ve hemen döner; gateway çağrısı provider'ın worker havuzunda çalışır.
+     * Client sonucu GET /payments/{id} veya /by-conversation/{conversationId} ile sorgular.
+     */
+    public PaymentResponse submitPayment(CreatePaymentRequest request) {
+        if (jobQueue.isPresent()) {
+            return submitToJobQueue(request, jobQueue.get());
+        }
+        
+        // Tekrar gelen istek için routing yapılmaz ve kuyruk kontrolüne takılmaz
+        Optional<Payment> existingPayment = readOnlyTransactionTemplate.execute(status ->
+            paymentRepository.findByConversationId(request.getConversationId()));
+        if (existingPayment.isPresent()) {
+            return mapToResponse(existingPayment.get());
+        }
+        
+        PaymentProvider provider = resolveProvider(request);
+        
+        // Kuyruk doluysa PENDING kayıt oluşturmadan reddet (client aynı conversationId ile tekrar deneyebilir)
+        if (!workerPool.hasCapacity(provider)) {
+            throw new PaymentQueueFullException(provider.name(),
+                "Payment queue is full for provider: " + provider);
+        }
+        
+        Reservation reservation = reserve(request, () -> provider);
+        Payment payment = reservation.payment();
+        
+        if (!reservation.created()) {
+            return mapToResponse(payment);
+        }
+        
+        // Response worker başlamadan map'lenir; payment nesnesi worker thread'inde değişecek
+        PaymentResponse response = mapToResponse(payment);
+        
+        try {
+            workerPool.submit(provider, () -> processAsync(payment));
+        } catch (RejectedExecutionException e) {
+            // Ön kontrol ile submit arasında kuyruk doldu (nadir yarış durumu)
+            payment.markAsFailed("PAYMENT_QUEUE_FULL", "Payment queue is full for provider: " + provider);
+            return mapToResponse(finalizePayment(payment));
+        }
+        
+        return response;
+    }
+
+    /**
+     * Durable kuyruk modu: PENDING kayıt ve iş kaydı aynı transaction'da yazılır,
+     * gateway çağrısını herhangi bir node'un worker'ı yapar
+     */
+    private PaymentResponse submitToJobQueue(CreatePaymentRequest request, PaymentJobQueue queue) {
+        Reservation reservation = transactionTemplate.execute(status -> {
+            Reservation result = reserveInCurrentTransaction(request, () -> resolveProvider(request));
+            if (result.created()) {
+                queue.enqueue(result.payment());
+            }
+            return result;
+        });
+        return mapToResponse(reservation.payment());
+    }
+
+    /**
+     * Rezerve edilmiş (PENDING) ödemeyi gateway'e gönderir ve sonucu kaydeder
+     * Durable kuyruk worker'ı tarafından kullanılır; payment kart bilgisini içermelidir
+     */
+    public Payment completePayment(Payment payment) {
+        return processThroughGateway(payment);
+    }
+
+    /**
+     * Worker thread'inde çalışan gateway fazı
+     */
+    private void processAsync(Payment payment) {
+        try {
+            processThroughGateway(payment);
+        } catch (RuntimeException e) {
+            // Ödeme FAILED olarak kaydedildi (kayıt da yazılamadıysa PENDING kaldı, reconciliation gerekir)
+            logger.error("Async payment processing failed. PaymentId: {}, ConversationId: {}",
+                payment.getId(), payment.getConversationId(), e);
+        }
+    }
+
+    /**
+     * Faz 1: İdempotency kontrolü ve PENDING kayıt (kısa transaction)
+     * Provider sadece yeni kayıt oluşturulacaksa çözülür: tekrar gelen AUTO istekleri routing'e sayılmaz
+     */
+    private Reservation reserve(CreatePaymentRequest request) {
+        return reserve(request, () -> resolveProvider(request));
+    }
+
+    private Reservation reserve(CreatePaymentRequest request, Supplier<PaymentProvider> provider) {
+        return transactionTemplate.execute(status -> reserveInCurrentTransaction(request, provider));
+    }
+
+    private Reservation reserveInCurrentTransaction(CreatePaymentRequest request, Supplier<PaymentProvider> provider) {
         // İdempotency kontrolü: Daha önce bu conversationId ile ödeme yapılmış mı?
         Optional<Payment> existingPayment = paymentRepository
             .findByConversationId(request.getConversationId());
         
         if (existingPayment.isPresent()) {
-            // Aynı istek daha önce yapılmış, mevcut sonucu dön
-            return mapToResponse(existingPayment.get());
+            return new Reservation(existingPayment.get(), false);
         }
-
+        
         // DTO'dan Domain Model'e dönüşüm
-        Payment payment = createPaymentFromRequest(request);
+        Payment payment = createPaymentFromRequest(request, provider.get());
         
         // Ödemeyi veritabanına kaydet (PENDING durumunda)
-        payment = paymentRepository.save(payment);
-        
+        // conversationId'yi aynı anda başka bir istek/node aldıysa onun kaydı dönülür, gateway'e gidilmez
+        // NOT: kart bilgisi payments tablosuna yazılmaz, gateway için bellekteki nesne kullanılır.
+        // Durable kuyrukta (PaymentJobQueue) kart şifreli olarak sadece gateway çağrısı başlayana kadar tutulur
+        if (!paymentRepository.saveIfAbsent(payment)) {
+            Payment claimed = paymentRepository.findByConversationId(request.getConversationId())
+                .orElseThrow(() -> new IllegalStateException(
+                    "Conversation claimed but payment not found: " + request.getConversationId()));
+            return new Reservation(claimed, false);
+        }
+        return new Reservation(payment, true);
+    }
+
+    /**
+     * Faz 2 + 3: Gateway çağrısı (transaction dışında) ve sonucun kaydı
+     * Teknik hatada failover zincirindeki sonraki provider denenir
+     *
+     * PENDING kayıt reserve'de ayrı transaction'da commit edildiği için beklenmeyen bir hata (NPE, mapping,
+     * executor reddi) rollback ile geri alınmaz: ödeme GATEWAY_INTERNAL_ERROR ile FAILED kaydedilir ve hata
+     * yeniden fırlatılır; aynı conversationId ile tekrar deneyen client asılı bir PENDING kayıt almaz
+     */
+    private Payment processThroughGateway(Payment payment) {
         try {
+            callGateway(payment);
+        } catch (RuntimeException e) {
+            logger.error("Unexpected gateway error, marking payment as failed. PaymentId: {}, Provider: {}",
+                payment.getId(), payment.getProvider(), e);
+            if (payment.getStatus() == PaymentStatus.PENDING) {
+                payment.markAsFailed(GATEWAY_INTERNAL_ERROR, "Unexpected gateway error: " + e);
+            }
+            try {
+                finalizePayment(payment);
+            } catch (RuntimeException finalizeError) {
+                e.addSuppressed(finalizeError);
+            }
+            throw e;
+        }
+        return finalizePayment(payment);
+    }
+
+    private void callGateway(Payment payment) {
+        while (true) {
             // Provider'a göre doğru gateway'i seç
             PaymentGateway gateway = gatewayFactory.getGateway(payment.getProvider());
-            
-            // Payment Gateway'e istek gönder
-            String externalPaymentId = gateway.processPayment(payment);
-            
-            // Başarılı ödeme
-            payment.markAsSuccess(externalPaymentId);
-            payment = paymentRepository.save(payment);
-            
-        } catch (PaymentGatewayException e) {
-            // Ödeme başarısız
-            payment.markAsFailed(e.getErrorCode(), e.getMessage());
-            payment = paymentRepository.save(payment);
+            long start = System.nanoTime();
+            try {
+                // Payment Gateway'e istek gönder
+                String externalPaymentId = gateway.processPayment(payment);
+                providerRouter.recordOutcome(payment.getProvider(), System.nanoTime() - start, true, null);
+                
+                // Başarılı ödeme
+                payment.markAsSuccess(externalPaymentId);
+                break;
+                
+            } catch (PaymentGatewayException e) {
+                providerRouter.recordOutcome(payment.getProvider(), System.nanoTime() - start, false, e.getErrorCode());
+                
+                if (failover(payment, gateway, e)) {
+                    continue;
+                }
+                
+                // Ödeme başarısız (failover sırasında tahsilat bulunduysa zaten SUCCESS'tir)
+                if (payment.getStatus() == PaymentStatus.PENDING) {
+                    payment.markAsFailed(e.getErrorCode(), e.getMessage());
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * İkincil provider'a geçiş
+     * İdempotency koruması: istek ilk provider'a ulaşmış olabilirse önce orada tahsilat aranır;
+     * tahsilat varsa ödeme SUCCESS olur, sonuç bilinmiyorsa aktarılmaz. Yeni provider denemesi
+     * gateway çağrısından önce kaydedilir, böylece aynı ödeme hiçbir provider'a iki kez gitmez.
+     * @return true ise payment yeni provider'a taşındı
+     */
+    private boolean failover(Payment payment, PaymentGateway failedGateway, PaymentGatewayException error) {
+        Optional<PaymentProvider> next = failoverPolicy.nextProvider(payment, error.getErrorCode());
+        if (next.isEmpty()) {
+            return false;
         }
         
-        return mapToResponse(payment);
+        PaymentProvider failed = payment.getProvider();
+        if (failoverPolicy.requiresCaptureCheck(error.getErrorCode())) {
+            try {
+                Optional<String> captured = failedGateway.findCapturedPayment(payment);
+                if (captured.isPresent()) {
+                    logger.warn("Payment captured by {} despite {}. PaymentId: {}",
+                        failed, error.getErrorCode(), payment.getId());
+                    payment.markAsSuccess(captured.get());
+                    return false;
+                }
+            } catch (PaymentGatewayException e) {
+                logger.warn("Capture lookup failed on {}, not failing over. PaymentId: {}, Error: {}",
+                    failed, payment.getId(), e.getErrorCode());
+                failoverPolicy.recordBlocked(failed, "capture_unknown");
+                return false;
+            }
+        }
+        
+        logger.info("Failing over payment {} from {} to {} after {}",
+            payment.getId(), failed, next.get(), error.getErrorCode());
+        payment.failoverTo(next.get());
+        finalizePayment(payment);
+        failoverPolicy.recordFailover(failed, next.get());
+        return true;
+    }
+
+    /**
+     * provider=AUTO ise canlı gecikme / onay oranına göre seç, aksi halde istenen provider
+     */
+    private PaymentProvider resolveProvider(CreatePaymentRequest request) {
+        if (ProviderRouter.AUTO.equals(request.getProvider())) {
+            return providerRouter.selectProvider();
+        }
+        return PaymentProvider.valueOf(request.getProvider());
+    }
+
+    /**
+     * Faz 3: Ödeme sonucunu kaydet (kısa transaction)
+     */
+    private Payment finalizePayment(Payment payment) {
+        Payment saved = transactionTemplate.execute(status -> paymentRepository.save(payment));
+        // Commit sonrası: final durumlar arası geçişte (örn. refund) cache'teki eski sonuç silinir
+        paymentCache.ifPresent(cache -> cache.invalidate(payment.getId()));
+        return saved;
     }
 
     /**
      * Ödeme sorgulama
+     * Sonuçlanmış ödemeler node içi cache'ten dönülür; cache hit'te transaction açılmaz
      */
-    @Transactional(readOnly = true)
     public PaymentResponse getPayment(String paymentId) {
-        Payment payment = paymentRepository.findById(paymentId)
-            .orElseThrow(() -> new PaymentNotFoundException("Payment not found: " + paymentId));
-        return mapToResponse(payment);
+        Supplier<PaymentResponse> loader = () -> readOnlyTransactionTemplate.execute(status -> {
+            Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new PaymentNotFoundException("Payment not found: " + paymentId));
+            return mapToResponse(payment);
+        });
+        return paymentCache.map(cache -> cache.getOrLoad(paymentId, loader)).orElseGet(loader);
+    }
+
+    /**
+     * Ödemenin versiyonu (updatedAt) - conditional GET için
+     * Sonuçlanmış ödemede cache'ten, aksi halde sadece updated_at kolonu okunur; ödeme yüklenmez/map'lenmez
+     */
+    public Optional<LocalDateTime> getPaymentVersion(String paymentId) {
+        Optional<PaymentResponse> cached = paymentCache.flatMap(cache -> cache.getIfPresent(paymentId));
+        if (cached.isPresent()) {
+            return Optional.ofNullable(cached.get().getUpdatedAt());
+        }
+        return readOnlyTransactionTemplate.execute(status -> paymentRepository.findUpdatedAtById(paymentId));
+    }
+
+    /**
+     * Alıcının ödeme geçmişi - en yeniden eskiye, keyset pagination
+     * limit+1 kayıt okunur; fazladan kayıt varsa son kaydın (createdAt, id) çifti sonraki sayfanın cursor'ıdır
+     * @param after önceki sayfanın nextCursor değeri, ilk sayfa için null
+     */
+    @Transactional(readOnly = true)
+    public PaymentHistoryPage getPaymentHistory(String buyerId, String after, int limit) {
+        if (buyerId == null || buyerId.isBlank()) {
+            throw new IllegalArgumentException("buyerId is required");
+        }
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        PaymentHistoryCursor cursor = after == null || after.isBlank() ? null : PaymentHistoryCursor.decode(after);
+        List<Payment> payments = paymentRepository.findPageByBuyerId(buyerId,
+            cursor == null ? null : cursor.createdAt(),
+            cursor == null ? null : cursor.id(),
+            limit + 1);
+        
+        boolean hasMore = payments.size() > limit;
+        List<Payment> page = hasMore ? payments.subList(0, limit) : payments;
+        String nextCursor = hasMore ? PaymentHistoryCursor.of(page.get(limit - 1)).encode() : null;
+        return new PaymentHistoryPage(page.stream().map(this::mapToResponse).toList(), nextCursor);
     }
 
     /**
@@ -87,7 +396,7 @@ public class PaymentService {
     }
 
     // DTO <-> Domain dönüşümleri
-    private Payment createPaymentFromRequest(CreatePaymentRequest request) {
+    private Payment createPaymentFromRequest(CreatePaymentRequest request, PaymentProvider provider) {
         Money amount = new Money(
             request.getAmount(),
             Currency.valueOf(request.getCurrency())
@@ -102,7 +411,6 @@ public class PaymentService {
         );
         
         PaymentMethod paymentMethod = new PaymentMethod(PaymentType.CREDIT_CARD, cardInfo);
-        PaymentProvider provider = PaymentProvider.valueOf(request.getProvider());
         
         return new Payment(
             request.getConversationId(),
@@ -123,10 +431,19 @@ public class PaymentService {
         response.setProvider(payment.getProvider().name());
         response.setBuyerId(payment.getBuyerId());
         response.setCreatedAt(payment.getCreatedAt());
+        response.setUpdatedAt(payment.getUpdatedAt());
         response.setExternalPaymentId(payment.getExternalPaymentId());
         response.setErrorMessage(payment.getErrorMessage());
         response.setErrorCode(payment.getErrorCode());
+        response.setAttemptedProviders(payment.getAttemptedProviders().stream()
+            .map(PaymentProvider::name)
+            .toList());
         return response;
     }
-}
 
+    /**
+     * reserve() sonucu: kayıt yeni mi oluşturuldu, yoksa idempotent tekrar mı?
+     */
+    private record Reservation(Payment payment, boolean created) {
+    }
+}
@@ -0,0 +1,211 @@
+package com.dumensel.payment.application.service;
+
+import com.dumensel.payment.application.dto.UserPointsDto;
+import com.dumensel.payment.domain.model.PointsEntryType;
+import com.dumensel.payment.domain.model.PointsLedgerEntry;
+import com.dumensel.payment.domain.model.UserPoints;
+import com.dumensel.payment.domain.repository.UserPointsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Points Group Committer
+ * Opt-in (payment.points.group-commit.enabled): eşzamanlı earn / spend istekleri tek tek commit edilmek yerine
+ * kuyrukta toplanır; ilk işlemden sonra window-ms içinde (veya max-batch-size işlem dolunca) gelenler
+ * tek transaction'da uygulanır:
+ * 1. Batch'teki kullanıcıların kayıtları user_id sırasıyla kilitlenir, bakiyeleri bir kez okunur
+ * 2. İşlemler geliş sırasıyla kullanıcının bakiyesine UserPoints kuralları ile tek tek uygulanır;
+ *    kurala uymayan işlem (örn. yetersiz bakiye) sadece kendi çağıranına hata döner, batch'i bozmaz
+ * 3. Kabul edilen entry'ler tek çok satırlı INSERT ile ledger'a eklenir, tek commit
+ * Çağıranlar commit'ten sonra kendi işlemlerinin sonrasındaki bakiye ile uyandırılır; transaction hatasında
+ * batch'teki tüm işlemler hata alır (hiçbiri uygulanmamıştır).
+ *
+ * Kuyruk doluysa işlem çağıran thread'de tek başına (aynı yol ile) uygulanır.
+ * Metrikler: payment.points.group-commit.batch.size, payment.points.group-commit.overflow
+ */
+@Component
+@ConditionalOnProperty(name = "payment.points.group-commit.enabled", havingValue = "true")
+public class PointsGroupCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PointsGroupCommitter.class);
+
+    private final UserPointsRepository userPointsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingOperation> queue;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ExecutorService flusher;
+    private final DistributionSummary batchSizes;
+    private final Counter overflows;
+    private volatile boolean running = true;
+
+    public PointsGroupCommitter(UserPointsRepository userPointsRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${payment.points.group-commit.window-ms:2}") long windowMs,
+                                @Value("${payment.points.group-commit.max-batch-size:256}") int maxBatchSize,
+                                @Value("${payment.points.group-commit.queue-capacity:10000}") int queueCapacity) {
+        if (windowMs < 0 || maxBatchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException(
+                "payment.points.group-commit window-ms must be >= 0, max-batch-size and queue-capacity >= 1");
+        }
+        this.userPointsRepository = userPointsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = DistributionSummary.builder("payment.points.group-commit.batch.size")
+            .description("Points operations committed together in one transaction")
+            .register(meterRegistry);
+        this.overflows = Counter.builder("payment.points.group-commit.overflow")
+            .description("Points operations applied alone because the group commit queue was full")
+            .register(meterRegistry);
+
+        this.flusher = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("points-group-commit-"));
+        flusher.execute(this::flushLoop);
+    }
+
+    /**
+     * İşlemi bir sonraki batch'e ekler ve commit edilene kadar bekler
+     * @return işlem sonrası bakiye
+     * @throws UserPointsNotFoundException kayıt yoksa (EARN hariç)
+     * @throws IllegalStateException işlem UserPoints kuralını ihlal ediyorsa
+     */
+    public UserPointsDto apply(PointsLedgerEntry entry) {
+        PendingOperation operation = new PendingOperation(entry, new CompletableFuture<>());
+        if (!running || !queue.offer(operation)) {
+            overflows.increment();
+            commit(List.of(operation));
+        }
+        try {
+            return operation.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingOperation> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingOperation next = remaining > 0
+                        ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                        : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Interrupt bayrağı temizlenir: kalanların commit'i JDBC çağrısı yapacak
+            Thread.interrupted();
+        }
+        // Kapanış: bekleyen çağıranlar boşta kalmasın
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            commit(batch);
+        }
+    }
+
+    private void commit(List<PendingOperation> batch) {
+        batchSizes.record(batch.size());
+        List<Runnable> completions;
+        try {
+            completions = transactionTemplate.execute(status -> applyBatch(batch));
+        } catch (RuntimeException e) {
+            logger.error("Points group commit of {} operations failed: {}", batch.size(), e.getMessage());
+            batch.forEach(operation -> operation.result().completeExceptionally(e));
+            return;
+        }
+        // Sonuçlar commit'ten sonra teslim edilir
+        completions.forEach(Runnable::run);
+    }
+
+    private List<Runnable> applyBatch(List<PendingOperation> batch) {
+        TreeSet<String> userIds = batch.stream()
+            .map(operation -> operation.entry().getUserId())
+            .collect(Collectors.toCollection(TreeSet::new));
+        Map<String, UserPoints> balances = new HashMap<>(userPointsRepository.lockBalances(userIds));
+
+        List<PointsLedgerEntry> accepted = new ArrayList<>(batch.size());
+        List<Runnable> completions = new ArrayList<>(batch.size());
+        for (PendingOperation operation : batch) {
+            PointsLedgerEntry entry = operation.entry();
+            CompletableFuture<UserPointsDto> result = operation.result();
+            UserPoints current = balances.get(entry.getUserId());
+            if (current == null && entry.getType() == PointsEntryType.EARN) {
+                current = new UserPoints(entry.getUserId());
+                balances.put(entry.getUserId(), current);
+            }
+            if (current == null) {
+                RuntimeException notFound = new UserPointsNotFoundException(
+                    "User points not found for userId: " + entry.getUserId());
+                completions.add(() -> result.completeExceptionally(notFound));
+                continue;
+            }
+            try {
+                entry.applyTo(current);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                completions.add(() -> result.completeExceptionally(e));
+                continue;
+            }
+            accepted.add(entry);
+            UserPointsDto balance = UserPointsService.mapToDto(current);
+            completions.add(() -> result.complete(balance));
+        }
+        if (!accepted.isEmpty()) {
+            userPointsRepository.recordAll(accepted);
+        }
+        return completions;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        flusher.shutdownNow();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        // Flusher son drain'den sonra kuyruğa girmiş olanlar
+        List<PendingOperation> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            commit(remaining);
+        }
+    }
+
+    private record PendingOperation(PointsLedgerEntry entry, CompletableFuture<UserPointsDto> result) {
+    }
+}
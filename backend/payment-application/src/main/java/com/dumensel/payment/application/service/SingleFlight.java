@@ -0,0 +1,53 @@
+package com.dumensel.payment.application.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight
+ * Aynı anahtarla eşzamanlı gelen çağrılardan sadece ilki (leader) çalışır;
+ * diğerleri leader'ın sonucunu (veya hatasını) bekleyip aynısını alır.
+ *
+ * Sadece bu node içinde geçerlidir; node'lar arası koruma repository'deki
+ * conversation_id claim'i (INSERT ... ON CONFLICT DO NOTHING) ile sağlanır.
+ */
+class SingleFlight<T> {
+
+    private final ConcurrentHashMap<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+
+    T execute(String key, Supplier<T> call) {
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        CompletableFuture<T> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return await(leader);
+        }
+        
+        try {
+            T result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Sonuç kalıcı olarak saklanmaz: sonraki istekler DB'deki idempotency kaydına düşer
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private T await(CompletableFuture<T> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.dumensel.payment.application.service;
 
 import com.dumensel.payment.application.dto.*;
+import com.dumensel.payment.domain.model.PointsEntryType;
+import com.dumensel.payment.domain.model.PointsLedgerEntry;
 import com.dumensel.payment.domain.model.UserPoints;
 import com.dumensel.payment.domain.repository.UserPointsRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 /**
  * UserPoints Application Service
  * Orchestrates user points use cases and handles transactions
@@ -14,60 +19,71 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserPointsService {
     
     private final UserPointsRepository userPointsRepository;
+    private final Optional<PointsGroupCommitter> groupCommitter;
 
-    public UserPointsService(UserPointsRepository userPointsRepository) {
+    /**
+     * groupCommitter sadece payment.points.group-commit.enabled=true iken mevcuttur;
+     * yoksa her earn / spend kendi transaction'ında commit edilir
+     */
+    public UserPointsService(UserPointsRepository userPointsRepository,
+                             Optional<PointsGroupCommitter> groupCommitter) {
         this.userPointsRepository = userPointsRepository;
+        this.groupCommitter = groupCommitter;
     }
 
     /**
      * Kullanıcı puan sorgulama use case
      * Kullanıcının mevcut puan durumunu getirir
+     * Kaydı olmayan kullanıcı sıfır bakiye ile döner; okuma yolu kayıt oluşturmaz
+     * (read-only transaction replica'ya yönlenebilir, kayıt ilk kazanımda oluşur)
      */
     @Transactional(readOnly = true)
     public UserPointsDto getUserPoints(String userId) {
-        UserPoints userPoints = userPointsRepository.findByUserId(userId)
-            .orElseGet(() -> {
-                // Kullanıcının puan kaydı yoksa yeni bir tane oluştur
-                UserPoints newUserPoints = new UserPoints(userId);
-                return userPointsRepository.save(newUserPoints);
-            });
-        
-        return mapToDto(userPoints);
+        return userPointsRepository.findByUserId(userId)
+            .map(UserPointsService::mapToDto)
+            .orElseGet(() -> emptyBalance(userId));
+    }
+
+    /**
+     * Puan kaydının versiyonu (lastUpdated) - conditional GET için
+     * Kayıt yüklenmez/map'lenmez; kayıt yoksa boş döner
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getUserPointsVersion(String userId) {
+        return userPointsRepository.findLastUpdatedByUserId(userId);
     }
 
     /**
      * Puan kazanma use case
-     * Başarılı ödeme sonrası puan eklenir
+     * Başarılı ödeme sonrası puan eklenir; kayıt yoksa oluşturulur
+     * Atomik: kazanım ledger'a eklenir, eşzamanlı kazanımlar birbirini ezmez
+     * Transaction repository'de (tek statement); group commit modunda çağıran bağlantı tutmadan batch'i bekler
      */
-    @Transactional
     public UserPointsDto earnPoints(EarnPointsRequest request) {
-        UserPoints userPoints = userPointsRepository.findByUserId(request.getUserId())
-            .orElseGet(() -> new UserPoints(request.getUserId()));
+        UserPoints.requirePositive(request.getPoints());
         
-        // Domain logic: Puan kazanma
-        userPoints.earnPoints(request.getPoints());
-        
-        // Save and return
-        userPoints = userPointsRepository.save(userPoints);
-        return mapToDto(userPoints);
+        if (groupCommitter.isPresent()) {
+            return groupCommitter.get().apply(
+                new PointsLedgerEntry(request.getUserId(), PointsEntryType.EARN, request.getPoints()));
+        }
+        return mapToDto(userPointsRepository.addPoints(request.getUserId(), request.getPoints()));
     }
 
     /**
      * Puan harcama use case
      * Ödeme sırasında puan kullanımı
+     * Atomik: kullanıcı bazında sıralanan doğrulama + ledger kaydı, eşzamanlı harcamalar bakiyeyi eksiye düşüremez
      */
-    @Transactional
     public UserPointsDto spendPoints(SpendPointsRequest request) {
-        UserPoints userPoints = userPointsRepository.findByUserId(request.getUserId())
-            .orElseThrow(() -> new UserPointsNotFoundException(
-                "User points not found for userId: " + request.getUserId()));
-        
-        // Domain logic: Puan harcama
-        userPoints.spendPoints(request.getPoints());
+        UserPoints.requirePositive(request.getPoints());
         
-        // Save and return
-        userPoints = userPointsRepository.save(userPoints);
-        return mapToDto(userPoints);
+        if (groupCommitter.isPresent()) {
+            return groupCommitter.get().apply(
+                new PointsLedgerEntry(request.getUserId(), PointsEntryType.SPEND, request.getPoints()));
+        }
+        return userPointsRepository.deductPoints(request.getUserId(), request.getPoints())
+            .map(UserPointsService::mapToDto)
+            .orElseThrow(() -> spendRejected(request));
     }
 
     /**
@@ -81,8 +97,24 @@ public class UserPointsService {
             .orElse(false);
     }
 
+    // Koşullu UPDATE satır güncellemediyse sebep sadece bu (nadir) yolda okunur: kayıt yok ya da bakiye yetersiz
+    private RuntimeException spendRejected(SpendPointsRequest request) {
+        return userPointsRepository.findByUserId(request.getUserId())
+            .<RuntimeException>map(userPoints -> userPoints.insufficientPoints(request.getPoints()))
+            .orElseGet(() -> new UserPointsNotFoundException(
+                "User points not found for userId: " + request.getUserId()));
+    }
+
+    // Kayıt yok: versiyon (lastUpdated) ve oluşturulma zamanı da yok
+    private static UserPointsDto emptyBalance(String userId) {
+        UserPointsDto dto = mapToDto(new UserPoints(userId));
+        dto.setLastUpdated(null);
+        dto.setCreatedAt(null);
+        return dto;
+    }
+
     // Domain <-> DTO mapping
-    private UserPointsDto mapToDto(UserPoints userPoints) {
+    static UserPointsDto mapToDto(UserPoints userPoints) {
         UserPointsDto dto = new UserPointsDto();
         dto.setUserId(userPoints.getUserId());
         dto.setTotalPoints(userPoints.getTotalPoints());
@@ -0,0 +1,95 @@
+package com.dumensel.payment.application.accrual;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PointsAccrualReader
+ */
+@DisplayName("PointsAccrualReader Tests")
+class PointsAccrualReaderTest {
+
+    @Test
+    @DisplayName("Should read CSV rows, skipping the header, BOM and blank lines")
+    void shouldReadCsv() throws IOException {
+        // Given
+        String csv = "\uFEFFuserId,points\r\nuser-1,10.50\r\n\r\n\"user,2\",3\r\n\"user \"\"3\"\"\", 1.5 \r\n";
+
+        // When
+        List<PointsAccrualRow> rows = readAll(csv, PointsAccrualFormat.CSV);
+
+        // Then
+        assertThat(rows).extracting(PointsAccrualRow::rowNo).containsExactly(1L, 2L, 3L);
+        assertThat(rows).extracting(PointsAccrualRow::userId).containsExactly("user-1", "user,2", "user \"3\"");
+        assertThat(rows).extracting(row -> row.points().toPlainString()).containsExactly("10.50", "3", "1.5");
+    }
+
+    @Test
+    @DisplayName("Should read NDJSON objects, ignoring unknown fields")
+    void shouldReadNdjson() throws IOException {
+        // Given
+        String ndjson = """
+            {"userId":"user-1","points":10.50}
+            { "campaign" : "summer", "points" : "2", "userId" : "user-\\u00e7\\"2\\"", "note": null }
+
+            {"userId":"user-3","points":1E+1}
+            """;
+
+        // When
+        List<PointsAccrualRow> rows = readAll(ndjson, PointsAccrualFormat.NDJSON);
+
+        // Then
+        assertThat(rows).extracting(PointsAccrualRow::userId).containsExactly("user-1", "user-ç\"2\"", "user-3");
+        assertThat(rows).extracting(PointsAccrualRow::points)
+            .usingElementComparator(BigDecimal::compareTo)
+            .containsExactly(new BigDecimal("10.50"), new BigDecimal("2"),
+                new BigDecimal("10"));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid rows with their line number")
+    void shouldRejectInvalidRows() {
+        assertThatThrownBy(() -> readAll("userId,points\nuser-1,10\nuser-2,-1\n", PointsAccrualFormat.CSV))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Line 3: Points must be positive");
+        assertThatThrownBy(() -> readAll("user-1,1.005\n", PointsAccrualFormat.CSV))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("Line 1: points must fit DECIMAL(19,2)");
+        assertThatThrownBy(() -> readAll("user-1;10\n", PointsAccrualFormat.CSV))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("expected 2 columns");
+        assertThatThrownBy(() -> readAll("{\"userId\":\"u\",\"points\":\"abc\"}\n", PointsAccrualFormat.NDJSON))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Line 1: points is not a number: abc");
+        assertThatThrownBy(() -> readAll("{\"userId\":\"u\",\"points\":{\"v\":1}}\n", PointsAccrualFormat.NDJSON))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("nested JSON values are not supported");
+        assertThatThrownBy(() -> readAll("{\"points\":1}\n", PointsAccrualFormat.NDJSON))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Line 1: userId is required");
+        assertThatThrownBy(() -> readAll("{\"userId\":\"u\",\"points\":1} x\n", PointsAccrualFormat.NDJSON))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("unexpected content");
+    }
+
+    private static List<PointsAccrualRow> readAll(String content, PointsAccrualFormat format) throws IOException {
+        PointsAccrualReader reader = new PointsAccrualReader(
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format);
+        List<PointsAccrualRow> rows = new ArrayList<>();
+        PointsAccrualRow row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        assertThat(reader.getRowCount()).isEqualTo(rows.size());
+        return rows;
+    }
+}
@@ -0,0 +1,121 @@
+package com.dumensel.payment.application.accrual;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PointsAccrualService
+ * Store mock'lanır; uygulama döngüsü arka plan thread'inde çalışır
+ */
+@DisplayName("PointsAccrualService Tests")
+class PointsAccrualServiceTest {
+
+    private final PointsAccrualStore store = mock(PointsAccrualStore.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PointsAccrualService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PointsAccrualService(store, meterRegistry, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should stage the file and apply it chunk by chunk in the background")
+    void shouldStageAndApplyInChunks() throws IOException {
+        // Given
+        when(store.stage(eq("summer"), any())).thenAnswer(invocation -> {
+            PointsAccrualStore.RowSource rows = invocation.getArgument(1);
+            while (rows.next() != null) {
+                // staging'e yazılıyormuş gibi tüket
+            }
+            return status("summer", PointsAccrualState.LOADED, 0);
+        });
+        when(store.applyChunk("summer", 2))
+            .thenReturn(status("summer", PointsAccrualState.APPLYING, 2))
+            .thenReturn(status("summer", PointsAccrualState.COMPLETED, 3));
+
+        // When
+        PointsAccrualStatus status = service.submit("summer", PointsAccrualFormat.CSV,
+            csv("userId,points\nuser-1,10\nuser-2,5\nuser-1,2.50\n"));
+
+        // Then
+        assertThat(status.state()).isEqualTo(PointsAccrualState.LOADED);
+        verify(store, timeout(5000).times(2)).applyChunk("summer", 2);
+        verify(store, never()).markFailed(any(), any());
+        assertThat(meterRegistry.get("payment.points.accrual.rows").tag("phase", "staged").counter().count())
+            .isEqualTo(3.0);
+        awaitAppliedRows(3.0);
+    }
+
+    @Test
+    @DisplayName("Should mark the campaign failed when a chunk cannot be applied")
+    void shouldMarkFailedOnApplyError() {
+        // Given
+        when(store.find("winter")).thenReturn(Optional.of(status("winter", PointsAccrualState.APPLYING, 2)));
+        when(store.applyChunk("winter", 2)).thenThrow(new IllegalStateException("Staged rows 3-3 are missing"));
+
+        // When
+        Optional<PointsAccrualStatus> status = service.resume("winter");
+
+        // Then
+        assertThat(status).isPresent();
+        verify(store, timeout(5000)).markFailed("winter", "Staged rows 3-3 are missing");
+    }
+
+    @Test
+    @DisplayName("Should not restart completed campaigns and reject invalid campaign ids")
+    void shouldIgnoreCompletedCampaigns() {
+        // Given
+        when(store.find("done")).thenReturn(Optional.of(status("done", PointsAccrualState.COMPLETED, 3)));
+
+        // When
+        Optional<PointsAccrualStatus> status = service.resume("done");
+
+        // Then
+        assertThat(status).map(PointsAccrualStatus::getProgressPercent).contains(100.0);
+        verify(store, never()).applyChunk(any(), anyInt());
+        assertThatThrownBy(() -> service.submit(" ", PointsAccrualFormat.CSV, csv("")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.resume("missing")).isEmpty();
+    }
+
+    private void awaitAppliedRows(double expected) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("payment.points.accrual.rows").tag("phase", "applied").counter().count() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Applied rows did not reach " + expected);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static PointsAccrualStatus status(String campaignId, PointsAccrualState state, long appliedRows) {
+        LocalDateTime now = LocalDateTime.now();
+        return new PointsAccrualStatus(campaignId, state, 3, new BigDecimal("17.50"), appliedRows, null, now, now);
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
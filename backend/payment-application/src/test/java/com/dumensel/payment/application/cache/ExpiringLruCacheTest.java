@@ -0,0 +1,66 @@
+package com.dumensel.payment.application.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ExpiringLruCache
+ */
+@DisplayName("ExpiringLruCache Tests")
+class ExpiringLruCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    @DisplayName("Should evict the least recently read entry when full")
+    void shouldEvictLeastRecentlyUsed() {
+        // Given
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(2, Duration.ofMinutes(1), nanos::get);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+
+        // When
+        cache.put("c", "3");
+
+        // Then
+        assertThat(cache.get("a")).contains("1");
+        assertThat(cache.get("b")).isEmpty();
+        assertThat(cache.get("c")).contains("3");
+    }
+
+    @Test
+    @DisplayName("Should expire entries after their TTL")
+    void shouldExpireEntries() {
+        // Given
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, Duration.ofSeconds(10), nanos::get);
+        cache.put("default", "1");
+        cache.put("short", "2", Duration.ofSeconds(2));
+
+        // When
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        // Then
+        assertThat(cache.get("default")).contains("1");
+        assertThat(cache.get("short")).isEmpty();
+
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(cache.get("default")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not cache entries that are already expired")
+    void shouldSkipExpiredPut() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, Duration.ofSeconds(10), nanos::get);
+
+        cache.put("gone", "1", Duration.ofSeconds(-1));
+
+        assertThat(cache.get("gone")).isEmpty();
+    }
+}
@@ -0,0 +1,145 @@
+package com.dumensel.payment.application.cache;
+
+import com.dumensel.payment.application.dto.PaymentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for FinalPaymentCache
+ */
+@DisplayName("FinalPaymentCache Tests")
+class FinalPaymentCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should record hits and misses")
+    void shouldRecordHitsAndMisses() {
+        // Given
+        FinalPaymentCache cache = new FinalPaymentCache(new MockEnvironment(), meterRegistry, () -> true);
+
+        // When
+        cache.getOrLoad("p-1", () -> load("p-1", "SUCCESS"));
+        cache.getOrLoad("p-1", () -> load("p-1", "SUCCESS"));
+        cache.getOrLoad("p-1", () -> load("p-1", "SUCCESS"));
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(requests("hit")).isEqualTo(2.0);
+        assertThat(requests("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should count evictions when the cache is full")
+    void shouldCountEvictions() {
+        // Given
+        FinalPaymentCache cache = new FinalPaymentCache(
+            new MockEnvironment().withProperty("payment.cache.payments.max-entries", "2"), meterRegistry, () -> true);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            String id = "p-" + i;
+            cache.getOrLoad(id, () -> load(id, "FAILED"));
+        }
+
+        // Then
+        assertThat(meterRegistry.get("payment.cache.evictions").tag("cache", "payments").functionCounter().count())
+            .isEqualTo(3.0);
+        assertThat(meterRegistry.get("payment.cache.size").tag("cache", "payments").gauge().value())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should not cache a result loaded while the payment was being invalidated")
+    void shouldNotCacheStaleLoad() {
+        // Given - a refund commits while an old SUCCESS is being loaded
+        FinalPaymentCache cache = new FinalPaymentCache(new MockEnvironment(), meterRegistry, () -> true);
+
+        // When
+        cache.getOrLoad("p-1", () -> {
+            PaymentResponse stale = load("p-1", "SUCCESS");
+            cache.invalidate("p-1");
+            return stale;
+        });
+
+        // Then
+        assertThat(cache.getOrLoad("p-1", () -> load("p-1", "REFUNDED")).getStatus()).isEqualTo("REFUNDED");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should still cache a result when another payment was invalidated during the load")
+    void shouldCacheLoadDespiteUnrelatedInvalidation() {
+        // Given - başka bir ödemenin kaydı yükleme sırasında commit oldu
+        FinalPaymentCache cache = new FinalPaymentCache(new MockEnvironment(), meterRegistry, () -> true);
+
+        // When
+        cache.getOrLoad("p-1", () -> {
+            PaymentResponse loaded = load("p-1", "SUCCESS");
+            cache.invalidate("p-2");
+            return loaded;
+        });
+
+        // Then
+        assertThat(cache.getOrLoad("p-1", () -> load("p-1", "SUCCESS")).getStatus()).isEqualTo("SUCCESS");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache a result loaded while the whole cache was invalidated")
+    void shouldNotCacheLoadOverlappingInvalidateAll() {
+        // Given
+        FinalPaymentCache cache = new FinalPaymentCache(new MockEnvironment(), meterRegistry, () -> true);
+
+        // When
+        cache.getOrLoad("p-1", () -> {
+            PaymentResponse stale = load("p-1", "SUCCESS");
+            cache.invalidateAll();
+            return stale;
+        });
+
+        // Then
+        assertThat(cache.getOrLoad("p-1", () -> load("p-1", "REFUNDED")).getStatus()).isEqualTo("REFUNDED");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache while invalidations are not delivered")
+    void shouldBypassWhileInvalidationBusIsDisconnected() {
+        // Given
+        AtomicBoolean connected = new AtomicBoolean(false);
+        FinalPaymentCache cache = new FinalPaymentCache(new MockEnvironment(), meterRegistry, connected::get);
+
+        // When
+        cache.getOrLoad("p-1", () -> load("p-1", "SUCCESS"));
+        cache.getOrLoad("p-1", () -> load("p-1", "SUCCESS"));
+        connected.set(true);
+        cache.getOrLoad("p-1", () -> load("p-1", "SUCCESS"));
+        cache.getOrLoad("p-1", () -> load("p-1", "SUCCESS"));
+
+        // Then - kopukken yüklenenler cache'e yazılmadı
+        assertThat(loads).hasValue(3);
+        assertThat(requests("bypass")).isEqualTo(2.0);
+        assertThat(requests("hit")).isEqualTo(1.0);
+    }
+
+    private PaymentResponse load(String id, String status) {
+        loads.incrementAndGet();
+        PaymentResponse response = new PaymentResponse();
+        response.setId(id);
+        response.setStatus(status);
+        return response;
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("payment.cache.requests").tag("result", result).counter().count();
+    }
+}
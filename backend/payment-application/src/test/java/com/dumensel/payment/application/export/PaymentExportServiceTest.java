@@ -0,0 +1,115 @@
+package com.dumensel.payment.application.export;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PaymentExportService
+ */
+@DisplayName("PaymentExportService Tests")
+class PaymentExportServiceTest {
+
+    private static final PaymentExportFilter FILTER = new PaymentExportFilter(
+        LocalDateTime.of(2024, 1, 15, 0, 0), LocalDateTime.of(2024, 1, 16, 0, 0), null);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void shouldWriteNdjson() throws IOException {
+        // Given
+        PaymentExportService service = new PaymentExportService(source(
+            row("p-1", "conv-1", "buyer \"1\"", null),
+            row("p-2", "conv-2", "buyer-2", "CARD_DECLINED")), meterRegistry);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = service.export(FILTER, PaymentExportFormat.NDJSON, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).isEqualTo("{\"id\":\"p-1\",\"conversationId\":\"conv-1\",\"amount\":100.50,"
+            + "\"currency\":\"TRY\",\"status\":\"SUCCESS\",\"provider\":\"AKBANK\",\"buyerId\":\"buyer \\\"1\\\"\","
+            + "\"createdAt\":\"2024-01-15T10:30\",\"updatedAt\":\"2024-01-15T10:30\","
+            + "\"externalPaymentId\":null,\"errorCode\":null}");
+        assertThat(lines[1]).contains("\"errorCode\":\"CARD_DECLINED\"");
+        assertThat(meterRegistry.get("payment.export.rows").tag("format", "NDJSON").counter().count())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should write a CSV header, quote special characters and neutralize formulas")
+    void shouldWriteCsv() throws IOException {
+        // Given
+        PaymentExportService service = new PaymentExportService(source(
+            row("p-1", "conv,1", "=HYPERLINK(\"x\")", null)), meterRegistry);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        service.export(FILTER, PaymentExportFormat.CSV, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines[0]).isEqualTo("id,conversationId,amount,currency,status,provider,buyerId,"
+            + "createdAt,updatedAt,externalPaymentId,errorCode");
+        assertThat(lines[1]).isEqualTo("p-1,\"conv,1\",100.50,TRY,SUCCESS,AKBANK,\"'=HYPERLINK(\"\"x\"\")\","
+            + "2024-01-15T10:30,2024-01-15T10:30,,");
+    }
+
+    @Test
+    @DisplayName("Should reject an empty or inverted range and unknown formats")
+    void shouldRejectInvalidInput() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 15, 0, 0);
+
+        assertThatThrownBy(() -> new PaymentExportFilter(now, now, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PaymentExportFilter(now, null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PaymentExportFormat.from("xml"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(PaymentExportFormat.from("csv")).isEqualTo(PaymentExportFormat.CSV);
+    }
+
+    private static PaymentExportSource source(PaymentExportRow... rows) {
+        return (filter, handler) -> {
+            for (PaymentExportRow row : List.of(rows)) {
+                try {
+                    handler.handle(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return rows.length;
+        };
+    }
+
+    private static PaymentExportRow row(String id, String conversationId, String buyerId, String errorCode) {
+        LocalDateTime at = LocalDateTime.of(2024, 1, 15, 10, 30);
+        return new PaymentExportRow() {
+            @Override public String id() { return id; }
+            @Override public String conversationId() { return conversationId; }
+            @Override public BigDecimal amount() { return new BigDecimal("100.50"); }
+            @Override public String currency() { return "TRY"; }
+            @Override public String status() { return errorCode == null ? "SUCCESS" : "FAILED"; }
+            @Override public String provider() { return "AKBANK"; }
+            @Override public String buyerId() { return buyerId; }
+            @Override public LocalDateTime createdAt() { return at; }
+            @Override public LocalDateTime updatedAt() { return at; }
+            @Override public String externalPaymentId() { return null; }
+            @Override public String errorCode() { return errorCode; }
+        };
+    }
+}
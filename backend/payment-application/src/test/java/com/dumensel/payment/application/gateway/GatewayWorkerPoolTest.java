@@ -0,0 +1,97 @@
+package com.dumensel.payment.application.gateway;
+
+import com.dumensel.payment.domain.model.PaymentProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for GatewayWorkerPool
+ */
+@DisplayName("GatewayWorkerPool Tests")
+class GatewayWorkerPoolTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayWorkerPool workerPool;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("payment.async.providers.akbank.concurrency", "1")
+            .withProperty("payment.async.providers.akbank.queue-capacity", "2");
+        meterRegistry = new SimpleMeterRegistry();
+        workerPool = new GatewayWorkerPool(environment, meterRegistry, 4, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        workerPool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should apply per-provider concurrency and queue capacity")
+    void shouldApplyPerProviderLimits() {
+        // Given - 1 running + 2 queued fills Akbank
+        for (int i = 0; i < 3; i++) {
+            workerPool.submit(PaymentProvider.AKBANK, this::block);
+        }
+
+        // Then
+        assertThat(workerPool.hasCapacity(PaymentProvider.AKBANK)).isFalse();
+        assertThat(workerPool.getQueueDepth(PaymentProvider.AKBANK)).isEqualTo(2);
+        assertThatThrownBy(() -> workerPool.submit(PaymentProvider.AKBANK, this::block))
+            .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("Should isolate providers from each other")
+    void shouldIsolateProviders() {
+        // Given - Akbank saturated
+        for (int i = 0; i < 3; i++) {
+            workerPool.submit(PaymentProvider.AKBANK, this::block);
+        }
+
+        // Then - Craftgate still accepts work
+        assertThat(workerPool.hasCapacity(PaymentProvider.CRAFTGATE)).isTrue();
+        assertThatCode(() -> workerPool.submit(PaymentProvider.CRAFTGATE, () -> { }))
+            .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should expose queue depth and rejection metrics per provider")
+    void shouldExposeMetrics() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            workerPool.submit(PaymentProvider.AKBANK, this::block);
+        }
+        assertThatThrownBy(() -> workerPool.submit(PaymentProvider.AKBANK, this::block))
+            .isInstanceOf(RejectedExecutionException.class);
+
+        // Then
+        assertThat(meterRegistry.get("payment.async.queue.depth").tag("provider", "AKBANK").gauge().value())
+            .isEqualTo(2.0);
+        assertThat(meterRegistry.get("payment.async.rejected").tag("provider", "AKBANK").counter().count())
+            .isEqualTo(1.0);
+        assertThat(meterRegistry.get("payment.async.queue.depth").tag("provider", "CRAFTGATE").gauge().value())
+            .isZero();
+    }
+
+    private void block() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.dumensel.payment.application.gateway;
+
+import com.dumensel.payment.application.service.PaymentGatewayException;
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.model.PaymentProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ProviderRouter (provider=AUTO)
+ */
+@DisplayName("ProviderRouter Tests")
+class ProviderRouterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private MockEnvironment environment;
+    private PaymentGatewayFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+            .withProperty("payment.routing.enabled", "true")
+            .withProperty("payment.routing.floor-share", "0.05")
+            .withProperty("payment.routing.decay", "0.1");
+        factory = new PaymentGatewayFactory(List.of(new AkbankStubGateway(), new CraftgateStubGateway()),
+            new GatewayResilienceRegistry(new MockEnvironment(), new SimpleMeterRegistry()),
+            new StatusCheckHedger(new MockEnvironment(), new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Should split traffic evenly while providers are equally healthy")
+    void shouldSplitEvenlyWhenEquallyHealthy() {
+        // Given
+        ProviderRouter router = new ProviderRouter(environment, new SimpleMeterRegistry(), factory);
+        for (int i = 0; i < 200; i++) {
+            router.recordOutcome(PaymentProvider.AKBANK, 100 * MILLIS, true, null);
+            router.recordOutcome(PaymentProvider.CRAFTGATE, 100 * MILLIS, true, null);
+        }
+
+        // Then
+        Map<PaymentProvider, Double> shares = router.getShares();
+        assertThat(shares.get(PaymentProvider.AKBANK)).isCloseTo(0.5, within(0.01));
+        assertThat(shares.get(PaymentProvider.CRAFTGATE)).isCloseTo(0.5, within(0.01));
+    }
+
+    @Test
+    @DisplayName("Should move volume away from a slow, failing provider but keep the floor share")
+    void shouldShiftTrafficToHealthierProvider() {
+        // Given - Akbank slows down to 3s and half of the calls fail technically
+        ProviderRouter router = new ProviderRouter(environment, new SimpleMeterRegistry(), factory);
+        for (int i = 0; i < 200; i++) {
+            router.recordOutcome(PaymentProvider.AKBANK, 3000 * MILLIS, i % 2 == 0, i % 2 == 0 ? null : "AKBANK_TECHNICAL_ERROR");
+            router.recordOutcome(PaymentProvider.CRAFTGATE, 150 * MILLIS, true, null);
+        }
+
+        // When
+        Map<PaymentProvider, Integer> selected = new EnumMap<>(PaymentProvider.class);
+        for (int i = 0; i < 10_000; i++) {
+            selected.merge(router.selectProvider(), 1, Integer::sum);
+        }
+
+        // Then
+        Map<PaymentProvider, Double> shares = router.getShares();
+        assertThat(shares.get(PaymentProvider.CRAFTGATE)).isGreaterThan(0.85);
+        assertThat(shares.get(PaymentProvider.AKBANK)).isGreaterThanOrEqualTo(0.05);
+        assertThat(selected.get(PaymentProvider.CRAFTGATE)).isGreaterThan(8_000);
+        assertThat(selected.get(PaymentProvider.AKBANK)).isGreaterThan(300);
+    }
+
+    @Test
+    @DisplayName("Should track a decayed p95 that follows a latency shift")
+    void shouldTrackDecayedP95() {
+        // Given
+        ProviderHealth health = new ProviderHealth(0.1);
+        for (int i = 0; i < 500; i++) {
+            health.recordCall((i % 20 == 0 ? 1000 : 100) * MILLIS, true);
+        }
+        double before = health.getP95Millis();
+
+        // When - every call gets slower
+        for (int i = 0; i < 500; i++) {
+            health.recordCall((i % 20 == 0 ? 3000 : 800) * MILLIS, true);
+        }
+
+        // Then
+        assertThat(before).isBetween(90.0, 1000.0);
+        assertThat(health.getP95Millis()).isBetween(750.0, 3000.0);
+    }
+
+    @Test
+    @DisplayName("Should skip providers whose circuit is open")
+    void shouldSkipOpenCircuit() {
+        // Given
+        ProviderRouter router = new ProviderRouter(environment, new SimpleMeterRegistry(), factory);
+        ResilientPaymentGateway akbank = (ResilientPaymentGateway) factory.getGateway(PaymentProvider.AKBANK);
+        for (int i = 0; i < 50; i++) {
+            akbank.getCircuitBreaker().onError(MILLIS);
+        }
+        assertThat(akbank.getCircuitBreaker().getState()).isEqualTo(GatewayCircuitBreaker.State.OPEN);
+
+        // Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(router.selectProvider()).isEqualTo(PaymentProvider.CRAFTGATE);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject AUTO when routing is disabled")
+    void shouldRejectWhenDisabled() {
+        ProviderRouter router = new ProviderRouter(new MockEnvironment(), new SimpleMeterRegistry(), factory);
+
+        assertThatThrownBy(router::selectProvider)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("disabled");
+    }
+
+    private static class AkbankStubGateway implements PaymentGateway {
+        @Override
+        public String processPayment(Payment payment) {
+            throw new PaymentGatewayException("AKBANK_TECHNICAL_ERROR", "stub");
+        }
+
+        @Override
+        public String checkPaymentStatus(String externalPaymentId) {
+            return "SUCCESS";
+        }
+    }
+
+    private static class CraftgateStubGateway implements PaymentGateway {
+        @Override
+        public String processPayment(Payment payment) {
+            return "ok";
+        }
+
+        @Override
+        public String checkPaymentStatus(String externalPaymentId) {
+            return "SUCCESS";
+        }
+    }
+}
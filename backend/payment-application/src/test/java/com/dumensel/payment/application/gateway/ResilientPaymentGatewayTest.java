@@ -0,0 +1,196 @@
+package com.dumensel.payment.application.gateway;
+
+import com.dumensel.payment.application.service.PaymentGatewayException;
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.model.PaymentProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ResilientPaymentGateway / GatewayResilienceRegistry
+ * Fault-injecting stub gateway'ler ile provider izolasyonu doğrulanır
+ */
+@DisplayName("ResilientPaymentGateway Tests")
+class ResilientPaymentGatewayTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+    private SimpleMeterRegistry meterRegistry;
+    private FaultInjectingGateway akbank;
+    private FaultInjectingGateway craftgate;
+    private PaymentGatewayFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("payment.resilience.default-minimum-number-of-calls", "4")
+            .withProperty("payment.resilience.default-sliding-window-size", "4")
+            .withProperty("payment.resilience.default-open-state-duration-ms", "200")
+            .withProperty("payment.resilience.default-half-open-permitted-calls", "2")
+            .withProperty("payment.resilience.providers.akbank.max-concurrent-calls", "2")
+            .withProperty("payment.resilience.providers.akbank.max-waiting-calls", "0");
+        meterRegistry = new SimpleMeterRegistry();
+        akbank = new AkbankStubGateway();
+        craftgate = new CraftgateStubGateway();
+        factory = new PaymentGatewayFactory(List.of(akbank, craftgate),
+            new GatewayResilienceRegistry(environment, meterRegistry), new StatusCheckHedger(environment, meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should open the circuit after technical failures and fail fast")
+    void shouldOpenCircuitOnTechnicalFailures() {
+        // Given
+        akbank.failWith("AKBANK_TECHNICAL_ERROR");
+        PaymentGateway gateway = factory.getGateway(PaymentProvider.AKBANK);
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> gateway.processPayment(null))
+                .isInstanceOf(PaymentGatewayException.class);
+        }
+
+        // When / Then - 5th call never reaches Akbank
+        assertThatThrownBy(() -> gateway.processPayment(null))
+            .isInstanceOfSatisfying(PaymentGatewayException.class, e ->
+                assertThat(e.getErrorCode()).isEqualTo(PaymentGatewayException.CIRCUIT_OPEN));
+        assertThat(akbank.calls.get()).isEqualTo(4);
+        assertThat(meterRegistry.get("payment.gateway.circuit.state").tag("provider", "AKBANK").gauge().value())
+            .isEqualTo(1.0);
+        assertThat(meterRegistry.get("payment.gateway.rejected")
+            .tags("provider", "AKBANK", "reason", "circuit_open").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not count declines as circuit breaker failures")
+    void shouldIgnoreBusinessErrors() {
+        // Given
+        akbank.failWith("AKBANK_PAYMENT_DECLINED");
+        PaymentGateway gateway = factory.getGateway(PaymentProvider.AKBANK);
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            assertThatThrownBy(() -> gateway.processPayment(null))
+                .isInstanceOfSatisfying(PaymentGatewayException.class, e ->
+                    assertThat(e.getErrorCode()).isEqualTo("AKBANK_PAYMENT_DECLINED"));
+        }
+
+        // Then
+        assertThat(akbank.calls.get()).isEqualTo(6);
+        assertThat(((ResilientPaymentGateway) gateway).getCircuitBreaker().getState())
+            .isEqualTo(GatewayCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should close the circuit again after successful half-open trial calls")
+    void shouldRecoverThroughHalfOpen() throws InterruptedException {
+        // Given - circuit open
+        akbank.failWith("AKBANK_TECHNICAL_ERROR");
+        PaymentGateway gateway = factory.getGateway(PaymentProvider.AKBANK);
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> gateway.processPayment(null))
+                .isInstanceOf(PaymentGatewayException.class);
+        }
+
+        // When - provider recovers and open state duration passes
+        akbank.failWith(null);
+        Thread.sleep(250);
+        gateway.processPayment(null);
+        gateway.processPayment(null);
+
+        // Then
+        assertThat(((ResilientPaymentGateway) gateway).getCircuitBreaker().getState())
+            .isEqualTo(GatewayCircuitBreaker.State.CLOSED);
+        assertThat(meterRegistry.get("payment.gateway.circuit.transitions")
+            .tags("provider", "AKBANK", "from", "HALF_OPEN", "to", "CLOSED").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should reject calls above the provider bulkhead without affecting other providers")
+    void shouldIsolateSlowProvider() throws Exception {
+        // Given - Akbank hangs, both permits taken
+        akbank.hang = true;
+        PaymentGateway akbankGateway = factory.getGateway(PaymentProvider.AKBANK);
+        callers.submit(() -> akbankGateway.processPayment(null));
+        callers.submit(() -> akbankGateway.processPayment(null));
+        assertThat(akbank.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When / Then - third Akbank call fails fast
+        assertThatThrownBy(() -> akbankGateway.processPayment(null))
+            .isInstanceOfSatisfying(PaymentGatewayException.class, e ->
+                assertThat(e.getErrorCode()).isEqualTo(PaymentGatewayException.BULKHEAD_FULL));
+        assertThat(meterRegistry.get("payment.gateway.rejected")
+            .tags("provider", "AKBANK", "reason", "bulkhead_full").counter().count())
+            .isEqualTo(1.0);
+        assertThat(meterRegistry.get("payment.gateway.bulkhead.active").tag("provider", "AKBANK").gauge().value())
+            .isEqualTo(2.0);
+
+        // Craftgate unaffected
+        assertThat(factory.getGateway(PaymentProvider.CRAFTGATE).processPayment(null)).isEqualTo("ok");
+        assertThat(meterRegistry.get("payment.gateway.rejected")
+            .tags("provider", "CRAFTGATE", "reason", "bulkhead_full").counter().count())
+            .isZero();
+    }
+
+    /**
+     * Hata enjekte edilebilen stub gateway
+     * failWith != null ise o kodla PaymentGatewayException fırlatır; hang=true ise release'e kadar bekler
+     */
+    private abstract class FaultInjectingGateway implements PaymentGateway {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(2);
+        volatile String errorCode;
+        volatile boolean hang;
+
+        void failWith(String errorCode) {
+            this.errorCode = errorCode;
+        }
+
+        @Override
+        public String processPayment(Payment payment) {
+            calls.incrementAndGet();
+            entered.countDown();
+            if (hang) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (errorCode != null) {
+                throw new PaymentGatewayException(errorCode, "Injected failure");
+            }
+            return "ok";
+        }
+
+        @Override
+        public String checkPaymentStatus(String externalPaymentId) {
+            return processPayment(null);
+        }
+    }
+
+    // PaymentGatewayFactory provider'ı sınıf adından tespit eder
+    private class AkbankStubGateway extends FaultInjectingGateway {
+    }
+
+    private class CraftgateStubGateway extends FaultInjectingGateway {
+    }
+}
@@ -0,0 +1,222 @@
+package com.dumensel.payment.application.gateway;
+
+import com.dumensel.payment.application.service.PaymentGatewayException;
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.model.PaymentProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for StatusCheckHedger
+ */
+@DisplayName("StatusCheckHedger Tests")
+class StatusCheckHedgerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StatusCheckHedger hedger;
+
+    @AfterEach
+    void tearDown() {
+        hedger.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should answer from the hedge when the first status check is slow")
+    void shouldHedgeSlowStatusCheck() {
+        // Given - first call takes 2s, the hedge answers immediately (max-extra-load=1: every call earns a hedge)
+        hedger = new StatusCheckHedger(environment("1.0"), meterRegistry);
+        PaymentGateway gateway = hedger.decorate(PaymentProvider.AKBANK,
+            new SleepingGateway(call -> call == 0 ? 2000 : 0));
+
+        // When
+        long start = System.nanoTime();
+        String status = gateway.checkPaymentStatus("ext-1");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertThat(status).isEqualTo("SUCCESS");
+        assertThat(elapsedMillis).isLessThan(1000);
+        assertThat(counter("payment.gateway.hedge.sent")).isEqualTo(1.0);
+        assertThat(counter("payment.gateway.hedge.won")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should hedge the capture lookup done before failover")
+    void shouldHedgeSlowCaptureLookup() {
+        // Given - ilk tahsilat araması 2s sürer, hedge hemen cevap verir
+        hedger = new StatusCheckHedger(environment("1.0"), meterRegistry);
+        PaymentGateway gateway = hedger.decorate(PaymentProvider.AKBANK,
+            new SleepingGateway(call -> call == 0 ? 2000 : 0));
+
+        // When
+        long start = System.nanoTime();
+        Optional<String> captured = gateway.findCapturedPayment(null);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertThat(captured).contains("captured");
+        assertThat(elapsedMillis).isLessThan(1000);
+        assertThat(counter("payment.gateway.hedge.won")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should skip the hedge when the hedge pool is full")
+    void shouldSkipHedgeWhenPoolIsFull() {
+        // Given - tek thread'lik havuz ilk (yavaş) çağrıyla dolu
+        hedger = new StatusCheckHedger(environment("1.0").withProperty("payment.hedging.max-threads", "1"),
+            meterRegistry);
+        SleepingGateway stub = new SleepingGateway(call -> call == 0 ? 200 : 0);
+        PaymentGateway gateway = hedger.decorate(PaymentProvider.AKBANK, stub);
+
+        // When
+        String status = gateway.checkPaymentStatus("ext-1");
+
+        // Then - cevap ilk çağrıdan geldi, hedge gönderilmedi
+        assertThat(status).isEqualTo("SUCCESS");
+        assertThat(stub.calls).hasValue(1);
+        assertThat(counter("payment.gateway.hedge.sent")).isEqualTo(0.0);
+        assertThat(counter("payment.gateway.hedge.skipped")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should cap hedges at the configured extra load")
+    void shouldCapExtraLoad() {
+        // Given - every call is slower than the last, so every call crosses the hedge delay
+        hedger = new StatusCheckHedger(environment("0.1"), meterRegistry);
+        PaymentGateway gateway = hedger.decorate(PaymentProvider.AKBANK,
+            new SleepingGateway(call -> 10 + call * 2));
+
+        // When
+        for (int i = 0; i < 30; i++) {
+            gateway.checkPaymentStatus("ext-" + i);
+        }
+
+        // Then - 30 calls x 10% = at most 3 hedges; the first ~5 calls stay under min-delay-ms
+        assertThat(counter("payment.gateway.hedge.sent")).isLessThanOrEqualTo(3.0);
+        assertThat(counter("payment.gateway.hedge.skipped")).isGreaterThanOrEqualTo(20.0);
+    }
+
+    @Test
+    @DisplayName("Should use the hedge result when the first call fails")
+    void shouldFallBackToHedgeOnPrimaryFailure() {
+        // Given - first call fails after the hedge delay
+        hedger = new StatusCheckHedger(environment("1.0"), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        PaymentGateway gateway = hedger.decorate(PaymentProvider.CRAFTGATE, new SleepingGateway(call -> 0) {
+            @Override
+            public String checkPaymentStatus(String externalPaymentId) {
+                if (calls.getAndIncrement() == 0) {
+                    sleep(200);
+                    throw new PaymentGatewayException("STATUS_CHECK_FAILED", "Timeout");
+                }
+                return "SUCCESS";
+            }
+        });
+
+        // When / Then
+        assertThat(gateway.checkPaymentStatus("ext-1")).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    @DisplayName("Should take a bulkhead permit for every hedged attempt")
+    void shouldCountHedgesAgainstBulkhead() {
+        // Given - Akbank'ın tek permit'i ilk (yavaş) çağrıda, hedge bulkhead'e takılır
+        MockEnvironment environment = environment("1.0")
+            .withProperty("payment.resilience.providers.akbank.max-concurrent-calls", "1")
+            .withProperty("payment.resilience.providers.akbank.max-waiting-calls", "0");
+        hedger = new StatusCheckHedger(environment, meterRegistry);
+        AkbankSleepingGateway akbank = new AkbankSleepingGateway(call -> call == 0 ? 300 : 0);
+        PaymentGatewayFactory factory = new PaymentGatewayFactory(List.of(akbank),
+            new GatewayResilienceRegistry(environment, meterRegistry), hedger);
+
+        // When
+        String status = factory.getGateway(PaymentProvider.AKBANK).checkPaymentStatus("ext-1");
+
+        // Then - cevap ilk çağrıdan geldi, Akbank'a tek istek gitti
+        assertThat(status).isEqualTo("SUCCESS");
+        assertThat(akbank.calls).hasValue(1);
+        assertThat(counter("payment.gateway.hedge.sent")).isEqualTo(1.0);
+        assertThat(counter("payment.gateway.hedge.won")).isEqualTo(0.0);
+        assertThat(meterRegistry.get("payment.gateway.rejected")
+            .tags("provider", "AKBANK", "reason", "bulkhead_full").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should return the gateway unchanged when hedging is disabled")
+    void shouldNotDecorateWhenDisabled() {
+        hedger = new StatusCheckHedger(new MockEnvironment(), meterRegistry);
+        PaymentGateway gateway = new SleepingGateway(call -> 0);
+
+        assertThat(hedger.decorate(PaymentProvider.AKBANK, gateway)).isSameAs(gateway);
+    }
+
+    private MockEnvironment environment(String maxExtraLoad) {
+        return new MockEnvironment()
+            .withProperty("payment.hedging.enabled", "true")
+            .withProperty("payment.hedging.min-delay-ms", "20")
+            .withProperty("payment.hedging.max-extra-load", maxExtraLoad)
+            .withProperty("payment.hedging.decay", "0.01");
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("provider", "AKBANK").counter().count();
+    }
+
+    /**
+     * n. çağrıda sleepMillis(n) kadar bekleyen stub gateway (hedge çağrıları da sayılır)
+     */
+    private static class SleepingGateway implements PaymentGateway {
+        final AtomicInteger calls = new AtomicInteger();
+        private final IntUnaryOperator sleepMillis;
+
+        SleepingGateway(IntUnaryOperator sleepMillis) {
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public String processPayment(Payment payment) {
+            return "ok";
+        }
+
+        @Override
+        public String checkPaymentStatus(String externalPaymentId) {
+            sleep(sleepMillis.applyAsInt(calls.getAndIncrement()));
+            return "SUCCESS";
+        }
+
+        @Override
+        public Optional<String> findCapturedPayment(Payment payment) {
+            sleep(sleepMillis.applyAsInt(calls.getAndIncrement()));
+            return Optional.of("captured");
+        }
+
+        static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Provider tespiti sınıf adından yapıldığı için isim "Akbank" içerir
+     */
+    private static class AkbankSleepingGateway extends SleepingGateway {
+
+        AkbankSleepingGateway(IntUnaryOperator sleepMillis) {
+            super(sleepMillis);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.dumensel.payment.application.idempotency;
+
+import com.dumensel.payment.application.dto.CardInfoDto;
+import com.dumensel.payment.application.dto.CreatePaymentRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for IdempotencyService
+ */
+@DisplayName("IdempotencyService Tests")
+class IdempotencyServiceTest {
+
+    private static final byte[] BODY = "{\"id\":\"p-1\",\"status\":\"SUCCESS\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should replay a remembered response from memory without hitting the store")
+    void shouldReplayFromMemory() {
+        // Given
+        IdempotencyService service = new IdempotencyService(store, new MockEnvironment(), meterRegistry);
+        service.remember("key-1", "fp-1", 201, null, BODY);
+
+        // When
+        Optional<StoredResponse> replayed = service.find("key-1", "fp-1");
+
+        // Then
+        assertThat(replayed).isPresent();
+        assertThat(replayed.get().body()).isEqualTo(BODY);
+        assertThat(replayed.get().httpStatus()).isEqualTo(201);
+        assertThat(store.finds).hasValue(0);
+        assertThat(meterRegistry.get("payment.idempotency.replayed").tag("tier", "memory").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the store on another node and warm the memory tier")
+    void shouldFallBackToStore() {
+        // Given - node A stores, node B has a cold memory tier
+        new IdempotencyService(store, new MockEnvironment(), new SimpleMeterRegistry())
+            .remember("key-2", "fp-2", 202, "/api/v1/payments/p-2", BODY);
+        IdempotencyService nodeB = new IdempotencyService(store, new MockEnvironment(), meterRegistry);
+
+        // When
+        Optional<StoredResponse> first = nodeB.find("key-2", "fp-2");
+        Optional<StoredResponse> second = nodeB.find("key-2", "fp-2");
+
+        // Then
+        assertThat(first).isPresent();
+        assertThat(first.get().location()).isEqualTo("/api/v1/payments/p-2");
+        assertThat(second.get().body()).isEqualTo(BODY);
+        assertThat(store.finds).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should not match the same key with a different request fingerprint")
+    void shouldNotMatchDifferentFingerprint() {
+        IdempotencyService service = new IdempotencyService(store, new MockEnvironment(), meterRegistry);
+        service.remember("key-3", "fp-3", 201, null, BODY);
+
+        assertThat(service.find("key-3", "other")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return the first stored response when two retries race")
+    void shouldKeepFirstStoredResponse() {
+        // Given
+        IdempotencyService nodeA = new IdempotencyService(store, new MockEnvironment(), new SimpleMeterRegistry());
+        IdempotencyService nodeB = new IdempotencyService(store, new MockEnvironment(), meterRegistry);
+        nodeA.remember("key-4", "fp-4", 201, null, BODY);
+
+        // When
+        StoredResponse response = nodeB.remember("key-4", "fp-4", 400, null, new byte[] {1});
+
+        // Then
+        assertThat(response.httpStatus()).isEqualTo(201);
+        assertThat(response.body()).isEqualTo(BODY);
+    }
+
+    @Test
+    @DisplayName("Fingerprint should change with request content but ignore amount scale")
+    void fingerprintShouldReflectRequestContent() {
+        CreatePaymentRequest request = request("100.00");
+
+        assertThat(IdempotencyService.fingerprint("POST /api/v1/payments", request))
+            .isEqualTo(IdempotencyService.fingerprint("POST /api/v1/payments", request("100.0")))
+            .isNotEqualTo(IdempotencyService.fingerprint("POST /api/v1/payments", request("101.00")))
+            .isNotEqualTo(IdempotencyService.fingerprint("POST /api/v1/payments/async", request))
+            .hasSize(64);
+    }
+
+    private static CreatePaymentRequest request(String amount) {
+        CreatePaymentRequest request = new CreatePaymentRequest();
+        request.setConversationId("conv-1");
+        request.setAmount(new BigDecimal(amount));
+        request.setCurrency("TRY");
+        request.setBuyerId("buyer-1");
+        request.setProvider("CRAFTGATE");
+        request.setCardInfo(new CardInfoDto("JOHN DOE", "5400010000000004", "12", "2030", "123"));
+        return request;
+    }
+
+    /**
+     * Paylaşılan (node'lar arası) kalıcı katman yerine geçen store
+     */
+    private static class InMemoryStore implements IdempotencyStore {
+        private final Map<String, StoredResponse> responses = new ConcurrentHashMap<>();
+        private final AtomicInteger finds = new AtomicInteger();
+
+        @Override
+        public Optional<StoredResponse> find(String idempotencyKey, String fingerprint) {
+            finds.incrementAndGet();
+            return Optional.ofNullable(responses.get(idempotencyKey + "|" + fingerprint));
+        }
+
+        @Override
+        public StoredResponse saveIfAbsent(String idempotencyKey, String fingerprint, StoredResponse response) {
+            StoredResponse existing = responses.putIfAbsent(idempotencyKey + "|" + fingerprint, response);
+            return existing == null ? response : existing;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.dumensel.payment.application.service;
+
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.repository.PaymentRepository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory PaymentRepository for application layer tests
+ */
+class InMemoryPaymentRepository implements PaymentRepository {
+    private final Map<String, Payment> payments = new ConcurrentHashMap<>();
+    private final Map<String, Payment> conversationClaims = new ConcurrentHashMap<>();
+
+    @Override
+    public Payment save(Payment payment) {
+        payments.put(payment.getId(), payment);
+        return payment;
+    }
+
+    @Override
+    public boolean saveIfAbsent(Payment payment) {
+        if (conversationClaims.putIfAbsent(payment.getConversationId(), payment) != null) {
+            return false;
+        }
+        payments.put(payment.getId(), payment);
+        return true;
+    }
+
+    @Override
+    public Optional<Payment> findById(String id) {
+        return Optional.ofNullable(payments.get(id));
+    }
+
+    @Override
+    public Optional<LocalDateTime> findUpdatedAtById(String id) {
+        return findById(id).map(Payment::getUpdatedAt);
+    }
+
+    @Override
+    public Optional<Payment> findByConversationId(String conversationId) {
+        Payment claimed = conversationClaims.get(conversationId);
+        if (claimed != null) {
+            return Optional.of(claimed);
+        }
+        return payments.values().stream()
+            .filter(payment -> payment.isSameConversation(conversationId))
+            .findFirst();
+    }
+
+    @Override
+    public Optional<Payment> findByExternalPaymentId(String externalPaymentId) {
+        return payments.values().stream()
+            .filter(payment -> externalPaymentId.equals(payment.getExternalPaymentId()))
+            .findFirst();
+    }
+
+    @Override
+    public List<Payment> findPageByBuyerId(String buyerId, LocalDateTime afterCreatedAt, String afterId, int limit) {
+        Comparator<Payment> newestFirst = Comparator.comparing(Payment::getCreatedAt)
+            .thenComparing(Payment::getId)
+            .reversed();
+        return payments.values().stream()
+            .filter(payment -> buyerId.equals(payment.getBuyerId()))
+            .filter(payment -> afterCreatedAt == null
+                || payment.getCreatedAt().isBefore(afterCreatedAt)
+                || (payment.getCreatedAt().isEqual(afterCreatedAt) && payment.getId().compareTo(afterId) < 0))
+            .sorted(newestFirst)
+            .limit(limit)
+            .toList();
+    }
+}
@@ -0,0 +1,152 @@
+package com.dumensel.payment.application.service;
+
+import com.dumensel.payment.application.cache.FinalPaymentCache;
+import com.dumensel.payment.application.dto.PaymentResponse;
+import com.dumensel.payment.application.gateway.GatewayFailoverPolicy;
+import com.dumensel.payment.application.gateway.GatewayWorkerPool;
+import com.dumensel.payment.application.gateway.PaymentGateway;
+import com.dumensel.payment.application.gateway.PaymentGatewayFactory;
+import com.dumensel.payment.application.gateway.ProviderRouter;
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrency stress test for duplicate createPayment requests
+ * Aynı conversationId ile aynı anda gelen istekler (çift tıklama, client retry)
+ * gateway'e tek bir çağrı yapmalı ve hepsi aynı ödemeyi dönmelidir
+ */
+@DisplayName("PaymentService Concurrency Tests")
+class PaymentServiceConcurrencyTest {
+
+    private static final int CONVERSATIONS = 20;
+    private static final int DUPLICATES = 32;
+
+    private final CountingGateway gateway = new CountingGateway();
+    private final List<GatewayWorkerPool> workerPools = new ArrayList<>();
+    private final ExecutorService clients = Executors.newFixedThreadPool(DUPLICATES * 2);
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        workerPools.forEach(GatewayWorkerPool::shutdown);
+    }
+
+    @Test
+    @DisplayName("Concurrent duplicates on one node should share a single gateway call")
+    void concurrentDuplicatesShouldShareSingleGatewayCall() throws Exception {
+        // Given
+        PaymentService node = createNode(new InMemoryPaymentRepository());
+
+        for (int c = 0; c < CONVERSATIONS; c++) {
+            String conversationId = "dup-" + c;
+
+            // When
+            List<PaymentResponse> responses = fire(conversationId, List.of(node));
+
+            // Then - bekleyenler leader'ın sonucunu alır
+            assertThat(responses).extracting(PaymentResponse::getId).containsOnly(responses.get(0).getId());
+            assertThat(responses).extracting(PaymentResponse::getStatus).containsOnly("SUCCESS");
+            assertThat(gateway.callsFor(conversationId)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent duplicates across nodes should charge only once")
+    void concurrentDuplicatesAcrossNodesShouldChargeOnce() throws Exception {
+        // Given - iki node aynı veritabanını paylaşır
+        PaymentRepository sharedRepository = new InMemoryPaymentRepository();
+        List<PaymentService> nodes = List.of(createNode(sharedRepository), createNode(sharedRepository));
+
+        for (int c = 0; c < CONVERSATIONS; c++) {
+            String conversationId = "dup-nodes-" + c;
+
+            // When
+            List<PaymentResponse> responses = fire(conversationId, nodes);
+
+            // Then - kaybeden node claim edilmiş kaydı döner (PENDING veya SUCCESS), hata yok
+            assertThat(responses).extracting(PaymentResponse::getId).containsOnly(responses.get(0).getId());
+            assertThat(responses).extracting(PaymentResponse::getStatus).isSubsetOf("PENDING", "SUCCESS");
+            assertThat(gateway.callsFor(conversationId)).isEqualTo(1);
+        }
+    }
+
+    /**
+     * Her node'a DUPLICATES adet aynı isteği aynı anda gönderir
+     */
+    private List<PaymentResponse> fire(String conversationId, List<PaymentService> nodes) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentResponse>> futures = new ArrayList<>();
+        for (PaymentService node : nodes) {
+            for (int i = 0; i < DUPLICATES; i++) {
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    return node.createPayment(PaymentServiceTest.createRequest(conversationId));
+                }));
+            }
+        }
+        start.countDown();
+
+        List<PaymentResponse> responses = new ArrayList<>();
+        for (Future<PaymentResponse> future : futures) {
+            responses.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return responses;
+    }
+
+    private PaymentService createNode(PaymentRepository repository) {
+        PaymentGatewayFactory gatewayFactory = mock(PaymentGatewayFactory.class);
+        when(gatewayFactory.getGateway(any())).thenReturn(gateway);
+        GatewayWorkerPool workerPool = new GatewayWorkerPool(new MockEnvironment(), new SimpleMeterRegistry(), 1, 1);
+        workerPools.add(workerPool);
+        return new PaymentService(repository, gatewayFactory,
+            new ProviderRouter(new MockEnvironment(), new SimpleMeterRegistry(), gatewayFactory),
+            new GatewayFailoverPolicy(new MockEnvironment(), new SimpleMeterRegistry(), gatewayFactory),
+            new PooledTransactionManager(8, 2_000),
+            Optional.of(new FinalPaymentCache(new MockEnvironment(), new SimpleMeterRegistry(), () -> true)), workerPool, Optional.empty());
+    }
+
+    /**
+     * conversationId başına gateway çağrılarını sayan, yavaş (50ms) gateway stub'ı
+     */
+    private static class CountingGateway implements PaymentGateway {
+        private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+        @Override
+        public String processPayment(Payment payment) {
+            calls.computeIfAbsent(payment.getConversationId(), key -> new AtomicInteger()).incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "ext-" + payment.getId();
+        }
+
+        @Override
+        public String checkPaymentStatus(String externalPaymentId) {
+            return "SUCCESS";
+        }
+
+        int callsFor(String conversationId) {
+            AtomicInteger count = calls.get(conversationId);
+            return count == null ? 0 : count.get();
+        }
+    }
+}
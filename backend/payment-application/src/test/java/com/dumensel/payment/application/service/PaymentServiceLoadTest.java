@@ -0,0 +1,151 @@
+package com.dumensel.payment.application.service;
+
+import com.dumensel.payment.application.cache.FinalPaymentCache;
+import com.dumensel.payment.application.dto.PaymentResponse;
+import com.dumensel.payment.application.gateway.GatewayFailoverPolicy;
+import com.dumensel.payment.application.gateway.GatewayWorkerPool;
+import com.dumensel.payment.application.gateway.PaymentGateway;
+import com.dumensel.payment.application.gateway.PaymentGatewayFactory;
+import com.dumensel.payment.application.gateway.ProviderRouter;
+import com.dumensel.payment.domain.model.Payment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test for PaymentService.createPayment
+ * Sabit bir geliş hızında (open-loop) ödeme gönderir ve gateway gecikmesi arttıkça
+ * payments/sec'in bağlantı havuzu boyutuyla sınırlanmadığını doğrular
+ * Uzun sürdüğü için isteğe bağlı: mvn test -Dpayment.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "payment.benchmark", matches = "true")
+@DisplayName("PaymentService Load Tests")
+class PaymentServiceLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentServiceLoadTest.class);
+
+    private static final int POOL_SIZE = 4;
+    private static final int PAYMENTS = 200;
+    private static final long ARRIVAL_INTERVAL_MICROS = 5_000; // 200 payments/sec
+
+    @Test
+    @DisplayName("Throughput should stay flat as gateway latency grows")
+    void throughputShouldStayFlatAsGatewayLatencyGrows() throws Exception {
+        long[] latencies = {20, 100, 400};
+        List<Double> throughputs = new ArrayList<>();
+
+        for (long latency : latencies) {
+            LoadResult result = runLoad(latency);
+            logger.info("gateway latency={} ms -> {} payments/sec, max connections in use={}",
+                latency, String.format("%.1f", result.paymentsPerSecond()), result.maxConnectionsInUse());
+
+            assertThat(result.succeeded()).isEqualTo(PAYMENTS);
+            assertThat(result.maxConnectionsInUse()).isLessThanOrEqualTo(POOL_SIZE);
+            throughputs.add(result.paymentsPerSecond());
+        }
+
+        // Eski tasarımda (bağlantı gateway boyunca tutulur) 400ms'de üst sınır 4 / 0.4s = 10 payments/sec olurdu
+        // İlk tur JIT ısınmasından sonra birikmiş gelişleri toplu işlediği için baz olarak geliş hızı kullanılır
+        double arrivalRate = 1_000_000.0 / ARRIVAL_INTERVAL_MICROS;
+        assertThat(throughputs.get(throughputs.size() - 1))
+            .isGreaterThan(arrivalRate * 0.8)
+            .isGreaterThan(POOL_SIZE * 1000.0 / latencies[latencies.length - 1] * 5);
+    }
+
+    private LoadResult runLoad(long gatewayLatencyMillis) throws Exception {
+        PooledTransactionManager transactionManager = new PooledTransactionManager(POOL_SIZE, 2_000);
+        PaymentGatewayFactory gatewayFactory = mock(PaymentGatewayFactory.class);
+        when(gatewayFactory.getGateway(any())).thenReturn(new LatencyGateway(gatewayLatencyMillis));
+        GatewayWorkerPool workerPool = new GatewayWorkerPool(new MockEnvironment(), new SimpleMeterRegistry(), 1, 1);
+        PaymentService paymentService = new PaymentService(
+            new InMemoryPaymentRepository(), gatewayFactory,
+            new ProviderRouter(new MockEnvironment(), new SimpleMeterRegistry(), gatewayFactory),
+            new GatewayFailoverPolicy(new MockEnvironment(), new SimpleMeterRegistry(), gatewayFactory),
+            transactionManager, Optional.of(new FinalPaymentCache(new MockEnvironment(), new SimpleMeterRegistry(), () -> true)), workerPool, Optional.empty());
+
+        ExecutorService clients = Executors.newCachedThreadPool();
+        ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger submitted = new AtomicInteger();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicLong firstCompletion = new AtomicLong(Long.MAX_VALUE);
+        AtomicLong lastCompletion = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(PAYMENTS);
+
+        try {
+            arrivals.scheduleAtFixedRate(() -> {
+                int n = submitted.getAndIncrement();
+                if (n >= PAYMENTS) {
+                    return;
+                }
+                clients.execute(() -> {
+                    try {
+                        PaymentResponse response = paymentService.createPayment(
+                            PaymentServiceTest.createRequest("load-" + gatewayLatencyMillis + "-" + n));
+                        if ("SUCCESS".equals(response.getStatus())) {
+                            succeeded.incrementAndGet();
+                        }
+                    } finally {
+                        long now = System.nanoTime();
+                        firstCompletion.accumulateAndGet(now, Math::min);
+                        lastCompletion.accumulateAndGet(now, Math::max);
+                        done.countDown();
+                    }
+                });
+            }, 0, ARRIVAL_INTERVAL_MICROS, TimeUnit.MICROSECONDS);
+
+            assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            arrivals.shutdownNow();
+            clients.shutdownNow();
+            workerPool.shutdown();
+        }
+
+        double seconds = (lastCompletion.get() - firstCompletion.get()) / 1_000_000_000.0;
+        return new LoadResult((PAYMENTS - 1) / seconds, succeeded.get(), transactionManager.getMaxInUse());
+    }
+
+    private record LoadResult(double paymentsPerSecond, int succeeded, int maxConnectionsInUse) {
+    }
+
+    /**
+     * Sabit gecikmeli yerel gateway stub'ı
+     */
+    private static class LatencyGateway implements PaymentGateway {
+        private final long latencyMillis;
+
+        LatencyGateway(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public String processPayment(Payment payment) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "ext-" + payment.getId();
+        }
+
+        @Override
+        public String checkPaymentStatus(String externalPaymentId) {
+            return "SUCCESS";
+        }
+    }
+}
@@ -0,0 +1,688 @@
+package com.dumensel.payment.application.service;
+
+import com.dumensel.payment.application.cache.FinalPaymentCache;
+import com.dumensel.payment.application.dto.CardInfoDto;
+import com.dumensel.payment.application.dto.CreatePaymentRequest;
+import com.dumensel.payment.application.dto.PaymentHistoryPage;
+import com.dumensel.payment.application.dto.PaymentResponse;
+import com.dumensel.payment.application.gateway.GatewayFailoverPolicy;
+import com.dumensel.payment.application.gateway.GatewayWorkerPool;
+import com.dumensel.payment.application.gateway.PaymentGateway;
+import com.dumensel.payment.application.gateway.PaymentGatewayFactory;
+import com.dumensel.payment.application.gateway.ProviderRouter;
+import com.dumensel.payment.application.queue.PaymentJobQueue;
+import com.dumensel.payment.domain.model.*;
+import com.dumensel.payment.domain.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PaymentService
+ * Tests reserve / gateway / finalize orchestration with mocked dependencies
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentService Application Tests")
+class PaymentServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentGatewayFactory gatewayFactory;
+
+    @Mock
+    private PaymentGateway gateway;
+
+    private PooledTransactionManager transactionManager;
+
+    private GatewayWorkerPool workerPool;
+
+    private ProviderRouter providerRouter;
+
+    private SimpleMeterRegistry routingMetrics;
+
+    private GatewayFailoverPolicy failoverPolicy;
+
+    private FinalPaymentCache paymentCache;
+
+    private PaymentService paymentService;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = new PooledTransactionManager(1, 1000);
+        workerPool = new GatewayWorkerPool(new MockEnvironment(), new SimpleMeterRegistry(), 1, 1);
+        routingMetrics = new SimpleMeterRegistry();
+        providerRouter = new ProviderRouter(new MockEnvironment(), routingMetrics, gatewayFactory);
+        failoverPolicy = new GatewayFailoverPolicy(new MockEnvironment(), new SimpleMeterRegistry(), gatewayFactory);
+        paymentCache = new FinalPaymentCache(new MockEnvironment(), new SimpleMeterRegistry(), () -> true);
+        paymentService = new PaymentService(paymentRepository, gatewayFactory, providerRouter, failoverPolicy,
+            transactionManager, Optional.of(paymentCache), workerPool, Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        workerPool.shutdown();
+    }
+
+    static CreatePaymentRequest createRequest(String conversationId) {
+        CardInfoDto cardInfo = new CardInfoDto("John Doe", "5528790000000008", "12", "2030", "123");
+        return new CreatePaymentRequest(conversationId, new BigDecimal("100.00"),
+            "TRY", "buyer-1", "CRAFTGATE", cardInfo);
+    }
+
+    static CreatePaymentRequest createAutoRoutedRequest(String conversationId) {
+        CardInfoDto cardInfo = new CardInfoDto("John Doe", "5528790000000008", "12", "2030", "123");
+        return new CreatePaymentRequest(conversationId, new BigDecimal("100.00"),
+            "TRY", "buyer-1", ProviderRouter.AUTO, cardInfo);
+    }
+
+    static Payment createPayment(String conversationId) {
+        CardInfo cardInfo = new CardInfo("John Doe", "5528790000000008", "12", "2030", "123");
+        return new Payment(conversationId, new Money(new BigDecimal("100.00"), Currency.TRY),
+            new PaymentMethod(PaymentType.CREDIT_CARD, cardInfo), PaymentProvider.CRAFTGATE, "buyer-1");
+    }
+
+    @Nested
+    @DisplayName("Create Payment Use Case")
+    class CreatePaymentUseCase {
+
+        @Test
+        @DisplayName("Should mark payment as success when gateway approves")
+        void shouldMarkPaymentAsSuccessWhenGatewayApproves() {
+            // Given
+            when(paymentRepository.findByConversationId("conv-1")).thenReturn(Optional.empty());
+            when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(paymentRepository.saveIfAbsent(any(Payment.class))).thenReturn(true);
+            when(gatewayFactory.getGateway(PaymentProvider.CRAFTGATE)).thenReturn(gateway);
+            when(gateway.processPayment(any(Payment.class))).thenReturn("ext-1");
+
+            // When
+            PaymentResponse response = paymentService.createPayment(createRequest("conv-1"));
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo("SUCCESS");
+            assertThat(response.getExternalPaymentId()).isEqualTo("ext-1");
+            verify(paymentRepository).saveIfAbsent(any(Payment.class));
+            verify(paymentRepository, times(1)).save(any(Payment.class));
+        }
+
+        @Test
+        @DisplayName("Should mark payment as failed when gateway rejects")
+        void shouldMarkPaymentAsFailedWhenGatewayRejects() {
+            // Given
+            when(paymentRepository.findByConversationId("conv-2")).thenReturn(Optional.empty());
+            when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(paymentRepository.saveIfAbsent(any(Payment.class))).thenReturn(true);
+            when(gatewayFactory.getGateway(PaymentProvider.CRAFTGATE)).thenReturn(gateway);
+            when(gateway.processPayment(any(Payment.class)))
+                .thenThrow(new PaymentGatewayException("CARD_DECLINED", "Declined"));
+
+            // When
+            PaymentResponse response = paymentService.createPayment(createRequest("conv-2"));
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo("FAILED");
+            assertThat(response.getErrorCode()).isEqualTo("CARD_DECLINED");
+        }
+
+        @Test
+        @DisplayName("Should return existing payment for duplicate conversation ID")
+        void shouldReturnExistingPaymentForDuplicateConversationId() {
+            // Given
+            CreatePaymentRequest request = createRequest("conv-3");
+            Payment existing = createPayment("conv-3");
+            when(paymentRepository.findByConversationId("conv-3")).thenReturn(Optional.of(existing));
+
+            // When
+            PaymentResponse response = paymentService.createPayment(request);
+
+            // Then
+            assertThat(response.getId()).isEqualTo(existing.getId());
+            verify(paymentRepository, never()).saveIfAbsent(any());
+            verify(paymentRepository, never()).save(any());
+            verifyNoInteractions(gatewayFactory);
+        }
+
+        @Test
+        @DisplayName("Should not route a duplicate AUTO request")
+        void shouldNotRouteDuplicateAutoRequest() {
+            // Given
+            Payment existing = createPayment("conv-auto-1");
+            when(paymentRepository.findByConversationId("conv-auto-1")).thenReturn(Optional.of(existing));
+
+            // When
+            PaymentResponse response = paymentService.createPayment(createAutoRoutedRequest("conv-auto-1"));
+
+            // Then
+            assertThat(response.getId()).isEqualTo(existing.getId());
+            assertThat(routingMetrics.find("payment.routing.selected").counters()).isEmpty();
+            verifyNoInteractions(gatewayFactory);
+        }
+
+        @Test
+        @DisplayName("Should not hold a transaction while calling the gateway")
+        void shouldNotHoldTransactionWhileCallingGateway() {
+            // Given
+            AtomicBoolean transactionActiveDuringCall = new AtomicBoolean(true);
+            when(paymentRepository.findByConversationId("conv-4")).thenReturn(Optional.empty());
+            when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(paymentRepository.saveIfAbsent(any(Payment.class))).thenReturn(true);
+            when(gatewayFactory.getGateway(PaymentProvider.CRAFTGATE)).thenReturn(gateway);
+            when(gateway.processPayment(any(Payment.class))).thenAnswer(invocation -> {
+                transactionActiveDuringCall.set(TransactionSynchronizationManager.isActualTransactionActive());
+                return "ext-4";
+            });
+
+            // When
+            paymentService.createPayment(createRequest("conv-4"));
+
+            // Then
+            assertThat(transactionActiveDuringCall).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should send in-memory payment with card info to gateway, not the persisted copy")
+        void shouldSendInMemoryPaymentToGateway() {
+            // Given - persisted copy is a different instance (mapper cannot restore card info)
+            AtomicReference<Payment> reserved = new AtomicReference<>();
+            when(paymentRepository.findByConversationId("conv-5")).thenReturn(Optional.empty());
+            when(paymentRepository.saveIfAbsent(any(Payment.class))).thenAnswer(invocation -> {
+                reserved.set(invocation.getArgument(0));
+                return true;
+            });
+            when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> createPayment("conv-5"));
+            when(gatewayFactory.getGateway(PaymentProvider.CRAFTGATE)).thenReturn(gateway);
+            when(gateway.processPayment(any(Payment.class))).thenReturn("ext-5");
+
+            // When
+            paymentService.createPayment(createRequest("conv-5"));
+
+            // Then
+            verify(gateway).processPayment(same(reserved.get()));
+        }
+
+        @Test
+        @DisplayName("Should return the claimed payment when another node reserved the conversation ID first")
+        void shouldReturnClaimedPaymentWhenConversationTakenConcurrently() {
+            // Given - lookup misses, but the insert loses the race on conversation_id
+            Payment claimed = createPayment("conv-6");
+            when(paymentRepository.findByConversationId("conv-6"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(claimed));
+            when(paymentRepository.saveIfAbsent(any(Payment.class))).thenReturn(false);
+
+            // When
+            PaymentResponse response = paymentService.createPayment(createRequest("conv-6"));
+
+            // Then
+            assertThat(response.getId()).isEqualTo(claimed.getId());
+            verify(paymentRepository, never()).save(any());
+            verifyNoInteractions(gatewayFactory);
+        }
+
+        @Test
+        @DisplayName("Should not leave the reserved payment PENDING when the gateway throws unexpectedly")
+        void shouldFailPaymentOnUnexpectedGatewayError() {
+            // Given - reserve commit edildi, gateway PaymentGatewayException dışında bir hata fırlatıyor
+            AtomicReference<Payment> saved = new AtomicReference<>();
+            when(paymentRepository.findByConversationId("conv-7")).thenReturn(Optional.empty());
+            when(paymentRepository.saveIfAbsent(any(Payment.class))).thenReturn(true);
+            when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
+                saved.set(invocation.getArgument(0));
+                return invocation.getArgument(0);
+            });
+            when(gatewayFactory.getGateway(PaymentProvider.CRAFTGATE)).thenReturn(gateway);
+            when(gateway.processPayment(any(Payment.class))).thenThrow(new NullPointerException("response.status"));
+
+            // When / Then
+            assertThatThrownBy(() -> paymentService.createPayment(createRequest("conv-7")))
+                .isInstanceOf(NullPointerException.class);
+            assertThat(saved.get().getStatus()).isEqualTo(PaymentStatus.FAILED);
+            assertThat(saved.get().getErrorCode()).isEqualTo(PaymentService.GATEWAY_INTERNAL_ERROR);
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Payment Use Case")
+    class GetPaymentUseCase {
+
+        @Test
+        @DisplayName("Should serve a final payment from cache without querying again")
+        void shouldServeFinalPaymentFromCache() {
+            // Given
+            Payment payment = createPayment("get-1");
+            payment.markAsSuccess("ext-get-1");
+            when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+
+            // When
+            PaymentResponse first = paymentService.getPayment(payment.getId());
+            PaymentResponse second = paymentService.getPayment(payment.getId());
+
+            // Then
+            assertThat(second.getStatus()).isEqualTo("SUCCESS");
+            assertThat(second).isSameAs(first);
+            verify(paymentRepository, times(1)).findById(payment.getId());
+        }
+
+        @Test
+        @DisplayName("Should not cache a pending payment")
+        void shouldNotCachePendingPayment() {
+            // Given
+            Payment payment = createPayment("get-2");
+            when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+
+            // When
+            paymentService.getPayment(payment.getId());
+            paymentService.getPayment(payment.getId());
+
+            // Then
+            verify(paymentRepository, times(2)).findById(payment.getId());
+        }
+
+        @Test
+        @DisplayName("Should reload a cached payment after it moves to another final state")
+        void shouldInvalidateWhenPaymentIsSavedAgain() {
+            // Given - FAILED is cached, then the payment is completed successfully
+            Payment payment = createPayment("get-3");
+            payment.markAsFailed("AKBANK_TIMEOUT", "Read timed out");
+            when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+            when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(gatewayFactory.getGateway(PaymentProvider.CRAFTGATE)).thenReturn(gateway);
+            when(gateway.processPayment(any(Payment.class))).thenReturn("ext-get-3");
+            assertThat(paymentService.getPayment(payment.getId()).getStatus()).isEqualTo("FAILED");
+
+            // When
+            paymentService.completePayment(payment);
+
+            // Then
+            assertThat(paymentService.getPayment(payment.getId()).getStatus()).isEqualTo("SUCCESS");
+            verify(paymentRepository, times(2)).findById(payment.getId());
+        }
+
+        @Test
+        @DisplayName("Should throw when the payment does not exist")
+        void shouldThrowWhenPaymentNotFound() {
+            when(paymentRepository.findById("missing")).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> paymentService.getPayment("missing"))
+                .isInstanceOf(PaymentNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("Should answer the version of a cached payment without touching the repository")
+        void shouldServeVersionFromCache() {
+            // Given
+            Payment payment = createPayment("get-4");
+            payment.markAsSuccess("ext-get-4");
+            when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+            paymentService.getPayment(payment.getId());
+
+            // When
+            Optional<LocalDateTime> version = paymentService.getPaymentVersion(payment.getId());
+
+            // Then
+            assertThat(version).contains(payment.getUpdatedAt());
+            verify(paymentRepository, never()).findUpdatedAtById(any());
+        }
+
+        @Test
+        @DisplayName("Should read only updatedAt for the version of an uncached payment")
+        void shouldReadOnlyUpdatedAtWhenNotCached() {
+            // Given
+            LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+            when(paymentRepository.findUpdatedAtById("get-5")).thenReturn(Optional.of(updatedAt));
+
+            // When
+            Optional<LocalDateTime> version = paymentService.getPaymentVersion("get-5");
+
+            // Then
+            assertThat(version).contains(updatedAt);
+            verify(paymentRepository, never()).findById(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Payment History Use Case")
+    class PaymentHistoryUseCase {
+
+        @Test
+        @DisplayName("Should return a cursor from the last item when more payments exist")
+        void shouldReturnCursorWhenMorePaymentsExist() {
+            // Given - limit 2, repository returns limit + 1
+            List<Payment> payments = List.of(createPayment("h-1"), createPayment("h-2"), createPayment("h-3"));
+            when(paymentRepository.findPageByBuyerId("buyer-1", null, null, 3)).thenReturn(payments);
+
+            // When
+            PaymentHistoryPage page = paymentService.getPaymentHistory("buyer-1", null, 2);
+
+            // Then
+            assertThat(page.getItems()).extracting(PaymentResponse::getConversationId).containsExactly("h-1", "h-2");
+            PaymentHistoryCursor cursor = PaymentHistoryCursor.decode(page.getNextCursor());
+            assertThat(cursor.id()).isEqualTo(payments.get(1).getId());
+            assertThat(cursor.createdAt()).isEqualTo(payments.get(1).getCreatedAt());
+        }
+
+        @Test
+        @DisplayName("Should continue after the cursor and end without a next cursor")
+        void shouldContinueAfterCursor() {
+            // Given
+            Payment last = createPayment("h-4");
+            PaymentHistoryCursor cursor = PaymentHistoryCursor.of(createPayment("h-3"));
+            when(paymentRepository.findPageByBuyerId("buyer-1", cursor.createdAt(), cursor.id(), 3))
+                .thenReturn(List.of(last));
+
+            // When
+            PaymentHistoryPage page = paymentService.getPaymentHistory("buyer-1", cursor.encode(), 2);
+
+            // Then
+            assertThat(page.getItems()).hasSize(1);
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed cursor and out-of-range limits")
+        void shouldRejectInvalidInput() {
+            assertThatThrownBy(() -> paymentService.getPaymentHistory("buyer-1", "not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> paymentService.getPaymentHistory("buyer-1", null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> paymentService.getPaymentHistory("buyer-1", null,
+                PaymentService.MAX_HISTORY_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(paymentRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Submit Payment (Async) Use Case")
+    class SubmitPaymentUseCase {
+
+        @Test
+        @DisplayName("Should return PENDING immediately and complete on worker pool")
+        void shouldReturnPendingAndCompleteOnWorkerPool() throws Exception {
+            // Given
+            CountDownLatch release = new CountDownLatch(1);
+            when(paymentRepository.findByConversationId("async-1")).thenReturn(Optional.empty());
+            when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(paymentRepository.saveIfAbsent(any(Payment.class))).thenReturn(true);
+            when(gatewayFactory.getGateway(PaymentProvider.CRAFTGATE)).thenReturn(gateway);
+            when(gateway.processPayment(any(Payment.class))).thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return "ext-async-1";
+            });
+
+            // When
+            PaymentResponse response = paymentService.submitPayment(createRequest("async-1"));
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo("PENDING");
+            release.countDown();
+            verify(paymentRepository, timeout(5000).times(1)).save(any(Payment.class));
+        }
+
+        @Test
+        @DisplayName("Should reject without persisting when provider queue is full")
+        void shouldRejectWithoutPersistingWhenQueueIsFull() throws Exception {
+            // Given - 1 worker busy + 1 queued task fills the pool
+            CountDownLatch release = new CountDownLatch(1);
+            workerPool.submit(PaymentProvider.CRAFTGATE, () -> awaitQuietly(release));
+            workerPool.submit(PaymentProvider.CRAFTGATE, () -> awaitQuietly(release));
+
+            try {
+                // When & Then
+                assertThatThrownBy(() -> paymentService.submitPayment(createRequest("async-2")))
+                    .isInstanceOf(PaymentQueueFullException.class);
+                verify(paymentRepository).findByConversationId("async-2");
+                verifyNoMoreInteractions(paymentRepository);
+            } finally {
+                release.countDown();
+            }
+        }
+
+        @Test
+        @DisplayName("Should enqueue durable job in reservation transaction when job queue is enabled")
+        void shouldEnqueueDurableJobWhenJobQueueEnabled() {
+            // Given
+            PaymentJobQueue jobQueue = mock(PaymentJobQueue.class);
+            AtomicBoolean enqueuedInTransaction = new AtomicBoolean(false);
+            doAnswer(invocation -> {
+                enqueuedInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+                return null;
+            }).when(jobQueue).enqueue(any(Payment.class));
+            PaymentService durableService = new PaymentService(
+                paymentRepository, gatewayFactory, providerRouter, failoverPolicy,
+                transactionManager, Optional.of(paymentCache), workerPool, Optional.of(jobQueue));
+            when(paymentRepository.findByConversationId("async-3")).thenReturn(Optional.empty());
+            when(paymentRepository.saveIfAbsent(any(Payment.class))).thenReturn(true);
+
+            // When
+            PaymentResponse response = durableService.submitPayment(createRequest("async-3"));
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo("PENDING");
+            assertThat(enqueuedInTransaction).isTrue();
+            verify(paymentRepository, times(1)).saveIfAbsent(any(Payment.class));
+            verify(paymentRepository, never()).save(any());
+            verifyNoInteractions(gatewayFactory);
+        }
+
+        @Test
+        @DisplayName("Should return existing payment for a duplicate AUTO request without routing it")
+        void shouldReturnExistingPaymentWithoutRouting() throws Exception {
+            // Given - kuyruk dolu olsa da tekrar gelen istek mevcut sonucu alır
+            Payment existing = createPayment("async-4");
+            when(paymentRepository.findByConversationId("async-4")).thenReturn(Optional.of(existing));
+            CountDownLatch release = new CountDownLatch(1);
+            workerPool.submit(PaymentProvider.CRAFTGATE, () -> awaitQuietly(release));
+            workerPool.submit(PaymentProvider.CRAFTGATE, () -> awaitQuietly(release));
+
+            try {
+                // When
+                PaymentResponse response = paymentService.submitPayment(createAutoRoutedRequest("async-4"));
+
+                // Then
+                assertThat(response.getId()).isEqualTo(existing.getId());
+                assertThat(routingMetrics.find("payment.routing.selected").counters()).isEmpty();
+                verify(paymentRepository, never()).saveIfAbsent(any());
+                verifyNoInteractions(gatewayFactory);
+            } finally {
+                release.countDown();
+            }
+        }
+
+        private void awaitQuietly(CountDownLatch latch) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Gateway Failover")
+    class GatewayFailover {
+
+        @Mock
+        private PaymentGateway akbankGateway;
+
+        private PaymentService failoverService;
+
+        @BeforeEach
+        void setUp() {
+            MockEnvironment environment = new MockEnvironment()
+                .withProperty("payment.failover.enabled", "true")
+                .withProperty("payment.failover.chains.akbank", "CRAFTGATE");
+            GatewayFailoverPolicy policy = new GatewayFailoverPolicy(environment, new SimpleMeterRegistry(), gatewayFactory);
+            failoverService = new PaymentService(paymentRepository, gatewayFactory, providerRouter, policy,
+                transactionManager, Optional.of(paymentCache), workerPool, Optional.empty());
+            lenient().when(gatewayFactory.getActiveGateways())
+                .thenReturn(Map.of(PaymentProvider.AKBANK, akbankGateway, PaymentProvider.CRAFTGATE, gateway));
+            lenient().when(gatewayFactory.getGateway(PaymentProvider.AKBANK)).thenReturn(akbankGateway);
+            lenient().when(gatewayFactory.getGateway(PaymentProvider.CRAFTGATE)).thenReturn(gateway);
+            lenient().when(paymentRepository.findByConversationId(any())).thenReturn(Optional.empty());
+            lenient().when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            lenient().when(paymentRepository.saveIfAbsent(any(Payment.class))).thenReturn(true);
+        }
+
+        private CreatePaymentRequest akbankRequest(String conversationId) {
+            CreatePaymentRequest request = createRequest(conversationId);
+            request.setProvider("AKBANK");
+            return request;
+        }
+
+        @Test
+        @DisplayName("Should fail over to the secondary provider when the connection fails")
+        void shouldFailOverOnConnectionError() {
+            // Given
+            when(akbankGateway.processPayment(any(Payment.class)))
+                .thenThrow(new PaymentGatewayException("AKBANK_CONNECTION_ERROR", "Connection refused"));
+            when(gateway.processPayment(any(Payment.class))).thenReturn("ext-fo-1");
+
+            // When
+            PaymentResponse response = failoverService.createPayment(akbankRequest("fo-1"));
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo("SUCCESS");
+            assertThat(response.getProvider()).isEqualTo("CRAFTGATE");
+            assertThat(response.getAttemptedProviders()).containsExactly("AKBANK", "CRAFTGATE");
+            verify(akbankGateway, never()).findCapturedPayment(any());
+            // failover attempt + finalize (reserve: saveIfAbsent)
+            verify(paymentRepository, times(2)).save(any(Payment.class));
+        }
+
+        @Test
+        @DisplayName("Should not fail over on a decline")
+        void shouldNotFailOverOnDecline() {
+            // Given
+            when(akbankGateway.processPayment(any(Payment.class)))
+                .thenThrow(new PaymentGatewayException("AKBANK_PAYMENT_DECLINED", "Declined"));
+
+            // When
+            PaymentResponse response = failoverService.createPayment(akbankRequest("fo-2"));
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo("FAILED");
+            assertThat(response.getAttemptedProviders()).containsExactly("AKBANK");
+            verifyNoInteractions(gateway);
+        }
+
+        @Test
+        @DisplayName("Should not fail over on a bank-side rejection or an unclassified error")
+        void shouldNotFailOverOnRejectionOrUnclassifiedError() {
+            // Given
+            when(akbankGateway.processPayment(any(Payment.class)))
+                .thenThrow(new PaymentGatewayException("AKBANK_REQUEST_REJECTED", "400 Bad Request"))
+                .thenThrow(new PaymentGatewayException("AKBANK_TECHNICAL_ERROR", "Unexpected error"));
+
+            // When
+            PaymentResponse rejected = failoverService.createPayment(akbankRequest("fo-2a"));
+            PaymentResponse unclassified = failoverService.createPayment(akbankRequest("fo-2b"));
+
+            // Then
+            assertThat(rejected.getStatus()).isEqualTo("FAILED");
+            assertThat(rejected.getErrorCode()).isEqualTo("AKBANK_REQUEST_REJECTED");
+            assertThat(unclassified.getStatus()).isEqualTo("FAILED");
+            assertThat(unclassified.getAttemptedProviders()).containsExactly("AKBANK");
+            verify(akbankGateway, never()).findCapturedPayment(any());
+            verifyNoInteractions(gateway);
+        }
+
+        @Test
+        @DisplayName("Should fail over after a timeout only when the primary confirms no capture")
+        void shouldFailOverOnTimeoutWhenNotCaptured() {
+            // Given
+            when(akbankGateway.processPayment(any(Payment.class)))
+                .thenThrow(new PaymentGatewayException("AKBANK_TIMEOUT", "Read timed out"));
+            when(akbankGateway.findCapturedPayment(any(Payment.class))).thenReturn(Optional.empty());
+            when(gateway.processPayment(any(Payment.class))).thenReturn("ext-fo-3");
+
+            // When
+            PaymentResponse response = failoverService.createPayment(akbankRequest("fo-3"));
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo("SUCCESS");
+            assertThat(response.getExternalPaymentId()).isEqualTo("ext-fo-3");
+        }
+
+        @Test
+        @DisplayName("Should not capture twice when the primary captured despite a timeout")
+        void shouldNotCaptureTwice() {
+            // Given
+            when(akbankGateway.processPayment(any(Payment.class)))
+                .thenThrow(new PaymentGatewayException("AKBANK_TIMEOUT", "Read timed out"));
+            when(akbankGateway.findCapturedPayment(any(Payment.class))).thenReturn(Optional.of("akbank-tx-4"));
+
+            // When
+            PaymentResponse response = failoverService.createPayment(akbankRequest("fo-4"));
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo("SUCCESS");
+            assertThat(response.getProvider()).isEqualTo("AKBANK");
+            assertThat(response.getExternalPaymentId()).isEqualTo("akbank-tx-4");
+            verifyNoInteractions(gateway);
+        }
+
+        @Test
+        @DisplayName("Should not fail over when the capture state is unknown")
+        void shouldNotFailOverWhenCaptureUnknown() {
+            // Given
+            when(akbankGateway.processPayment(any(Payment.class)))
+                .thenThrow(new PaymentGatewayException("AKBANK_TIMEOUT", "Read timed out"));
+            when(akbankGateway.findCapturedPayment(any(Payment.class)))
+                .thenThrow(new PaymentGatewayException("AKBANK_STATUS_CHECK_FAILED", "Lookup failed"));
+
+            // When
+            PaymentResponse response = failoverService.createPayment(akbankRequest("fo-5"));
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo("FAILED");
+            assertThat(response.getErrorCode()).isEqualTo("AKBANK_TIMEOUT");
+            verifyNoInteractions(gateway);
+        }
+
+        @Test
+        @DisplayName("Should try each provider at most once")
+        void shouldTryEachProviderOnce() {
+            // Given - both providers unreachable
+            when(akbankGateway.processPayment(any(Payment.class)))
+                .thenThrow(new PaymentGatewayException("AKBANK_CONNECTION_ERROR", "Connection refused"));
+            when(gateway.processPayment(any(Payment.class)))
+                .thenThrow(new PaymentGatewayException("GATEWAY_CIRCUIT_OPEN", "Circuit open"));
+
+            // When
+            PaymentResponse response = failoverService.createPayment(akbankRequest("fo-6"));
+
+            // Then
+            assertThat(response.getStatus()).isEqualTo("FAILED");
+            assertThat(response.getErrorCode()).isEqualTo("GATEWAY_CIRCUIT_OPEN");
+            assertThat(response.getAttemptedProviders()).isEqualTo(List.of("AKBANK", "CRAFTGATE"));
+            verify(akbankGateway, times(1)).processPayment(any());
+            verify(gateway, times(1)).processPayment(any());
+        }
+    }
+}
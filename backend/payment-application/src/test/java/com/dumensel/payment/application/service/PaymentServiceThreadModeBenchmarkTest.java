@@ -0,0 +1,139 @@
+package com.dumensel.payment.application.service;
+
+import com.dumensel.payment.application.cache.FinalPaymentCache;
+import com.dumensel.payment.application.gateway.GatewayFailoverPolicy;
+import com.dumensel.payment.application.gateway.GatewayWorkerPool;
+import com.dumensel.payment.application.gateway.PaymentGateway;
+import com.dumensel.payment.application.gateway.PaymentGatewayFactory;
+import com.dumensel.payment.application.gateway.ProviderRouter;
+import com.dumensel.payment.domain.model.Payment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark: platform thread vs virtual thread
+ * 500 ms gecikmeli yerel gateway stub'ına aynı anda gelen ödemeler için
+ * eşzamanlı gateway çağrısı sayısını ve p99 gecikmeyi karşılaştırır.
+ * Platform modu Tomcat varsayılanı olan 200 thread ile sınırlıdır.
+ * Uzun sürdüğü için isteğe bağlı: mvn test -Dpayment.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "payment.benchmark", matches = "true")
+@DisplayName("PaymentService Thread Mode Benchmark")
+class PaymentServiceThreadModeBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentServiceThreadModeBenchmarkTest.class);
+
+    private static final int PAYMENTS = 1_000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long GATEWAY_LATENCY_MILLIS = 500;
+
+    @Test
+    @DisplayName("Virtual threads should not cap in-flight gateway calls at the request thread pool size")
+    void virtualThreadsShouldRaiseInFlightPayments() throws Exception {
+        ExecutorService platformThreads = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        BenchmarkResult platform;
+        try {
+            platform = runBenchmark("platform", platformThreads);
+        } finally {
+            platformThreads.shutdownNow();
+        }
+        BenchmarkResult virtual = runBenchmark("virtual", new VirtualThreadTaskExecutor("payment-request-"));
+
+        for (BenchmarkResult result : new BenchmarkResult[] {platform, virtual}) {
+            logger.info("{} -> max in-flight={}, p99={} ms, max connections in use={}",
+                result.mode(), result.maxInFlight(), result.p99Millis(), result.maxConnectionsInUse());
+        }
+
+        // Platform: en fazla 200 çağrı, kalanlar thread bekler (~5 dalga x 500 ms)
+        assertThat(platform.maxInFlight()).isLessThanOrEqualTo(TOMCAT_MAX_THREADS);
+        assertThat(virtual.maxInFlight()).isGreaterThan(TOMCAT_MAX_THREADS * 2);
+        assertThat(virtual.p99Millis()).isLessThan(platform.p99Millis() / 2);
+    }
+
+    private BenchmarkResult runBenchmark(String mode, Executor requestThreads) throws Exception {
+        PooledTransactionManager transactionManager = new PooledTransactionManager(10, 5_000);
+        InFlightGateway gateway = new InFlightGateway();
+        PaymentGatewayFactory gatewayFactory = mock(PaymentGatewayFactory.class);
+        when(gatewayFactory.getGateway(any())).thenReturn(gateway);
+        GatewayWorkerPool workerPool = new GatewayWorkerPool(new MockEnvironment(), new SimpleMeterRegistry(), 1, 1);
+        PaymentService paymentService = new PaymentService(
+            new InMemoryPaymentRepository(), gatewayFactory,
+            new ProviderRouter(new MockEnvironment(), new SimpleMeterRegistry(), gatewayFactory),
+            new GatewayFailoverPolicy(new MockEnvironment(), new SimpleMeterRegistry(), gatewayFactory),
+            transactionManager, Optional.of(new FinalPaymentCache(new MockEnvironment(), new SimpleMeterRegistry(), () -> true)), workerPool, Optional.empty());
+
+        long[] latencies = new long[PAYMENTS];
+        CountDownLatch done = new CountDownLatch(PAYMENTS);
+
+        try {
+            for (int i = 0; i < PAYMENTS; i++) {
+                int n = i;
+                long arrival = System.nanoTime();
+                requestThreads.execute(() -> {
+                    try {
+                        paymentService.createPayment(PaymentServiceTest.createRequest("bench-" + mode + "-" + n));
+                    } finally {
+                        latencies[n] = System.nanoTime() - arrival;
+                        done.countDown();
+                    }
+                });
+            }
+            assertThat(done.await(60, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            workerPool.shutdown();
+        }
+
+        Arrays.sort(latencies);
+        long p99 = TimeUnit.NANOSECONDS.toMillis(latencies[(int) Math.ceil(PAYMENTS * 0.99) - 1]);
+        return new BenchmarkResult(mode, gateway.maxInFlight.get(), p99, transactionManager.getMaxInUse());
+    }
+
+    private record BenchmarkResult(String mode, int maxInFlight, long p99Millis, int maxConnectionsInUse) {
+    }
+
+    /**
+     * 500 ms gecikmeli gateway stub'ı, eşzamanlı çağrı sayısını ölçer
+     */
+    private static class InFlightGateway implements PaymentGateway {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public String processPayment(Payment payment) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(GATEWAY_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return "ext-" + payment.getId();
+        }
+
+        @Override
+        public String checkPaymentStatus(String externalPaymentId) {
+            return "SUCCESS";
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.dumensel.payment.application.service;
+
+import com.dumensel.payment.application.dto.UserPointsDto;
+import com.dumensel.payment.domain.model.PointsEntryType;
+import com.dumensel.payment.domain.model.PointsLedgerEntry;
+import com.dumensel.payment.domain.model.UserPoints;
+import com.dumensel.payment.domain.repository.UserPointsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PointsGroupCommitter
+ * Repository ve transaction manager mock'lanır; batch'ler gerçek flusher thread'inde commit edilir
+ */
+@DisplayName("PointsGroupCommitter Tests")
+class PointsGroupCommitterTest {
+
+    private final UserPointsRepository userPointsRepository = mock(UserPointsRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PointsGroupCommitter committer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        committer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Concurrent operations should be committed together, each validated on its own")
+    @SuppressWarnings("unchecked")
+    void shouldCommitConcurrentOperationsInOneBatch() throws Exception {
+        // Given - batch 4 işlem dolunca commit edilir; u2'nin bakiyesi iki harcamadan sadece birine yeter
+        committer = new PointsGroupCommitter(userPointsRepository, transactionManager, meterRegistry, 5_000, 4, 100);
+        when(userPointsRepository.lockBalances(any())).thenReturn(Map.of(
+            "u1", balance("u1", "5.00"),
+            "u2", balance("u2", "3.00")));
+
+        // When
+        List<Object> outcomes = runConcurrently(
+            entry("u1", PointsEntryType.EARN, "10.00"),
+            entry("u2", PointsEntryType.SPEND, "2.00"),
+            entry("u2", PointsEntryType.SPEND, "2.00"),
+            entry("u3", PointsEntryType.SPEND, "1.00"));
+
+        // Then
+        assertThat(outcomes.get(0)).isInstanceOfSatisfying(UserPointsDto.class,
+            dto -> assertThat(dto.getAvailablePoints()).isEqualByComparingTo("15.00"));
+        assertThat(outcomes.subList(1, 3))
+            .filteredOn(UserPointsDto.class::isInstance).singleElement()
+            .satisfies(dto -> assertThat(((UserPointsDto) dto).getAvailablePoints()).isEqualByComparingTo("1.00"));
+        assertThat(outcomes.subList(1, 3))
+            .filteredOn(IllegalStateException.class::isInstance).singleElement()
+            .satisfies(e -> assertThat((Exception) e).hasMessageContaining("Insufficient available points"));
+        assertThat(outcomes.get(3)).isInstanceOf(UserPointsNotFoundException.class);
+
+        ArgumentCaptor<List<PointsLedgerEntry>> recorded = ArgumentCaptor.forClass(List.class);
+        verify(userPointsRepository).lockBalances(any());
+        verify(userPointsRepository).recordAll(recorded.capture());
+        assertThat(recorded.getValue()).extracting(PointsLedgerEntry::getUserId).containsExactlyInAnyOrder("u1", "u2");
+        verify(transactionManager, times(1)).commit(any());
+        assertThat(meterRegistry.get("payment.points.group-commit.batch.size").summary().max()).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("A failed transaction should fail every operation of the batch")
+    void shouldFailWholeBatchWhenTransactionFails() {
+        // Given
+        committer = new PointsGroupCommitter(userPointsRepository, transactionManager, meterRegistry, 0, 1, 100);
+        when(userPointsRepository.lockBalances(any())).thenReturn(Map.of());
+        doThrow(new IllegalStateException("connection lost")).when(userPointsRepository).recordAll(any());
+
+        // When / Then
+        assertThatThrownBy(() -> committer.apply(entry("u1", PointsEntryType.EARN, "1.00")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("connection lost");
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    // Her işlem kendi thread'inden; sonuç ya dönen bakiye ya da fırlatılan exception
+    private List<Object> runConcurrently(PointsLedgerEntry... entries) throws Exception {
+        List<Future<Object>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (PointsLedgerEntry entry : entries) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return committer.apply(entry);
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+        }
+        List<Object> outcomes = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            outcomes.add(future.get());
+        }
+        return outcomes;
+    }
+
+    private static UserPoints balance(String userId, String available) {
+        UserPoints userPoints = new UserPoints(userId);
+        userPoints.earnPoints(new BigDecimal(available));
+        return userPoints;
+    }
+
+    private static PointsLedgerEntry entry(String userId, PointsEntryType type, String points) {
+        return new PointsLedgerEntry(userId, type, new BigDecimal(points));
+    }
+}
@@ -0,0 +1,64 @@
+package com.dumensel.payment.application.service;
+
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test transaction manager that simulates a bounded JDBC connection pool
+ * Her transaction bir "bağlantı" izni alır ve commit/rollback sonrası geri bırakır
+ */
+class PooledTransactionManager extends AbstractPlatformTransactionManager {
+
+    private final Semaphore connections;
+    private final long acquireTimeoutMillis;
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger maxInUse = new AtomicInteger();
+
+    PooledTransactionManager(int poolSize, long acquireTimeoutMillis) {
+        this.connections = new Semaphore(poolSize, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        try {
+            if (!connections.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new CannotCreateTransactionException("Connection is not available, request timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotCreateTransactionException("Interrupted while waiting for connection", e);
+        }
+        int current = inUse.incrementAndGet();
+        maxInUse.accumulateAndGet(current, Math::max);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        inUse.decrementAndGet();
+        connections.release();
+    }
+
+    int getMaxInUse() {
+        return maxInUse.get();
+    }
+}
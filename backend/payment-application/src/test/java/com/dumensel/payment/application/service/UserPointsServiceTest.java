@@ -8,7 +8,6 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -31,9 +30,13 @@ class UserPointsServiceTest {
     @Mock
     private UserPointsRepository userPointsRepository;
 
-    @InjectMocks
     private UserPointsService userPointsService;
 
+    @BeforeEach
+    void setUp() {
+        userPointsService = new UserPointsService(userPointsRepository, Optional.empty());
+    }
+
     @Nested
     @DisplayName("Get User Points Use Case")
     class GetUserPointsUseCase {
@@ -63,16 +66,13 @@ class UserPointsServiceTest {
         }
 
         @Test
-        @DisplayName("Should create new user points when not exists")
-        void shouldCreateNewUserPointsWhenNotExists() {
+        @DisplayName("Should return zero balance without creating a record when not exists")
+        void shouldReturnZeroBalanceWithoutCreatingRecordWhenNotExists() {
             // Given
             String userId = "newuser123";
-            UserPoints newUserPoints = new UserPoints(userId);
 
             when(userPointsRepository.findByUserId(userId))
                 .thenReturn(Optional.empty());
-            when(userPointsRepository.save(any(UserPoints.class)))
-                .thenReturn(newUserPoints);
 
             // When
             UserPointsDto result = userPointsService.getUserPoints(userId);
@@ -82,9 +82,10 @@ class UserPointsServiceTest {
             assertThat(result.getUserId()).isEqualTo(userId);
             assertThat(result.getTotalPoints()).isEqualByComparingTo(BigDecimal.ZERO);
             assertThat(result.getAvailablePoints()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(result.getLastUpdated()).isNull();
             
             verify(userPointsRepository, times(1)).findByUserId(userId);
-            verify(userPointsRepository, times(1)).save(any(UserPoints.class));
+            verify(userPointsRepository, never()).save(any());
         }
 
         @Test
@@ -116,22 +117,20 @@ class UserPointsServiceTest {
     class EarnPointsUseCase {
 
         @Test
-        @DisplayName("Should earn points for existing user")
+        @DisplayName("Should earn points atomically for existing user")
         void shouldEarnPointsForExistingUser() {
             // Given
             String userId = "user123";
-            UserPoints existingUserPoints = new UserPoints(userId);
-            existingUserPoints.earnPoints(new BigDecimal("50.00"));
+            UserPoints updatedUserPoints = new UserPoints(userId);
+            updatedUserPoints.earnPoints(new BigDecimal("80.00"));
 
             EarnPointsRequest request = new EarnPointsRequest();
             request.setUserId(userId);
             request.setPoints(new BigDecimal("30.00"));
             request.setReason("Payment completed");
 
-            when(userPointsRepository.findByUserId(userId))
-                .thenReturn(Optional.of(existingUserPoints));
-            when(userPointsRepository.save(any(UserPoints.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+            when(userPointsRepository.addPoints(userId, new BigDecimal("30.00")))
+                .thenReturn(updatedUserPoints);
 
             // When
             UserPointsDto result = userPointsService.earnPoints(request);
@@ -140,33 +139,33 @@ class UserPointsServiceTest {
             assertThat(result.getTotalPoints()).isEqualByComparingTo(new BigDecimal("80.00"));
             assertThat(result.getAvailablePoints()).isEqualByComparingTo(new BigDecimal("80.00"));
             
-            verify(userPointsRepository, times(1)).findByUserId(userId);
-            verify(userPointsRepository, times(1)).save(any(UserPoints.class));
+            verify(userPointsRepository, times(1)).addPoints(userId, new BigDecimal("30.00"));
+            verify(userPointsRepository, never()).findByUserId(anyString());
+            verify(userPointsRepository, never()).save(any());
         }
 
         @Test
         @DisplayName("Should create new user points and earn when not exists")
         void shouldCreateNewUserPointsAndEarnWhenNotExists() {
-            // Given
+            // Given - upsert kaydı repository'de oluşturur
             String userId = "newuser123";
+            UserPoints createdUserPoints = new UserPoints(userId);
+            createdUserPoints.earnPoints(new BigDecimal("50.00"));
+
             EarnPointsRequest request = new EarnPointsRequest();
             request.setUserId(userId);
             request.setPoints(new BigDecimal("50.00"));
 
-            when(userPointsRepository.findByUserId(userId))
-                .thenReturn(Optional.empty());
-            when(userPointsRepository.save(any(UserPoints.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+            when(userPointsRepository.addPoints(userId, new BigDecimal("50.00")))
+                .thenReturn(createdUserPoints);
 
             // When
             UserPointsDto result = userPointsService.earnPoints(request);
 
             // Then
+            assertThat(result.getUserId()).isEqualTo(userId);
             assertThat(result.getTotalPoints()).isEqualByComparingTo(new BigDecimal("50.00"));
             assertThat(result.getAvailablePoints()).isEqualByComparingTo(new BigDecimal("50.00"));
-            
-            verify(userPointsRepository, times(1)).findByUserId(userId);
-            verify(userPointsRepository, times(1)).save(any(UserPoints.class));
         }
 
         @Test
@@ -174,21 +173,17 @@ class UserPointsServiceTest {
         void shouldHandleDomainValidationForInvalidPoints() {
             // Given
             String userId = "user123";
-            UserPoints userPoints = new UserPoints(userId);
 
             EarnPointsRequest request = new EarnPointsRequest();
             request.setUserId(userId);
             request.setPoints(new BigDecimal("-10.00")); // Invalid negative points
 
-            when(userPointsRepository.findByUserId(userId))
-                .thenReturn(Optional.of(userPoints));
-
             // When & Then
             assertThatThrownBy(() -> userPointsService.earnPoints(request))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Points must be positive");
             
-            verify(userPointsRepository, never()).save(any());
+            verifyNoInteractions(userPointsRepository);
         }
     }
 
@@ -197,22 +192,21 @@ class UserPointsServiceTest {
     class SpendPointsUseCase {
 
         @Test
-        @DisplayName("Should spend points successfully")
+        @DisplayName("Should spend points atomically")
         void shouldSpendPointsSuccessfully() {
             // Given
             String userId = "user123";
-            UserPoints userPoints = new UserPoints(userId);
-            userPoints.earnPoints(new BigDecimal("100.00"));
+            UserPoints updatedUserPoints = new UserPoints(userId);
+            updatedUserPoints.earnPoints(new BigDecimal("100.00"));
+            updatedUserPoints.spendPoints(new BigDecimal("30.00"));
 
             SpendPointsRequest request = new SpendPointsRequest();
             request.setUserId(userId);
             request.setPoints(new BigDecimal("30.00"));
             request.setReason("Used in payment");
 
-            when(userPointsRepository.findByUserId(userId))
-                .thenReturn(Optional.of(userPoints));
-            when(userPointsRepository.save(any(UserPoints.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+            when(userPointsRepository.deductPoints(userId, new BigDecimal("30.00")))
+                .thenReturn(Optional.of(updatedUserPoints));
 
             // When
             UserPointsDto result = userPointsService.spendPoints(request);
@@ -221,8 +215,9 @@ class UserPointsServiceTest {
             assertThat(result.getTotalPoints()).isEqualByComparingTo(new BigDecimal("100.00")); // Total never decreases
             assertThat(result.getAvailablePoints()).isEqualByComparingTo(new BigDecimal("70.00"));
             
-            verify(userPointsRepository, times(1)).findByUserId(userId);
-            verify(userPointsRepository, times(1)).save(any(UserPoints.class));
+            verify(userPointsRepository, times(1)).deductPoints(userId, new BigDecimal("30.00"));
+            verify(userPointsRepository, never()).findByUserId(anyString());
+            verify(userPointsRepository, never()).save(any());
         }
 
         @Test
@@ -234,6 +229,8 @@ class UserPointsServiceTest {
             request.setUserId(userId);
             request.setPoints(new BigDecimal("30.00"));
 
+            when(userPointsRepository.deductPoints(userId, new BigDecimal("30.00")))
+                .thenReturn(Optional.empty());
             when(userPointsRepository.findByUserId(userId))
                 .thenReturn(Optional.empty());
 
@@ -257,16 +254,35 @@ class UserPointsServiceTest {
             request.setUserId(userId);
             request.setPoints(new BigDecimal("100.00")); // More than available
 
+            when(userPointsRepository.deductPoints(userId, new BigDecimal("100.00")))
+                .thenReturn(Optional.empty());
             when(userPointsRepository.findByUserId(userId))
                 .thenReturn(Optional.of(userPoints));
 
             // When & Then
             assertThatThrownBy(() -> userPointsService.spendPoints(request))
                 .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("Insufficient available points");
+                .hasMessageContaining("Insufficient available points")
+                .hasMessageContaining("Requested: 100.00");
             
             verify(userPointsRepository, never()).save(any());
         }
+
+        @Test
+        @DisplayName("Should reject non-positive points before touching the repository")
+        void shouldRejectNonPositivePoints() {
+            // Given
+            SpendPointsRequest request = new SpendPointsRequest();
+            request.setUserId("user123");
+            request.setPoints(BigDecimal.ZERO);
+
+            // When & Then
+            assertThatThrownBy(() -> userPointsService.spendPoints(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Points must be positive");
+
+            verifyNoInteractions(userPointsRepository);
+        }
     }
 
     @Nested
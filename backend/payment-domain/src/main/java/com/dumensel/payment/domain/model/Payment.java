@@ -2,7 +2,8 @@ package com.dumensel.payment.domain.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Payment Aggregate Root
@@ -21,16 +22,18 @@ public class Payment {
     private String externalPaymentId; // External gateway payment ID
     private String errorMessage;
     private String errorCode;
+    private List<PaymentProvider> attemptedProviders; // Failover dahil denenen tüm provider'lar (sırasıyla)
 
     // Business constructor (for creating new payments)
     public Payment(String conversationId, Money amount, PaymentMethod paymentMethod, 
                    PaymentProvider provider, String buyerId) {
-        this.id = UUID.randomUUID().toString();
+        this.id = UuidV7.next(); // zaman sıralı: payments PK index'ine sıralı ekleme
         this.conversationId = conversationId;
         this.amount = amount;
         this.paymentMethod = paymentMethod;
         this.provider = provider;
         this.buyerId = buyerId;
+        this.attemptedProviders = new ArrayList<>(List.of(provider));
         this.status = PaymentStatus.PENDING;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -40,7 +43,8 @@ public class Payment {
     // Package-private: Only infrastructure layer can use this
     Payment(String id, String conversationId, Money amount, PaymentStatus status,
             PaymentMethod paymentMethod, PaymentProvider provider, String buyerId, LocalDateTime createdAt,
-            LocalDateTime updatedAt, String externalPaymentId, String errorMessage, String errorCode) {
+            LocalDateTime updatedAt, String externalPaymentId, String errorMessage, String errorCode,
+            List<PaymentProvider> attemptedProviders) {
         this.id = id;
         this.conversationId = conversationId;
         this.amount = amount;
@@ -53,6 +57,9 @@ public class Payment {
         this.externalPaymentId = externalPaymentId;
         this.errorMessage = errorMessage;
         this.errorCode = errorCode;
+        this.attemptedProviders = attemptedProviders == null || attemptedProviders.isEmpty()
+            ? new ArrayList<>(List.of(provider))
+            : new ArrayList<>(attemptedProviders);
     }
 
     // Business logic: Ödeme başarılı olarak işaretlenir
@@ -76,6 +83,24 @@ public class Payment {
         this.updatedAt = LocalDateTime.now();
     }
 
+    // Business logic: Teknik hata sonrası ikincil provider'a geçiş
+    // Her provider en fazla bir kez denenir; aynı tutar aynı provider'a tekrar gönderilmez
+    public void failoverTo(PaymentProvider nextProvider) {
+        if (this.status != PaymentStatus.PENDING) {
+            throw new IllegalStateException("Only pending payments can fail over");
+        }
+        if (this.attemptedProviders.contains(nextProvider)) {
+            throw new IllegalStateException("Provider already attempted for this payment: " + nextProvider);
+        }
+        this.provider = nextProvider;
+        this.attemptedProviders.add(nextProvider);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public boolean hasAttempted(PaymentProvider provider) {
+        return attemptedProviders.contains(provider);
+    }
+
     // Business logic: İptal kontrolü
     public void cancel() {
         if (this.status == PaymentStatus.SUCCESS) {
@@ -85,6 +110,14 @@ public class Payment {
         this.updatedAt = LocalDateTime.now();
     }
 
+    // Kart bilgisi veritabanında saklanmaz; kuyruktaki iş işlenirken geri yüklenir
+    public void restoreCardInfo(CardInfo cardInfo) {
+        if (this.status != PaymentStatus.PENDING) {
+            throw new IllegalStateException("Card info can only be restored for pending payments");
+        }
+        this.paymentMethod = new PaymentMethod(this.paymentMethod.getType(), cardInfo);
+    }
+
     // İdempotency kontrolü için conversationId kullanılır
     public boolean isSameConversation(String conversationId) {
         return this.conversationId.equals(conversationId);
@@ -138,5 +171,9 @@ public class Payment {
     public String getErrorCode() {
         return errorCode;
     }
+
+    public List<PaymentProvider> getAttemptedProviders() {
+        return List.copyOf(attemptedProviders);
+    }
 }
 
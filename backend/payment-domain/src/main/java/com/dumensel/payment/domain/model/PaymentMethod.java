@@ -17,6 +17,16 @@ public class PaymentMethod {
         }
     }
 
+    // Veritabanından restore için: kart bilgisi saklanmadığından cardInfo yoktur
+    private PaymentMethod(PaymentType type) {
+        this.type = type;
+        this.cardInfo = null;
+    }
+
+    public static PaymentMethod restore(PaymentType type) {
+        return new PaymentMethod(type);
+    }
+
     public PaymentType getType() {
         return type;
     }
@@ -0,0 +1,28 @@
+package com.dumensel.payment.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Points ledger entry types
+ * Her tip UserPoints'teki bir iş kuralına karşılık gelir (bakiye etkisi V11'deki points_ledger_deltas view'ında)
+ */
+public enum PointsEntryType {
+    EARN,
+    SPEND,
+    LOCK,
+    UNLOCK,
+    CONSUME;
+
+    /**
+     * İlgili domain metodunu çağırır: doğrulama kuralları (pozitif miktar, yetersiz bakiye) aynen uygulanır
+     */
+    public void applyTo(UserPoints userPoints, BigDecimal points) {
+        switch (this) {
+            case EARN -> userPoints.earnPoints(points);
+            case SPEND -> userPoints.spendPoints(points);
+            case LOCK -> userPoints.lockPoints(points);
+            case UNLOCK -> userPoints.unlockPoints(points);
+            case CONSUME -> userPoints.consumeLockedPoints(points);
+        }
+    }
+}
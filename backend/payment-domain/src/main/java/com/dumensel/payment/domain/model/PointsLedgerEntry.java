@@ -0,0 +1,62 @@
+package com.dumensel.payment.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Value Object for a points ledger entry
+ * Append-only: oluşturulduktan sonra değişmez; bakiye = snapshot + henüz katlanmamış entry'ler
+ */
+public class PointsLedgerEntry {
+    private final String userId;
+    private final PointsEntryType type;
+    private final BigDecimal points;
+    private final LocalDateTime createdAt;
+
+    public PointsLedgerEntry(String userId, PointsEntryType type, BigDecimal points) {
+        this(userId, type, points, LocalDateTime.now());
+    }
+
+    public PointsLedgerEntry(String userId, PointsEntryType type, BigDecimal points, LocalDateTime createdAt) {
+        if (userId == null || userId.isBlank()) {
+            throw new IllegalArgumentException("User ID cannot be empty");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Entry type cannot be null");
+        }
+        UserPoints.requirePositive(points);
+        this.userId = userId;
+        this.type = type;
+        this.points = points;
+        this.createdAt = Objects.requireNonNull(createdAt, "createdAt");
+    }
+
+    /**
+     * Business logic: Entry'yi bakiyeye uygula (UserPoints kuralları ile)
+     */
+    public void applyTo(UserPoints userPoints) {
+        type.applyTo(userPoints, points);
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public PointsEntryType getType() {
+        return type;
+    }
+
+    public BigDecimal getPoints() {
+        return points;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + points + " for " + userId;
+    }
+}
@@ -44,9 +44,7 @@ public class UserPoints {
      * Başarılı ödeme sonrası puan eklenir
      */
     public void earnPoints(BigDecimal points) {
-        if (points == null || points.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Points must be positive");
-        }
+        requirePositive(points);
         
         this.totalPoints = this.totalPoints.add(points);
         this.availablePoints = this.availablePoints.add(points);
@@ -58,13 +56,10 @@ public class UserPoints {
      * Ödeme sırasında puan kullanımı
      */
     public void spendPoints(BigDecimal points) {
-        if (points == null || points.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Points must be positive");
-        }
+        requirePositive(points);
         
         if (this.availablePoints.compareTo(points) < 0) {
-            throw new IllegalStateException("Insufficient available points. Available: " 
-                + availablePoints + ", Requested: " + points);
+            throw insufficientPoints(points);
         }
         
         this.availablePoints = this.availablePoints.subtract(points);
@@ -124,6 +119,24 @@ public class UserPoints {
         this.lastUpdated = LocalDateTime.now();
     }
 
+    /**
+     * Business rule: Puan miktarı pozitif olmalı
+     * Repository'deki atomik earn/spend yolları da aynı kuralı uygular
+     */
+    public static void requirePositive(BigDecimal points) {
+        if (points == null || points.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Points must be positive");
+        }
+    }
+
+    /**
+     * Business rule: Yetersiz bakiye hatası (spendPoints ile atomik harcama aynı mesajı verir)
+     */
+    public IllegalStateException insufficientPoints(BigDecimal requestedPoints) {
+        return new IllegalStateException("Insufficient available points. Available: "
+            + availablePoints + ", Requested: " + requestedPoints);
+    }
+
     /**
      * Business logic: Yeterli puan kontrolü
      */
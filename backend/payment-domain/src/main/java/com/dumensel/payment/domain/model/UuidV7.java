@@ -0,0 +1,55 @@
+package com.dumensel.payment.domain.model;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUID (RFC 9562 version 7) generator
+ * İlk 48 bit Unix milisaniye zamanıdır: yeni id'ler B-tree'nin sağ ucuna eklenir,
+ * rastgele v4'teki gibi tüm index'e dağılıp sayfa bölünmesine yol açmaz.
+ *
+ * Yerleşim: unix_ts_ms (48) | ver=7 (4) | rand_a (12) | var=10 (2) | rand_b (62)
+ * rand_a aynı milisaniye içindeki sıra sayacıdır (RFC 9562 method 3): aynı JVM'de id'ler kesin artan sıradadır.
+ * Sayaç taşarsa zaman alanı bir ms ileri kayar. rand_b tahmin edilemez olsun diye SecureRandom'dan gelir.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final UuidV7 INSTANCE = new UuidV7();
+
+    // (unix_ts_ms << 12) | sequence - son üretilen değer
+    private final AtomicLong last = new AtomicLong();
+
+    UuidV7() {
+    }
+
+    public static String next() {
+        return INSTANCE.nextUuid().toString();
+    }
+
+    UUID nextUuid() {
+        return fromTimestampAndSequence(nextTimestampAndSequence(System.currentTimeMillis()), RANDOM.nextLong());
+    }
+
+    long nextTimestampAndSequence(long nowMillis) {
+        long candidate = nowMillis << SEQUENCE_BITS;
+        while (true) {
+            long previous = last.get();
+            long next = candidate > previous ? candidate : previous + 1;
+            if (last.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+
+    static UUID fromTimestampAndSequence(long timestampAndSequence, long random) {
+        long millis = timestampAndSequence >>> SEQUENCE_BITS;
+        long sequence = timestampAndSequence & ((1L << SEQUENCE_BITS) - 1);
+        long msb = (millis << 16) | 0x7000L | sequence;
+        long lsb = (random & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -1,6 +1,8 @@
 package com.dumensel.payment.domain.repository;
 
 import com.dumensel.payment.domain.model.Payment;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,11 +17,24 @@ public interface PaymentRepository {
      */
     Payment save(Payment payment);
     
+    /**
+     * Persist a new payment only if its conversation ID is not taken yet
+     * Eşzamanlı tekrar isteklerde (farklı node'lar dahil) conversationId'yi sadece biri alır
+     * @return true if this call inserted the payment, false if the conversation ID already exists
+     */
+    boolean saveIfAbsent(Payment payment);
+    
     /**
      * Find payment by internal ID
      */
     Optional<Payment> findById(String id);
     
+    /**
+     * Find only the last update time of a payment (conditional GET / ETag)
+     * Tüm kaydı yüklemeden versiyon kontrolü için
+     */
+    Optional<LocalDateTime> findUpdatedAtById(String id);
+    
     /**
      * Find payment by conversation ID (for idempotency check)
      * İdempotency: Aynı conversationId ile tekrar istek gelirse mevcut payment dönülür
@@ -32,8 +47,12 @@ public interface PaymentRepository {
     Optional<Payment> findByExternalPaymentId(String externalPaymentId);
     
     /**
-     * Find payments by buyer ID
+     * Find one page of a buyer's payments, newest first (keyset pagination on created_at, id)
+     * Sayfa konumu offset değil son görülen kayıttır; sayfa maliyeti alıcının toplam ödeme sayısından bağımsızdır
+     * @param afterCreatedAt createdAt of the last payment of the previous page, null for the first page
+     * @param afterId id of the last payment of the previous page, null for the first page
+     * @param limit maximum number of payments to return
      */
-    java.util.List<Payment> findByBuyerId(String buyerId);
+    List<Payment> findPageByBuyerId(String buyerId, LocalDateTime afterCreatedAt, String afterId, int limit);
 }
 
@@ -1,6 +1,12 @@
 package com.dumensel.payment.domain.repository;
 
+import com.dumensel.payment.domain.model.PointsLedgerEntry;
 import com.dumensel.payment.domain.model.UserPoints;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -17,10 +23,53 @@ public interface UserPointsRepository {
     Optional<UserPoints> findByUserId(String userId);
     
     /**
-     * Kullanıcı puanlarını kaydet
+     * Sadece son güncelleme zamanı (conditional GET / ETag için, tüm kayıt yüklenmez)
+     */
+    Optional<LocalDateTime> findLastUpdatedByUserId(String userId);
+    
+    /**
+     * Kullanıcı puanlarını kaydet (mutlak yazım, last-writer-wins)
      */
     UserPoints save(UserPoints userPoints);
     
+    /**
+     * Atomik puan kazanma: kayıt yoksa oluşturur, EARN entry'si ekler (mevcut satır kilitlenmez)
+     * Okuma-değiştirme-yazma döngüsü yok; eşzamanlı çağrılar birbirinin güncellemesini ezmez
+     *
+     * @return güncel puan durumu
+     */
+    UserPoints addPoints(String userId, BigDecimal points);
+    
+    /**
+     * Atomik puan harcama: sadece available >= points ise SPEND entry'si eklenir (kullanıcı bazında sıralı)
+     *
+     * @return güncel puan durumu; kayıt yoksa veya bakiye yetmiyorsa boş (hiçbir şey değişmez)
+     */
+    Optional<UserPoints> deductPoints(String userId, BigDecimal points);
+    
+    /**
+     * Ledger entry'sini kaydet (LOCK / UNLOCK / CONSUME vb.)
+     * Aynı kullanıcının eşzamanlı kayıtları sıralanır; entry UserPoints kuralları ile doğrulanır
+     *
+     * @return güncel puan durumu; kayıt yoksa boş
+     * @throws IllegalStateException entry domain kuralını ihlal ediyorsa (hiçbir şey yazılmaz)
+     */
+    Optional<UserPoints> record(PointsLedgerEntry entry);
+    
+    /**
+     * Group commit: kullanıcıların kayıtlarını (user_id sırasıyla) kilitler ve güncel bakiyelerini döner
+     * Çağıranın transaction'ı içinde çağrılmalı; kaydı olmayan kullanıcılar sonuçta yer almaz
+     */
+    Map<String, UserPoints> lockBalances(Collection<String> userIds);
+    
+    /**
+     * Group commit: entry'leri tek statement ile ekler, EARN entry'si olup kaydı olmayan kullanıcılar için kayıt açar
+     * Entry'ler aynı transaction'da lockBalances bakiyeleri üzerinde UserPoints kuralları ile doğrulanmış olmalı
+     *
+     * @throws IllegalStateException bir kullanıcının entry'leri bakiyesini eksiye düşürüyorsa (hiçbir şey yazılmaz)
+     */
+    void recordAll(List<PointsLedgerEntry> entries);
+    
     /**
      * Kullanıcı puanlarını sil
      */
@@ -0,0 +1,61 @@
+package com.dumensel.payment.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PointsLedgerEntry / PointsEntryType
+ */
+@DisplayName("PointsLedgerEntry Tests")
+class PointsLedgerEntryTest {
+
+    @Test
+    @DisplayName("Applying entries should follow the UserPoints business methods")
+    void shouldApplyEntriesLikeDomainMethods() {
+        // Given
+        UserPoints userPoints = new UserPoints("user123");
+
+        // When
+        new PointsLedgerEntry("user123", PointsEntryType.EARN, new BigDecimal("100.00")).applyTo(userPoints);
+        new PointsLedgerEntry("user123", PointsEntryType.SPEND, new BigDecimal("30.00")).applyTo(userPoints);
+        new PointsLedgerEntry("user123", PointsEntryType.LOCK, new BigDecimal("20.00")).applyTo(userPoints);
+        new PointsLedgerEntry("user123", PointsEntryType.UNLOCK, new BigDecimal("5.00")).applyTo(userPoints);
+        new PointsLedgerEntry("user123", PointsEntryType.CONSUME, new BigDecimal("10.00")).applyTo(userPoints);
+
+        // Then
+        assertThat(userPoints.getTotalPoints()).isEqualByComparingTo("100.00");
+        assertThat(userPoints.getAvailablePoints()).isEqualByComparingTo("55.00");
+        assertThat(userPoints.getLockedPoints()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    @DisplayName("Should keep the domain validation of the underlying method")
+    void shouldRejectEntriesViolatingDomainRules() {
+        // Given
+        UserPoints userPoints = new UserPoints("user123");
+        userPoints.earnPoints(new BigDecimal("10.00"));
+        PointsLedgerEntry overspend = new PointsLedgerEntry("user123", PointsEntryType.SPEND, new BigDecimal("10.01"));
+
+        // When & Then
+        assertThatThrownBy(() -> overspend.applyTo(userPoints))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Insufficient available points");
+        assertThat(userPoints.getAvailablePoints()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    @DisplayName("Should not create entries with non-positive points or without a user")
+    void shouldValidateEntry() {
+        assertThatThrownBy(() -> new PointsLedgerEntry("user123", PointsEntryType.EARN, BigDecimal.ZERO))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Points must be positive");
+        assertThatThrownBy(() -> new PointsLedgerEntry(" ", PointsEntryType.EARN, BigDecimal.ONE))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PointsLedgerEntry("user123", null, BigDecimal.ONE))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.dumensel.payment.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for UuidV7 id generator
+ */
+@DisplayName("UuidV7 Tests")
+class UuidV7Test {
+
+    @Test
+    @DisplayName("Should produce version 7, RFC variant ids carrying the current time")
+    void shouldProduceVersion7Ids() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID uuid = UUID.fromString(UuidV7.next());
+
+        // Then
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        long millis = uuid.getMostSignificantBits() >>> 16;
+        // Aynı ms içinde 4096+ id üretilirse zaman alanı birkaç ms ileri kayabilir
+        assertThat(millis).isBetween(before, System.currentTimeMillis() + 1_000);
+    }
+
+    @Test
+    @DisplayName("Should generate strictly increasing ids, also as strings")
+    void shouldBeMonotonic() {
+        // When
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7.next());
+        }
+
+        // Then - lowercase hex order is the same order PostgreSQL uses for uuid
+        assertThat(ids).isSorted();
+        assertThat(Set.copyOf(ids)).hasSize(ids.size());
+    }
+
+    @Test
+    @DisplayName("Should carry into the timestamp when the sequence overflows within one millisecond")
+    void shouldCarryWhenSequenceOverflows() {
+        // Given - fixed clock, own generator so the shared one is not pushed ahead
+        UuidV7 generator = new UuidV7();
+        long now = System.currentTimeMillis();
+
+        // When
+        long first = generator.nextTimestampAndSequence(now);
+        long last = first;
+        for (int i = 0; i < 5_000; i++) {
+            long next = generator.nextTimestampAndSequence(now);
+            assertThat(next).isGreaterThan(last);
+            last = next;
+        }
+
+        // Then
+        assertThat(last >>> 12).isGreaterThan(now);
+    }
+
+    @Test
+    @DisplayName("Should stay unique across threads")
+    void shouldBeUniqueAcrossThreads() {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> ids.add(UuidV7.next()));
+
+        assertThat(ids).hasSize(100_000);
+    }
+}
@@ -0,0 +1,260 @@
+package com.dumensel.payment.infrastructure.accrual;
+
+import com.dumensel.payment.application.accrual.PointsAccrualRow;
+import com.dumensel.payment.application.accrual.PointsAccrualState;
+import com.dumensel.payment.application.accrual.PointsAccrualStatus;
+import com.dumensel.payment.application.accrual.PointsAccrualStore;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.persistence.JpaUserPointsRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * JDBC implementation of PointsAccrualStore
+ * Infrastructure layer - COPY ile staging (V12), set-based chunk uygulaması
+ *
+ * - stage: kampanya satırı kilitlenir, satırlar PGCopyOutputStream ile points_accrual_rows'a akar; tek transaction
+ * - applyChunk: kampanya satırı FOR UPDATE (node'lar arası tek uygulayıcı), sıradaki row_no aralığı staging'den
+ *   silinerek okunur, kullanıcı başına toplanır, eksik snapshot'lar açılır ve EARN entry'leri tek INSERT ile
+ *   ledger'a eklenir; applied_rows aynı transaction'da ilerler
+ * Kullanıcı snapshot satırları kilitlenmez, aynı anda çalışan earn / spend istekleri beklemez.
+ */
+@Repository
+public class JdbcPointsAccrualStore implements PointsAccrualStore {
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private static final String SELECT_SQL = """
+        SELECT campaign_id, state, total_rows, total_points, applied_rows, error_message, created_at, updated_at
+        FROM points_accrual_campaigns
+        WHERE campaign_id = ?
+        """;
+
+    private static final String CREATE_SQL = """
+        INSERT INTO points_accrual_campaigns (campaign_id, state, total_rows, total_points, created_at, updated_at)
+        VALUES (?, 'LOADED', 0, 0, ?, ?)
+        ON CONFLICT (campaign_id) DO NOTHING
+        """;
+
+    private static final String COPY_SQL =
+        "COPY points_accrual_rows (campaign_id, row_no, user_id, points) FROM STDIN (FORMAT text)";
+
+    private static final String LOADED_SQL = """
+        UPDATE points_accrual_campaigns
+        SET state = 'LOADED', total_rows = ?, total_points = ?, error_message = NULL, updated_at = ?
+        WHERE campaign_id = ?
+        """;
+
+    // Snapshot'lar user_id sırasıyla açılır: paralel kampanyaların INSERT'leri birbirini kilitlenmeye sokmaz
+    private static final String APPLY_SQL = """
+        WITH consumed AS (
+            DELETE FROM points_accrual_rows
+            WHERE campaign_id = ? AND row_no > ? AND row_no <= ?
+            RETURNING user_id, points
+        ), per_user AS (
+            SELECT user_id, sum(points) AS points
+            FROM consumed
+            GROUP BY user_id
+        ), created AS (
+            INSERT INTO user_points (user_id, total_points, available_points, locked_points, created_at, last_updated)
+            SELECT user_id, 0, 0, 0, CAST(? AS timestamp), CAST(? AS timestamp)
+            FROM per_user
+            ORDER BY user_id
+            ON CONFLICT (user_id) DO NOTHING
+        ), entries AS (
+            INSERT INTO points_ledger (user_id, entry_type, points, created_at, reference)
+            SELECT user_id, 'EARN', points, CAST(? AS timestamp), CAST(? AS varchar)
+            FROM per_user
+        )
+        SELECT count(*) FROM consumed
+        """;
+
+    private static final String PROGRESS_SQL = """
+        UPDATE points_accrual_campaigns
+        SET applied_rows = ?, state = ?, error_message = NULL, updated_at = ?
+        WHERE campaign_id = ?
+        """;
+
+    private static final String FAILED_SQL = """
+        UPDATE points_accrual_campaigns
+        SET state = 'FAILED', error_message = ?, updated_at = ?
+        WHERE campaign_id = ? AND state <> 'COMPLETED'
+        """;
+
+    private static final RowMapper<PointsAccrualStatus> STATUS_MAPPER = (rs, rowNum) -> new PointsAccrualStatus(
+        rs.getString("campaign_id"),
+        PointsAccrualState.valueOf(rs.getString("state")),
+        rs.getLong("total_rows"),
+        rs.getBigDecimal("total_points"),
+        rs.getLong("applied_rows"),
+        rs.getString("error_message"),
+        rs.getTimestamp("created_at").toLocalDateTime(),
+        rs.getTimestamp("updated_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    public JdbcPointsAccrualStore(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  CacheInvalidationPublisher invalidationPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public Optional<PointsAccrualStatus> find(String campaignId) {
+        return jdbcTemplate.query(SELECT_SQL, STATUS_MAPPER, campaignId).stream().findFirst();
+    }
+
+    @Override
+    public PointsAccrualStatus stage(String campaignId, RowSource rows) throws IOException {
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                boolean created = jdbcTemplate.update(CREATE_SQL, campaignId, now, now) == 1;
+                PointsAccrualStatus current = locked(campaignId);
+                if (!created && current.state() != PointsAccrualState.FAILED) {
+                    return current;
+                }
+
+                jdbcTemplate.update("DELETE FROM points_accrual_rows WHERE campaign_id = ?", campaignId);
+                Staged staged = copy(campaignId, rows);
+                // Uygulama applied_rows'tan devam edeceği için yeniden yüklenen dosya aynı olmalı
+                if (current.appliedRows() > 0 && (staged.rows() != current.totalRows()
+                        || staged.points().compareTo(current.totalPoints()) != 0)) {
+                    throw new IllegalStateException("Campaign " + campaignId + " was staged with "
+                        + current.totalRows() + " rows / " + current.totalPoints() + " points and "
+                        + current.appliedRows() + " rows are already applied; re-upload has "
+                        + staged.rows() + " rows / " + staged.points() + " points");
+                }
+                jdbcTemplate.update(LOADED_SQL, staged.rows(), staged.points(), LocalDateTime.now(), campaignId);
+                return locked(campaignId);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public PointsAccrualStatus applyChunk(String campaignId, int chunkSize) {
+        return transactionTemplate.execute(status -> {
+            PointsAccrualStatus current = locked(campaignId);
+            if (current.state() == PointsAccrualState.COMPLETED) {
+                return current;
+            }
+            long from = current.appliedRows();
+            long to = Math.min(current.totalRows(), from + chunkSize);
+            LocalDateTime now = LocalDateTime.now();
+
+            Long consumed = jdbcTemplate.queryForObject(APPLY_SQL, Long.class,
+                campaignId, from, to, now, now, now, "accrual:" + campaignId);
+            if (consumed == null || consumed != to - from) {
+                throw new IllegalStateException("Staged rows " + (from + 1) + "-" + to + " of campaign "
+                    + campaignId + " are missing; upload the campaign file again to resume");
+            }
+            PointsAccrualState state = to == current.totalRows()
+                ? PointsAccrualState.COMPLETED : PointsAccrualState.APPLYING;
+            jdbcTemplate.update(PROGRESS_SQL, to, state.name(), now, campaignId);
+            if (consumed > 0) {
+                // Chunk'taki kullanıcıları tek tek yayınlamak yerine puan cache'leri toptan temizlenir
+                invalidationPublisher.publishAll(JpaUserPointsRepository.CACHE_TOPIC);
+            }
+            return new PointsAccrualStatus(campaignId, state, current.totalRows(), current.totalPoints(), to,
+                null, current.createdAt(), now);
+        });
+    }
+
+    @Override
+    public void markFailed(String campaignId, String errorMessage) {
+        jdbcTemplate.update(FAILED_SQL, errorMessage, LocalDateTime.now(), campaignId);
+    }
+
+    private PointsAccrualStatus locked(String campaignId) {
+        return jdbcTemplate.query(SELECT_SQL + " FOR UPDATE", STATUS_MAPPER, campaignId).stream()
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown accrual campaign: " + campaignId));
+    }
+
+    private Staged copy(String campaignId, RowSource rows) {
+        return jdbcTemplate.execute((ConnectionCallback<Staged>) connection -> {
+            PGCopyOutputStream out = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_SQL,
+                COPY_BUFFER_BYTES);
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                    COPY_BUFFER_BYTES);
+                String campaign = escape(campaignId);
+                BigDecimal points = BigDecimal.ZERO;
+                PointsAccrualRow row;
+                while ((row = rows.next()) != null) {
+                    writer.write(campaign);
+                    writer.write('\t');
+                    writer.write(Long.toString(row.rowNo()));
+                    writer.write('\t');
+                    writer.write(escape(row.userId()));
+                    writer.write('\t');
+                    writer.write(row.points().toPlainString());
+                    writer.write('\n');
+                    points = points.add(row.points());
+                }
+                writer.flush();
+                return new Staged(out.endCopy(), points);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (out.isActive()) {
+                    out.cancelCopy();
+                }
+            }
+        });
+    }
+
+    /**
+     * COPY text formatı: \, tab ve satır sonları kaçırılır
+     */
+    static String escape(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '\\' -> "\\\\";
+                case '\t' -> "\\t";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                default -> null;
+            };
+            if (replacement == null && escaped == null) {
+                continue;
+            }
+            if (escaped == null) {
+                escaped = new StringBuilder(value.length() + 8).append(value, 0, i);
+            }
+            if (replacement == null) {
+                escaped.append(c);
+            } else {
+                escaped.append(replacement);
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+
+    private record Staged(long rows, BigDecimal points) {
+    }
+}
@@ -0,0 +1,264 @@
+package com.dumensel.payment.infrastructure.cache;
+
+import com.dumensel.payment.application.cache.CacheInvalidationHandler;
+import com.dumensel.payment.application.cache.CacheInvalidationStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Cache Invalidation Listener
+ * Node'lar arası cache tutarlılığı: Postgres LISTEN ile diğer node'ların yazmalarını dinler
+ * ve ilgili CacheInvalidationHandler'da anahtarı siler (Redis gerekmez); boş anahtar konunun tüm cache'ini temizler
+ *
+ * Hikari havuzundan bağımsız, kendi (dedicated) bağlantısını kullanır. Bağlantı koparsa
+ * artan beklemelerle yeniden bağlanır; her bağlantı kurulduğunda LISTEN'dan sonra tüm
+ * cache'ler temizlenir (kopukken kaçırılan mesajlar). Beklenmeyen bir hata da thread'i
+ * durdurmaz, aynı şekilde yeniden bağlanılır. Bir handler'ın hatası diğerlerini etkilemez;
+ * anahtarı silemeyen handler'ın tüm cache'i temizlenir.
+ *
+ * Config (payment.cache.invalidation.*):
+ * - enabled, channel, poll-timeout-ms, health-check-interval-ms, reconnect-backoff-ms, max-reconnect-backoff-ms
+ *
+ * Metrikler:
+ * - payment.cache.invalidation.received (tag: topic), payment.cache.invalidation.reconnects
+ * - payment.cache.invalidation.failures (tag: topic) - handler hataları
+ * - payment.cache.invalidation.connected (1/0)
+ */
+@Component
+@ConditionalOnProperty(name = "payment.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationListener implements SmartLifecycle, CacheInvalidationStatus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private static final String PREFIX = "payment.cache.invalidation.";
+
+    private final String url;
+    private final Properties connectionProperties = new Properties();
+    private final String channel;
+    private final int pollTimeoutMs;
+    private final long healthCheckIntervalMs;
+    private final long reconnectBackoffMs;
+    private final long maxReconnectBackoffMs;
+    private final Map<String, List<CacheInvalidationHandler>> handlers = new HashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Counter reconnects;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection connection;
+    private Thread listenerThread;
+
+    public CacheInvalidationListener(Environment environment, MeterRegistry meterRegistry,
+                                     List<CacheInvalidationHandler> cacheHandlers) {
+        this.url = environment.getRequiredProperty("spring.datasource.url");
+        connectionProperties.setProperty("user", environment.getProperty("spring.datasource.username", ""));
+        connectionProperties.setProperty("password", environment.getProperty("spring.datasource.password", ""));
+        connectionProperties.setProperty("ApplicationName", "payment-cache-invalidation");
+        this.channel = environment.getProperty(PREFIX + "channel", CacheInvalidationPublisher.DEFAULT_CHANNEL);
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel: " + channel);
+        }
+        this.pollTimeoutMs = environment.getProperty(PREFIX + "poll-timeout-ms", Integer.class, 500);
+        this.healthCheckIntervalMs = environment.getProperty(PREFIX + "health-check-interval-ms", Long.class, 10_000L);
+        this.reconnectBackoffMs = environment.getProperty(PREFIX + "reconnect-backoff-ms", Long.class, 500L);
+        this.maxReconnectBackoffMs = environment.getProperty(PREFIX + "max-reconnect-backoff-ms", Long.class, 30_000L);
+        this.meterRegistry = meterRegistry;
+
+        for (CacheInvalidationHandler handler : cacheHandlers) {
+            handlers.computeIfAbsent(handler.topic(), topic -> new ArrayList<>()).add(handler);
+        }
+        this.reconnects = Counter.builder("payment.cache.invalidation.reconnects")
+            .description("Cache invalidation listener reconnects (caches are flushed on each)")
+            .register(meterRegistry);
+        Gauge.builder("payment.cache.invalidation.connected", this, listener -> listener.connected ? 1 : 0)
+            .description("Whether the cache invalidation listener is connected")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        logger.info("Cache invalidation listener started: channel={}, topics={}", channel, handlers.keySet());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        listenerThread.interrupt();
+        closeQuietly(connection);
+        try {
+            listenerThread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Bildirimler alınıyor mu; false iken node içi cache'ler diğer node'ların yazmalarını kaçırabilir
+     */
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void listenLoop() {
+        long backoff = reconnectBackoffMs;
+        boolean firstConnect = true;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(url, connectionProperties)) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                backoff = reconnectBackoffMs;
+                if (!firstConnect) {
+                    reconnects.increment();
+                    logger.info("Cache invalidation listener reconnected, flushing local caches");
+                }
+                firstConnect = false;
+                // LISTEN'dan önceki yazmalar kaçırılmış olabilir; cache'ler temizlenmeden bağlı görünmez
+                flushAll();
+                connected = true;
+                receive(conn);
+            } catch (SQLException e) {
+                if (running) {
+                    logger.warn("Cache invalidation listener disconnected: {}. Reconnecting in {} ms",
+                        e.getMessage(), backoff);
+                }
+            } catch (RuntimeException e) {
+                // Bu noktadan sonraki bildirimler kaçırılmış olabilir: yeniden bağlanıp cache'ler temizlenir
+                logger.error("Cache invalidation listener failed unexpectedly. Reconnecting in {} ms", backoff, e);
+            } finally {
+                connected = false;
+                connection = null;
+            }
+            
+            if (!running || !sleep(backoff)) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, maxReconnectBackoffMs);
+        }
+    }
+
+    /**
+     * Bağlantı açık olduğu sürece bildirimleri dağıt; sessiz kopmaları yakalamak için
+     * mesaj gelmeyen aralıklarda bağlantı yoklanır
+     */
+    private void receive(Connection conn) throws SQLException {
+        PGConnection pgConnection = conn.unwrap(PGConnection.class);
+        long lastActivity = System.currentTimeMillis();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+            long now = System.currentTimeMillis();
+            if (notifications != null && notifications.length > 0) {
+                for (PGNotification notification : notifications) {
+                    dispatch(notification.getParameter());
+                }
+                lastActivity = now;
+            } else if (now - lastActivity >= healthCheckIntervalMs) {
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                lastActivity = now;
+            }
+        }
+    }
+
+    void dispatch(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator <= 0) {
+            logger.warn("Ignoring malformed cache invalidation payload");
+            return;
+        }
+        String topic = payload.substring(0, separator);
+        String key = payload.substring(separator + 1);
+        List<CacheInvalidationHandler> topicHandlers = handlers.get(topic);
+        if (topicHandlers == null) {
+            return;
+        }
+        meterRegistry.counter("payment.cache.invalidation.received", "topic", topic).increment();
+        for (CacheInvalidationHandler handler : topicHandlers) {
+            if (key.isEmpty()) {
+                invalidateAll(handler);
+                continue;
+            }
+            try {
+                handler.invalidate(key);
+            } catch (RuntimeException e) {
+                failed(handler, e);
+                invalidateAll(handler);
+            }
+        }
+    }
+
+    private void flushAll() {
+        handlers.values().forEach(list -> list.forEach(this::invalidateAll));
+    }
+
+    private void invalidateAll(CacheInvalidationHandler handler) {
+        try {
+            handler.invalidateAll();
+        } catch (RuntimeException e) {
+            failed(handler, e);
+        }
+    }
+
+    private void failed(CacheInvalidationHandler handler, RuntimeException e) {
+        meterRegistry.counter("payment.cache.invalidation.failures", "topic", handler.topic()).increment();
+        logger.error("Cache invalidation handler failed: topic={}", handler.topic(), e);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing cache invalidation connection: {}", e.getMessage());
+        }
+    }
+}
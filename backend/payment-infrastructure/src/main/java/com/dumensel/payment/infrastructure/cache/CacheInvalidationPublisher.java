@@ -0,0 +1,64 @@
+package com.dumensel.payment.infrastructure.cache;
+
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache Invalidation Publisher
+ * Yazan repository'ler değişen kaydın anahtarını pg_notify ile yayınlar
+ *
+ * NOTIFY transactional'dır: çağıranın transaction'ına katılır, sadece commit'te
+ * teslim edilir, rollback'te hiç gönderilmez. Payload: "{topic}:{key}"; boş key = konunun tamamı
+ *
+ * Yazma ayrıca ReadYourWritesTracker'a kaydedilir: bu node'da aynı kaydın okumaları bir süre primary'ye gider
+ */
+@Component
+public class CacheInvalidationPublisher {
+
+    static final String DEFAULT_CHANNEL = "cache_invalidation";
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadYourWritesTracker readYourWrites;
+    private final boolean enabled;
+    private final String channel;
+
+    public CacheInvalidationPublisher(JdbcTemplate jdbcTemplate, ReadYourWritesTracker readYourWrites,
+                                      Environment environment) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readYourWrites = readYourWrites;
+        this.enabled = environment.getProperty("payment.cache.invalidation.enabled", Boolean.class, true);
+        this.channel = environment.getProperty("payment.cache.invalidation.channel", DEFAULT_CHANNEL);
+    }
+
+    public void publish(String topic, String key) {
+        readYourWrites.recordWrite(topic, key);
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.query(NOTIFY_SQL, (ResultSetExtractor<Void>) rs -> null, channel, topic + ":" + key);
+    }
+
+    /**
+     * Toplu yazmalar için (örn. kampanya puan yüklemesi): konuyu dinleyen cache'ler tamamen temizlenir,
+     * bu node'da konunun okumaları bir süre primary'ye gider
+     */
+    public void publishAll(String topic) {
+        readYourWrites.handlerFor(topic).invalidateAll();
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.query(NOTIFY_SQL, (ResultSetExtractor<Void>) rs -> null, channel, topic + ":");
+    }
+
+    /**
+     * Hiçbir cache'te olamayacak yeni kayıtlar için: NOTIFY yok, sadece yerel read-your-writes kaydı
+     */
+    public void recordInsert(String topic, String key) {
+        readYourWrites.recordWrite(topic, key);
+    }
+}
@@ -0,0 +1,234 @@
+package com.dumensel.payment.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read Replicas
+ * Streaming replication replica'larının bağlantı havuzları ve lag takibi
+ *
+ * Her lag-check-interval-ms'de önce primary'nin WAL konumu (pg_current_wal_lsn) okunur; replica o konumu
+ * replay etmişse lag 0'dır, etmemişse lag = now() - pg_last_xact_replay_timestamp() (son replay edilen commit'in yaşı).
+ * Lag'i max-lag-ms'i aşan, ulaşılamayan veya artık recovery'de olmayan (promote edilmiş) replica okuma almaz.
+ * Primary'ye ulaşılamazsa lag ölçülemez: hiçbir replica okuma almaz. İlk ölçümden önce de tüm okumalar primary'dedir.
+ *
+ * Config (payment.datasource.replica.*):
+ * - urls (virgülle ayrılmış JDBC URL'leri), username / password (varsayılan: spring.datasource.*)
+ * - pool-size, connection-timeout-ms, max-lag-ms, lag-check-interval-ms
+ *
+ * Metrikler:
+ * - payment.datasource.replica.lag (ms, ölçülemezse -1), payment.datasource.replica.healthy (1/0) (tag: replica)
+ */
+public class ReadReplicas implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicas.class);
+
+    private static final String PREFIX = "payment.datasource.replica.";
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+
+    private static final String REPLICA_LAG_SQL = """
+        SELECT pg_is_in_recovery(),
+               CASE WHEN pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0
+                    ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000
+               END
+        """;
+
+    private static final long UNKNOWN_LAG = -1;
+
+    private final DataSource primary;
+    private final Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+    private final long maxLagMs;
+    private final long checkIntervalMs;
+    private final int checkTimeoutSeconds;
+
+    private volatile List<String> healthy = List.of();
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public ReadReplicas(DataSource primary, Environment environment, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMs = environment.getProperty(PREFIX + "max-lag-ms", Long.class, 1_000L);
+        this.checkIntervalMs = environment.getProperty(PREFIX + "lag-check-interval-ms", Long.class, 500L);
+        this.checkTimeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(checkIntervalMs * 4));
+
+        List<String> urls = Arrays.stream(environment.getRequiredProperty(PREFIX + "urls").split(","))
+            .map(String::trim)
+            .filter(url -> !url.isEmpty())
+            .toList();
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException(PREFIX + "urls must list at least one replica");
+        }
+        String username = environment.getProperty(PREFIX + "username", environment.getProperty("spring.datasource.username", ""));
+        String password = environment.getProperty(PREFIX + "password", environment.getProperty("spring.datasource.password", ""));
+        int poolSize = environment.getProperty(PREFIX + "pool-size", Integer.class, 10);
+        long connectionTimeoutMs = environment.getProperty(PREFIX + "connection-timeout-ms", Long.class, 2_000L);
+
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + i;
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(urls.get(i));
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setConnectionTimeout(connectionTimeoutMs);
+            dataSource.setReadOnly(true);
+            // Replica kapalıyken de uygulama açılabilsin; okumalar primary'de kalır
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.put(name, dataSource);
+            lagMillis.put(name, UNKNOWN_LAG);
+
+            Gauge.builder("payment.datasource.replica.lag", lagMillis, lags -> lags.get(name))
+                .description("Replica replay lag in milliseconds (-1 when unknown)")
+                .tag("replica", name)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+            Gauge.builder("payment.datasource.replica.healthy", this, set -> set.healthy.contains(name) ? 1 : 0)
+                .description("Whether the replica currently receives read-only transactions")
+                .tag("replica", name)
+                .register(meterRegistry);
+        }
+    }
+
+    public Map<String, DataSource> dataSources() {
+        return Map.copyOf(replicas);
+    }
+
+    /**
+     * Son ölçümde lag'i sınırın altında olan replica'lar (tanım sırasıyla)
+     */
+    public List<String> healthyReplicas() {
+        return healthy;
+    }
+
+    public long lagMillis(String replica) {
+        return lagMillis.getOrDefault(replica, UNKNOWN_LAG);
+    }
+
+    void checkLag() {
+        String primaryLsn;
+        try {
+            primaryLsn = primaryLsn();
+        } catch (SQLException e) {
+            logger.warn("Cannot read primary WAL position, routing all reads to primary: {}", e.getMessage());
+            replicas.keySet().forEach(name -> lagMillis.put(name, UNKNOWN_LAG));
+            healthy = List.of();
+            return;
+        }
+
+        List<String> nowHealthy = new ArrayList<>();
+        for (Map.Entry<String, HikariDataSource> replica : replicas.entrySet()) {
+            long lag = replicaLag(replica.getKey(), replica.getValue(), primaryLsn);
+            lagMillis.put(replica.getKey(), lag);
+            if (lag != UNKNOWN_LAG && lag <= maxLagMs) {
+                nowHealthy.add(replica.getKey());
+            }
+        }
+        if (!nowHealthy.equals(healthy)) {
+            logger.info("Healthy read replicas changed: {} -> {} (lag ms: {})", healthy, nowHealthy, lagMillis);
+        }
+        healthy = List.copyOf(nowHealthy);
+    }
+
+    private String primaryLsn() throws SQLException {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(checkTimeoutSeconds);
+            try (ResultSet rs = statement.executeQuery(PRIMARY_LSN_SQL)) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private long replicaLag(String name, DataSource replica, String primaryLsn) {
+        try (Connection connection = replica.getConnection();
+             PreparedStatement statement = connection.prepareStatement(REPLICA_LAG_SQL)) {
+            statement.setQueryTimeout(checkTimeoutSeconds);
+            statement.setString(1, primaryLsn);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                if (!rs.getBoolean(1)) {
+                    logger.warn("Replica {} is not in recovery (promoted?), not routing reads to it", name);
+                    return UNKNOWN_LAG;
+                }
+                double lag = rs.getDouble(2);
+                // Henüz hiç commit replay edilmemiş: timestamp NULL
+                return rs.wasNull() ? UNKNOWN_LAG : Math.max(0, (long) lag);
+            }
+        } catch (SQLException e) {
+            logger.warn("Replica {} lag check failed: {}", name, e.getMessage());
+            return UNKNOWN_LAG;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkLagSafely, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Read replica routing started: replicas={}, max-lag-ms={}", replicas.keySet(), maxLagMs);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdownNow();
+        healthy = List.of();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Bean kapanışında (Spring close() metodunu çağırır) replica havuzları kapatılır
+     */
+    public void close() {
+        stop();
+        replicas.values().forEach(HikariDataSource::close);
+    }
+
+    private void checkLagSafely() {
+        try {
+            checkLag();
+        } catch (RuntimeException e) {
+            logger.error("Replica lag check failed", e);
+            healthy = List.of();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.dumensel.payment.infrastructure.datasource;
+
+import com.dumensel.payment.application.cache.CacheInvalidationHandler;
+import com.dumensel.payment.application.cache.ExpiringLruCache;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Read-Your-Writes Tracker
+ * Yakın zamanda yazılmış kayıtları (konu + anahtar, örn. "payments" + ödeme id'si, "user-points" + userId)
+ * sticky-window süresince hatırlar; bu kayıtların read-only okumaları replica yerine primary'ye gider
+ *
+ * Yazmalar CacheInvalidationPublisher üzerinden (aynı node, hemen) ve LISTEN/NOTIFY handler'ları
+ * üzerinden (diğer node'lar, commit sonrası) kaydedilir. Bus bağlantısı koparsa mesaj kaçırılmış
+ * olabilir: pencere boyunca tüm okumalar primary'ye gider.
+ *
+ * Replica routing kapalıyken (payment.datasource.replica.enabled=false) hiçbir şey tutmaz
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final String PREFIX = "payment.datasource.replica.";
+
+    private final boolean enabled;
+    private final Duration window;
+    private final ExpiringLruCache<String, Boolean> recentWrites;
+    private volatile long stickAllUntil;
+
+    public ReadYourWritesTracker(Environment environment) {
+        this.enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, false);
+        this.window = Duration.ofMillis(environment.getProperty(PREFIX + "sticky-window-ms", Long.class, 5_000L));
+        // Kapasite dolarsa en eski kayıt atılır ve okuması erken replica'ya gidebilir: pencere içindeki yazma sayısından büyük tutulmalı
+        this.recentWrites = new ExpiringLruCache<>(
+            environment.getProperty(PREFIX + "sticky-max-entries", Integer.class, 100_000), window);
+    }
+
+    public void recordWrite(String topic, String key) {
+        if (enabled) {
+            recentWrites.put(topic + ":" + key, Boolean.TRUE);
+        }
+    }
+
+    public boolean isRecentlyWritten(String topic, String key) {
+        if (!enabled) {
+            return false;
+        }
+        return System.currentTimeMillis() < stickAllUntil || recentWrites.get(topic + ":" + key).isPresent();
+    }
+
+    /**
+     * Diğer node'ların yazmaları: listener aynı konuyu dinleyen cache'lerle birlikte bu handler'ı da çağırır
+     */
+    public CacheInvalidationHandler handlerFor(String topic) {
+        return new CacheInvalidationHandler() {
+            @Override
+            public String topic() {
+                return topic;
+            }
+
+            @Override
+            public void invalidate(String key) {
+                recordWrite(topic, key);
+            }
+
+            @Override
+            public void invalidateAll() {
+                stickAll();
+            }
+        };
+    }
+
+    void stickAll() {
+        if (enabled) {
+            stickAllUntil = System.currentTimeMillis() + window.toMillis();
+        }
+    }
+}
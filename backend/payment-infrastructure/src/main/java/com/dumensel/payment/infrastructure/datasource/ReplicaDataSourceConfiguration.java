@@ -0,0 +1,57 @@
+package com.dumensel.payment.infrastructure.datasource;
+
+import com.dumensel.payment.application.cache.CacheInvalidationHandler;
+import com.dumensel.payment.application.cache.FinalPaymentCache;
+import com.dumensel.payment.infrastructure.persistence.JpaUserPointsRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Read Replica DataSource Configuration
+ * payment.datasource.replica.enabled=true iken Boot'un tekil DataSource'u yerine:
+ * primary Hikari havuzu (spring.datasource.*) + replica havuzları + routing (@Primary, JPA / JdbcTemplate / Flyway bunu kullanır)
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "payment.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadReplicas readReplicas(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                     Environment environment, MeterRegistry meterRegistry) {
+        return new ReadReplicas(primaryDataSource, environment, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource, ReadReplicas readReplicas,
+                                 ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(primaryDataSource, readReplicas, readYourWrites, meterRegistry).lazy();
+    }
+
+    // Diğer node'ların yazmaları da sticky: NOTIFY'lar cache'lerle aynı konulardan gelir
+    @Bean
+    public CacheInvalidationHandler paymentReadYourWritesHandler(ReadYourWritesTracker readYourWrites) {
+        return readYourWrites.handlerFor(FinalPaymentCache.TOPIC);
+    }
+
+    @Bean
+    public CacheInvalidationHandler userPointsReadYourWritesHandler(ReadYourWritesTracker readYourWrites) {
+        return readYourWrites.handlerFor(JpaUserPointsRepository.CACHE_TOPIC);
+    }
+}
@@ -0,0 +1,117 @@
+package com.dumensel.payment.infrastructure.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Replica Routing DataSource
+ * readOnly = true transaction'ları sağlıklı bir replica'ya (round-robin), diğer her şeyi primary'ye yönlendirir
+ *
+ * Karar fiziksel bağlantı alınırken verilir; transaction başında readOnly bayrağı henüz set edilmediği için
+ * LazyConnectionDataSourceProxy ile sarılmalıdır (bkz. lazy()): bağlantı ilk statement'ta alınır.
+ *
+ * Sırasıyla:
+ * - read-write transaction veya transaction dışı -> primary
+ * - okunan kayıt (readFor ile verilen konu + anahtar) sticky-window içinde yazılmış -> primary (read-your-writes)
+ * - lag sınırı içinde replica yok -> primary
+ * - aksi halde replica
+ *
+ * Metrik: payment.datasource.routing (tag: target = primary/replica, reason = read-write/sticky/replica-lag/read-only)
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<ReadKey> READ_KEY = new ThreadLocal<>();
+
+    private final ReadReplicas replicas;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter readWrite;
+    private final Counter sticky;
+    private final Counter replicaLag;
+    private final Counter readOnly;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicas replicas,
+                                    ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+
+        Map<Object, Object> targets = new HashMap<>(replicas.dataSources());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.readWrite = routingCounter(meterRegistry, PRIMARY, "read-write");
+        this.sticky = routingCounter(meterRegistry, PRIMARY, "sticky");
+        this.replicaLag = routingCounter(meterRegistry, PRIMARY, "replica-lag");
+        this.readOnly = routingCounter(meterRegistry, "replica", "read-only");
+    }
+
+    /**
+     * Routing DataSource'u, bağlantıyı ilk statement'a kadar geciktiren proxy ile sarar
+     */
+    public LazyConnectionDataSourceProxy lazy() {
+        afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(this);
+    }
+
+    /**
+     * Okunan kaydı routing'e bildirir: read-only transaction'ın ilk statement'ı bu çağrının içinde
+     * çalışırsa ve kayıt yakın zamanda yazılmışsa bağlantı primary'den alınır
+     */
+    public static <T> T readFor(String topic, String key, Supplier<T> read) {
+        ReadKey previous = READ_KEY.get();
+        READ_KEY.set(new ReadKey(topic, key));
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                READ_KEY.remove();
+            } else {
+                READ_KEY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readWrite.increment();
+            return PRIMARY;
+        }
+        ReadKey readKey = READ_KEY.get();
+        if (readKey != null && readYourWrites.isRecentlyWritten(readKey.topic(), readKey.key())) {
+            sticky.increment();
+            return PRIMARY;
+        }
+        List<String> healthy = replicas.healthyReplicas();
+        if (healthy.isEmpty()) {
+            replicaLag.increment();
+            return PRIMARY;
+        }
+        readOnly.increment();
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("payment.datasource.routing")
+            .description("Connections handed out per routing target")
+            .tag("target", target)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    private record ReadKey(String topic, String key) {
+    }
+}
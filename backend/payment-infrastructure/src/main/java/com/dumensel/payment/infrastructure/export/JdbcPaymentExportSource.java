@@ -0,0 +1,166 @@
+package com.dumensel.payment.infrastructure.export;
+
+import com.dumensel.payment.application.export.PaymentExportFilter;
+import com.dumensel.payment.application.export.PaymentExportRow;
+import com.dumensel.payment.application.export.PaymentExportSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * JDBC implementation of PaymentExportSource
+ * Infrastructure layer - payments tablosu üzerinde server-side cursor
+ *
+ * PostgreSQL JDBC sürücüsü sadece autocommit kapalıyken ve fetchSize > 0 iken
+ * sonucu parça parça (portal) çeker; aksi halde tüm sonuç belleğe alınır.
+ * Bu yüzden sorgu read-only bir transaction içinde, forward-only ResultSet ile çalışır.
+ */
+@Repository
+public class JdbcPaymentExportSource implements PaymentExportSource {
+
+    private static final String EXPORT_SQL = """
+        SELECT id, conversation_id, amount, currency, status, provider, buyer_id,
+               created_at, updated_at, external_payment_id, error_code
+        FROM payments
+        WHERE created_at >= ? AND created_at < ?
+          AND (CAST(? AS VARCHAR) IS NULL OR provider = ?)
+        ORDER BY created_at
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcPaymentExportSource(DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${payment.export.fetch-size:1000}") int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("payment.export.fetch-size must be positive");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public long stream(PaymentExportFilter filter, RowHandler handler) {
+        String provider = filter.provider() == null ? null : filter.provider().name();
+        Long rows = transactionTemplate.execute(status -> {
+            CursorRow row = new CursorRow();
+            long[] count = {0};
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setTimestamp(1, Timestamp.valueOf(filter.from()));
+                statement.setTimestamp(2, Timestamp.valueOf(filter.to()));
+                statement.setString(3, provider);
+                statement.setString(4, provider);
+                return statement;
+            }, rs -> {
+                row.resultSet = rs;
+                try {
+                    handler.handle(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+            return count[0];
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    /**
+     * ResultSet'in o anki satırını okuyan tek, tekrar kullanılan görünüm
+     */
+    private static final class CursorRow implements PaymentExportRow {
+
+        private ResultSet resultSet;
+
+        @Override
+        public String id() {
+            return string("id");
+        }
+
+        @Override
+        public String conversationId() {
+            return string("conversation_id");
+        }
+
+        @Override
+        public BigDecimal amount() {
+            try {
+                return resultSet.getBigDecimal("amount");
+            } catch (SQLException e) {
+                throw new IllegalStateException("Export row could not be read", e);
+            }
+        }
+
+        @Override
+        public String currency() {
+            return string("currency");
+        }
+
+        @Override
+        public String status() {
+            return string("status");
+        }
+
+        @Override
+        public String provider() {
+            return string("provider");
+        }
+
+        @Override
+        public String buyerId() {
+            return string("buyer_id");
+        }
+
+        @Override
+        public LocalDateTime createdAt() {
+            return timestamp("created_at");
+        }
+
+        @Override
+        public LocalDateTime updatedAt() {
+            return timestamp("updated_at");
+        }
+
+        @Override
+        public String externalPaymentId() {
+            return string("external_payment_id");
+        }
+
+        @Override
+        public String errorCode() {
+            return string("error_code");
+        }
+
+        private String string(String column) {
+            try {
+                return resultSet.getString(column);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Export row could not be read", e);
+            }
+        }
+
+        private LocalDateTime timestamp(String column) {
+            try {
+                return resultSet.getObject(column, LocalDateTime.class);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Export row could not be read", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.dumensel.payment.infrastructure.gateway.akbank;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.util.function.ToIntFunction;
+
+/**
+ * Akbank HTTP Client
+ * Akbank Sanal POS çağrıları için bağlantı havuzlu (keep-alive) RestTemplate
+ *
+ * Her istekte yeni TCP + TLS handshake yapılmaz; bağlantılar havuzda tutulur
+ * ve keep-alive süresi boyunca yeniden kullanılır.
+ *
+ * Config:
+ * - akbank.http.max-connections-per-route / max-connections-total
+ * - akbank.http.connect-timeout-ms / read-timeout-ms / connection-request-timeout-ms
+ * - akbank.http.keep-alive-seconds
+ *
+ * Metrikler: payment.gateway.http.pool.leased / pending / available (tag: provider)
+ */
+@Component
+@ConditionalOnProperty(name = "akbank.enabled", havingValue = "true")
+public class AkbankHttpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AkbankHttpClient.class);
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
+
+    @Autowired
+    public AkbankHttpClient(
+            MeterRegistry meterRegistry,
+            @Value("${akbank.http.max-connections-per-route:20}") int maxConnectionsPerRoute,
+            @Value("${akbank.http.max-connections-total:50}") int maxConnectionsTotal,
+            @Value("${akbank.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${akbank.http.read-timeout-ms:30000}") long readTimeoutMs,
+            @Value("${akbank.http.connection-request-timeout-ms:2000}") long connectionRequestTimeoutMs,
+            @Value("${akbank.http.keep-alive-seconds:30}") long keepAliveSeconds) {
+        this(meterRegistry, SSLContexts.createSystemDefault(), maxConnectionsPerRoute, maxConnectionsTotal,
+            connectTimeoutMs, readTimeoutMs, connectionRequestTimeoutMs, keepAliveSeconds);
+    }
+
+    AkbankHttpClient(MeterRegistry meterRegistry, SSLContext sslContext,
+                     int maxConnectionsPerRoute, int maxConnectionsTotal,
+                     long connectTimeoutMs, long readTimeoutMs,
+                     long connectionRequestTimeoutMs, long keepAliveSeconds) {
+
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setSSLSocketFactory(SSLConnectionSocketFactoryBuilder.create().setSslContext(sslContext).build())
+            .setMaxConnPerRoute(maxConnectionsPerRoute)
+            .setMaxConnTotal(maxConnectionsTotal)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                // Sunucunun kapattığı bağlantıyı kullanmadan önce doğrula
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build())
+            .build();
+
+        this.httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                .setConnectionKeepAlive(TimeValue.ofSeconds(keepAliveSeconds))
+                .build())
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+            .build();
+
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+
+        registerPoolGauge(meterRegistry, "payment.gateway.http.pool.leased",
+            "Akbank connections currently in use", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, "payment.gateway.http.pool.pending",
+            "Requests waiting for an Akbank connection", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, "payment.gateway.http.pool.available",
+            "Idle keep-alive Akbank connections", PoolStats::getAvailable);
+
+        logger.info("Akbank HTTP pool initialized: maxPerRoute={}, maxTotal={}, connectTimeoutMs={}, readTimeoutMs={}",
+            maxConnectionsPerRoute, maxConnectionsTotal, connectTimeoutMs, readTimeoutMs);
+    }
+
+    public RestTemplate getRestTemplate() {
+        return restTemplate;
+    }
+
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close Akbank HTTP pool", e);
+        }
+    }
+
+    private void registerPoolGauge(MeterRegistry meterRegistry, String name, String description,
+                                   ToIntFunction<PoolStats> value) {
+        Gauge.builder(name, connectionManager, cm -> value.applyAsInt(cm.getTotalStats()))
+            .description(description)
+            .tag("provider", "AKBANK")
+            .register(meterRegistry);
+    }
+}
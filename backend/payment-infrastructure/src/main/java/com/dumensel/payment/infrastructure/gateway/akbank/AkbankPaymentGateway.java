@@ -5,20 +5,29 @@ import com.dumensel.payment.application.service.PaymentGatewayException;
 import com.dumensel.payment.domain.model.Payment;
 import com.dumensel.payment.infrastructure.gateway.akbank.model.AkbankPaymentRequest;
 import com.dumensel.payment.infrastructure.gateway.akbank.model.AkbankPaymentResponse;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.*;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.UnknownContentTypeException;
 
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.util.Base64;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -47,7 +56,8 @@ public class AkbankPaymentGateway implements PaymentGateway {
             @Value("${akbank.api-url:https://sanalpos.akbank.com.tr/fim/api}") String apiUrl,
             @Value("${akbank.success-url:https://yourdomain.com/payment/success}") String successUrl,
             @Value("${akbank.failure-url:https://yourdomain.com/payment/failure}") String failureUrl,
-            @Value("${akbank.callback-url:https://yourdomain.com/payment/callback}") String callbackUrl) {
+            @Value("${akbank.callback-url:https://yourdomain.com/payment/callback}") String callbackUrl,
+            AkbankHttpClient httpClient) {
         
         this.clientId = clientId;
         this.storeKey = storeKey;
@@ -55,7 +65,8 @@ public class AkbankPaymentGateway implements PaymentGateway {
         this.successUrl = successUrl;
         this.failureUrl = failureUrl;
         this.callbackUrl = callbackUrl;
-        this.restTemplate = new RestTemplate();
+        // Bağlantı havuzlu client: her istekte yeni TLS handshake yapılmaz
+        this.restTemplate = httpClient.getRestTemplate();
         
         logger.info("Akbank Payment Gateway initialized. ClientId: {}", clientId);
     }
@@ -156,6 +167,46 @@ public class AkbankPaymentGateway implements PaymentGateway {
         }
     }
 
+    /**
+     * Failover öncesi tahsilat kontrolü: sipariş numarası (oid = conversationId) ile sorgu
+     */
+    @Override
+    public Optional<String> findCapturedPayment(Payment payment) {
+        try {
+            logger.info("Looking up Akbank capture. ConversationId: {}", payment.getConversationId());
+            
+            MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+            params.add("clientId", clientId);
+            params.add("oid", payment.getConversationId());
+            
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+            
+            ResponseEntity<AkbankPaymentResponse> response = restTemplate.exchange(
+                apiUrl + "/status",
+                HttpMethod.POST,
+                new HttpEntity<>(params, headers),
+                AkbankPaymentResponse.class
+            );
+            
+            AkbankPaymentResponse body = response.getBody();
+            if (body == null) {
+                throw new PaymentGatewayException("AKBANK_STATUS_CHECK_FAILED", "Empty capture lookup response");
+            }
+            return body.isApproved() ? Optional.of(body.getTransactionId()) : Optional.empty();
+            
+        } catch (PaymentGatewayException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Failed to look up Akbank capture: {}", payment.getConversationId(), e);
+            throw new PaymentGatewayException(
+                "AKBANK_STATUS_CHECK_FAILED",
+                "Failed to look up capture: " + e.getMessage(),
+                e
+            );
+        }
+    }
+
     /**
      * Akbank request builder
      */
@@ -250,13 +301,49 @@ public class AkbankPaymentGateway implements PaymentGateway {
         } catch (RestClientException e) {
             logger.error("Failed to send request to Akbank API", e);
             throw new PaymentGatewayException(
-                "AKBANK_API_ERROR",
+                classifyTransportError(e),
                 "Failed to communicate with Akbank API: " + e.getMessage(),
                 e
             );
         }
     }
 
+    /**
+     * Transport hatasını failover için sınıflandır
+     * AKBANK_CONNECTION_ERROR: bağlantı kurulamadı, istek Akbank'a hiç gitmedi
+     * AKBANK_TIMEOUT: istek gönderildi, yanıt gelmedi (tahsil edilmiş olabilir)
+     * AKBANK_REQUEST_REJECTED: HTTP 4xx, istek Akbank tarafından reddedildi (doğrulama vb.)
+     * AKBANK_INVALID_RESPONSE: yanıt okunamadı / parse edilemedi
+     * AKBANK_API_ERROR: diğer (HTTP 5xx, bağlantı koptu vb.)
+     *
+     * Sadece isteğin gönderilmediği kesin olan hatalar bağlantı hatası sayılır; diğer
+     * InterruptedIOException'lar (read timeout, kesilen thread) tahsilat kontrolü gerektirir.
+     * Ret ve okunamayan yanıt başka provider'da tekrar denenmez (GatewayFailoverPolicy)
+     */
+    static String classifyTransportError(RestClientException e) {
+        if (e instanceof HttpClientErrorException) {
+            return "AKBANK_REQUEST_REJECTED";
+        }
+        if (e instanceof UnknownContentTypeException) {
+            return "AKBANK_INVALID_RESPONSE";
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpMessageNotReadableException) {
+                return "AKBANK_INVALID_RESPONSE";
+            }
+            if (cause instanceof ConnectTimeoutException
+                    || cause instanceof ConnectionRequestTimeoutException
+                    || cause instanceof ConnectException
+                    || cause instanceof UnknownHostException) {
+                return "AKBANK_CONNECTION_ERROR";
+            }
+            if (cause instanceof InterruptedIOException) {
+                return "AKBANK_TIMEOUT";
+            }
+        }
+        return "AKBANK_API_ERROR";
+    }
+
     /**
      * Convert request object to form data
      */
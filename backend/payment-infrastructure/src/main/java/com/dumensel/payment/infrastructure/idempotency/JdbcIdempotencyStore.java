@@ -0,0 +1,127 @@
+package com.dumensel.payment.infrastructure.idempotency;
+
+import com.dumensel.payment.application.idempotency.IdempotencyStore;
+import com.dumensel.payment.application.idempotency.StoredResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PostgreSQL implementation of IdempotencyStore
+ * Infrastructure layer - idempotency_keys tablosu
+ *
+ * Süreler DB saatiyle hesaplanır (now() + interval): node saatleri ve TIMESTAMP
+ * timezone farkları sonucu etkilemez. Süresi dolan kayıtlar okunmaz ve
+ * arka planda partiler halinde silinir.
+ */
+@Repository
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcIdempotencyStore.class);
+
+    private static final String FIND_SQL = """
+        SELECT http_status, location, response_body, EXTRACT(EPOCH FROM (expires_at - now())) AS ttl_seconds
+        FROM idempotency_keys
+        WHERE idempotency_key = ? AND fingerprint = ? AND expires_at > now()
+        """;
+
+    // Süresi dolmuş aynı anahtar yeni cevapla değiştirilir; geçerli kayıt asla ezilmez
+    private static final String INSERT_SQL = """
+        INSERT INTO idempotency_keys (idempotency_key, fingerprint, http_status, location, response_body, created_at, expires_at)
+        VALUES (?, ?, ?, ?, ?, now(), now() + (? * interval '1 second'))
+        ON CONFLICT (idempotency_key, fingerprint) DO UPDATE
+        SET http_status = EXCLUDED.http_status,
+            location = EXCLUDED.location,
+            response_body = EXCLUDED.response_body,
+            created_at = EXCLUDED.created_at,
+            expires_at = EXCLUDED.expires_at
+        WHERE idempotency_keys.expires_at <= now()
+        """;
+
+    private static final String PURGE_SQL = """
+        DELETE FROM idempotency_keys
+        WHERE ctid IN (SELECT ctid FROM idempotency_keys WHERE expires_at <= now() LIMIT ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int purgeBatchSize;
+    private final ScheduledExecutorService purger;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                @Value("${payment.idempotency.purge-interval-seconds:300}") long purgeIntervalSeconds,
+                                @Value("${payment.idempotency.purge-batch-size:1000}") int purgeBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgeBatchSize = purgeBatchSize;
+        this.purger = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("idempotency-purge-"));
+        if (purgeIntervalSeconds > 0) {
+            purger.scheduleWithFixedDelay(this::purgeExpiredQuietly,
+                purgeIntervalSeconds, purgeIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String idempotencyKey, String fingerprint) {
+        List<StoredResponse> rows = jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> new StoredResponse(
+            rs.getInt("http_status"),
+            rs.getString("location"),
+            rs.getBytes("response_body"),
+            Instant.now().plusMillis((long) (rs.getDouble("ttl_seconds") * 1000))
+        ), idempotencyKey, fingerprint);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public StoredResponse saveIfAbsent(String idempotencyKey, String fingerprint, StoredResponse response) {
+        long ttlSeconds = Math.max(1, Duration.between(Instant.now(), response.expiresAt()).toSeconds());
+        int inserted = jdbcTemplate.update(INSERT_SQL, idempotencyKey, fingerprint,
+            response.httpStatus(), response.location(), response.body(), ttlSeconds);
+        if (inserted == 1) {
+            return response;
+        }
+        // Eşzamanlı tekrar: ilk kaydedilen cevap kazanır
+        return find(idempotencyKey, fingerprint).orElse(response);
+    }
+
+    /**
+     * Süresi dolmuş kayıtları sil (parti parti, uzun kilit tutmadan)
+     * @return silinen kayıt sayısı
+     */
+    public int purgeExpired() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        return total;
+    }
+
+    private void purgeExpiredQuietly() {
+        try {
+            int deleted = purgeExpired();
+            if (deleted > 0) {
+                logger.debug("Purged {} expired idempotency keys", deleted);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Idempotency key purge failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+}
@@ -0,0 +1,228 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import com.dumensel.payment.application.cache.FinalPaymentCache;
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.repository.PaymentRepository;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC Implementation of PaymentRepository (write fast-path)
+ * Infrastructure layer - Hibernate'siz, düz prepared statement'lar
+ *
+ * JPA'da id önceden atandığı için save() bir merge'dür: önce SELECT, sonra INSERT/UPDATE,
+ * ardından entity -> domain map'lemesi. Burada durum geçişi tek bir hedefli UPDATE'tir
+ * (sadece değişebilen kolonlar), yeni ödeme tek bir INSERT; dirty checking ve persistence context yoktur.
+ *
+ * payment.persistence.mode=jdbc ile seçilir (varsayılan: jpa)
+ */
+@Repository
+@ConditionalOnProperty(name = "payment.persistence.mode", havingValue = "jdbc")
+public class JdbcPaymentRepository implements PaymentRepository {
+
+    private static final String COLUMNS = """
+        id, conversation_id, amount, currency, status, payment_type, provider, buyer_id, created_at, updated_at,
+        external_payment_id, error_message, error_code, attempted_providers""";
+
+    // Sadece ödeme yaşam döngüsünde değişen kolonlar; tutar, alıcı, kart vb. INSERT'ten sonra değişmez.
+    // created_at aralığı partition pruning içindir (tek / en fazla iki aylık partition); DB'nin mikrosaniye
+    // yuvarlamasına karşı tam eşitlik yerine ±1 saniye
+    private static final String UPDATE_SQL = """
+        UPDATE payments
+        SET status = ?, provider = ?, updated_at = ?, external_payment_id = ?, error_message = ?,
+            error_code = ?, attempted_providers = ?
+        WHERE id = ? AND created_at BETWEEN ? AND ?
+        """;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO payments (id, conversation_id, amount, currency, status, payment_type, provider, buyer_id,
+                              created_at, updated_at, external_payment_id, error_message, error_code,
+                              masked_card_number, attempted_providers)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    // conversation_id partition'lar arası payment_conversation_ids'te claim edilir; çakışmada 0 satır eklenir.
+    // SELECT listesindeki parametrelerin tipi kolondan çıkarılmaz: timestamp'ler açıkça cast edilir
+    private static final String INSERT_IF_ABSENT_SQL = """
+        WITH claimed AS (
+            INSERT INTO payment_conversation_ids (conversation_id, payment_id, created_at)
+            VALUES (?, ?, CAST(? AS timestamp))
+            ON CONFLICT (conversation_id) DO NOTHING
+            RETURNING payment_id, created_at
+        )
+        INSERT INTO payments (id, conversation_id, amount, currency, status, payment_type, provider, buyer_id,
+                              created_at, updated_at, external_payment_id, error_message, error_code,
+                              masked_card_number, attempted_providers)
+        SELECT payment_id, ?, ?, ?, ?, ?, ?, ?, created_at, CAST(? AS timestamp), ?, ?, ?, ?, ?
+        FROM claimed
+        """;
+
+    private static final String FIND_BY_ID_SQL = "SELECT " + COLUMNS + " FROM payments WHERE id = ?";
+    private static final String FIND_UPDATED_AT_SQL = "SELECT updated_at FROM payments WHERE id = ?";
+    private static final String FIND_BY_CONVERSATION_SQL = "SELECT " + COLUMNS + " FROM payments WHERE conversation_id = ?";
+    private static final String FIND_BY_EXTERNAL_SQL = "SELECT " + COLUMNS + " FROM payments WHERE external_payment_id = ?";
+
+    private static final String FIRST_PAGE_SQL = "SELECT " + COLUMNS + """
+         FROM payments
+        WHERE buyer_id = ?
+        ORDER BY created_at DESC, id DESC
+        LIMIT ?
+        """;
+
+    private static final String NEXT_PAGE_SQL = "SELECT " + COLUMNS + """
+         FROM payments
+        WHERE buyer_id = ? AND created_at <= ? AND (created_at, id) < (?, ?)
+        ORDER BY created_at DESC, id DESC
+        LIMIT ?
+        """;
+
+    private static final RowMapper<Payment> ROW_MAPPER = (rs, rowNum) -> PaymentMapper.restore(
+        rs.getString("id"),
+        rs.getString("conversation_id"),
+        rs.getBigDecimal("amount"),
+        rs.getString("currency"),
+        rs.getString("status"),
+        rs.getString("payment_type"),
+        rs.getString("provider"),
+        rs.getString("buyer_id"),
+        rs.getObject("created_at", LocalDateTime.class),
+        rs.getObject("updated_at", LocalDateTime.class),
+        rs.getString("external_payment_id"),
+        rs.getString("error_message"),
+        rs.getString("error_code"),
+        rs.getString("attempted_providers"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    public JdbcPaymentRepository(JdbcTemplate jdbcTemplate, CacheInvalidationPublisher invalidationPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    /**
+     * Var olan ödemede tek UPDATE; satır yoksa INSERT. Çağıranın nesnesi aynen döner (geri map'leme yok)
+     */
+    @Override
+    public Payment save(Payment payment) {
+        UUID id = UUID.fromString(payment.getId());
+        int updated = jdbcTemplate.update(UPDATE_SQL,
+            payment.getStatus().name(),
+            payment.getProvider().name(),
+            Timestamp.valueOf(payment.getUpdatedAt()),
+            payment.getExternalPaymentId(),
+            payment.getErrorMessage(),
+            payment.getErrorCode(),
+            PaymentMapper.joinProviders(payment.getAttemptedProviders()),
+            id,
+            Timestamp.valueOf(payment.getCreatedAt().minusSeconds(1)),
+            Timestamp.valueOf(payment.getCreatedAt().plusSeconds(1)));
+        if (updated == 0) {
+            jdbcTemplate.update(INSERT_SQL, insertArguments(id, payment));
+        }
+        invalidationPublisher.publish(FinalPaymentCache.TOPIC, payment.getId());
+        return payment;
+    }
+
+    @Override
+    public boolean saveIfAbsent(Payment payment) {
+        boolean inserted = jdbcTemplate.update(INSERT_IF_ABSENT_SQL,
+            // claim
+            payment.getConversationId(),
+            UUID.fromString(payment.getId()),
+            Timestamp.valueOf(payment.getCreatedAt()),
+            // satır (id ve created_at claim'den)
+            payment.getConversationId(),
+            payment.getAmount().getAmount(),
+            payment.getAmount().getCurrency().name(),
+            payment.getStatus().name(),
+            payment.getPaymentMethod().getType().name(),
+            payment.getProvider().name(),
+            payment.getBuyerId(),
+            Timestamp.valueOf(payment.getUpdatedAt()),
+            payment.getExternalPaymentId(),
+            payment.getErrorMessage(),
+            payment.getErrorCode(),
+            PaymentMapper.maskedCardNumber(payment),
+            PaymentMapper.joinProviders(payment.getAttemptedProviders())) == 1;
+        if (inserted) {
+            invalidationPublisher.recordInsert(FinalPaymentCache.TOPIC, payment.getId());
+        }
+        return inserted;
+    }
+
+    @Override
+    public Optional<Payment> findById(String id) {
+        return ReplicaRoutingDataSource.readFor(FinalPaymentCache.TOPIC, id,
+            () -> parseId(id).flatMap(uuid -> single(jdbcTemplate.query(FIND_BY_ID_SQL, ROW_MAPPER, uuid))));
+    }
+
+    @Override
+    public Optional<LocalDateTime> findUpdatedAtById(String id) {
+        return ReplicaRoutingDataSource.readFor(FinalPaymentCache.TOPIC, id,
+            () -> parseId(id).flatMap(uuid -> single(jdbcTemplate.query(FIND_UPDATED_AT_SQL,
+                (rs, rowNum) -> rs.getObject("updated_at", LocalDateTime.class), uuid))));
+    }
+
+    @Override
+    public Optional<Payment> findByConversationId(String conversationId) {
+        return single(jdbcTemplate.query(FIND_BY_CONVERSATION_SQL, ROW_MAPPER, conversationId));
+    }
+
+    @Override
+    public Optional<Payment> findByExternalPaymentId(String externalPaymentId) {
+        return single(jdbcTemplate.query(FIND_BY_EXTERNAL_SQL, ROW_MAPPER, externalPaymentId));
+    }
+
+    @Override
+    public List<Payment> findPageByBuyerId(String buyerId, LocalDateTime afterCreatedAt, String afterId, int limit) {
+        if (afterCreatedAt == null) {
+            return jdbcTemplate.query(FIRST_PAGE_SQL, ROW_MAPPER, buyerId, limit);
+        }
+        return jdbcTemplate.query(NEXT_PAGE_SQL, ROW_MAPPER,
+            buyerId, Timestamp.valueOf(afterCreatedAt), Timestamp.valueOf(afterCreatedAt), UUID.fromString(afterId), limit);
+    }
+
+    private static Object[] insertArguments(UUID id, Payment payment) {
+        return new Object[] {
+            id,
+            payment.getConversationId(),
+            payment.getAmount().getAmount(),
+            payment.getAmount().getCurrency().name(),
+            payment.getStatus().name(),
+            payment.getPaymentMethod().getType().name(),
+            payment.getProvider().name(),
+            payment.getBuyerId(),
+            Timestamp.valueOf(payment.getCreatedAt()),
+            Timestamp.valueOf(payment.getUpdatedAt()),
+            payment.getExternalPaymentId(),
+            payment.getErrorMessage(),
+            payment.getErrorCode(),
+            PaymentMapper.maskedCardNumber(payment),
+            PaymentMapper.joinProviders(payment.getAttemptedProviders())
+        };
+    }
+
+    private static <T> Optional<T> single(List<T> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    // UUID olmayan id hiçbir ödemeye karşılık gelmez
+    private static Optional<UUID> parseId(String id) {
+        try {
+            return Optional.of(UUID.fromString(id));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
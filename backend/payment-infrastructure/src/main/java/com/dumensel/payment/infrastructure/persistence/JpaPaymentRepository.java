@@ -1,36 +1,67 @@
 package com.dumensel.payment.infrastructure.persistence;
 
+import com.dumensel.payment.application.cache.FinalPaymentCache;
 import com.dumensel.payment.domain.model.Payment;
 import com.dumensel.payment.domain.repository.PaymentRepository;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * JPA Implementation of PaymentRepository
  * Infrastructure layer - persistence adapter
+ * Varsayılan; payment.persistence.mode=jdbc ile JdbcPaymentRepository kullanılır
  */
 @Repository
+@ConditionalOnProperty(name = "payment.persistence.mode", havingValue = "jpa", matchIfMissing = true)
 public class JpaPaymentRepository implements PaymentRepository {
     
     private final SpringDataPaymentRepository springDataRepository;
+    private final CacheInvalidationPublisher invalidationPublisher;
 
-    public JpaPaymentRepository(SpringDataPaymentRepository springDataRepository) {
+    public JpaPaymentRepository(SpringDataPaymentRepository springDataRepository,
+                                CacheInvalidationPublisher invalidationPublisher) {
         this.springDataRepository = springDataRepository;
+        this.invalidationPublisher = invalidationPublisher;
     }
 
+    /**
+     * Güncellemeden sonra diğer node'ların payment cache'leri commit'te invalidate edilir
+     */
     @Override
     public Payment save(Payment payment) {
         PaymentEntity entity = PaymentMapper.toEntity(payment);
         PaymentEntity saved = springDataRepository.save(entity);
+        invalidationPublisher.publish(FinalPaymentCache.TOPIC, saved.getId().toString());
         return PaymentMapper.toDomain(saved);
     }
 
+    @Override
+    public boolean saveIfAbsent(Payment payment) {
+        boolean inserted = springDataRepository.insertIfAbsent(PaymentMapper.toEntity(payment)) == 1;
+        if (inserted) {
+            invalidationPublisher.recordInsert(FinalPaymentCache.TOPIC, payment.getId());
+        }
+        return inserted;
+    }
+
     @Override
     public Optional<Payment> findById(String id) {
-        return springDataRepository.findById(id)
-                .map(PaymentMapper::toDomain);
+        return ReplicaRoutingDataSource.readFor(FinalPaymentCache.TOPIC, id, () -> parseId(id)
+                .flatMap(springDataRepository::findById)
+                .map(PaymentMapper::toDomain));
+    }
+
+    @Override
+    public Optional<LocalDateTime> findUpdatedAtById(String id) {
+        return ReplicaRoutingDataSource.readFor(FinalPaymentCache.TOPIC, id,
+                () -> parseId(id).flatMap(springDataRepository::findUpdatedAtById));
     }
 
     @Override
@@ -46,11 +77,23 @@ public class JpaPaymentRepository implements PaymentRepository {
     }
 
     @Override
-    public List<Payment> findByBuyerId(String buyerId) {
-        return springDataRepository.findByBuyerId(buyerId)
-                .stream()
+    public List<Payment> findPageByBuyerId(String buyerId, LocalDateTime afterCreatedAt, String afterId, int limit) {
+        List<PaymentEntity> page = afterCreatedAt == null
+                ? springDataRepository.findFirstPageByBuyerId(buyerId, limit)
+                : springDataRepository.findPageByBuyerIdAfter(buyerId, afterCreatedAt, UUID.fromString(afterId), limit);
+        return page.stream()
                 .map(PaymentMapper::toDomain)
                 .toList();
     }
-}
 
+    /**
+     * UUID olmayan id hiçbir ödemeye karşılık gelmez (400 değil, bulunamadı)
+     */
+    private static Optional<UUID> parseId(String id) {
+        try {
+            return Optional.of(UUID.fromString(id));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,47 +1,377 @@
 package com.dumensel.payment.infrastructure.persistence;
 
+import com.dumensel.payment.domain.model.PointsEntryType;
+import com.dumensel.payment.domain.model.PointsLedgerEntry;
 import com.dumensel.payment.domain.model.UserPoints;
 import com.dumensel.payment.domain.repository.UserPointsRepository;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReplicaRoutingDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * JPA Implementation of UserPointsRepository
  * Infrastructure Layer - Implements domain repository interface
+ *
+ * Bakiye değişiklikleri append-only points_ledger'a yazılır (V11); user_points snapshot'tır. Okumalar
+ * user_points_balances view'ından: snapshot + katlanmamış kuyruk.
+ * - addPoints: satır kilidi yok; snapshot satırı yoksa oluşturulur, EARN entry kuyruğa eklenir (tek statement)
+ * - deductPoints / record: tek koşullu UPDATE; entry snapshot'a uygulanır ve in_snapshot olarak ledger'a eklenir
+ *   (tek statement). Koşul snapshot + kuyruk bakiyesi üzerinde; satır kilidi sadece aynı kullanıcının
+ *   borçlandırmalarını sıralar. Reddedilen entry'de bakiye bir kez okunur ve UserPoints kuralı hatayı üretir
+ * - lockBalances / recordAll: çok kullanıcılı hali (group commit), doğrulama çağıranda
+ * UserPointsBalanceCache açıksa okumalar önce cache'e bakar; yazmalar kullanıcının stripe kilidini DB kilidinden
+ * önce alır ve statement'ın döndürdüğü yeni bakiyeyi commit'te cache'e yazar (save / delete: siler).
+ * Not: bu yollar persistence context'i atlar, aynı transaction'da önceden yüklenmiş entity eski kalır.
  */
 @Repository
 public class JpaUserPointsRepository implements UserPointsRepository {
-    
+
+    // Node içi UserPoints cache'leri bu konuyu dinler
+    public static final String CACHE_TOPIC = "user-points";
+
+    private static final String BALANCE_SQL = """
+        SELECT user_id, total_points, available_points, locked_points, created_at, last_updated
+        FROM user_points_balances
+        WHERE user_id = ?
+        """;
+
+    private static final String BALANCES_SQL = """
+        SELECT user_id, total_points, available_points, locked_points, created_at, last_updated
+        FROM user_points_balances
+        WHERE user_id = ANY(?)
+        """;
+
+    private static final String LAST_UPDATED_SQL = "SELECT last_updated FROM user_points_balances WHERE user_id = ?";
+
+    // Snapshot yoksa sıfır bakiyeyle açılır (ON CONFLICT DO NOTHING mevcut satırı kilitlemez / yazmaz).
+    // Dönen bakiye: statement başındaki görünüm + bu entry
+    private static final String ADD_POINTS_SQL = """
+        WITH created AS (
+            INSERT INTO user_points (user_id, total_points, available_points, locked_points, created_at, last_updated)
+            VALUES (?, 0, 0, 0, ?, ?)
+            ON CONFLICT (user_id) DO NOTHING
+            RETURNING user_id, created_at
+        ), entry AS (
+            INSERT INTO points_ledger (user_id, entry_type, points, created_at)
+            VALUES (?, 'EARN', ?, ?)
+            RETURNING user_id, points, created_at
+        )
+        SELECT e.user_id,
+               COALESCE(b.total_points, 0) + e.points AS total_points,
+               COALESCE(b.available_points, 0) + e.points AS available_points,
+               COALESCE(b.locked_points, 0) AS locked_points,
+               COALESCE(b.created_at, c.created_at, e.created_at) AS created_at,
+               e.created_at AS last_updated
+        FROM entry e
+        LEFT JOIN user_points_balances b ON b.user_id = e.user_id
+        LEFT JOIN created c ON c.user_id = e.user_id
+        """;
+
+    // Group commit: user_id sırasıyla kilitlenir, aynı kullanıcıları içeren batch'ler deadlock'a girmez
+    private static final String LOCK_ALL_SQL = """
+        SELECT user_id FROM user_points WHERE user_id = ANY(?) ORDER BY user_id FOR UPDATE
+        """;
+
+    private static final String OPEN_SNAPSHOTS_SQL = """
+        INSERT INTO user_points (user_id, total_points, available_points, locked_points, created_at, last_updated)
+        SELECT u.user_id, 0, 0, 0, CAST(? AS timestamp), CAST(? AS timestamp)
+        FROM unnest(CAST(? AS varchar[])) AS u(user_id)
+        ORDER BY u.user_id
+        ON CONFLICT (user_id) DO NOTHING
+        """;
+
+    // Entry'ler kullanıcı başına toplanıp snapshot'a tek koşullu UPDATE ile uygulanır (deltalar V11'deki
+    // points_ledger_deltas ile aynı). Kuyrukta sadece alacaklar var: eşzamanlı borç snapshot satırını değiştirir,
+    // satır kilidinden sonra koşul güncel satırla yeniden değerlendirilir. Statement başından sonra commit olan
+    // kazanımlar koşulda sayılmaz (temkinli red, eksi bakiye değil). Koşulu geçemeyen kullanıcı satır döndürmez.
+    private static final String APPLY_SQL = """
+        WITH entries AS (
+            SELECT *
+            FROM unnest(CAST(? AS varchar[]), CAST(? AS varchar[]), CAST(? AS numeric[]), CAST(? AS timestamp[]))
+                WITH ORDINALITY AS e(user_id, entry_type, points, created_at, ord)
+        ), deltas AS (
+            SELECT user_id,
+                   sum(CASE WHEN entry_type = 'EARN' THEN points ELSE 0 END) AS total_delta,
+                   sum(CASE WHEN entry_type IN ('EARN', 'UNLOCK') THEN points
+                            WHEN entry_type IN ('SPEND', 'LOCK') THEN -points
+                            ELSE 0 END) AS available_delta,
+                   sum(CASE WHEN entry_type = 'LOCK' THEN points
+                            WHEN entry_type IN ('UNLOCK', 'CONSUME') THEN -points
+                            ELSE 0 END) AS locked_delta,
+                   max(created_at) AS last_entry_at
+            FROM entries
+            GROUP BY user_id
+        ), applied AS (
+            UPDATE user_points s
+            SET total_points = s.total_points + d.total_delta,
+                available_points = s.available_points + d.available_delta,
+                locked_points = s.locked_points + d.locked_delta,
+                last_updated = GREATEST(s.last_updated, d.last_entry_at)
+            FROM deltas d
+            WHERE s.user_id = d.user_id
+              AND s.locked_points + d.locked_delta >= 0
+              AND s.available_points + d.available_delta + (
+                  SELECT COALESCE(sum(t.available_delta), 0)
+                  FROM points_ledger_deltas t
+                  WHERE t.user_id = s.user_id AND t.xact_id >= s.ledger_horizon AND NOT t.in_snapshot) >= 0
+            RETURNING s.user_id, s.total_points, s.available_points, s.locked_points, s.created_at, s.last_updated,
+                      s.ledger_horizon
+        ), appended AS (
+            INSERT INTO points_ledger (user_id, entry_type, points, created_at, in_snapshot)
+            SELECT e.user_id, e.entry_type, e.points, e.created_at, true
+            FROM entries e
+            JOIN applied a ON a.user_id = e.user_id
+            ORDER BY e.ord
+        )
+        SELECT a.user_id,
+               a.total_points + COALESCE(t.total_delta, 0) AS total_points,
+               a.available_points + COALESCE(t.available_delta, 0) AS available_points,
+               a.locked_points + COALESCE(t.locked_delta, 0) AS locked_points,
+               a.created_at,
+               GREATEST(a.last_updated, t.last_entry_at) AS last_updated
+        FROM applied a
+        LEFT JOIN LATERAL (
+            SELECT sum(d.total_delta) AS total_delta,
+                   sum(d.available_delta) AS available_delta,
+                   sum(d.locked_delta) AS locked_delta,
+                   max(d.created_at) AS last_entry_at
+            FROM points_ledger_deltas d
+            WHERE d.user_id = a.user_id AND d.xact_id >= a.ledger_horizon AND NOT d.in_snapshot
+        ) t ON true
+        """;
+
+    // Mutlak bakiye yazımı: snapshot verilen duruma set edilir, şu ana kadar başlamış transaction'ların
+    // entry'leri (katlanmamış olsalar da) artık snapshot'ın parçası sayılır
+    private static final String SAVE_SQL = """
+        INSERT INTO user_points (user_id, total_points, available_points, locked_points, created_at, last_updated,
+                                 ledger_horizon)
+        VALUES (?, ?, ?, ?, ?, ?, pg_snapshot_xmax(pg_current_snapshot()))
+        ON CONFLICT (user_id) DO UPDATE
+        SET total_points = EXCLUDED.total_points,
+            available_points = EXCLUDED.available_points,
+            locked_points = EXCLUDED.locked_points,
+            last_updated = EXCLUDED.last_updated,
+            ledger_horizon = EXCLUDED.ledger_horizon
+        """;
+
     private final SpringDataUserPointsRepository springDataRepository;
     private final UserPointsMapper mapper;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final RowMapper<UserPoints> rowMapper;
+    private final Optional<UserPointsBalanceCache> balanceCache;
 
-    public JpaUserPointsRepository(SpringDataUserPointsRepository springDataRepository, 
-                                    UserPointsMapper mapper) {
+    public JpaUserPointsRepository(SpringDataUserPointsRepository springDataRepository,
+                                    UserPointsMapper mapper,
+                                    CacheInvalidationPublisher invalidationPublisher,
+                                    JdbcTemplate jdbcTemplate,
+                                    Optional<UserPointsBalanceCache> balanceCache) {
         this.springDataRepository = springDataRepository;
         this.mapper = mapper;
+        this.invalidationPublisher = invalidationPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.balanceCache = balanceCache;
+        this.rowMapper = (rs, rowNum) -> {
+            UserPointsEntity entity = new UserPointsEntity();
+            entity.setUserId(rs.getString("user_id"));
+            entity.setTotalPoints(rs.getBigDecimal("total_points"));
+            entity.setAvailablePoints(rs.getBigDecimal("available_points"));
+            entity.setLockedPoints(rs.getBigDecimal("locked_points"));
+            entity.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            entity.setLastUpdated(rs.getTimestamp("last_updated").toLocalDateTime());
+            return mapper.toDomain(entity);
+        };
     }
 
     @Override
     public Optional<UserPoints> findByUserId(String userId) {
-        return springDataRepository.findByUserId(userId)
-            .map(mapper::toDomain);
+        Supplier<Optional<UserPoints>> loader =
+            () -> ReplicaRoutingDataSource.readFor(CACHE_TOPIC, userId, () -> balance(userId));
+        return balanceCache.map(cache -> cache.getOrLoad(userId, loader)).orElseGet(loader);
     }
 
     @Override
+    public Optional<LocalDateTime> findLastUpdatedByUserId(String userId) {
+        Optional<UserPoints> cached = balanceCache.flatMap(cache -> cache.getIfPresent(userId));
+        if (cached.isPresent()) {
+            return cached.map(UserPoints::getLastUpdated);
+        }
+        return ReplicaRoutingDataSource.readFor(CACHE_TOPIC, userId,
+            () -> jdbcTemplate.queryForList(LAST_UPDATED_SQL, Timestamp.class, userId).stream()
+                .findFirst()
+                .map(Timestamp::toLocalDateTime));
+    }
+
+    /**
+     * Mutlak yazım (eski read-modify-write semantiği, last-writer-wins): eşzamanlı güvenli değişiklikler için
+     * addPoints / deductPoints / record kullanılmalı
+     */
+    @Override
+    @Transactional
     public UserPoints save(UserPoints userPoints) {
-        UserPointsEntity entity = mapper.toEntity(userPoints);
-        UserPointsEntity savedEntity = springDataRepository.save(entity);
-        return mapper.toDomain(savedEntity);
+        lockForWrite(List.of(userPoints.getUserId()));
+        jdbcTemplate.update(SAVE_SQL, userPoints.getUserId(), userPoints.getTotalPoints(),
+            userPoints.getAvailablePoints(), userPoints.getLockedPoints(), userPoints.getCreatedAt(),
+            userPoints.getLastUpdated());
+        invalidationPublisher.publish(CACHE_TOPIC, userPoints.getUserId());
+        balanceCache.ifPresent(cache -> cache.evictOnCommit(userPoints.getUserId()));
+        return userPoints;
+    }
+
+    @Override
+    @Transactional
+    public UserPoints addPoints(String userId, BigDecimal points) {
+        UserPoints.requirePositive(points);
+        lockForWrite(List.of(userId));
+        LocalDateTime now = LocalDateTime.now();
+        UserPoints updated = jdbcTemplate.queryForObject(ADD_POINTS_SQL, rowMapper,
+            userId, now, now, userId, points, now);
+        invalidationPublisher.publish(CACHE_TOPIC, userId);
+        balanceCache.ifPresent(cache -> cache.writeThrough(updated));
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public Optional<UserPoints> deductPoints(String userId, BigDecimal points) {
+        UserPoints.requirePositive(points);
+        lockForWrite(List.of(userId));
+        return apply(List.of(new PointsLedgerEntry(userId, PointsEntryType.SPEND, points))).stream().findFirst();
+    }
+
+    @Override
+    @Transactional
+    public Optional<UserPoints> record(PointsLedgerEntry entry) {
+        lockForWrite(List.of(entry.getUserId()));
+        Optional<UserPoints> updated = apply(List.of(entry)).stream().findFirst();
+        if (updated.isPresent()) {
+            return updated;
+        }
+        // Reddedildi: kayıt yoksa boş, varsa kural ihlalini domain raporlar
+        Optional<UserPoints> current = balance(entry.getUserId());
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        entry.applyTo(current.get());
+        // Statement'tan sonra commit olan bir kazanım entry'yi geçerli kıldı
+        return Optional.of(apply(List.of(entry)).stream().findFirst()
+            .orElseThrow(() -> new IllegalStateException("Points entry rejected: " + entry)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<String, UserPoints> lockBalances(Collection<String> userIds) {
+        lockForWrite(userIds);
+        Object[] ids = userIds.toArray();
+        if (jdbcTemplate.query(connection -> userIdsStatement(connection, LOCK_ALL_SQL, ids),
+                (rs, rowNum) -> rs.getString(1)).isEmpty()) {
+            return Map.of();
+        }
+        Map<String, UserPoints> balances = new HashMap<>();
+        jdbcTemplate.query(connection -> userIdsStatement(connection, BALANCES_SQL, ids), rowMapper)
+            .forEach(balance -> balances.put(balance.getUserId(), balance));
+        return balances;
+    }
+
+    @Override
+    @Transactional
+    public void recordAll(List<PointsLedgerEntry> entries) {
+        List<String> userIds = entries.stream()
+            .map(PointsLedgerEntry::getUserId)
+            .distinct()
+            .toList();
+        lockForWrite(userIds);
+        Object[] earners = entries.stream()
+            .filter(entry -> entry.getType() == PointsEntryType.EARN)
+            .map(PointsLedgerEntry::getUserId)
+            .distinct()
+            .toArray();
+        if (earners.length > 0) {
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(OPEN_SNAPSHOTS_SQL);
+                statement.setTimestamp(1, Timestamp.valueOf(now));
+                statement.setTimestamp(2, Timestamp.valueOf(now));
+                statement.setArray(3, connection.createArrayOf("varchar", earners));
+                return statement;
+            });
+        }
+        // Satırlar lockBalances ile zaten kilitli: kazanımlar da snapshot'a uygulanır
+        List<UserPoints> updated = apply(entries);
+        if (updated.size() != userIds.size()) {
+            throw new IllegalStateException("Points entries rejected for " + (userIds.size() - updated.size())
+                + " of " + userIds.size() + " users");
+        }
     }
 
     @Override
+    @Transactional
     public void delete(String userId) {
-        springDataRepository.deleteById(userId);
+        lockForWrite(List.of(userId));
+        jdbcTemplate.update("DELETE FROM points_ledger WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM user_points WHERE user_id = ?", userId);
+        invalidationPublisher.publish(CACHE_TOPIC, userId);
+        balanceCache.ifPresent(cache -> cache.evictOnCommit(userId));
     }
 
     @Override
     public boolean existsByUserId(String userId) {
-        return springDataRepository.existsByUserId(userId);
+        if (balanceCache.flatMap(cache -> cache.getIfPresent(userId)).isPresent()) {
+            return true;
+        }
+        return ReplicaRoutingDataSource.readFor(CACHE_TOPIC, userId, () -> springDataRepository.existsByUserId(userId));
+    }
+
+    private Optional<UserPoints> balance(String userId) {
+        return jdbcTemplate.query(BALANCE_SQL, rowMapper, userId).stream().findFirst();
+    }
+
+    // Uygulanan kullanıcıların yeni bakiyeleri; cache'e statement'ın döndürdüğü değer yazılır (yeniden okuma yok)
+    private List<UserPoints> apply(List<PointsLedgerEntry> entries) {
+        List<UserPoints> updated = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(APPLY_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar",
+                entries.stream().map(PointsLedgerEntry::getUserId).toArray()));
+            statement.setArray(2, connection.createArrayOf("varchar",
+                entries.stream().map(entry -> entry.getType().name()).toArray()));
+            statement.setArray(3, connection.createArrayOf("numeric",
+                entries.stream().map(PointsLedgerEntry::getPoints).toArray()));
+            statement.setArray(4, connection.createArrayOf("timestamp",
+                entries.stream().map(entry -> Timestamp.valueOf(entry.getCreatedAt())).toArray()));
+            return statement;
+        }, rowMapper);
+        updated.forEach(balance -> {
+            invalidationPublisher.publish(CACHE_TOPIC, balance.getUserId());
+            balanceCache.ifPresent(cache -> cache.writeThrough(balance));
+        });
+        return updated;
+    }
+
+    private void lockForWrite(Collection<String> userIds) {
+        balanceCache.ifPresent(cache -> cache.lock(userIds));
+    }
+
+    private static PreparedStatement userIdsStatement(Connection connection, String sql, Object[] userIds)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setArray(1, connection.createArrayOf("varchar", userIds));
+        return statement;
     }
 }
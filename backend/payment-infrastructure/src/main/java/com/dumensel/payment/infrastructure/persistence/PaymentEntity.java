@@ -3,24 +3,29 @@ package com.dumensel.payment.infrastructure.persistence;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * JPA Entity for Payment
  * Infrastructure layer - persistence model
+ *
+ * Tablo created_at'e göre aylık partition'lı (V9): DB'deki PK (id, created_at); conversation_id
+ * benzersizliği payment_conversation_ids claim tablosuyla sağlanır
  */
 @Entity
 @Table(name = "payments", indexes = {
-    @Index(name = "idx_conversation_id", columnList = "conversation_id", unique = true),
+    @Index(name = "idx_conversation_id", columnList = "conversation_id"),
     @Index(name = "idx_external_payment_id", columnList = "external_payment_id"),
-    @Index(name = "idx_buyer_id", columnList = "buyer_id")
+    @Index(name = "idx_payments_buyer_created_id", columnList = "buyer_id, created_at DESC, id DESC")
 })
 public class PaymentEntity {
     
     @Id
-    @Column(name = "id", length = 36)
-    private String id;
+    // Native uuid kolonu (16 byte); domain'de String olarak taşınır
+    @Column(name = "id", columnDefinition = "uuid")
+    private UUID id;
     
-    @Column(name = "conversation_id", nullable = false, unique = true, length = 100)
+    @Column(name = "conversation_id", nullable = false, length = 100)
     private String conversationId;
     
     @Column(name = "amount", nullable = false, precision = 19, scale = 2)
@@ -60,17 +65,21 @@ public class PaymentEntity {
     // Production'da PCI-DSS compliance için tokenization kullanılmalı
     @Column(name = "masked_card_number", length = 20)
     private String maskedCardNumber;
+    
+    // Failover dahil denenen provider'lar, virgülle ayrılmış (örn: AKBANK,CRAFTGATE)
+    @Column(name = "attempted_providers", length = 100)
+    private String attemptedProviders;
 
     // Constructors
     public PaymentEntity() {
     }
 
     // Getters and Setters
-    public String getId() {
+    public UUID getId() {
         return id;
     }
 
-    public void setId(String id) {
+    public void setId(UUID id) {
         this.id = id;
     }
 
@@ -177,5 +186,12 @@ public class PaymentEntity {
     public void setMaskedCardNumber(String maskedCardNumber) {
         this.maskedCardNumber = maskedCardNumber;
     }
-}
 
+    public String getAttemptedProviders() {
+        return attemptedProviders;
+    }
+
+    public void setAttemptedProviders(String attemptedProviders) {
+        this.attemptedProviders = attemptedProviders;
+    }
+}
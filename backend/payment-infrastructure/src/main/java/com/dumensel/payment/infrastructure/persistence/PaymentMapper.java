@@ -2,6 +2,13 @@ package com.dumensel.payment.infrastructure.persistence;
 
 import com.dumensel.payment.domain.model.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
 /**
  * Mapper between Domain and Persistence models
  * Infrastructure layer
@@ -10,7 +17,7 @@ public class PaymentMapper {
     
     public static PaymentEntity toEntity(Payment payment) {
         PaymentEntity entity = new PaymentEntity();
-        entity.setId(payment.getId());
+        entity.setId(UUID.fromString(payment.getId()));
         entity.setConversationId(payment.getConversationId());
         entity.setAmount(payment.getAmount().getAmount());
         entity.setCurrency(payment.getAmount().getCurrency().name());
@@ -23,48 +30,87 @@ public class PaymentMapper {
         entity.setExternalPaymentId(payment.getExternalPaymentId());
         entity.setErrorMessage(payment.getErrorMessage());
         entity.setErrorCode(payment.getErrorCode());
-        
-        // Sadece maskelenmiş kart numarasını sakla
-        if (payment.getPaymentMethod().getCardInfo() != null) {
-            entity.setMaskedCardNumber(
-                payment.getPaymentMethod().getCardInfo().getMaskedCardNumber()
-            );
-        }
+        entity.setAttemptedProviders(joinProviders(payment.getAttemptedProviders()));
+        entity.setMaskedCardNumber(maskedCardNumber(payment));
         
         return entity;
     }
 
     public static Payment toDomain(PaymentEntity entity) {
+        return restore(
+            entity.getId().toString(),
+            entity.getConversationId(),
+            entity.getAmount(),
+            entity.getCurrency(),
+            entity.getStatus(),
+            entity.getPaymentType(),
+            entity.getProvider(),
+            entity.getBuyerId(),
+            entity.getCreatedAt(),
+            entity.getUpdatedAt(),
+            entity.getExternalPaymentId(),
+            entity.getErrorMessage(),
+            entity.getErrorCode(),
+            entity.getAttemptedProviders()
+        );
+    }
+
+    /**
+     * Kolon değerlerinden Payment oluşturur (JPA entity ve JDBC satırı ortak yolu)
+     */
+    static Payment restore(String id, String conversationId, BigDecimal amount, String currency, String status,
+                           String paymentType, String provider, String buyerId, LocalDateTime createdAt,
+                           LocalDateTime updatedAt, String externalPaymentId, String errorMessage,
+                           String errorCode, String attemptedProviders) {
         // NOTE: CardInfo domain nesnesini yeniden oluşturamıyoruz çünkü tam kart bilgileri yok
         // Bu yüzden veritabanından okunan Payment'lar için CardInfo null olabilir
         // Bu kabul edilebilir çünkü kart bilgileri sadece ödeme anında gereklidir
         
-        Money money = new Money(
-            entity.getAmount(),
-            Currency.valueOf(entity.getCurrency())
-        );
+        Money money = new Money(amount, Currency.valueOf(currency));
         
         // CardInfo'yu null olarak geçiyoruz - veritabanında tam kart bilgisi yok
-        PaymentMethod paymentMethod = new PaymentMethod(
-            PaymentType.valueOf(entity.getPaymentType()),
-            null // CardInfo veritabanından restore edilemez (güvenlik)
-        );
+        PaymentMethod paymentMethod = PaymentMethod.restore(PaymentType.valueOf(paymentType));
         
         // Reconstruction constructor kullan (veritabanından restore için)
         return new Payment(
-            entity.getId(),
-            entity.getConversationId(),
+            id,
+            conversationId,
             money,
-            PaymentStatus.valueOf(entity.getStatus()),
+            PaymentStatus.valueOf(status),
             paymentMethod,
-            PaymentProvider.valueOf(entity.getProvider()),
-            entity.getBuyerId(),
-            entity.getCreatedAt(),
-            entity.getUpdatedAt(),
-            entity.getExternalPaymentId(),
-            entity.getErrorMessage(),
-            entity.getErrorCode()
+            PaymentProvider.valueOf(provider),
+            buyerId,
+            createdAt,
+            updatedAt,
+            externalPaymentId,
+            errorMessage,
+            errorCode,
+            parseProviders(attemptedProviders)
         );
     }
+
+    static String joinProviders(List<PaymentProvider> providers) {
+        return providers.stream()
+            .map(Enum::name)
+            .collect(Collectors.joining(","));
+    }
+
+    static String maskedCardNumber(Payment payment) {
+        // Sadece maskelenmiş kart numarasını sakla
+        if (payment.getPaymentMethod().getCardInfo() == null) {
+            return null;
+        }
+        return payment.getPaymentMethod().getCardInfo().getMaskedCardNumber();
+    }
+
+    // V5 öncesi kayıtlarda kolon boştur; Payment bu durumda sadece kendi provider'ını listeler
+    private static List<PaymentProvider> parseProviders(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+            .map(PaymentProvider::valueOf)
+            .toList();
+    }
 }
 
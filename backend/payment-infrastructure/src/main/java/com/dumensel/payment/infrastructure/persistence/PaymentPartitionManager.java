@@ -0,0 +1,298 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Payment Partition Manager
+ * payments tablosunun aylık partition'larını yönetir (V9)
+ *
+ * Her çalışmada:
+ * - bu ay + premake-months ay için partition yoksa açılır (INSERT'ler partition bulamazsa hata alır)
+ * - retention-months > 0 ise üst sınırı (bu ay - retention-months)'tan eski partition'lar
+ *   DETACH ... CONCURRENTLY ile ayrılır ve archive-mode'a göre archive-schema'ya taşınır veya silinir
+ * - yarıda kalmış DETACH CONCURRENTLY'ler FINALIZE edilir
+ *
+ * İlk çalışma context hazır olunca yapılır (SmartLifecycle.start): Flyway migration'ları bitmiş olur.
+ * Birden fazla node aynı anda çalıştırmasın diye session seviyesinde advisory lock alınır; alamayan atlar.
+ * Arşivlenen ayların conversation_id claim'leri silinmez: idempotency benzersizliği sürer.
+ *
+ * Metrikler: payment.partitions.created, payment.partitions.archived, payment.partitions.months-ahead
+ */
+@Component
+@ConditionalOnProperty(name = "payment.partitions.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentPartitionManager implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentPartitionManager.class);
+
+    static final String PARENT_TABLE = "payments";
+
+    // "payments" (ASCII) - payment servisine ait advisory lock anahtarı
+    private static final long ADVISORY_LOCK_KEY = 0x7061796d656e7473L;
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // pg_get_expr: FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2024-02-01 00:00:00') / FROM (MINVALUE) ...
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    private static final String PARTITIONS_SQL = """
+        SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound, i.inhdetachpending
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'payments'::regclass
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    private final boolean dropArchived;
+    private final String archiveSchema;
+    private final long intervalMinutes;
+    private final Counter created;
+    private final Counter archived;
+    private volatile int monthsAhead = -1;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public PaymentPartitionManager(JdbcTemplate jdbcTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${payment.partitions.premake-months:3}") int premakeMonths,
+                                   @Value("${payment.partitions.retention-months:0}") int retentionMonths,
+                                   @Value("${payment.partitions.archive-mode:schema}") String archiveMode,
+                                   @Value("${payment.partitions.archive-schema:payment_archive}") String archiveSchema,
+                                   @Value("${payment.partitions.interval-minutes:360}") long intervalMinutes) {
+        if (premakeMonths < 1) {
+            throw new IllegalArgumentException("payment.partitions.premake-months must be at least 1");
+        }
+        if (!archiveMode.equals("schema") && !archiveMode.equals("drop")) {
+            throw new IllegalArgumentException("payment.partitions.archive-mode must be 'schema' or 'drop': " + archiveMode);
+        }
+        if (!archiveSchema.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid payment.partitions.archive-schema: " + archiveSchema);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+        this.dropArchived = archiveMode.equals("drop");
+        this.archiveSchema = archiveSchema;
+        this.intervalMinutes = intervalMinutes;
+
+        this.created = Counter.builder("payment.partitions.created")
+            .description("Monthly payment partitions created ahead of time")
+            .register(meterRegistry);
+        this.archived = Counter.builder("payment.partitions.archived")
+            .description("Payment partitions detached past retention")
+            .register(meterRegistry);
+        Gauge.builder("payment.partitions.months-ahead", this, manager -> manager.monthsAhead)
+            .description("Months after the current one that already have a partition (-1 before the first run)")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        if (intervalMinutes > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("payment-partitions-"));
+            scheduler.scheduleWithFixedDelay(this::maintainQuietly, 0, intervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public MaintenanceResult maintain() {
+        return maintain(LocalDateTime.now());
+    }
+
+    /**
+     * @param now partition takvimi için "şimdi" (payments.created_at ile aynı saat: uygulama saati)
+     * @return açılan ve arşivlenen partition'lar; lock başka node'daysa boş
+     */
+    synchronized MaintenanceResult maintain(LocalDateTime now) {
+        return jdbcTemplate.execute((ConnectionCallback<MaintenanceResult>) connection -> {
+            if (!queryBoolean(connection, "SELECT pg_try_advisory_lock(" + ADVISORY_LOCK_KEY + ")")) {
+                logger.debug("Payment partition maintenance is running on another node, skipping");
+                return new MaintenanceResult(List.of(), List.of());
+            }
+            try {
+                return maintain(connection, now.toLocalDate().withDayOfMonth(1).atStartOfDay());
+            } finally {
+                queryBoolean(connection, "SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+            }
+        });
+    }
+
+    private MaintenanceResult maintain(Connection connection, LocalDateTime currentMonth) throws SQLException {
+        List<String> archivedNow = new ArrayList<>();
+        for (Partition partition : partitions(connection)) {
+            if (partition.detachPending()) {
+                execute(connection, "ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + quote(partition.name()) + " FINALIZE");
+                archive(connection, partition.name());
+                archivedNow.add(partition.name());
+            }
+        }
+
+        List<String> createdNow = new ArrayList<>();
+        List<Partition> partitions = partitions(connection);
+        for (int i = 0; i <= premakeMonths; i++) {
+            LocalDateTime monthStart = currentMonth.plusMonths(i);
+            if (partitions.stream().noneMatch(partition -> partition.covers(monthStart))) {
+                String name = PARENT_TABLE + "_p" + PARTITION_SUFFIX.format(monthStart);
+                execute(connection, "CREATE TABLE IF NOT EXISTS " + quote(name) + " PARTITION OF " + PARENT_TABLE
+                    + " FOR VALUES FROM ('" + BOUND_FORMAT.format(monthStart) + "') TO ('"
+                    + BOUND_FORMAT.format(monthStart.plusMonths(1)) + "')");
+                created.increment();
+                createdNow.add(name);
+            }
+        }
+
+        if (retentionMonths > 0) {
+            LocalDateTime cutoff = currentMonth.minusMonths(retentionMonths);
+            for (Partition partition : partitions) {
+                if (!partition.detachPending() && partition.to() != null && !partition.to().isAfter(cutoff)) {
+                    execute(connection, "ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + quote(partition.name())
+                        + " CONCURRENTLY");
+                    archive(connection, partition.name());
+                    archivedNow.add(partition.name());
+                }
+            }
+        }
+
+        monthsAhead = monthsAhead(partitions(connection), currentMonth);
+        if (!createdNow.isEmpty() || !archivedNow.isEmpty()) {
+            logger.info("Payment partitions maintained: created={}, archived={}, months ahead={}",
+                createdNow, archivedNow, monthsAhead);
+        }
+        return new MaintenanceResult(createdNow, archivedNow);
+    }
+
+    private void archive(Connection connection, String name) throws SQLException {
+        if (dropArchived) {
+            execute(connection, "DROP TABLE " + quote(name));
+        } else {
+            execute(connection, "CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+            execute(connection, "ALTER TABLE " + quote(name) + " SET SCHEMA " + archiveSchema);
+        }
+        archived.increment();
+    }
+
+    private static int monthsAhead(List<Partition> partitions, LocalDateTime currentMonth) {
+        int months = 0;
+        while (months < 1200) {
+            LocalDateTime monthStart = currentMonth.plusMonths(months + 1);
+            if (partitions.stream().noneMatch(partition -> partition.covers(monthStart))) {
+                break;
+            }
+            months++;
+        }
+        return months;
+    }
+
+    private static List<Partition> partitions(Connection connection) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(PARTITIONS_SQL)) {
+            while (rs.next()) {
+                Matcher bound = RANGE_BOUND.matcher(rs.getString("bound"));
+                if (!bound.find()) {
+                    logger.warn("Unexpected payment partition bound for {}: {}", rs.getString("relname"), rs.getString("bound"));
+                    continue;
+                }
+                partitions.add(new Partition(rs.getString("relname"), parseBound(bound.group(1)), parseBound(bound.group(2)),
+                    rs.getBoolean("inhdetachpending")));
+            }
+        }
+        return partitions;
+    }
+
+    // MINVALUE / MAXVALUE -> null (sınırsız)
+    private static LocalDateTime parseBound(String bound) {
+        if (!bound.startsWith("'")) {
+            return null;
+        }
+        String value = bound.substring(1, bound.length() - 1);
+        return value.length() == 10
+            ? LocalDate.parse(value).atStartOfDay()
+            : LocalDateTime.parse(value.replace(' ', 'T'));
+    }
+
+    private static boolean queryBoolean(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (DataAccessException e) {
+            logger.error("Payment partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    public record MaintenanceResult(List<String> created, List<String> archived) {
+    }
+
+    private record Partition(String name, LocalDateTime from, LocalDateTime to, boolean detachPending) {
+
+        boolean covers(LocalDateTime instant) {
+            return (from == null || !instant.isBefore(from)) && (to == null || instant.isBefore(to));
+        }
+    }
+}
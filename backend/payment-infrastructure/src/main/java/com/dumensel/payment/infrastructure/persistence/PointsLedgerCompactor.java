@@ -0,0 +1,230 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Points Ledger Compactor
+ * points_ledger kuyruklarını user_points snapshot'larına katlar (V11); bakiye okumaları kısa kuyruk tarar
+ *
+ * Her çalışmada horizon = pg_snapshot_xmin: bundan küçük xid'li transaction'ların hepsi bitmiştir.
+ * Son çalışmanın horizon'undan bu yana yazan kullanıcılar user_id sırasıyla batch'ler halinde işlenir;
+ * her batch tek statement (kendi transaction'ı): entry'ler toplanır, snapshot'a eklenir, ledger_horizon ilerler.
+ * Yazılırken snapshot'a uygulanmış entry'ler (in_snapshot: borçlar) katlanmaz.
+ * Ledger satırları değişmez/silinmez; tarihçe ve yeniden hesaplama için kalır.
+ *
+ * Birden fazla node aynı anda çalıştırmasın diye session seviyesinde advisory lock alınır; alamayan atlar.
+ *
+ * Metrikler: payment.points.ledger.compacted.entries, payment.points.ledger.compacted.users
+ */
+@Component
+@ConditionalOnProperty(name = "payment.points.ledger.compaction.enabled", havingValue = "true", matchIfMissing = true)
+public class PointsLedgerCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PointsLedgerCompactor.class);
+
+    // "points" (ASCII) - puan ledger'ına ait advisory lock anahtarı
+    private static final long ADVISORY_LOCK_KEY = 0x706f696e7473L;
+
+    private static final String HORIZON_SQL = """
+        SELECT c.horizon::text, pg_snapshot_xmin(pg_current_snapshot())::text
+        FROM points_ledger_compaction c
+        WHERE c.id = 1
+        """;
+
+    private static final String USERS_SQL = """
+        SELECT DISTINCT user_id
+        FROM points_ledger
+        WHERE xact_id >= CAST(? AS xid8) AND xact_id < CAST(? AS xid8) AND user_id > ? AND NOT in_snapshot
+        ORDER BY user_id
+        LIMIT ?
+        """;
+
+    // Her snapshot kendi horizon'undan itibaren katlanır (save() horizon'u ileri almış olabilir)
+    private static final String FOLD_SQL = """
+        WITH folded AS (
+            SELECT d.user_id,
+                   sum(d.total_delta) AS total_delta,
+                   sum(d.available_delta) AS available_delta,
+                   sum(d.locked_delta) AS locked_delta,
+                   max(d.created_at) AS last_entry_at,
+                   count(*) AS entries
+            FROM points_ledger_deltas d
+            JOIN user_points s ON s.user_id = d.user_id
+            WHERE d.user_id = ANY(?) AND d.xact_id >= s.ledger_horizon AND d.xact_id < CAST(? AS xid8)
+              AND NOT d.in_snapshot
+            GROUP BY d.user_id
+        )
+        UPDATE user_points s
+        SET total_points = s.total_points + f.total_delta,
+            available_points = s.available_points + f.available_delta,
+            locked_points = s.locked_points + f.locked_delta,
+            last_updated = GREATEST(s.last_updated, f.last_entry_at),
+            ledger_horizon = CAST(? AS xid8)
+        FROM folded f
+        WHERE s.user_id = f.user_id AND s.ledger_horizon < CAST(? AS xid8)
+        RETURNING f.entries
+        """;
+
+    private static final String ADVANCE_SQL = "UPDATE points_ledger_compaction SET horizon = CAST(? AS xid8) WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Counter compactedEntries;
+    private final Counter compactedUsers;
+
+    public PointsLedgerCompactor(JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${payment.points.ledger.compaction.batch-size:1000}") int batchSize,
+                                 @Value("${payment.points.ledger.compaction.interval-ms:30000}") long intervalMs) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("payment.points.ledger.compaction.batch-size must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+
+        this.compactedEntries = Counter.builder("payment.points.ledger.compacted.entries")
+            .description("Ledger entries folded into user_points snapshots")
+            .register(meterRegistry);
+        this.compactedUsers = Counter.builder("payment.points.ledger.compacted.users")
+            .description("User points snapshots rolled forward")
+            .register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("points-ledger-compactor-"));
+        if (intervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::compactQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return katlanan entry ve snapshot sayıları; lock başka node'daysa sıfır
+     */
+    public synchronized CompactionResult compact() {
+        return jdbcTemplate.execute((ConnectionCallback<CompactionResult>) connection -> {
+            if (!queryBoolean(connection, "SELECT pg_try_advisory_lock(" + ADVISORY_LOCK_KEY + ")")) {
+                logger.debug("Points ledger compaction is running on another node, skipping");
+                return new CompactionResult(0, 0);
+            }
+            try {
+                return compact(connection);
+            } finally {
+                queryBoolean(connection, "SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+            }
+        });
+    }
+
+    private CompactionResult compact(Connection connection) throws SQLException {
+        String from;
+        String to;
+        try (PreparedStatement statement = connection.prepareStatement(HORIZON_SQL);
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            from = rs.getString(1);
+            to = rs.getString(2);
+        }
+        if (Long.parseUnsignedLong(from) >= Long.parseUnsignedLong(to)) {
+            return new CompactionResult(0, 0);
+        }
+
+        long entries = 0;
+        long users = 0;
+        String afterUserId = "";
+        List<String> batch;
+        while (!(batch = users(connection, from, to, afterUserId)).isEmpty()) {
+            List<Long> folded = fold(connection, batch, to);
+            users += folded.size();
+            entries += folded.stream().mapToLong(Long::longValue).sum();
+            afterUserId = batch.get(batch.size() - 1);
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(ADVANCE_SQL)) {
+            statement.setString(1, to);
+            statement.executeUpdate();
+        }
+        compactedEntries.increment(entries);
+        compactedUsers.increment(users);
+        if (entries > 0) {
+            logger.info("Points ledger compacted: {} entries into {} snapshots (horizon {})", entries, users, to);
+        }
+        return new CompactionResult(entries, users);
+    }
+
+    private List<String> users(Connection connection, String from, String to, String afterUserId) throws SQLException {
+        List<String> users = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(USERS_SQL)) {
+            statement.setString(1, from);
+            statement.setString(2, to);
+            statement.setString(3, afterUserId);
+            statement.setInt(4, batchSize);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    users.add(rs.getString(1));
+                }
+            }
+        }
+        return users;
+    }
+
+    private static List<Long> fold(Connection connection, List<String> userIds, String horizon) throws SQLException {
+        List<Long> entries = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(FOLD_SQL)) {
+            Array users = connection.createArrayOf("varchar", userIds.toArray());
+            statement.setArray(1, users);
+            statement.setString(2, horizon);
+            statement.setString(3, horizon);
+            statement.setString(4, horizon);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(rs.getLong(1));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static boolean queryBoolean(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (DataAccessException e) {
+            logger.error("Points ledger compaction failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public record CompactionResult(long entries, long users) {
+    }
+}
@@ -1,20 +1,78 @@
 package com.dumensel.payment.infrastructure.persistence;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Spring Data JPA Repository
  * Infrastructure layer
  */
-public interface SpringDataPaymentRepository extends JpaRepository<PaymentEntity, String> {
+public interface SpringDataPaymentRepository extends JpaRepository<PaymentEntity, UUID> {
     
     Optional<PaymentEntity> findByConversationId(String conversationId);
     
     Optional<PaymentEntity> findByExternalPaymentId(String externalPaymentId);
     
-    List<PaymentEntity> findByBuyerId(String buyerId);
+    /**
+     * Alıcı geçmişi ilk sayfa - idx_payments_buyer_created_id üzerinden index scan
+     */
+    @Query(value = """
+        SELECT * FROM payments
+        WHERE buyer_id = :buyerId
+        ORDER BY created_at DESC, id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<PaymentEntity> findFirstPageByBuyerId(@Param("buyerId") String buyerId, @Param("limit") int limit);
+    
+    /**
+     * Alıcı geçmişi sonraki sayfalar - (created_at, id) row comparison ile son görülen kayıttan devam
+     * created_at <= koşulu row comparison'a ek olarak partition pruning içindir: imlecten yeni aylar taranmaz
+     */
+    @Query(value = """
+        SELECT * FROM payments
+        WHERE buyer_id = :buyerId
+          AND created_at <= :afterCreatedAt
+          AND (created_at, id) < (:afterCreatedAt, :afterId)
+        ORDER BY created_at DESC, id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<PaymentEntity> findPageByBuyerIdAfter(@Param("buyerId") String buyerId,
+                                               @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                               @Param("afterId") UUID afterId,
+                                               @Param("limit") int limit);
+    
+    @Query("SELECT p.updatedAt FROM PaymentEntity p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") UUID id);
+    
+    /**
+     * conversation_id claim'i: çakışmada hata yerine 0 döner
+     * payments partition'lı olduğundan benzersizlik payment_conversation_ids'te; claim ve INSERT tek statement.
+     * Çakışan claim henüz commit edilmemişse Postgres o transaction bitene kadar bekler.
+     * SELECT listesindeki parametrelerin tipi kolondan çıkarılmaz: uuid / timestamp açıkça cast edilir
+     */
+    @Modifying
+    @Query(value = """
+        WITH claimed AS (
+            INSERT INTO payment_conversation_ids (conversation_id, payment_id, created_at)
+            VALUES (:#{#p.conversationId}, CAST(:#{#p.id} AS uuid), CAST(:#{#p.createdAt} AS timestamp))
+            ON CONFLICT (conversation_id) DO NOTHING
+            RETURNING payment_id, created_at
+        )
+        INSERT INTO payments (id, conversation_id, amount, currency, status, payment_type, provider, buyer_id,
+                              created_at, updated_at, external_payment_id, error_message, error_code,
+                              masked_card_number, attempted_providers)
+        SELECT payment_id, :#{#p.conversationId}, :#{#p.amount}, :#{#p.currency}, :#{#p.status},
+               :#{#p.paymentType}, :#{#p.provider}, :#{#p.buyerId}, created_at, CAST(:#{#p.updatedAt} AS timestamp),
+               :#{#p.externalPaymentId}, :#{#p.errorMessage}, :#{#p.errorCode},
+               :#{#p.maskedCardNumber}, :#{#p.attemptedProviders}
+        FROM claimed
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("p") PaymentEntity payment);
 }
-
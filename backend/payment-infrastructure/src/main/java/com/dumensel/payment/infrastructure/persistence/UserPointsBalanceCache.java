@@ -0,0 +1,398 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import com.dumensel.payment.application.cache.CacheInvalidationHandler;
+import com.dumensel.payment.application.cache.ExpiringLruCache;
+import com.dumensel.payment.domain.model.UserPoints;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * UserPoints Balance Cache
+ * JpaUserPointsRepository'nin node içi bakiye cache'i (write-through): checkout sayfasındaki
+ * GET /api/v1/user-points/{userId} ve /check okumaları DB'ye gitmeden cevaplanır
+ *
+ * - Okuma: cache'te yoksa DB'den yüklenir; yükleme sırasında kayıt yazıldıysa / invalidate olduysa
+ *   yüklenen sonuç cache'e yazılmaz
+ * - Yazma: repository her değişiklikten önce (DB satır kilidinden de önce) kullanıcının stripe kilidini alır;
+ *   kilit commit / rollback'e kadar tutulur, aynı userId'nin bu node'daki yazmaları sıralanır. Commit'te
+ *   transaction'ın okuduğu yeni bakiye cache'e yazılır, rollback'te cache'e dokunulmaz. Birden fazla kullanıcı
+ *   kilitleyen transaction'lar (lockBalances) stripe sırasıyla kilitler; sıra dışı kilit lock-timeout-ms'te düşer
+ * - Diğer node'ların yazmaları CacheInvalidationHandler (topic: user-points) ile gelir. Bu node'un kendi
+ *   yazmasının NOTIFY'ı da gelir: NOTIFY'lar commit sırasıyla teslim edildiği için kayıt, kendisinden sonra
+ *   beklenen kendi mesaj sayısını tutar ve o kadar mesajı silmeden tüketir
+ * - Kompaksiyon bakiyeyi değiştirmez; toplu yüklemeler (publishAll) tüm cache'i temizler
+ * - Invalidation listener bağlı değilken diğer node'ların yazmaları kaçırılabilir: okumalar DB'den
+ *   yapılır ve cache'e yazılmaz (yeniden bağlanınca cache zaten temizlenir)
+ * - Invalidation, kullanıcının yazması commit'e ulaşana kadar en fazla lock-timeout-ms bekler;
+ *   süre dolarsa listener thread'i bekletilmez, tüm cache temizlenir
+ *
+ * Config (payment.cache.user-points.*):
+ * - enabled, max-entries, ttl-seconds, lock-stripes, lock-timeout-ms
+ * Invalidation bus kapalıyken (payment.cache.invalidation.enabled=false) cache de kapalıdır
+ *
+ * Metrikler (tag: cache=user-points):
+ * - payment.cache.requests (tag: result=hit|miss|bypass), payment.cache.evictions, payment.cache.size
+ * - payment.cache.lock.wait
+ */
+@Component
+@ConditionalOnExpression("${payment.cache.user-points.enabled:true} and ${payment.cache.invalidation.enabled:true}")
+public class UserPointsBalanceCache implements CacheInvalidationHandler {
+
+    private static final String PREFIX = "payment.cache.user-points.";
+    private static final String CACHE_TAG = "user-points";
+
+    private final UserPointsMapper mapper;
+    // Listener tüm handler'lara (bu cache dahil) bağımlı: döngüye girmemek için ilk okumada çözülür
+    private final ObjectProvider<CacheInvalidationListener> listenerProvider;
+    private volatile CacheInvalidationListener listener;
+    private final ExpiringLruCache<String, CachedBalance> cache;
+    private final ReentrantLock[] stripes;
+    // Stripe'taki her yazma / invalidate'te artar; yükleme sırasında değiştiyse yüklenen sonuç yazılmaz
+    private final AtomicLongArray generations;
+    private final AtomicLong clears = new AtomicLong();
+    private final long lockTimeoutNanos;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+    private final Timer lockWait;
+
+    public UserPointsBalanceCache(Environment environment, MeterRegistry meterRegistry, UserPointsMapper mapper,
+                                  ObjectProvider<CacheInvalidationListener> listenerProvider) {
+        int lockStripes = environment.getProperty(PREFIX + "lock-stripes", Integer.class, 1024);
+        if (lockStripes <= 0) {
+            throw new IllegalArgumentException("payment.cache.user-points.lock-stripes must be positive");
+        }
+        this.mapper = mapper;
+        this.listenerProvider = listenerProvider;
+        this.cache = new ExpiringLruCache<>(
+            environment.getProperty(PREFIX + "max-entries", Integer.class, 100_000),
+            Duration.ofSeconds(environment.getProperty(PREFIX + "ttl-seconds", Long.class, 300L)));
+        this.stripes = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.generations = new AtomicLongArray(lockStripes);
+        this.lockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(
+            environment.getProperty(PREFIX + "lock-timeout-ms", Long.class, 5_000L));
+
+        this.hits = Counter.builder("payment.cache.requests")
+            .description("Payment cache lookups")
+            .tag("cache", CACHE_TAG)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("payment.cache.requests")
+            .description("Payment cache lookups")
+            .tag("cache", CACHE_TAG)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        this.bypasses = Counter.builder("payment.cache.requests")
+            .description("Payment cache lookups")
+            .tag("cache", CACHE_TAG)
+            .tag("result", "bypass")
+            .register(meterRegistry);
+        FunctionCounter.builder("payment.cache.evictions", cache, ExpiringLruCache::evictionCount)
+            .description("Entries evicted because the cache was full")
+            .tag("cache", CACHE_TAG)
+            .register(meterRegistry);
+        Gauge.builder("payment.cache.size", cache, ExpiringLruCache::size)
+            .description("Entries in the cache")
+            .tag("cache", CACHE_TAG)
+            .register(meterRegistry);
+        this.lockWait = Timer.builder("payment.cache.lock.wait")
+            .description("Time spent waiting for a per-key write lock")
+            .tag("cache", CACHE_TAG)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String topic() {
+        return JpaUserPointsRepository.CACHE_TOPIC;
+    }
+
+    /**
+     * Cache'te varsa dön, yoksa loader ile yükle ve cache'e al
+     * Bu transaction kullanıcıyı yazıyorsa cache atlanır (commit edilmemiş bakiye cache'e girmez)
+     */
+    public Optional<UserPoints> getOrLoad(String userId, Supplier<Optional<UserPoints>> loader) {
+        if (isWrittenByCurrentTransaction(userId)) {
+            return loader.get();
+        }
+        if (!isListenerConnected()) {
+            bypasses.increment();
+            return loader.get();
+        }
+        Optional<CachedBalance> cached = cache.get(userId);
+        if (cached.isPresent()) {
+            hits.increment();
+            return Optional.of(copy(cached.get().balance()));
+        }
+        misses.increment();
+
+        int index = index(userId);
+        long stamp = generations.get(index);
+        long clearStamp = clears.get();
+        Optional<UserPoints> loaded = loader.get();
+        // Stripe'ı tutan bir yazma varsa beklenmez: commit'te zaten kendisi yazar
+        ReentrantLock stripe = stripes[index];
+        if (loaded.isPresent() && stripe.tryLock()) {
+            try {
+                if (generations.get(index) == stamp && clears.get() == clearStamp) {
+                    cache.put(userId, new CachedBalance(copy(loaded.get()), 0));
+                    // put ile kontrol arasında invalidateAll geldiyse geri al
+                    if (clears.get() != clearStamp) {
+                        cache.invalidate(userId);
+                    }
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Sadece cache'e bak, yükleme yapma
+     */
+    public Optional<UserPoints> getIfPresent(String userId) {
+        if (isWrittenByCurrentTransaction(userId)) {
+            return Optional.empty();
+        }
+        if (!isListenerConnected()) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+        Optional<CachedBalance> cached = cache.get(userId);
+        (cached.isPresent() ? hits : misses).increment();
+        return cached.map(entry -> copy(entry.balance()));
+    }
+
+    /**
+     * Kullanıcıların stripe kilitlerini alır (stripe sırasıyla); kilitler transaction bitene kadar tutulur
+     * DB satır kilitlerinden önce çağrılmalı. Transaction dışında hiçbir şey yapmaz.
+     * @throws CannotAcquireLockException kilit lock-timeout-ms içinde alınamazsa
+     */
+    public void lock(Collection<String> userIds) {
+        WriteContext context = currentContext();
+        if (context == null) {
+            return;
+        }
+        context.userIds.addAll(userIds);
+        TreeSet<Integer> indexes = new TreeSet<>();
+        userIds.forEach(userId -> indexes.add(index(userId)));
+        indexes.removeAll(context.lockedStripes);
+        for (int index : indexes) {
+            acquire(index);
+            context.lockedStripes.add(index);
+        }
+    }
+
+    /**
+     * Transaction'ın yazdığı güncel bakiye; commit'te cache'e geçer (aynı kullanıcı için son yazılan geçerli)
+     * Transaction dışında çağrılırsa kayıt hemen cache'ten silinir
+     */
+    public void writeThrough(UserPoints balance) {
+        onCommit(balance.getUserId(), Optional.of(copy(balance)));
+    }
+
+    /**
+     * Commit'te cache'ten silinecek kullanıcı (mutlak yazım / silme)
+     */
+    public void evictOnCommit(String userId) {
+        onCommit(userId, Optional.empty());
+    }
+
+    /**
+     * Diğer node'un (veya bu node'un) yazması: bu node'un beklenen kendi mesajıysa kayıt kalır
+     * Bu kullanıcının yazması sürüyorsa commit'ine kadar beklenir (yazılacak bakiye mesajdan önce cache'e girer);
+     * lock-timeout-ms içinde bitmezse tüm cache temizlenir
+     */
+    @Override
+    public void invalidate(String userId) {
+        int index = index(userId);
+        ReentrantLock stripe = stripes[index];
+        try {
+            acquire(index);
+        } catch (CannotAcquireLockException e) {
+            invalidateAll();
+            return;
+        }
+        try {
+            Optional<CachedBalance> cached = cache.get(userId);
+            if (cached.isPresent() && cached.get().ownNotifications() > 0) {
+                cache.put(userId, new CachedBalance(cached.get().balance(), cached.get().ownNotifications() - 1));
+                return;
+            }
+            generations.incrementAndGet(index);
+            cache.invalidate(userId);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        clears.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void onCommit(String userId, Optional<UserPoints> balance) {
+        WriteContext context = currentContext();
+        if (context == null) {
+            invalidateNow(userId);
+            return;
+        }
+        lock(Set.of(userId));
+        context.written.put(userId, balance);
+    }
+
+    // Stripe kilidi commit'i yapan transaction'da
+    private void applyCommitted(String userId, Optional<UserPoints> balance, long clearStamp) {
+        generations.incrementAndGet(index(userId));
+        if (balance.isEmpty() || clears.get() != clearStamp) {
+            cache.invalidate(userId);
+            return;
+        }
+        // Bu commit'in NOTIFY'ı henüz teslim edilmedi
+        int ownNotifications = cache.get(userId).map(CachedBalance::ownNotifications).orElse(0) + 1;
+        cache.put(userId, new CachedBalance(balance.get(), ownNotifications));
+        if (clears.get() != clearStamp) {
+            cache.invalidate(userId);
+        }
+    }
+
+    private void invalidateNow(String userId) {
+        int index = index(userId);
+        ReentrantLock stripe = stripes[index];
+        acquire(index);
+        try {
+            generations.incrementAndGet(index);
+            cache.invalidate(userId);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private void acquire(int index) {
+        ReentrantLock stripe = stripes[index];
+        if (stripe.tryLock()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            if (!stripe.tryLock(lockTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new CannotAcquireLockException(
+                    "Timed out waiting for the user points write lock (stripe " + index + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted while waiting for the user points write lock", e);
+        } finally {
+            lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean isListenerConnected() {
+        CacheInvalidationListener current = listener;
+        if (current == null) {
+            current = listenerProvider.getIfAvailable();
+            if (current == null) {
+                return false;
+            }
+            listener = current;
+        }
+        return current.isConnected();
+    }
+
+    private boolean isWrittenByCurrentTransaction(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        WriteContext context = (WriteContext) TransactionSynchronizationManager.getResource(this);
+        return context != null && context.userIds.contains(userId);
+    }
+
+    private WriteContext currentContext() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        WriteContext context = (WriteContext) TransactionSynchronizationManager.getResource(this);
+        if (context == null) {
+            context = new WriteContext(clears.get());
+            TransactionSynchronizationManager.bindResource(this, context);
+            TransactionSynchronizationManager.registerSynchronization(context);
+        }
+        return context;
+    }
+
+    private int index(String userId) {
+        return Math.floorMod(userId.hashCode(), stripes.length);
+    }
+
+    private UserPoints copy(UserPoints balance) {
+        return mapper.toDomain(mapper.toEntity(balance));
+    }
+
+    private record CachedBalance(UserPoints balance, int ownNotifications) {
+    }
+
+    /**
+     * Bir transaction'ın kilitleri ve commit'te cache'e geçecek yazmaları
+     */
+    private final class WriteContext implements TransactionSynchronization {
+
+        private final long clearStamp;
+        private final Set<String> userIds = new HashSet<>();
+        private final TreeSet<Integer> lockedStripes = new TreeSet<>();
+        private final Map<String, Optional<UserPoints>> written = new LinkedHashMap<>();
+
+        private WriteContext(long clearStamp) {
+            this.clearStamp = clearStamp;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(UserPointsBalanceCache.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(UserPointsBalanceCache.this, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            written.forEach((userId, balance) -> applyCommitted(userId, balance, clearStamp));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(UserPointsBalanceCache.this);
+            lockedStripes.descendingSet().forEach(index -> stripes[index].unlock());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.dumensel.payment.infrastructure.queue;
+
+import com.dumensel.payment.domain.model.CardInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Card Data Cipher
+ * Infrastructure Layer - Security implementation
+ *
+ * Kuyruktaki işlerin kart bilgisini AES-256-GCM ile şifreler.
+ * Payload sadece yetkilendirme (authorization) öncesi saklanır: gateway çağrısı başlarken
+ * veya iş kapanırken (DONE / STALLED) payment_jobs'tan silinir.
+ * Payment ID, AAD olarak kullanılır: şifreli veri başka bir ödemeye taşınamaz.
+ *
+ * Format: IV (12 byte) || ciphertext+tag
+ */
+@Component
+@ConditionalOnProperty(name = "payment.jobs.enabled", havingValue = "true")
+public class CardDataCipher {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final SecretKeySpec key;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public CardDataCipher(@Value("${payment.jobs.card-encryption-key}") String base64Key) {
+        byte[] keyBytes = Base64.getDecoder().decode(base64Key);
+        if (keyBytes.length != 32) {
+            throw new IllegalArgumentException("payment.jobs.card-encryption-key must be a base64 encoded 256-bit key");
+        }
+        this.key = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    public byte[] encrypt(String paymentId, CardInfo cardInfo) {
+        try {
+            byte[] plain = objectMapper.writeValueAsBytes(new CardPayload(
+                cardInfo.getCardHolderName(),
+                cardInfo.getCardNumber(),
+                cardInfo.getExpireMonth(),
+                cardInfo.getExpireYear(),
+                cardInfo.getCvv()
+            ));
+
+            byte[] iv = new byte[IV_LENGTH];
+            secureRandom.nextBytes(iv);
+
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            cipher.updateAAD(paymentId.getBytes(StandardCharsets.UTF_8));
+            byte[] encrypted = cipher.doFinal(plain);
+
+            return ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+
+        } catch (GeneralSecurityException | IOException e) {
+            // CRITICAL: Hata mesajında kart verisi yok, sadece paymentId
+            throw new IllegalStateException("Failed to encrypt card data for payment: " + paymentId, e);
+        }
+    }
+
+    public CardInfo decrypt(String paymentId, byte[] payload) {
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, payload, 0, IV_LENGTH));
+            cipher.updateAAD(paymentId.getBytes(StandardCharsets.UTF_8));
+            byte[] plain = cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH);
+
+            CardPayload card = objectMapper.readValue(plain, CardPayload.class);
+            return new CardInfo(card.holder(), card.number(), card.month(), card.year(), card.cvv());
+
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Failed to decrypt card data for payment: " + paymentId, e);
+        }
+    }
+
+    private record CardPayload(String holder, String number, String month, String year, String cvv) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.dumensel.payment.infrastructure.queue;
+
+import com.dumensel.payment.application.queue.PaymentJobQueue;
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.model.PaymentProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * PostgreSQL implementation of PaymentJobQueue
+ * Infrastructure layer - durable work queue on the payment_jobs table
+ *
+ * Claim: SELECT ... FOR UPDATE SKIP LOCKED ile her node farklı satırları kilitler,
+ * böylece aynı iş iki node tarafından alınmaz. Lease süresi dolmuş ve henüz
+ * başlatılmamış (started_at IS NULL) işler çöken node'dan devralınabilir.
+ *
+ * Kart verisi: card_payload (AES-GCM, CardDataCipher) sadece iş kuyrukta beklerken tutulur;
+ * gateway çağrısı başlarken (markStarted) veya iş kapanırken (DONE / STALLED) silinir.
+ */
+@Repository
+@ConditionalOnProperty(name = "payment.jobs.enabled", havingValue = "true")
+public class JdbcPaymentJobQueue implements PaymentJobQueue {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO payment_jobs (payment_id, provider, status, card_payload, attempts, created_at, updated_at)
+        VALUES (CAST(? AS uuid), ?, 'QUEUED', ?, 0, now(), now())
+        """;
+
+    private static final String CLAIM_SQL = """
+        UPDATE payment_jobs
+        SET status = 'RUNNING',
+            locked_by = ?,
+            locked_until = now() + (? * interval '1 second'),
+            attempts = attempts + 1,
+            updated_at = now()
+        WHERE id IN (
+            SELECT id FROM payment_jobs
+            WHERE status = 'QUEUED'
+               OR (status = 'RUNNING' AND started_at IS NULL AND locked_until < now())
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING id, payment_id, provider, card_payload
+        """;
+
+    // Başlatılmış iş bir daha çalıştırılmaz: kart payload'ı gateway çağrısından önce silinir
+    private static final String MARK_STARTED_SQL = """
+        UPDATE payment_jobs
+        SET started_at = now(), card_payload = NULL, updated_at = now()
+        WHERE id = ? AND locked_by = ? AND status = 'RUNNING' AND started_at IS NULL
+        """;
+
+    private static final String COMPLETE_SQL = """
+        UPDATE payment_jobs
+        SET status = 'DONE', card_payload = NULL, locked_by = NULL, locked_until = NULL, updated_at = now()
+        WHERE id = ?
+        """;
+
+    // Ödeme sonuçlanmışsa (FAILED / SUCCESS) iş kapanır; sonuç belirsiz değildir, STALLED alarmı gereksiz
+    private static final String COMPLETE_IF_FINAL_SQL = """
+        UPDATE payment_jobs j
+        SET status = 'DONE', card_payload = NULL, locked_by = NULL, locked_until = NULL, updated_at = now()
+        WHERE j.id = ? AND j.status = 'RUNNING'
+          AND EXISTS (SELECT 1 FROM payments p WHERE p.id = j.payment_id AND p.status <> 'PENDING')
+        """;
+
+    private static final String MARK_STALLED_SQL = """
+        UPDATE payment_jobs
+        SET status = 'STALLED', card_payload = NULL, updated_at = now()
+        WHERE status = 'RUNNING' AND started_at IS NOT NULL AND locked_until < now()
+        """;
+
+    private static final String MARK_JOB_STALLED_SQL = """
+        UPDATE payment_jobs
+        SET status = 'STALLED', card_payload = NULL, locked_by = NULL, locked_until = NULL, updated_at = now()
+        WHERE id = ? AND locked_by = ? AND status = 'RUNNING' AND started_at IS NULL
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CardDataCipher cardDataCipher;
+    private final int leaseSeconds;
+
+    public JdbcPaymentJobQueue(JdbcTemplate jdbcTemplate,
+                               CardDataCipher cardDataCipher,
+                               @Value("${payment.jobs.lease-seconds:120}") int leaseSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cardDataCipher = cardDataCipher;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    @Override
+    public void enqueue(Payment payment) {
+        byte[] cardPayload = cardDataCipher.encrypt(payment.getId(), payment.getPaymentMethod().getCardInfo());
+        jdbcTemplate.update(INSERT_SQL, payment.getId(), payment.getProvider().name(), cardPayload);
+    }
+
+    /**
+     * En fazla limit kadar işi bu node adına kilitle (lease)
+     * Kart payload'ı burada çözülmez: RowMapper'da atılan bir hata, UPDATE ile
+     * lease'i alınmış tüm batch'i sahipsiz bırakırdı
+     */
+    public List<PaymentJob> claim(String nodeId, int limit) {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new PaymentJob(
+            rs.getLong("id"),
+            rs.getString("payment_id"),
+            PaymentProvider.valueOf(rs.getString("provider")),
+            rs.getBytes("card_payload")
+        ), nodeId, leaseSeconds, limit);
+    }
+
+    /**
+     * Gateway çağrısından hemen önce işaretlenir; lease kaybedildiyse false döner
+     * Başlatılmış bir iş bir daha çalıştırılmaz (çift çekim koruması)
+     */
+    public boolean markStarted(long jobId, String nodeId) {
+        return jdbcTemplate.update(MARK_STARTED_SQL, jobId, nodeId) == 1;
+    }
+
+    public void complete(long jobId) {
+        jdbcTemplate.update(COMPLETE_SQL, jobId);
+    }
+
+    /**
+     * Worker hatası sonrası: ödeme artık PENDING değilse işi kapatır
+     * @return iş kapatıldıysa true; ödeme hâlâ PENDING ise iş lease sonunda STALLED olur
+     */
+    public boolean completeIfFinal(long jobId) {
+        return jdbcTemplate.update(COMPLETE_IF_FINAL_SQL, jobId) == 1;
+    }
+
+    /**
+     * Gateway çağrısı başlamış ama lease süresi dolmuş işler: sonuç belirsiz,
+     * tekrar çalıştırılmaz, reconciliation için STALLED olarak işaretlenir
+     */
+    public int markStalled() {
+        return jdbcTemplate.update(MARK_STALLED_SQL);
+    }
+
+    /**
+     * Çalıştırılamayan (örn. kart payload'ı çözülemeyen) başlatılmamış iş:
+     * tekrar claim edilmez, reconciliation için STALLED olarak işaretlenir
+     */
+    public boolean markStalled(long jobId, String nodeId) {
+        return jdbcTemplate.update(MARK_JOB_STALLED_SQL, jobId, nodeId) == 1;
+    }
+}
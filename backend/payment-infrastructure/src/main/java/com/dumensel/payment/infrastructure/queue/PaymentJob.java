@@ -0,0 +1,17 @@
+package com.dumensel.payment.infrastructure.queue;
+
+import com.dumensel.payment.domain.model.PaymentProvider;
+
+/**
+ * Claimed payment job
+ * cardPayload şifreli haliyle taşınır; worker her iş için ayrı çözer,
+ * böylece çözülemeyen tek bir payload claim edilen diğer işleri etkilemez
+ */
+public record PaymentJob(long id, String paymentId, PaymentProvider provider, byte[] cardPayload) {
+
+    // Güvenlik: toString'de kart bilgisi gösterme
+    @Override
+    public String toString() {
+        return "PaymentJob{id=" + id + ", paymentId=" + paymentId + ", provider=" + provider + "}";
+    }
+}
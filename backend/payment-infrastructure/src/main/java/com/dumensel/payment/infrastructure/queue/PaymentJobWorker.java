@@ -0,0 +1,264 @@
+package com.dumensel.payment.infrastructure.queue;
+
+import com.dumensel.payment.application.service.PaymentService;
+import com.dumensel.payment.domain.model.CardInfo;
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.model.PaymentStatus;
+import com.dumensel.payment.domain.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment Job Worker
+ * payment_jobs tablosunu poll eden ve işleri gateway'e gönderen worker
+ *
+ * Her node kendi node-id'si ile iş claim eder. Aynı tabloyu birden fazla node
+ * paylaşabilir; SKIP LOCKED sayesinde node ekledikçe throughput artar.
+ *
+ * Config:
+ * - payment.jobs.node-id (boşsa hostname + rastgele ek)
+ * - payment.jobs.worker-threads / batch-size / poll-interval-ms
+ * - spring.threads.virtual.enabled: iş thread'leri virtual thread olarak çalışır (Java 21)
+ *
+ * Metrics: payment.jobs.skipped{reason} - gateway'e gönderilmeden kapatılan işler
+ */
+@Component
+@ConditionalOnProperty(name = "payment.jobs.enabled", havingValue = "true")
+public class PaymentJobWorker implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentJobWorker.class);
+
+    private final JdbcPaymentJobQueue jobQueue;
+    private final CardDataCipher cardDataCipher;
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+    private final int workerThreads;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final boolean virtualThreads;
+
+    private final Semaphore freeWorkers;
+    private ExecutorService workers;
+    private Thread poller;
+    private volatile boolean running;
+
+    public PaymentJobWorker(
+            JdbcPaymentJobQueue jobQueue,
+            CardDataCipher cardDataCipher,
+            PaymentRepository paymentRepository,
+            PaymentService paymentService,
+            MeterRegistry meterRegistry,
+            @Value("${payment.jobs.node-id:}") String nodeId,
+            @Value("${payment.jobs.worker-threads:8}") int workerThreads,
+            @Value("${payment.jobs.batch-size:8}") int batchSize,
+            @Value("${payment.jobs.poll-interval-ms:500}") long pollIntervalMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.jobQueue = jobQueue;
+        this.cardDataCipher = cardDataCipher;
+        this.paymentRepository = paymentRepository;
+        this.paymentService = paymentService;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = resolveNodeId(nodeId);
+        this.workerThreads = workerThreads;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.virtualThreads = virtualThreads;
+        this.freeWorkers = new Semaphore(workerThreads);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        ThreadFactory threadFactory = virtualThreads
+            ? new VirtualThreadTaskExecutor("payment-job-").getVirtualThreadFactory()
+            : new CustomizableThreadFactory("payment-job-");
+        workers = Executors.newFixedThreadPool(workerThreads, threadFactory);
+        poller = new Thread(this::pollLoop, "payment-job-poller");
+        poller.setDaemon(true);
+        poller.start();
+        logger.info("Payment job worker started: nodeId={}, workerThreads={}, virtualThreads={}",
+            nodeId, workerThreads, virtualThreads);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        poller.interrupt();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Payment job worker did not drain in time: nodeId={}", nodeId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Tek bir poll turu: boş worker sayısı kadar iş claim et ve çalıştır
+     * @return claim edilen iş sayısı
+     */
+    int pollOnce() {
+        int free = freeWorkers.availablePermits();
+        if (free == 0) {
+            return 0;
+        }
+
+        List<PaymentJob> jobs = jobQueue.claim(nodeId, Math.min(free, batchSize));
+        for (PaymentJob job : jobs) {
+            freeWorkers.acquireUninterruptibly();
+            workers.execute(() -> {
+                try {
+                    process(job);
+                } finally {
+                    freeWorkers.release();
+                }
+            });
+        }
+        return jobs.size();
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                int stalled = jobQueue.markStalled();
+                if (stalled > 0) {
+                    logger.warn("Marked {} payment jobs as STALLED, reconciliation required", stalled);
+                }
+
+                if (pollOnce() == 0) {
+                    Thread.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Payment job poll failed: nodeId={}", nodeId, e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private void process(PaymentJob job) {
+        try {
+            Optional<Payment> found = paymentRepository.findById(job.paymentId());
+            if (found.isEmpty()) {
+                logger.warn("Payment not found for job, closing it: jobId={}, paymentId={}", job.id(), job.paymentId());
+                skipped("payment_missing");
+                jobQueue.complete(job.id());
+                return;
+            }
+            if (found.get().getStatus() != PaymentStatus.PENDING) {
+                // Ödeme zaten sonuçlanmış: işi tekrar çalıştırma
+                logger.warn("Payment already {} for job, closing it: jobId={}, paymentId={}",
+                    found.get().getStatus(), job.id(), job.paymentId());
+                skipped("payment_not_pending");
+                jobQueue.complete(job.id());
+                return;
+            }
+
+            CardInfo cardInfo;
+            try {
+                cardInfo = cardDataCipher.decrypt(job.paymentId(), job.cardPayload());
+            } catch (RuntimeException e) {
+                // Gateway çağrılmadı; tekrar claim edilip batch'leri tıkamasın diye STALLED
+                logger.error("Card payload could not be decrypted, marking job STALLED: jobId={}, paymentId={}",
+                    job.id(), job.paymentId(), e);
+                skipped("undecryptable");
+                jobQueue.markStalled(job.id(), nodeId);
+                return;
+            }
+
+            // Lease başka bir node'a geçtiyse gateway çağrısı yapılmaz
+            if (!jobQueue.markStarted(job.id(), nodeId)) {
+                logger.warn("Lost lease for payment job: jobId={}, paymentId={}", job.id(), job.paymentId());
+                return;
+            }
+
+            Payment payment = found.get();
+            payment.restoreCardInfo(cardInfo);
+            paymentService.completePayment(payment);
+            jobQueue.complete(job.id());
+
+        } catch (RuntimeException e) {
+            // CRITICAL: Kart bilgisi loglanmaz
+            logger.error("Payment job failed: jobId={}, paymentId={}", job.id(), job.paymentId(), e);
+            closeIfFinal(job);
+        }
+    }
+
+    /**
+     * PaymentService beklenmeyen hatada ödemeyi FAILED kaydedip hatayı yeniden fırlatır: iş burada kapanır.
+     * Ödeme hâlâ PENDING ise sonuç belirsizdir; iş lease süresi dolunca STALLED olur (reconciliation)
+     */
+    private void closeIfFinal(PaymentJob job) {
+        try {
+            if (jobQueue.completeIfFinal(job.id())) {
+                logger.info("Closed failed payment job, payment is already final: jobId={}, paymentId={}",
+                    job.id(), job.paymentId());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed payment job could not be closed: jobId={}, paymentId={}", job.id(), job.paymentId(), e);
+        }
+    }
+
+    private void skipped(String reason) {
+        meterRegistry.counter("payment.jobs.skipped", "reason", reason).increment();
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String resolveNodeId(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,13 @@
+-- Relax user_points consistency check
+-- Migration V10
+-- total_points toplam kazanılan puandır ve hiç azalmaz (V3 yorumu); harcama sadece available_points'i,
+-- kilitli puan tüketimi sadece locked_points'i düşürür. "total = available + locked" eşitliği bu yüzden
+-- ilk harcamada ihlal ediliyordu. Kural: harcanabilir + kilitli puan, kazanılan toplamı aşamaz.
+
+ALTER TABLE user_points DROP CONSTRAINT chk_points_consistency;
+
+ALTER TABLE user_points ADD CONSTRAINT chk_points_consistency
+    CHECK (total_points >= available_points + locked_points);
+
+COMMENT ON CONSTRAINT chk_points_consistency ON user_points IS
+    'Available + locked points never exceed total earned points (spent points leave total unchanged)';
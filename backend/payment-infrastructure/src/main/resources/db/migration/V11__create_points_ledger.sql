@@ -0,0 +1,95 @@
+-- Append-only points ledger with periodic balance snapshots
+-- Migration V11
+-- Puan hareketleri points_ledger'a eklenir (UPDATE / DELETE yok); user_points artık bakiye snapshot'ıdır.
+-- Güncel bakiye = snapshot + snapshot'a henüz katlanmamış entry'ler (user_points_balances view'ı).
+-- PointsLedgerCompactor snapshot'ları periyodik olarak ileri taşır.
+--
+-- Hangi entry'lerin katlandığı transaction id ile belirlenir, id sırası ile değil: bigserial id'ler commit
+-- sırasında görünmez (id=10 olan entry id=11'den sonra commit olabilir). xact_id < ledger_horizon olan
+-- entry'ler snapshot'ta, diğerleri kuyrukta. Compactor horizon'u sadece pg_snapshot_xmin'e kadar ilerletir:
+-- o xid'den küçük tüm transaction'lar bitmiştir, katlanacak kümeye sonradan entry eklenemez.
+--
+-- Satır kilitlemeyen kazanımlar (EARN) kuyruğa eklenir. Bakiyeyi düşürebilen entry'ler (SPEND, LOCK, UNLOCK, CONSUME)
+-- ise snapshot satırına tek bir koşullu UPDATE ile uygulanır (ledger öncesi atomik harcamanın deseni) ve ledger'a
+-- in_snapshot = true olarak yazılır; kuyrukta sadece alacaklar kalır. Böylece eşzamanlı iki borç aynı snapshot
+-- satırında sıralanır ve koşul, bekleyen borcun güncel satırı üzerinde yeniden değerlendirilir.
+-- Snapshot'ın available_points'i bu yüzden geçici olarak eksiye düşebilir (kuyruktaki kazanım harcandığında);
+-- eksiye düşmeme kuralı user_points_balances üzerinde, borcu yazan koşullu UPDATE'te sağlanır.
+
+CREATE TABLE points_ledger (
+    id BIGSERIAL PRIMARY KEY,
+    user_id VARCHAR(100) NOT NULL,
+    entry_type VARCHAR(10) NOT NULL,
+    points DECIMAL(19, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    xact_id xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    in_snapshot BOOLEAN NOT NULL DEFAULT FALSE,
+
+    CONSTRAINT chk_points_ledger_type CHECK (entry_type IN ('EARN', 'SPEND', 'LOCK', 'UNLOCK', 'CONSUME')),
+    CONSTRAINT chk_points_ledger_points_positive CHECK (points > 0)
+);
+
+-- Bakiye okuması: kullanıcının kuyruğu
+CREATE INDEX idx_points_ledger_user_xact ON points_ledger(user_id, xact_id);
+-- Compactor: son çalışmadan bu yana yazan kullanıcılar
+CREATE INDEX idx_points_ledger_xact_user ON points_ledger(xact_id, user_id);
+
+-- Snapshot'a katlanmış son transaction sınırı; '0' = tüm entry'ler kuyrukta
+ALTER TABLE user_points ADD COLUMN ledger_horizon xid8 NOT NULL DEFAULT '0';
+
+-- Snapshot kısmi bir toplamdır: available_points kuyruktaki kazanımlar kadar eksi olabilir
+-- (chk_points_consistency geçerli kalır: kuyrukta total ve available birlikte artar)
+ALTER TABLE user_points DROP CONSTRAINT chk_available_points_positive;
+
+-- Compactor'ın kaldığı yer (tek satır); bu horizon'dan küçük xid'li entry'ler işlenmiştir
+CREATE TABLE points_ledger_compaction (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    horizon xid8 NOT NULL
+);
+
+INSERT INTO points_ledger_compaction (id, horizon) VALUES (1, '0');
+
+-- Entry tiplerinin bakiye etkisi (UserPoints iş kuralları ile aynı):
+-- EARN: total +, available +   SPEND: available -   LOCK: available -, locked +
+-- UNLOCK: available +, locked -   CONSUME: locked -
+CREATE VIEW points_ledger_deltas AS
+SELECT id,
+       user_id,
+       xact_id,
+       in_snapshot,
+       created_at,
+       CASE WHEN entry_type = 'EARN' THEN points ELSE 0 END AS total_delta,
+       CASE WHEN entry_type IN ('EARN', 'UNLOCK') THEN points
+            WHEN entry_type IN ('SPEND', 'LOCK') THEN -points
+            ELSE 0 END AS available_delta,
+       CASE WHEN entry_type = 'LOCK' THEN points
+            WHEN entry_type IN ('UNLOCK', 'CONSUME') THEN -points
+            ELSE 0 END AS locked_delta
+FROM points_ledger;
+
+CREATE VIEW user_points_balances AS
+SELECT s.user_id,
+       s.total_points + COALESCE(t.total_delta, 0) AS total_points,
+       s.available_points + COALESCE(t.available_delta, 0) AS available_points,
+       s.locked_points + COALESCE(t.locked_delta, 0) AS locked_points,
+       s.created_at,
+       GREATEST(s.last_updated, t.last_entry_at) AS last_updated,
+       COALESCE(t.entries, 0) AS tail_entries
+FROM user_points s
+LEFT JOIN LATERAL (
+    SELECT sum(d.total_delta) AS total_delta,
+           sum(d.available_delta) AS available_delta,
+           sum(d.locked_delta) AS locked_delta,
+           max(d.created_at) AS last_entry_at,
+           count(*) AS entries
+    FROM points_ledger_deltas d
+    WHERE d.user_id = s.user_id AND d.xact_id >= s.ledger_horizon AND NOT d.in_snapshot
+) t ON true;
+
+-- Comments
+COMMENT ON TABLE points_ledger IS 'Append-only points movements (EARN/SPEND/LOCK/UNLOCK/CONSUME)';
+COMMENT ON COLUMN points_ledger.xact_id IS 'Writing transaction id; decides whether the entry is folded into the snapshot';
+COMMENT ON COLUMN points_ledger.in_snapshot IS 'Entry was applied to the user_points snapshot when written (never in the tail)';
+COMMENT ON TABLE user_points IS 'Points balance snapshot; current balance is user_points_balances (snapshot + ledger tail)';
+COMMENT ON COLUMN user_points.ledger_horizon IS 'Ledger entries with xact_id below this are included in the snapshot';
+COMMENT ON VIEW user_points_balances IS 'Current points balance: snapshot plus ledger entries not yet compacted';
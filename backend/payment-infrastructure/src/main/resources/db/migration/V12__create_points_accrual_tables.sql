@@ -0,0 +1,37 @@
+-- Bulk points accrual (kampanya puan yüklemeleri)
+-- Migration V12
+-- Kampanya dosyası (userId, points) COPY ile points_accrual_rows'a yüklenir, sonra chunk'lar halinde
+-- set-based olarak ledger'a EARN entry'leri olarak uygulanır. applied_rows aynı transaction'da ilerler:
+-- yarıda kalan kampanya kaldığı satırdan devam eder, hiçbir satır iki kez uygulanmaz.
+
+CREATE TABLE points_accrual_campaigns (
+    campaign_id VARCHAR(100) PRIMARY KEY,
+    state VARCHAR(20) NOT NULL,
+    total_rows BIGINT NOT NULL,
+    total_points DECIMAL(19, 2) NOT NULL,
+    applied_rows BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(500),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT chk_points_accrual_state CHECK (state IN ('LOADED', 'APPLYING', 'COMPLETED', 'FAILED')),
+    CONSTRAINT chk_points_accrual_progress CHECK (applied_rows >= 0 AND applied_rows <= total_rows)
+);
+
+-- Staging: WAL yazılmaz (UNLOGGED), uygulanan satırlar silinir.
+-- Crash sonrası PostgreSQL tabloyu boşaltır; kampanya FAILED olur ve aynı dosya yeniden yüklenince
+-- applied_rows'tan devam eder (satır numaraları dosya sırasıdır).
+CREATE UNLOGGED TABLE points_accrual_rows (
+    campaign_id VARCHAR(100) NOT NULL,
+    row_no BIGINT NOT NULL,
+    user_id VARCHAR(100) NOT NULL,
+    points DECIMAL(19, 2) NOT NULL,
+
+    PRIMARY KEY (campaign_id, row_no)
+);
+
+-- Ledger entry'sinin kaynağı (örn. "accrual:{campaignId}"); tekil işlemlerde NULL
+ALTER TABLE points_ledger ADD COLUMN reference VARCHAR(120);
+
+COMMENT ON TABLE points_accrual_campaigns IS 'Bulk points accrual campaigns and their apply progress';
+COMMENT ON TABLE points_accrual_rows IS 'Staged (userId, points) rows of accrual campaigns, removed as they are applied';
@@ -0,0 +1,30 @@
+-- Create payment_jobs table
+-- Durable gateway work queue shared by all payment-interfaces nodes
+-- Workers claim batches with SELECT ... FOR UPDATE SKIP LOCKED
+
+CREATE TABLE payment_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    payment_id VARCHAR(36) NOT NULL,
+    provider VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    card_payload BYTEA,
+    attempts INT NOT NULL DEFAULT 0,
+    locked_by VARCHAR(100),
+    locked_until TIMESTAMP,
+    started_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    
+    -- Constraints
+    CONSTRAINT uq_payment_jobs_payment_id UNIQUE (payment_id),
+    CONSTRAINT chk_payment_jobs_status CHECK (status IN ('QUEUED', 'RUNNING', 'DONE', 'STALLED'))
+);
+
+-- Partial index: only claimable rows are scanned by workers
+CREATE INDEX idx_payment_jobs_claimable ON payment_jobs(id) WHERE status IN ('QUEUED', 'RUNNING');
+
+-- Add comments
+COMMENT ON TABLE payment_jobs IS 'Durable queue of pending gateway calls';
+COMMENT ON COLUMN payment_jobs.status IS 'QUEUED, RUNNING (leased by locked_by until locked_until), DONE, STALLED (outcome unknown, needs reconciliation)';
+COMMENT ON COLUMN payment_jobs.card_payload IS 'AES-GCM encrypted card data, cleared when the gateway call starts or the job is closed';
+COMMENT ON COLUMN payment_jobs.started_at IS 'Set right before the gateway call; a started job is never re-executed';
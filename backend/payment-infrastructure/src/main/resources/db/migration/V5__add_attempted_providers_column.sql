@@ -0,0 +1,11 @@
+-- Add attempted_providers column for gateway failover
+-- Migration V5
+
+ALTER TABLE payments
+ADD COLUMN attempted_providers VARCHAR(100);
+
+-- Existing rows were only ever sent to their own provider
+UPDATE payments SET attempted_providers = provider WHERE attempted_providers IS NULL;
+
+-- Comment
+COMMENT ON COLUMN payments.attempted_providers IS 'Comma-separated providers tried for this payment, in order (e.g. AKBANK,CRAFTGATE)';
@@ -0,0 +1,23 @@
+-- Create idempotency_keys table
+-- Stored responses for Idempotency-Key replay, shared by all payment-interfaces nodes
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint CHAR(64) NOT NULL,
+    http_status INT NOT NULL,
+    location VARCHAR(255),
+    response_body BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    
+    -- Constraints
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (idempotency_key, fingerprint)
+);
+
+-- Expired rows are purged in batches
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
+
+-- Add comments
+COMMENT ON TABLE idempotency_keys IS 'Serialized API responses replayed for retried requests with the same Idempotency-Key';
+COMMENT ON COLUMN idempotency_keys.fingerprint IS 'SHA-256 of the request (no full card number or CVV)';
+COMMENT ON COLUMN idempotency_keys.response_body IS 'Exact response bytes sent to the client';
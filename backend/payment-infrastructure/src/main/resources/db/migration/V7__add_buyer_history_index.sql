@@ -0,0 +1,8 @@
+-- Buyer payment history (keyset pagination)
+-- GET /api/v1/payments?buyerId=...&after=... sorgusu (buyer_id, created_at DESC, id DESC) sırasıyla okunur;
+-- composite index sayesinde her sayfa sıralama yapmadan doğrudan index'ten devam eder
+
+CREATE INDEX IF NOT EXISTS idx_payments_buyer_created_id ON payments(buyer_id, created_at DESC, id DESC);
+
+-- idx_buyer_id artık composite index'in prefix'i, gereksiz
+DROP INDEX IF EXISTS idx_buyer_id;
@@ -0,0 +1,15 @@
+-- Convert payment ids to native uuid
+-- Migration V8
+-- VARCHAR(36) (36+ byte) yerine 16 byte uuid: PK ve keyset index'leri küçülür.
+-- Yeni id'ler UUIDv7 (zaman sıralı) olduğundan PK'ya ekleme index'in sağ ucuna yapılır.
+-- Mevcut v4 id'ler olduğu gibi dönüştürülür. NOT: tablo yeniden yazılır (ACCESS EXCLUSIVE lock),
+-- büyük tablolarda bakım penceresinde çalıştırılmalı.
+
+ALTER TABLE payments
+ALTER COLUMN id TYPE uuid USING id::uuid;
+
+ALTER TABLE payment_jobs
+ALTER COLUMN payment_id TYPE uuid USING payment_id::uuid;
+
+-- Comment
+COMMENT ON COLUMN payments.id IS 'Payment id, UUIDv7 (time-ordered) for new payments';
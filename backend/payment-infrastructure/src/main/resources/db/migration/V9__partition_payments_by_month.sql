@@ -0,0 +1,127 @@
+-- Partition payments by month on created_at
+-- Migration V9
+-- Tek heap yerine aylık RANGE partition'lar: vacuum / index bakımı partition başına, eski aylar
+-- tablodan ayrılıp (DETACH) arşivlenebilir. Gelecek ayların partition'larını PaymentPartitionManager açar.
+--
+-- Ödeme satırları kopyalanmaz: mevcut tablo "payments_legacy" adıyla (MINVALUE, gelecek ay başı) aralığının
+-- partition'ı olarak eklenir.
+--
+-- KİLİT VE KESİNTİ: migration tek transaction'dır; başta alınan ACCESS EXCLUSIVE lock commit'e kadar
+-- tutulur, ödeme okuma ve yazmaları bu süre boyunca bekler. Süre tablo boyutuyla doğrusal büyür:
+-- - conversation_id'ler payment_conversation_ids'e kopyalanır (tam tarama + PK index'i)
+-- - created_at CHECK doğrulaması (tam tarama)
+-- - PK (id, created_at) için legacy'de yeni unique index oluşturulur (tam tarama + sıralama)
+-- Diğer index'ler yeniden oluşturulmaz, legacy'deki eşleşenler bağlanır. Büyük tablolarda servis durdurulup
+-- bakım penceresinde çalıştırılmalı; süre önce üretim boyutundaki bir kopyada ölçülmeli.
+-- Partition yönetimi (PaymentPartitionManager) bu migration'dan sonra kapatılmamalı: sadece 3 ay önceden açılır.
+
+-- Kopyalama sırasında gelen INSERT'ler payment_conversation_ids'i kaçırmasın
+LOCK TABLE payments IN ACCESS EXCLUSIVE MODE;
+
+-- 1. conversation_id benzersizliği
+-- Partition'lı tablodaki unique index partition anahtarını (created_at) içermek zorunda; aylar arası
+-- benzersizlik için her conversation_id bu tabloda claim edilir. Kayıtlar arşivlenen aylar için de kalır.
+CREATE TABLE payment_conversation_ids (
+    conversation_id VARCHAR(100) PRIMARY KEY,
+    payment_id uuid NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO payment_conversation_ids (conversation_id, payment_id, created_at)
+SELECT conversation_id, id, created_at FROM payments;
+
+-- 2. Mevcut tablo legacy partition olur; isimler partition'lı tabloya bırakılır
+ALTER TABLE payments RENAME TO payments_legacy;
+ALTER TABLE payments_legacy RENAME CONSTRAINT payments_pkey TO payments_legacy_pkey;
+ALTER TABLE payments_legacy RENAME CONSTRAINT payments_conversation_id_key TO payments_legacy_conversation_id_key;
+ALTER INDEX idx_conversation_id RENAME TO idx_conversation_id_legacy;
+ALTER INDEX idx_external_payment_id RENAME TO idx_external_payment_id_legacy;
+ALTER INDEX idx_created_at RENAME TO idx_created_at_legacy;
+ALTER INDEX idx_payments_buyer_created_id RENAME TO idx_payments_buyer_created_id_legacy;
+ALTER INDEX idx_status RENAME TO idx_status_legacy;
+ALTER INDEX idx_provider RENAME TO idx_provider_legacy;
+
+-- 3. Partition'lı tablo (kolonlar ve constraint'ler payments_legacy ile birebir aynı olmalı)
+CREATE TABLE payments (
+    id uuid NOT NULL,
+    conversation_id VARCHAR(100) NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL CHECK (amount >= 0),
+    currency VARCHAR(3) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_type VARCHAR(20) NOT NULL,
+    buyer_id VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    external_payment_id VARCHAR(100),
+    error_message VARCHAR(500),
+    error_code VARCHAR(50),
+    masked_card_number VARCHAR(20),
+    provider VARCHAR(20) NOT NULL DEFAULT 'CRAFTGATE',
+    attempted_providers VARCHAR(100),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- 4. Legacy partition + önümüzdeki 3 ay
+DO $$
+DECLARE
+    legacy_until TIMESTAMP;
+    month_start TIMESTAMP;
+BEGIN
+    SELECT date_trunc('month', GREATEST(now()::timestamp, COALESCE(max(created_at), now()::timestamp)))
+           + INTERVAL '1 month'
+    INTO legacy_until
+    FROM payments_legacy;
+
+    -- Geçerli bir CHECK varken ATTACH partition kısıtını tekrar taramaz
+    EXECUTE format('ALTER TABLE payments_legacy ADD CONSTRAINT payments_legacy_created_at_check '
+                   'CHECK (created_at < %L) NOT VALID', legacy_until);
+    ALTER TABLE payments_legacy VALIDATE CONSTRAINT payments_legacy_created_at_check;
+    EXECUTE format('ALTER TABLE payments ATTACH PARTITION payments_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                   legacy_until);
+    ALTER TABLE payments_legacy DROP CONSTRAINT payments_legacy_created_at_check;
+
+    FOR i IN 0..2 LOOP
+        month_start := legacy_until + i * INTERVAL '1 month';
+        EXECUTE format('CREATE TABLE %I PARTITION OF payments FOR VALUES FROM (%L) TO (%L)',
+                       'payments_p' || to_char(month_start, 'YYYYMM'), month_start, month_start + INTERVAL '1 month');
+    END LOOP;
+END $$;
+
+-- 5. Partition'lı index'ler: legacy'deki eşleşen index'ler yeniden oluşturulmadan bağlanır
+CREATE INDEX idx_conversation_id ON payments(conversation_id);
+CREATE INDEX idx_external_payment_id ON payments(external_payment_id);
+CREATE INDEX idx_created_at ON payments(created_at DESC);
+CREATE INDEX idx_payments_buyer_created_id ON payments(buyer_id, created_at DESC, id DESC);
+CREATE INDEX idx_status ON payments(status);
+CREATE INDEX idx_provider ON payments(provider);
+
+-- 6. Her INSERT conversation_id'yi claim eder; başka bir ödemeye ait claim varsa unique_violation
+-- saveIfAbsent claim'i aynı statement'ta önceden yapar (CTE): trigger aynı payment_id'yi görünce geçer
+CREATE FUNCTION payments_claim_conversation_id() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO payment_conversation_ids (conversation_id, payment_id, created_at)
+    VALUES (NEW.conversation_id, NEW.id, NEW.created_at)
+    ON CONFLICT (conversation_id) DO NOTHING;
+    IF NOT FOUND AND NOT EXISTS (SELECT 1 FROM payment_conversation_ids
+                                 WHERE conversation_id = NEW.conversation_id AND payment_id = NEW.id) THEN
+        RAISE EXCEPTION 'duplicate key value violates unique constraint "payment_conversation_ids_pkey"'
+            USING ERRCODE = 'unique_violation',
+                  CONSTRAINT = 'payment_conversation_ids_pkey',
+                  DETAIL = format('Key (conversation_id)=(%s) already exists.', NEW.conversation_id);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_payments_claim_conversation_id
+BEFORE INSERT ON payments
+FOR EACH ROW EXECUTE FUNCTION payments_claim_conversation_id();
+
+-- Arşivlenen (DETACH edilen) partition'lar buraya taşınır
+CREATE SCHEMA IF NOT EXISTS payment_archive;
+
+-- Comments
+COMMENT ON TABLE payments IS 'Payment transactions, range partitioned by created_at (monthly)';
+COMMENT ON COLUMN payments.conversation_id IS 'Conversation ID for idempotency, unique via payment_conversation_ids';
+COMMENT ON COLUMN payments.id IS 'Payment id, UUIDv7 (time-ordered) for new payments';
+COMMENT ON TABLE payment_conversation_ids IS 'Global conversation_id claims across payment partitions (kept after archiving)';
@@ -0,0 +1,222 @@
+package com.dumensel.payment.infrastructure.accrual;
+
+import com.dumensel.payment.application.accrual.PointsAccrualFormat;
+import com.dumensel.payment.application.accrual.PointsAccrualReader;
+import com.dumensel.payment.application.accrual.PointsAccrualRow;
+import com.dumensel.payment.application.accrual.PointsAccrualState;
+import com.dumensel.payment.application.accrual.PointsAccrualStatus;
+import com.dumensel.payment.application.accrual.PointsAccrualStore;
+import com.dumensel.payment.domain.model.UserPoints;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import com.dumensel.payment.infrastructure.persistence.JpaUserPointsRepository;
+import com.dumensel.payment.infrastructure.persistence.UserPointsMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for JdbcPointsAccrualStore (V12)
+ * COPY ile staging, chunk'lar halinde ledger'a uygulama ve kaldığı yerden devam
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JdbcPointsAccrualStore.class, JpaUserPointsRepository.class, UserPointsMapper.class,
+    CacheInvalidationPublisher.class, ReadYourWritesTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Points Accrual Store Integration Tests")
+class JdbcPointsAccrualStoreIT {
+
+    private static final String CAMPAIGN_CSV = """
+        userId,points
+        acc-user-1,10.00
+        acc-user-2,5.25
+        acc-user-1,2.50
+        "acc-user\t3",1
+        acc-user-2,0.75
+        """;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private JdbcPointsAccrualStore store;
+
+    @Autowired
+    private JpaUserPointsRepository userPointsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should stage the file with COPY and apply it chunk by chunk into the ledger")
+    void shouldStageAndApplyCampaign() throws IOException {
+        // Given - mevcut bakiyesi olan bir kullanıcı
+        userPointsRepository.addPoints("acc-user-1", new BigDecimal("100.00"));
+
+        // When
+        PointsAccrualStatus staged = store.stage("campaign-a", csv(CAMPAIGN_CSV));
+        PointsAccrualStatus first = store.applyChunk("campaign-a", 2);
+        PointsAccrualStatus completed = applyAll("campaign-a", 2);
+
+        // Then
+        assertThat(staged.state()).isEqualTo(PointsAccrualState.LOADED);
+        assertThat(staged.totalRows()).isEqualTo(5);
+        assertThat(staged.totalPoints()).isEqualByComparingTo("19.50");
+        assertThat(first.state()).isEqualTo(PointsAccrualState.APPLYING);
+        assertThat(first.appliedRows()).isEqualTo(2);
+        assertThat(completed.state()).isEqualTo(PointsAccrualState.COMPLETED);
+        assertThat(completed.getProgressPercent()).isEqualTo(100.0);
+
+        assertThat(balance("acc-user-1")).isEqualByComparingTo("112.50");
+        assertThat(balance("acc-user-2")).isEqualByComparingTo("6.00");
+        assertThat(balance("acc-user\t3")).isEqualByComparingTo("1.00");
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM points_ledger WHERE reference = 'accrual:campaign-a'", Integer.class))
+            .isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM points_accrual_rows WHERE campaign_id = 'campaign-a'", Integer.class)).isZero();
+
+        // Tamamlanmış kampanya tekrar yüklenmez / uygulanmaz
+        PointsAccrualStatus again = store.stage("campaign-a", () -> fail("Completed campaign must not be re-read"));
+        assertThat(again.state()).isEqualTo(PointsAccrualState.COMPLETED);
+        assertThat(store.applyChunk("campaign-a", 2).appliedRows()).isEqualTo(5);
+        assertThat(balance("acc-user-1")).isEqualByComparingTo("112.50");
+    }
+
+    @Test
+    @DisplayName("Should resume from the last applied row after the staging table was lost")
+    void shouldResumeAfterStagingLoss() throws IOException {
+        // Given - ilk chunk uygulandı, sonra staging boşaldı (UNLOGGED tablo crash sonrası truncate edilir)
+        String file = CAMPAIGN_CSV.replace("acc-user", "resume-user");
+        store.stage("campaign-b", csv(file));
+        store.applyChunk("campaign-b", 2);
+        jdbcTemplate.update("DELETE FROM points_accrual_rows WHERE campaign_id = 'campaign-b'");
+
+        // When / Then - eksik chunk hiçbir şey yazmaz
+        assertThatThrownBy(() -> store.applyChunk("campaign-b", 2))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("upload the campaign file again");
+        store.markFailed("campaign-b", "Staged rows 3-4 of campaign campaign-b are missing");
+        assertThat(store.find("campaign-b")).get()
+            .extracting(PointsAccrualStatus::state, PointsAccrualStatus::appliedRows)
+            .containsExactly(PointsAccrualState.FAILED, 2L);
+
+        // When - aynı dosya yeniden yüklenir
+        PointsAccrualStatus restaged = store.stage("campaign-b", csv(file));
+        PointsAccrualStatus completed = applyAll("campaign-b", 2);
+
+        // Then - ilk iki satır iki kez uygulanmadı
+        assertThat(restaged.state()).isEqualTo(PointsAccrualState.LOADED);
+        assertThat(restaged.appliedRows()).isEqualTo(2);
+        assertThat(restaged.errorMessage()).isNull();
+        assertThat(completed.state()).isEqualTo(PointsAccrualState.COMPLETED);
+        assertThat(balance("resume-user-1")).isEqualByComparingTo("12.50");
+        assertThat(balance("resume-user-2")).isEqualByComparingTo("6.00");
+        assertThat(balance("resume-user\t3")).isEqualByComparingTo("1.00");
+    }
+
+    @Test
+    @DisplayName("Should reject re-uploading a different file once rows were applied")
+    void shouldRejectDifferentFileOnResume() throws IOException {
+        // Given
+        store.stage("campaign-c", csv("userId,points\nchange-user-1,1\nchange-user-2,2\n"));
+        store.applyChunk("campaign-c", 1);
+        store.markFailed("campaign-c", "node restarted");
+
+        // When / Then
+        assertThatThrownBy(() -> store.stage("campaign-c", csv("change-user-1,1\nchange-user-2,3\n")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("rows are already applied");
+        assertThat(store.find("campaign-c")).get()
+            .extracting(PointsAccrualStatus::state).isEqualTo(PointsAccrualState.FAILED);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM points_accrual_rows WHERE campaign_id = 'campaign-c'", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("An invalid line should roll back the whole upload")
+    void shouldRollBackUploadOnInvalidLine() {
+        // When / Then
+        assertThatThrownBy(() -> store.stage("campaign-d", csv("invalid-user-1,1\ninvalid-user-2,abc\n")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Line 2: points is not a number: abc");
+        assertThat(store.find("campaign-d")).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM points_accrual_rows WHERE campaign_id = 'campaign-d'", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stage and apply a large campaign with set-based statements")
+    void shouldApplyLargeCampaign() throws IOException {
+        // Given - 200k satır, 50k kullanıcı (kullanıcı başına 4 satır)
+        int rows = 200_000;
+        long[] next = {0};
+        PointsAccrualStore.RowSource source = () -> next[0] == rows ? null
+            : new PointsAccrualRow(++next[0], "bulk-user-" + (next[0] % 50_000), new BigDecimal("1.25"));
+
+        // When
+        long start = System.nanoTime();
+        PointsAccrualStatus staged = store.stage("campaign-bulk", source);
+        long stagedAt = System.nanoTime();
+        PointsAccrualStatus completed = applyAll("campaign-bulk", 50_000);
+        long appliedAt = System.nanoTime();
+        System.out.printf("Accrual of %d rows -> stage: %d ms, apply: %d ms%n",
+            rows, (stagedAt - start) / 1_000_000, (appliedAt - stagedAt) / 1_000_000);
+
+        // Then
+        assertThat(staged.totalPoints()).isEqualByComparingTo("250000.00");
+        assertThat(completed.state()).isEqualTo(PointsAccrualState.COMPLETED);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT sum(available_points) FROM user_points_balances WHERE user_id LIKE 'bulk-user-%'", BigDecimal.class))
+            .isEqualByComparingTo("250000.00");
+        assertThat(balance("bulk-user-7")).isEqualByComparingTo("5.00");
+    }
+
+    private PointsAccrualStatus applyAll(String campaignId, int chunkSize) {
+        PointsAccrualStatus status;
+        do {
+            status = store.applyChunk(campaignId, chunkSize);
+        } while (status.state() != PointsAccrualState.COMPLETED);
+        return status;
+    }
+
+    private BigDecimal balance(String userId) {
+        return userPointsRepository.findByUserId(userId).map(UserPoints::getAvailablePoints).orElseThrow();
+    }
+
+    private static PointsAccrualReader csv(String content) {
+        return new PointsAccrualReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+            PointsAccrualFormat.CSV);
+    }
+}
@@ -0,0 +1,208 @@
+package com.dumensel.payment.infrastructure.cache;
+
+import com.dumensel.payment.application.cache.CacheInvalidationHandler;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for CacheInvalidationPublisher and CacheInvalidationListener
+ * Uses TestContainers for real PostgreSQL LISTEN/NOTIFY
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheInvalidationPublisher.class, ReadYourWritesTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Cache Invalidation Integration Tests")
+class CacheInvalidationIT {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private CacheInvalidationPublisher publisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RecordingHandler handler = new RecordingHandler();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.datasource.url", postgres.getJdbcUrl())
+            .withProperty("spring.datasource.username", postgres.getUsername())
+            .withProperty("spring.datasource.password", postgres.getPassword())
+            .withProperty("payment.cache.invalidation.poll-timeout-ms", "100")
+            .withProperty("payment.cache.invalidation.reconnect-backoff-ms", "100");
+        listener = new CacheInvalidationListener(environment, meterRegistry, List.of(handler));
+        listener.start();
+        await(() -> listener.isConnected() && handler.flushes.get() == 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    @DisplayName("Should deliver invalidations only after the writing transaction commits")
+    void shouldDeliverOnCommit() {
+        // Given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        transaction.executeWithoutResult(status -> {
+            publisher.publish("payments", "p-1");
+            sleep(300);
+            assertThat(handler.keys).isEmpty();
+        });
+
+        // Then
+        await(() -> handler.keys.contains("p-1"));
+        assertThat(meterRegistry.get("payment.cache.invalidation.received").tag("topic", "payments").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not deliver invalidations from a rolled back transaction")
+    void shouldNotDeliverOnRollback() {
+        // Given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        transaction.executeWithoutResult(status -> {
+            publisher.publish("payments", "rolled-back");
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> publisher.publish("payments", "committed"));
+
+        // Then - NOTIFY'lar sırayla teslim edilir
+        await(() -> handler.keys.contains("committed"));
+        assertThat(handler.keys).doesNotContain("rolled-back");
+    }
+
+    @Test
+    @DisplayName("Should ignore other topics")
+    void shouldIgnoreOtherTopics() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            publisher.publish("user-points", "user-1");
+            publisher.publish("payments", "p-2");
+        });
+
+        await(() -> handler.keys.contains("p-2"));
+        assertThat(handler.keys).containsExactly("p-2");
+    }
+
+    @Test
+    @DisplayName("Should flush the whole topic on a topic-wide invalidation")
+    void shouldFlushTopicOnPublishAll() {
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            publisher.publishAll("user-points");
+            publisher.publishAll("payments");
+        });
+
+        // Then
+        await(() -> handler.flushes.get() == 2);
+        assertThat(handler.keys).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reconnect and flush local caches after the connection drops")
+    void shouldReconnectAndFlush() {
+        // When - listener'ın backend'i sonlandırılır
+        jdbcTemplate.queryForList(
+            "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = 'payment-cache-invalidation'");
+
+        // Then
+        await(() -> handler.flushes.get() == 2 && listener.isConnected());
+        assertThat(meterRegistry.get("payment.cache.invalidation.reconnects").counter().count()).isEqualTo(1.0);
+
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> publisher.publish("payments", "after-reconnect"));
+        await(() -> handler.keys.contains("after-reconnect"));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 10s");
+            }
+            sleep(20);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingHandler implements CacheInvalidationHandler {
+        private final List<String> keys = new CopyOnWriteArrayList<>();
+        private final AtomicInteger flushes = new AtomicInteger();
+
+        @Override
+        public String topic() {
+            return "payments";
+        }
+
+        @Override
+        public void invalidate(String key) {
+            keys.add(key);
+        }
+
+        @Override
+        public void invalidateAll() {
+            flushes.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.dumensel.payment.infrastructure.cache;
+
+import com.dumensel.payment.application.cache.CacheInvalidationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for CacheInvalidationListener dispatch
+ * Bağlantı açılmaz: bildirimler dispatch() ile doğrudan verilir
+ */
+@DisplayName("CacheInvalidationListener Tests")
+class CacheInvalidationListenerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should keep dispatching to other handlers when one handler fails")
+    void shouldIsolateFailingHandler() {
+        // Given
+        RecordingHandler failing = new RecordingHandler(true);
+        RecordingHandler healthy = new RecordingHandler(false);
+        CacheInvalidationListener listener = listener(failing, healthy);
+
+        // When
+        listener.dispatch("payments:p-1");
+        listener.dispatch("payments:p-2");
+
+        // Then - hata veren handler'ın cache'i komple temizlenir
+        assertThat(healthy.invalidated).containsExactly("p-1", "p-2");
+        assertThat(failing.invalidatedAll).isEqualTo(2);
+        assertThat(meterRegistry.get("payment.cache.invalidation.failures").tag("topic", "payments").counter().count())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should not propagate a failing bulk invalidation")
+    void shouldNotPropagateFailingInvalidateAll() {
+        // Given
+        RecordingHandler failing = new RecordingHandler(true) {
+            @Override
+            public void invalidateAll() {
+                throw new IllegalStateException("cache unavailable");
+            }
+        };
+        RecordingHandler healthy = new RecordingHandler(false);
+        CacheInvalidationListener listener = listener(failing, healthy);
+
+        // When / Then
+        assertThatCode(() -> listener.dispatch("payments:")).doesNotThrowAnyException();
+        assertThat(healthy.invalidatedAll).isEqualTo(1);
+    }
+
+    private CacheInvalidationListener listener(CacheInvalidationHandler... handlers) {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.datasource.url", "jdbc:postgresql://localhost:5432/test");
+        return new CacheInvalidationListener(environment, meterRegistry, List.of(handlers));
+    }
+
+    private static class RecordingHandler implements CacheInvalidationHandler {
+        final List<String> invalidated = new ArrayList<>();
+        final boolean failOnInvalidate;
+        int invalidatedAll;
+
+        RecordingHandler(boolean failOnInvalidate) {
+            this.failOnInvalidate = failOnInvalidate;
+        }
+
+        @Override
+        public String topic() {
+            return "payments";
+        }
+
+        @Override
+        public void invalidate(String key) {
+            if (failOnInvalidate) {
+                throw new IllegalStateException("lock timeout");
+            }
+            invalidated.add(key);
+        }
+
+        @Override
+        public void invalidateAll() {
+            invalidatedAll++;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.dumensel.payment.infrastructure.datasource;
+
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for ReplicaRoutingDataSource
+ * İki PostgreSQL container'ı streaming replication ile: primary + pg_basebackup ile kurulan hot standby
+ */
+@Testcontainers
+@DisplayName("Replica Routing Integration Tests")
+class ReplicaRoutingIT {
+
+    private static final Network network = Network.newNetwork();
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test")
+        .withNetwork(network)
+        .withNetworkAliases("primary")
+        // Image'ın pg_hba.conf'u replication bağlantılarına izin vermez
+        .withCopyToContainer(Transferable.of("echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\""),
+            "/docker-entrypoint-initdb.d/00-replication.sh");
+
+    @Container
+    static GenericContainer<?> replica = new GenericContainer<>("postgres:14-alpine")
+        .dependsOn(primary)
+        .withNetwork(network)
+        .withEnv("PGPASSWORD", "test")
+        .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+        .withCommand("sh", "-c", "pg_basebackup -h primary -U test -D /tmp/replica -X stream -R"
+            + " && chmod 700 /tmp/replica && exec postgres -D /tmp/replica")
+        .withExposedPorts(5432)
+        .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*\\s", 1));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HikariDataSource primaryDataSource;
+    private ReadReplicas readReplicas;
+    private ReadYourWritesTracker readYourWrites;
+    private CacheInvalidationPublisher publisher;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primaryDataSource = new HikariDataSource();
+        primaryDataSource.setJdbcUrl(primary.getJdbcUrl());
+        primaryDataSource.setUsername(primary.getUsername());
+        primaryDataSource.setPassword(primary.getPassword());
+
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.datasource.username", primary.getUsername())
+            .withProperty("spring.datasource.password", primary.getPassword())
+            .withProperty("payment.datasource.replica.enabled", "true")
+            .withProperty("payment.datasource.replica.urls", replicaJdbcUrl())
+            .withProperty("payment.datasource.replica.max-lag-ms", "500")
+            .withProperty("payment.datasource.replica.lag-check-interval-ms", "100")
+            .withProperty("payment.datasource.replica.sticky-window-ms", "1000");
+        readReplicas = new ReadReplicas(primaryDataSource, environment, meterRegistry);
+        readYourWrites = new ReadYourWritesTracker(environment);
+
+        DataSource routing = new ReplicaRoutingDataSource(primaryDataSource, readReplicas, readYourWrites, meterRegistry).lazy();
+        jdbcTemplate = new JdbcTemplate(routing);
+        publisher = new CacheInvalidationPublisher(jdbcTemplate, readYourWrites, environment);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replica_probe (id VARCHAR(64) PRIMARY KEY)");
+        readReplicas.start();
+        await(() -> !readReplicas.healthyReplicas().isEmpty());
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        executeOnReplica("SELECT pg_wal_replay_resume()");
+        readReplicas.close();
+        primaryDataSource.close();
+    }
+
+    @Test
+    @DisplayName("Should route read-only transactions to the replica and everything else to the primary")
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        // When
+        Boolean readOnlyOnReplica = readOnly.execute(status -> inRecovery());
+        Boolean readWriteOnReplica = readWrite.execute(status -> inRecovery());
+        Boolean autoCommitOnReplica = inRecovery();
+
+        // Then
+        assertThat(readOnlyOnReplica).isTrue();
+        assertThat(readWriteOnReplica).isFalse();
+        assertThat(autoCommitOnReplica).isFalse();
+        assertThat(meterRegistry.get("payment.datasource.routing").tag("target", "replica").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should read a recently written key from the primary until the sticky window passes")
+    void shouldReadYourWritesFromPrimary() {
+        // Given
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO replica_probe (id) VALUES (?)", "p-sticky");
+            publisher.publish("payments", "p-sticky");
+        });
+        // Diğer node'da yazılmış kayıt: NOTIFY listener üzerinden gelir
+        readYourWrites.handlerFor("user-points").invalidate("user-remote");
+
+        // When / Then
+        assertThat(inReadOnly(status -> ReplicaRoutingDataSource.readFor("payments", "p-sticky", this::inRecovery)))
+            .isFalse();
+        assertThat(inReadOnly(status -> ReplicaRoutingDataSource.readFor("user-points", "user-remote", this::inRecovery)))
+            .isFalse();
+        assertThat(inReadOnly(status -> ReplicaRoutingDataSource.readFor("payments", "p-other", this::inRecovery)))
+            .isTrue();
+        assertThat(meterRegistry.get("payment.datasource.routing").tag("reason", "sticky").counter().count())
+            .isEqualTo(2.0);
+
+        // Pencere dolunca replica'ya döner
+        await(() -> readOnly.execute(status -> ReplicaRoutingDataSource.readFor("payments", "p-sticky", this::inRecovery)));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary while the replica lags and return once it catches up")
+    void shouldFallBackToPrimaryWhileReplicaLags() throws SQLException {
+        // Given - replay durdurulur, primary'de yazma devam eder
+        executeOnReplica("SELECT pg_wal_replay_pause()");
+        readWrite.executeWithoutResult(status ->
+            jdbcTemplate.update("INSERT INTO replica_probe (id) VALUES (?)", "p-lagging"));
+
+        // When
+        await(() -> readReplicas.healthyReplicas().isEmpty());
+
+        // Then - okuma primary'den, yeni satır görünür
+        assertThat(inReadOnly(status -> inRecovery())).isFalse();
+        assertThat(inReadOnly(status -> probeExists("p-lagging"))).isTrue();
+        assertThat(readReplicas.lagMillis("replica-0")).isGreaterThan(500);
+        assertThat(meterRegistry.get("payment.datasource.routing").tag("reason", "replica-lag").counter().count())
+            .isGreaterThanOrEqualTo(2.0);
+
+        // When - replica yetişir
+        executeOnReplica("SELECT pg_wal_replay_resume()");
+        await(() -> !readReplicas.healthyReplicas().isEmpty());
+
+        // Then
+        assertThat(inReadOnly(status -> inRecovery() && probeExists("p-lagging"))).isTrue();
+    }
+
+    private boolean inReadOnly(TransactionCallback<Boolean> callback) {
+        return Boolean.TRUE.equals(readOnly.execute(callback));
+    }
+
+    private boolean inRecovery() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+    }
+
+    private boolean probeExists(String id) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM replica_probe WHERE id = ?)", Boolean.class, id));
+    }
+
+    private static String replicaJdbcUrl() {
+        return "jdbc:postgresql://" + replica.getHost() + ":" + replica.getMappedPort(5432) + "/test";
+    }
+
+    private static void executeOnReplica(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(replicaJdbcUrl(), "test", "test");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 10s");
+            }
+            sleep(20);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
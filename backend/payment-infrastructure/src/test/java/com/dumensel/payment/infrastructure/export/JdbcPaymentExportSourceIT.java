@@ -0,0 +1,140 @@
+package com.dumensel.payment.infrastructure.export;
+
+import com.dumensel.payment.application.export.PaymentExportFilter;
+import com.dumensel.payment.domain.model.PaymentProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for JdbcPaymentExportSource
+ * Uses TestContainers for real PostgreSQL database (Flyway schema)
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JdbcPaymentExportSource.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("JDBC Payment Export Source Integration Tests")
+class JdbcPaymentExportSourceIT {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 1, 15, 0, 0);
+    private static final int ROWS_PER_DAY = 200_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("payment.export.fetch-size", () -> "500");
+    }
+
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcPaymentExportSource exportSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        // Önceki gün, export günü ve sonraki gün; çift satırlar AKBANK
+        for (int day = -1; day <= 1; day++) {
+            jdbcTemplate.update("""
+                INSERT INTO payments (id, conversation_id, amount, currency, status, payment_type, provider, buyer_id,
+                                      created_at, updated_at, attempted_providers)
+                SELECT md5(? || '-' || i)::uuid, 'export-' || ? || '-' || i, 10.00, 'TRY', 'SUCCESS', 'CREDIT_CARD',
+                       CASE WHEN i % 2 = 0 THEN 'AKBANK' ELSE 'CRAFTGATE' END, 'buyer-export',
+                       CAST(? AS TIMESTAMP) + i * INTERVAL '400 milliseconds',
+                       CAST(? AS TIMESTAMP) + i * INTERVAL '400 milliseconds',
+                       CASE WHEN i % 2 = 0 THEN 'AKBANK' ELSE 'CRAFTGATE' END
+                FROM generate_series(0, ? - 1) AS i
+                """, day, day, DAY.plusDays(day), DAY.plusDays(day), ROWS_PER_DAY);
+        }
+        seeded = true;
+    }
+
+    @Test
+    @DisplayName("Should stream every payment in the range in created_at order")
+    void shouldStreamRangeInOrder() {
+        // Given
+        LocalDateTime[] previous = {null};
+
+        // When
+        long rows = exportSource.stream(new PaymentExportFilter(DAY, DAY.plusDays(1), null), row -> {
+            assertThat(row.createdAt()).isBetween(DAY, DAY.plusDays(1));
+            if (previous[0] != null) {
+                assertThat(row.createdAt()).isAfterOrEqualTo(previous[0]);
+            }
+            previous[0] = row.createdAt();
+        });
+
+        // Then
+        assertThat(rows).isEqualTo(ROWS_PER_DAY);
+    }
+
+    @Test
+    @DisplayName("Should filter by provider")
+    void shouldFilterByProvider() {
+        // Given
+        List<String> providers = new ArrayList<>();
+
+        // When
+        long rows = exportSource.stream(new PaymentExportFilter(DAY, DAY.plusDays(1), PaymentProvider.AKBANK),
+            row -> {
+                if (providers.size() < 10) {
+                    providers.add(row.provider());
+                }
+            });
+
+        // Then
+        assertThat(rows).isEqualTo(ROWS_PER_DAY / 2);
+        assertThat(providers).containsOnly("AKBANK");
+    }
+
+    @Test
+    @DisplayName("Should stop streaming and surface the error when the writer fails")
+    void shouldAbortOnWriteFailure() {
+        // Given - client disconnects after 1000 rows
+        int[] seen = {0};
+
+        // When / Then
+        assertThatThrownBy(() -> exportSource.stream(new PaymentExportFilter(DAY, DAY.plusDays(1), null), row -> {
+            if (++seen[0] > 1000) {
+                throw new IOException("Broken pipe");
+            }
+        })).isInstanceOf(UncheckedIOException.class);
+        assertThat(seen[0]).isEqualTo(1001);
+    }
+}
@@ -0,0 +1,230 @@
+package com.dumensel.payment.infrastructure.gateway.akbank;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Benchmark and pool tests for AkbankHttpClient
+ * Yerel bir HTTPS stub'ına karşı havuzlu client ile düz RestTemplate'i karşılaştırır;
+ * açılan bağlantı (= TLS handshake) sayısını sunucu tarafında sayar
+ * Stub'a karşı koşan testler uzun sürdüğü için isteğe bağlı: mvn test -Dpayment.benchmark=true;
+ * varsayılan koşuda sadece havuz ayarları doğrulanır
+ */
+@DisplayName("AkbankHttpClient Tests")
+class AkbankHttpClientTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AkbankHttpClientTest.class);
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+    private static final int REQUESTS = 400;
+    private static final int CONCURRENCY = 20;
+    private static final int MAX_PER_ROUTE = 20;
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private KeyStore keyStore;
+    private HttpsServer server;
+    private ExecutorService serverThreads;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = getClass().getResourceAsStream("/akbank-stub.p12")) {
+            keyStore.load(in, PASSWORD);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        stopServer();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "payment.benchmark", matches = "true")
+    @DisplayName("Pooled client should reuse keep-alive connections instead of re-handshaking")
+    void pooledClientShouldReuseConnections() throws Exception {
+        SSLContext clientContext = SSLContexts.custom().loadTrustMaterial(keyStore, null).build();
+
+        // Given - düz RestTemplate (SimpleClientHttpRequestFactory)
+        RestTemplate plain = new RestTemplate(new SimpleClientHttpRequestFactory() {
+            @Override
+            protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+                super.prepareConnection(connection, httpMethod);
+                ((HttpsURLConnection) connection).setSSLSocketFactory(clientContext.getSocketFactory());
+            }
+        });
+        BenchmarkResult plainResult = runBenchmark("plain", plain);
+
+        // Given - havuzlu client
+        AkbankHttpClient pooled = new AkbankHttpClient(new SimpleMeterRegistry(), clientContext,
+            MAX_PER_ROUTE, 50, 3_000, 10_000, 2_000, 30);
+        BenchmarkResult pooledResult;
+        try {
+            pooledResult = runBenchmark("pooled", pooled.getRestTemplate());
+        } finally {
+            pooled.close();
+        }
+
+        for (BenchmarkResult result : new BenchmarkResult[] {plainResult, pooledResult}) {
+            logger.info("{} -> connections={}, p50={} ms, p99={} ms",
+                result.client(), result.connections(), result.p50Millis(), result.p99Millis());
+        }
+
+        // Then - en fazla route başına havuz kadar bağlantı (TLS handshake) açılır
+        assertThat(pooledResult.connections()).isLessThanOrEqualTo(MAX_PER_ROUTE);
+        assertThat(pooledResult.connections()).isLessThan(plainResult.connections());
+    }
+
+    @Test
+    @DisplayName("Should size the pool from the configured limits and register idle pool metrics")
+    void shouldSizePoolFromConfiguredLimits() throws Exception {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SSLContext clientContext = SSLContexts.custom().loadTrustMaterial(keyStore, null).build();
+
+        // When
+        AkbankHttpClient pooled = new AkbankHttpClient(meterRegistry, clientContext,
+            MAX_PER_ROUTE, 50, 3_000, 10_000, 2_000, 30);
+
+        // Then - bağlantı açılmadan: toplam limit havuzda, gauge'lar sıfırda
+        try {
+            assertThat(pooled.getPoolStats().getMax()).isEqualTo(50);
+            assertThat(pooled.getPoolStats().getLeased()).isZero();
+            for (String name : new String[] {"leased", "pending", "available"}) {
+                assertThat(meterRegistry.get("payment.gateway.http.pool." + name).tag("provider", "AKBANK")
+                    .gauge().value()).isZero();
+            }
+        } finally {
+            pooled.close();
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "payment.benchmark", matches = "true")
+    @DisplayName("Should expose leased, pending and available pool metrics")
+    void shouldExposePoolMetrics() throws Exception {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SSLContext clientContext = SSLContexts.custom().loadTrustMaterial(keyStore, null).build();
+        AkbankHttpClient pooled = new AkbankHttpClient(meterRegistry, clientContext,
+            MAX_PER_ROUTE, 50, 3_000, 10_000, 2_000, 30);
+
+        try {
+            // When
+            runBenchmark("pooled", pooled.getRestTemplate());
+
+            // Then - istekler bitti, bağlantılar havuzda boşta bekliyor
+            assertThat(meterRegistry.get("payment.gateway.http.pool.leased").tag("provider", "AKBANK").gauge().value())
+                .isZero();
+            assertThat(meterRegistry.get("payment.gateway.http.pool.pending").tag("provider", "AKBANK").gauge().value())
+                .isZero();
+            assertThat(meterRegistry.get("payment.gateway.http.pool.available").tag("provider", "AKBANK").gauge().value())
+                .isPositive();
+        } finally {
+            pooled.close();
+        }
+    }
+
+    /**
+     * Her koşu yeni bir stub ile başlar; önceki koşunun kapanmış bağlantıları sonucu etkilemez
+     */
+    private BenchmarkResult runBenchmark(String client, RestTemplate restTemplate) throws Exception {
+        String url = startServer();
+        clientPorts.clear();
+        long[] latencies = new long[REQUESTS];
+        ExecutorService callers = Executors.newFixedThreadPool(CONCURRENCY);
+
+        try {
+            Future<?>[] calls = new Future<?>[REQUESTS];
+            for (int i = 0; i < REQUESTS; i++) {
+                int n = i;
+                calls[i] = callers.submit(() -> {
+                    long start = System.nanoTime();
+                    restTemplate.postForObject(url, "transId=" + n, String.class);
+                    latencies[n] = System.nanoTime() - start;
+                });
+            }
+            for (Future<?> call : calls) {
+                call.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+            stopServer();
+        }
+
+        Arrays.sort(latencies);
+        return new BenchmarkResult(client, clientPorts.size(),
+            TimeUnit.NANOSECONDS.toMillis(latencies[REQUESTS / 2]),
+            TimeUnit.NANOSECONDS.toMillis(latencies[(int) Math.ceil(REQUESTS * 0.99) - 1]));
+    }
+
+    private String startServer() throws Exception {
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, PASSWORD);
+        SSLContext serverContext = SSLContext.getInstance("TLS");
+        serverContext.init(keyManagers.getKeyManagers(), null, null);
+
+        server = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(serverContext));
+        server.createContext("/status", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"Response\":\"Approved\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        serverThreads = Executors.newFixedThreadPool(CONCURRENCY * 2);
+        server.setExecutor(serverThreads);
+        server.start();
+        return "https://localhost:" + server.getAddress().getPort() + "/status";
+    }
+
+    private void stopServer() {
+        if (server != null) {
+            server.stop(0);
+            serverThreads.shutdownNow();
+            server = null;
+        }
+    }
+
+    private record BenchmarkResult(String client, int connections, long p50Millis, long p99Millis) {
+    }
+}
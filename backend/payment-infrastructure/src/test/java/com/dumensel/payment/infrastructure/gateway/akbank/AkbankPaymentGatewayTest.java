@@ -0,0 +1,67 @@
+package com.dumensel.payment.infrastructure.gateway.akbank;
+
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AkbankPaymentGateway transport error classification
+ * AKBANK_CONNECTION_ERROR failover'da tahsilat kontrolü yapılmadan güvenli sayılır
+ */
+@DisplayName("AkbankPaymentGateway Transport Error Tests")
+class AkbankPaymentGatewayTest {
+
+    @Test
+    @DisplayName("Should classify errors before the request was sent as connection errors")
+    void shouldClassifyUnsentRequestsAsConnectionErrors() {
+        assertThat(classify(new ConnectTimeoutException("connect timed out"))).isEqualTo("AKBANK_CONNECTION_ERROR");
+        assertThat(classify(new ConnectionRequestTimeoutException("pool exhausted"))).isEqualTo("AKBANK_CONNECTION_ERROR");
+        assertThat(classify(new ConnectException("Connection refused"))).isEqualTo("AKBANK_CONNECTION_ERROR");
+        assertThat(classify(new UnknownHostException("api.akbank.com"))).isEqualTo("AKBANK_CONNECTION_ERROR");
+    }
+
+    @Test
+    @DisplayName("Should classify other interrupted I/O as timeout because the payment may be captured")
+    void shouldClassifyOtherInterruptedIoAsTimeout() {
+        assertThat(classify(new SocketTimeoutException("Read timed out"))).isEqualTo("AKBANK_TIMEOUT");
+        assertThat(classify(new InterruptedIOException("interrupted"))).isEqualTo("AKBANK_TIMEOUT");
+    }
+
+    @Test
+    @DisplayName("Should classify bank-side rejections and unreadable responses separately")
+    void shouldClassifyRejectionsAndUnreadableResponses() {
+        assertThat(AkbankPaymentGateway.classifyTransportError(new HttpClientErrorException(HttpStatus.BAD_REQUEST)))
+            .isEqualTo("AKBANK_REQUEST_REJECTED");
+        assertThat(AkbankPaymentGateway.classifyTransportError(new RestClientException("Error while extracting response",
+                new HttpMessageNotReadableException("Unexpected character", new MockHttpInputMessage(new byte[0])))))
+            .isEqualTo("AKBANK_INVALID_RESPONSE");
+    }
+
+    @Test
+    @DisplayName("Should classify remaining I/O and server errors as API errors")
+    void shouldClassifyOtherErrorsAsApiErrors() {
+        assertThat(classify(new IOException("Connection reset"))).isEqualTo("AKBANK_API_ERROR");
+        assertThat(AkbankPaymentGateway.classifyTransportError(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)))
+            .isEqualTo("AKBANK_API_ERROR");
+    }
+
+    private static String classify(IOException cause) {
+        return AkbankPaymentGateway.classifyTransportError(new ResourceAccessException("I/O error", cause));
+    }
+}
@@ -0,0 +1,115 @@
+package com.dumensel.payment.infrastructure.gateway.craftgate;
+
+import com.dumensel.payment.domain.model.CardInfo;
+import com.dumensel.payment.domain.model.Currency;
+import com.dumensel.payment.domain.model.Money;
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.model.PaymentMethod;
+import com.dumensel.payment.domain.model.PaymentProvider;
+import com.dumensel.payment.domain.model.PaymentType;
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Virtual thread pinning check for the Craftgate client path
+ * Craftgate SDK'sı yerel bir HTTP stub'ına karşı virtual thread'lerden çağrılır;
+ * JFR jdk.VirtualThreadPinned olayı üretilmemelidir (synchronized içinde bloklanan I/O yok)
+ */
+@DisplayName("Craftgate Gateway Virtual Thread Pinning Tests")
+class CraftgatePaymentGatewayPinningTest {
+
+    private static final String PAYMENT_RESPONSE = "{\"data\":{\"id\":1,\"paymentStatus\":\"SUCCESS\"}}";
+
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = PAYMENT_RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should not pin carrier threads while calling Craftgate")
+    void shouldNotPinCarrierThreads() throws Exception {
+        // Given
+        CraftgatePaymentGateway gateway = new CraftgatePaymentGateway(
+            "api-key", "secret-key", "http://localhost:" + server.getAddress().getPort());
+        VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("craftgate-pinning-");
+        CountDownLatch done = new CountDownLatch(50);
+        Path dump = Files.createTempFile("craftgate-pinning", ".jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            for (int i = 0; i < 50; i++) {
+                String conversationId = "pinning-" + i;
+                executor.execute(() -> {
+                    try {
+                        gateway.processPayment(createPayment(conversationId));
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // Then
+        List<RecordedEvent> pinned = RecordingFile.readAllEvents(dump);
+        Files.deleteIfExists(dump);
+        assertThat(pinned)
+            .as("pinned frames: %s", pinned.stream()
+                .map(event -> event.getStackTrace() == null ? "?" : event.getStackTrace().getFrames().get(0).getMethod().getType().getName())
+                .toList())
+            .isEmpty();
+    }
+
+    private static Payment createPayment(String conversationId) {
+        CardInfo cardInfo = new CardInfo("John Doe", "5528790000000008", "12", "2030", "123");
+        return new Payment(conversationId, new Money(new BigDecimal("100.00"), Currency.TRY),
+            new PaymentMethod(PaymentType.CREDIT_CARD, cardInfo), PaymentProvider.CRAFTGATE, "buyer-1");
+    }
+}
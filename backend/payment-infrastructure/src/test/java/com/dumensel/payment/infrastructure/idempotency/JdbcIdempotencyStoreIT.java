@@ -0,0 +1,112 @@
+package com.dumensel.payment.infrastructure.idempotency;
+
+import com.dumensel.payment.application.idempotency.StoredResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for JdbcIdempotencyStore
+ * Uses TestContainers for real PostgreSQL database (Flyway schema)
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JdbcIdempotencyStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("JDBC Idempotency Store Integration Tests")
+class JdbcIdempotencyStoreIT {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("payment.idempotency.purge-interval-seconds", () -> "0");
+    }
+
+    @Autowired
+    private JdbcIdempotencyStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys");
+    }
+
+    @Test
+    @DisplayName("Should return the exact stored bytes for the same key and fingerprint")
+    void shouldReturnStoredBytes() {
+        // Given
+        byte[] body = "{\"id\":\"p-1\",\"status\":\"SUCCESS\"}".getBytes(StandardCharsets.UTF_8);
+        store.saveIfAbsent("key-1", "fp-1", response(201, body, Duration.ofHours(1)));
+
+        // When / Then
+        StoredResponse stored = store.find("key-1", "fp-1").orElseThrow();
+        assertThat(stored.body()).isEqualTo(body);
+        assertThat(stored.httpStatus()).isEqualTo(201);
+        assertThat(stored.expiresAt()).isAfter(Instant.now().plus(Duration.ofMinutes(59)));
+        assertThat(store.find("key-1", "fp-other")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep the first response when the same key is stored twice")
+    void shouldKeepFirstResponse() {
+        // Given
+        store.saveIfAbsent("key-2", "fp-2", response(201, new byte[] {1}, Duration.ofHours(1)));
+
+        // When
+        StoredResponse winner = store.saveIfAbsent("key-2", "fp-2", response(400, new byte[] {2}, Duration.ofHours(1)));
+
+        // Then
+        assertThat(winner.httpStatus()).isEqualTo(201);
+        assertThat(winner.body()).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should ignore, replace and purge expired responses")
+    void shouldHandleExpiredResponses() {
+        // Given
+        store.saveIfAbsent("key-3", "fp-3", response(201, new byte[] {1}, Duration.ofHours(1)));
+        store.saveIfAbsent("key-4", "fp-4", response(201, new byte[] {1}, Duration.ofHours(1)));
+        jdbcTemplate.update("UPDATE idempotency_keys SET expires_at = now() - interval '1 minute'");
+
+        // When / Then
+        assertThat(store.find("key-3", "fp-3")).isEmpty();
+        assertThat(store.saveIfAbsent("key-3", "fp-3", response(202, new byte[] {2}, Duration.ofHours(1))).httpStatus())
+            .isEqualTo(202);
+        assertThat(store.find("key-3", "fp-3")).isPresent();
+        assertThat(store.purgeExpired()).isEqualTo(1);
+    }
+
+    private static StoredResponse response(int status, byte[] body, Duration ttl) {
+        return new StoredResponse(status, null, body, Instant.now().plus(ttl));
+    }
+}
@@ -1,6 +1,8 @@
 package com.dumensel.payment.infrastructure.persistence;
 
 import com.dumensel.payment.domain.model.UserPoints;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -26,7 +28,8 @@ import static org.assertj.core.api.Assertions.*;
 @DataJpaTest
 @Testcontainers
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
-@Import({JpaUserPointsRepository.class, UserPointsMapper.class})
+@Import({JpaUserPointsRepository.class, UserPointsMapper.class, CacheInvalidationPublisher.class,
+    ReadYourWritesTracker.class})
 @DisplayName("JPA UserPoints Repository Integration Tests")
 class JpaUserPointsRepositoryIT {
 
@@ -41,7 +44,7 @@ class JpaUserPointsRepositoryIT {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
-        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
     }
 
     @Autowired
@@ -218,7 +221,7 @@ class JpaUserPointsRepositoryIT {
             entity.setLockedPoints(new BigDecimal("50.00"));
             entity.setCreatedAt(java.time.LocalDateTime.now());
             entity.setLastUpdated(java.time.LocalDateTime.now());
-            springDataRepository.save(entity);
+            springDataRepository.saveAndFlush(entity);
 
             // When
             UserPoints userPoints = jpaUserPointsRepository.findByUserId("user444").orElseThrow();
@@ -0,0 +1,171 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Benchmark: buyer payment history keyset pagination
+ * Tek alıcı için 1M satır (Flyway şeması, V7 composite index): sayfa gecikmesi derinlikten bağımsız olmalı
+ * Uzun sürdüğü için isteğe bağlı: mvn verify -Dpayment.benchmark=true
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaPaymentRepository.class, CacheInvalidationPublisher.class, ReadYourWritesTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "payment.benchmark", matches = "true")
+@DisplayName("Payment History Pagination Benchmark")
+class PaymentHistoryPaginationBenchmarkIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentHistoryPaginationBenchmarkIT.class);
+
+    private static final String HEAVY_BUYER = "buyer-heavy";
+    private static final int HEAVY_ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int RUNS = 30;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    private static boolean seeded;
+
+    @Autowired
+    private JpaPaymentRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        // İki satırda bir aynı created_at: sıralamada id tie-breaker'ı da test edilir
+        insertPayments(HEAVY_BUYER, HEAVY_ROWS);
+        jdbcTemplate.execute("ANALYZE payments");
+        seeded = true;
+    }
+
+    private void insertPayments(String buyerId, int rows) {
+        jdbcTemplate.update("""
+            INSERT INTO payments (id, conversation_id, amount, currency, status, payment_type, provider, buyer_id,
+                                  created_at, updated_at, attempted_providers)
+            SELECT md5(? || i)::uuid, ? || '-' || i, 100.00, 'TRY', 'SUCCESS', 'CREDIT_CARD', 'CRAFTGATE', ?,
+                   TIMESTAMP '2024-01-01 00:00:00' + (i / 2) * INTERVAL '1 second',
+                   TIMESTAMP '2024-01-01 00:00:00' + (i / 2) * INTERVAL '1 second', 'CRAFTGATE'
+            FROM generate_series(1, ?) AS i
+            """, buyerId, buyerId, buyerId, rows);
+    }
+
+    @Test
+    @DisplayName("Should serve deep pages from the composite index of the cursor's partition without sorting")
+    void shouldUseIndexWithoutSort() {
+        // Given
+        Map<String, Object> deep = cursorAtDepth(HEAVY_ROWS / 2);
+
+        // When
+        List<String> plan = jdbcTemplate.queryForList("""
+            EXPLAIN SELECT * FROM payments
+            WHERE buyer_id = ? AND created_at <= ? AND (created_at, id) < (?, CAST(? AS uuid))
+            ORDER BY created_at DESC, id DESC
+            LIMIT ?
+            """, String.class, HEAVY_BUYER, deep.get("created_at"), deep.get("created_at"), deep.get("id"),
+            PAGE_SIZE + 1);
+
+        // Then
+        String joined = String.join("\n", plan);
+        assertThat(joined).contains("idx_payments_buyer_created_id");
+        assertThat(joined).doesNotContain("Sort");
+        // İmleçten yeni aylık partition'lar plan aşamasında elenir
+        assertThat(joined).doesNotContain("payments_p");
+    }
+
+    @Test
+    @DisplayName("Per-page latency should stay constant from the first to the last page at 1M rows")
+    void pageLatencyShouldNotDependOnDepth() {
+        // Given - cursors are computed once, outside the measured section
+        Map<String, Object> middle = cursorAtDepth(HEAVY_ROWS / 2);
+        Map<String, Object> end = cursorAtDepth(HEAVY_ROWS - PAGE_SIZE * 2);
+
+        // When
+        long first = medianMicros(() -> repository.findPageByBuyerId(HEAVY_BUYER, null, null, PAGE_SIZE + 1));
+        long mid = medianMicros(() -> repository.findPageByBuyerId(HEAVY_BUYER,
+            toLocalDateTime(middle), (String) middle.get("id"), PAGE_SIZE + 1));
+        long last = medianMicros(() -> repository.findPageByBuyerId(HEAVY_BUYER,
+            toLocalDateTime(end), (String) end.get("id"), PAGE_SIZE + 1));
+
+        logger.info("keyset page ({} rows, {} per page) -> first={} us, middle={} us, last={} us",
+            HEAVY_ROWS, PAGE_SIZE, first, mid, last);
+
+        // Then - OFFSET 500k would be orders of magnitude slower; allow noise, not growth
+        long tolerance = Math.max(first * 3, first + 5_000);
+        assertThat(mid).isLessThan(tolerance);
+        assertThat(last).isLessThan(tolerance);
+    }
+
+    private Map<String, Object> cursorAtDepth(int depth) {
+        return jdbcTemplate.queryForMap("""
+            SELECT created_at, id::text AS id FROM payments
+            WHERE buyer_id = ?
+            ORDER BY created_at DESC, id DESC
+            OFFSET ? LIMIT 1
+            """, HEAVY_BUYER, depth);
+    }
+
+    private static LocalDateTime toLocalDateTime(Map<String, Object> cursor) {
+        return ((Timestamp) cursor.get("created_at")).toLocalDateTime();
+    }
+
+    private static long medianMicros(Supplier<List<Payment>> query) {
+        for (int i = 0; i < 5; i++) {
+            query.get();
+        }
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            assertThat(query.get()).hasSize(PAGE_SIZE + 1);
+            samples[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+}
@@ -0,0 +1,160 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for buyer payment history keyset pagination
+ * Sıralama, aynı created_at'li kayıtlar (id tie-breaker) ve son sayfa; 1M satırlık gecikme ölçümü
+ * PaymentHistoryPaginationBenchmarkIT'tedir
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaPaymentRepository.class, CacheInvalidationPublisher.class, ReadYourWritesTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Payment History Pagination Integration Tests")
+class PaymentHistoryPaginationIT {
+
+    private static final String BUYER = "buyer-small";
+    private static final String OTHER_BUYER = "buyer-other";
+    // Son sayfa yarım kalır (245 = 4 x 50 + 45)
+    private static final int ROWS = 245;
+    private static final int PAGE_SIZE = 50;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    private static boolean seeded;
+
+    @Autowired
+    private JpaPaymentRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        // İki satırda bir aynı created_at: sıralamada id tie-breaker'ı da test edilir
+        insertPayments(BUYER, ROWS);
+        insertPayments(OTHER_BUYER, 10);
+        seeded = true;
+    }
+
+    private void insertPayments(String buyerId, int rows) {
+        jdbcTemplate.update("""
+            INSERT INTO payments (id, conversation_id, amount, currency, status, payment_type, provider, buyer_id,
+                                  created_at, updated_at, attempted_providers)
+            SELECT md5(? || i)::uuid, ? || '-' || i, 100.00, 'TRY', 'SUCCESS', 'CREDIT_CARD', 'CRAFTGATE', ?,
+                   TIMESTAMP '2024-01-01 00:00:00' + (i / 2) * INTERVAL '1 second',
+                   TIMESTAMP '2024-01-01 00:00:00' + (i / 2) * INTERVAL '1 second', 'CRAFTGATE'
+            FROM generate_series(1, ?) AS i
+            """, buyerId, buyerId, buyerId, rows);
+    }
+
+    @Test
+    @DisplayName("Should walk every payment exactly once, newest first")
+    void shouldWalkAllPaymentsInOrder() {
+        // Given
+        List<Payment> walked = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        LocalDateTime afterCreatedAt = null;
+        String afterId = null;
+
+        // When
+        while (true) {
+            List<Payment> page = repository.findPageByBuyerId(BUYER, afterCreatedAt, afterId, PAGE_SIZE);
+            walked.addAll(page);
+            pageSizes.add(page.size());
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            Payment last = page.get(page.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+        }
+
+        // Then - son sayfa yarım, başka alıcının ödemesi yok
+        Set<String> ids = new HashSet<>();
+        walked.forEach(payment -> ids.add(payment.getId()));
+        assertThat(pageSizes).containsExactly(50, 50, 50, 50, 45);
+        assertThat(ids).hasSize(ROWS);
+        assertThat(walked).allSatisfy(payment -> assertThat(payment.getBuyerId()).isEqualTo(BUYER));
+        for (int i = 1; i < walked.size(); i++) {
+            Payment previous = walked.get(i - 1);
+            Payment current = walked.get(i);
+            assertThat(current.getCreatedAt()).isBeforeOrEqualTo(previous.getCreatedAt());
+            if (current.getCreatedAt().isEqual(previous.getCreatedAt())) {
+                assertThat(current.getId()).isLessThan(previous.getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A cursor inside a created_at tie should continue with the other payment of the tie")
+    void shouldContinueInsideTie() {
+        // Given - en yeni iki ödeme aynı created_at'e sahip
+        List<Payment> newest = repository.findPageByBuyerId(BUYER, null, null, 2);
+        assertThat(newest.get(0).getCreatedAt()).isEqualTo(newest.get(1).getCreatedAt());
+
+        // When - imleç tie'ın ilk kaydında
+        List<Payment> next = repository.findPageByBuyerId(BUYER,
+            newest.get(0).getCreatedAt(), newest.get(0).getId(), 1);
+
+        // Then
+        assertThat(next).extracting(Payment::getId).containsExactly(newest.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("A cursor at the oldest payment should return an empty page")
+    void shouldReturnEmptyPageAfterOldest() {
+        // Given
+        List<Payment> all = repository.findPageByBuyerId(BUYER, null, null, ROWS);
+        Payment oldest = all.get(all.size() - 1);
+
+        // When
+        List<Payment> page = repository.findPageByBuyerId(BUYER, oldest.getCreatedAt(), oldest.getId(), PAGE_SIZE);
+
+        // Then
+        assertThat(all).hasSize(ROWS);
+        assertThat(page).isEmpty();
+    }
+}
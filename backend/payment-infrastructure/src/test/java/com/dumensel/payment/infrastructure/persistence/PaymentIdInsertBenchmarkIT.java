@@ -0,0 +1,123 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import com.dumensel.payment.domain.model.UuidV7;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Benchmark: random UUIDv4 VARCHAR(36) PK vs UUIDv7 native uuid PK
+ * Aynı satır şekliyle 10M satır eklenir; son dilimdeki ekleme hızı, toplam WAL ve PK index boyutu karşılaştırılır.
+ * Uzun sürdüğü için isteğe bağlı: mvn verify -Dpayment.benchmark=true [-Dpayment.benchmark.rows=10000000]
+ */
+@Testcontainers
+@EnabledIfSystemProperty(named = "payment.benchmark", matches = "true")
+@DisplayName("Payment Id Insert Benchmark")
+class PaymentIdInsertBenchmarkIT {
+
+    private static final int ROWS = Integer.getInteger("payment.benchmark.rows", 10_000_000);
+    private static final int SLICES = 10;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @Test
+    @DisplayName("UUIDv7 uuid keys should keep insert throughput and write less WAL and index than v4 varchar keys")
+    void uuidV7ShouldInsertFasterThanRandomV4() throws SQLException {
+        BenchmarkResult v4 = run("bench_ids_v4", "VARCHAR(36)", () -> UUID.randomUUID().toString());
+        BenchmarkResult v7 = run("bench_ids_v7", "uuid", UuidV7::next);
+
+        for (BenchmarkResult result : new BenchmarkResult[] {v4, v7}) {
+            System.out.printf("%-13s -> first slice=%7.0f rows/s, last slice=%7.0f rows/s, WAL=%5d MB, PK index=%5d MB%n",
+                result.table(), result.firstSliceRowsPerSecond(), result.lastSliceRowsPerSecond(),
+                result.walBytes() >> 20, result.pkIndexBytes() >> 20);
+        }
+
+        assertThat(v7.lastSliceRowsPerSecond()).isGreaterThan(v4.lastSliceRowsPerSecond());
+        assertThat(v7.walBytes()).isLessThan(v4.walBytes());
+        assertThat(v7.pkIndexBytes()).isLessThan(v4.pkIndexBytes());
+    }
+
+    private BenchmarkResult run(String table, String idType, Supplier<String> ids) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl() + "&reWriteBatchedInserts=true", postgres.getUsername(), postgres.getPassword())) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE " + table + " (id " + idType + " PRIMARY KEY, "
+                    + "buyer_id VARCHAR(100) NOT NULL, amount DECIMAL(19, 2) NOT NULL, created_at TIMESTAMP NOT NULL)");
+                statement.execute("CHECKPOINT");
+            }
+            long walStart = currentWalLsn(connection);
+            String insertSql = "INSERT INTO " + table + " (id, buyer_id, amount, created_at) VALUES ("
+                + ("uuid".equals(idType) ? "CAST(? AS uuid)" : "?") + ", ?, 100.00, ?)";
+
+            int sliceRows = ROWS / SLICES;
+            double first = 0;
+            double last = 0;
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(insertSql)) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                for (int slice = 0; slice < SLICES; slice++) {
+                    long start = System.nanoTime();
+                    for (int i = 0; i < sliceRows; i++) {
+                        insert.setString(1, ids.get());
+                        insert.setString(2, "buyer-" + (i % 10_000));
+                        insert.setTimestamp(3, now);
+                        insert.addBatch();
+                        if ((i + 1) % BATCH_SIZE == 0) {
+                            insert.executeBatch();
+                            connection.commit();
+                        }
+                    }
+                    insert.executeBatch();
+                    connection.commit();
+                    double rowsPerSecond = sliceRows / ((System.nanoTime() - start) / 1e9);
+                    if (slice == 0) {
+                        first = rowsPerSecond;
+                    }
+                    last = rowsPerSecond;
+                }
+            }
+            connection.setAutoCommit(true);
+            long walBytes = currentWalLsn(connection) - walStart;
+            long pkIndexBytes;
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey')")) {
+                rs.next();
+                pkIndexBytes = rs.getLong(1);
+            }
+            return new BenchmarkResult(table, first, last, walBytes, pkIndexBytes);
+        }
+    }
+
+    private static long currentWalLsn(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_current_wal_lsn() - '0/0'::pg_lsn")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private record BenchmarkResult(String table, double firstSliceRowsPerSecond, double lastSliceRowsPerSecond,
+                                   long walBytes, long pkIndexBytes) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import com.dumensel.payment.domain.model.*;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the monthly partitioned payments table (V9) and PaymentPartitionManager
+ * Flyway şeması: mevcut tablo legacy partition, gelecek aylar payments_pYYYYMM
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaPaymentRepository.class, CacheInvalidationPublisher.class, ReadYourWritesTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Payment Partition Integration Tests")
+class PaymentPartitionIT {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private JpaPaymentRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Migration should attach existing rows as the legacy partition and pre-create future months")
+    void shouldPartitionPaymentsByMonth() {
+        // When
+        String kind = jdbcTemplate.queryForObject(
+            "SELECT relkind::text FROM pg_class WHERE relname = 'payments'", String.class);
+        List<String> partitions = partitionNames();
+
+        // Then
+        LocalDateTime nextMonth = LocalDateTime.now().withDayOfMonth(1).plusMonths(1);
+        assertThat(kind).isEqualTo("p");
+        assertThat(partitions).contains("payments_legacy", "payments_p" + SUFFIX.format(nextMonth),
+            "payments_p" + SUFFIX.format(nextMonth.plusMonths(2)));
+    }
+
+    @Test
+    @DisplayName("JPA and JDBC repositories should read and write across partitions")
+    void shouldReadAndWriteAcrossPartitions() {
+        // Given - biri bu ayda (repository), biri gelecek ayın partition'ında
+        Payment current = newPayment("partition-current", "buyer-partitions");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> assertThat(repository.saveIfAbsent(current)).isTrue());
+        current.markAsSuccess("ext-partition-current");
+        repository.save(current);
+        insertRaw("partition-next-month", "buyer-partitions", LocalDateTime.now().withDayOfMonth(1).plusMonths(1));
+
+        JdbcPaymentRepository jdbcRepository = new JdbcPaymentRepository(jdbcTemplate, invalidationPublisher);
+        Payment viaJdbc = newPayment("partition-jdbc", "buyer-partitions");
+        assertThat(jdbcRepository.saveIfAbsent(viaJdbc)).isTrue();
+        viaJdbc.markAsSuccess("ext-partition-jdbc");
+        transaction.executeWithoutResult(status -> jdbcRepository.save(viaJdbc));
+
+        // When
+        List<Payment> history = repository.findPageByBuyerId("buyer-partitions", null, null, 10);
+        Payment newest = history.get(0);
+        List<Payment> afterNewest = repository.findPageByBuyerId("buyer-partitions",
+            newest.getCreatedAt(), newest.getId(), 10);
+
+        // Then
+        assertThat(history).extracting(Payment::getConversationId)
+            .containsExactly("partition-next-month", "partition-jdbc", "partition-current");
+        assertThat(afterNewest).extracting(Payment::getConversationId)
+            .containsExactly("partition-jdbc", "partition-current");
+        assertThat(repository.findById(current.getId())).get()
+            .extracting(Payment::getStatus).isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(repository.findByExternalPaymentId("ext-partition-jdbc")).isPresent();
+        assertThat(jdbcRepository.findById(viaJdbc.getId())).get()
+            .extracting(Payment::getExternalPaymentId).isEqualTo("ext-partition-jdbc");
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM payments WHERE conversation_id = 'partition-jdbc'", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("conversation_id should stay unique across monthly partitions")
+    void shouldEnforceConversationIdAcrossPartitions() {
+        // Given - save() (JPA merge -> INSERT) claim'i trigger üzerinden alır
+        Payment original = newPayment("partition-unique", "buyer-unique");
+        repository.save(original);
+
+        // When / Then - başka bir ayda aynı conversation_id
+        assertThatThrownBy(() -> insertRaw("partition-unique", "buyer-unique",
+                LocalDateTime.now().withDayOfMonth(1).plusMonths(2)))
+            .isInstanceOf(DataIntegrityViolationException.class)
+            .hasMessageContaining("payment_conversation_ids_pkey");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Boolean inserted = transaction.execute(status ->
+            repository.saveIfAbsent(newPayment("partition-unique", "buyer-unique")));
+        assertThat(inserted).isFalse();
+        assertThat(repository.findByConversationId("partition-unique")).get()
+            .extracting(Payment::getId).isEqualTo(original.getId());
+    }
+
+    @Test
+    @Order(Integer.MAX_VALUE)
+    @DisplayName("Maintenance should pre-create future months and archive partitions past retention")
+    void shouldPrecreateAndArchivePartitions() {
+        // Given - 6 ay sonrası; 2 aylık retention
+        LocalDateTime later = LocalDateTime.now().withDayOfMonth(1).plusMonths(6);
+        Payment archivedPayment = newPayment("partition-archived", "buyer-archive");
+        repository.save(archivedPayment);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PaymentPartitionManager manager = new PaymentPartitionManager(jdbcTemplate, meterRegistry,
+            3, 2, "schema", "payment_archive", 0);
+
+        // When
+        PaymentPartitionManager.MaintenanceResult result = manager.maintain(later);
+        PaymentPartitionManager.MaintenanceResult rerun = manager.maintain(later);
+
+        // Then
+        assertThat(result.created()).containsExactly(
+            "payments_p" + SUFFIX.format(later),
+            "payments_p" + SUFFIX.format(later.plusMonths(1)),
+            "payments_p" + SUFFIX.format(later.plusMonths(2)),
+            "payments_p" + SUFFIX.format(later.plusMonths(3)));
+        assertThat(result.archived()).contains("payments_legacy",
+            "payments_p" + SUFFIX.format(later.plusMonths(-5)),
+            "payments_p" + SUFFIX.format(later.plusMonths(-3)));
+        assertThat(partitionNames()).containsExactlyInAnyOrder(
+            "payments_p" + SUFFIX.format(later),
+            "payments_p" + SUFFIX.format(later.plusMonths(1)),
+            "payments_p" + SUFFIX.format(later.plusMonths(2)),
+            "payments_p" + SUFFIX.format(later.plusMonths(3)));
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('payment_archive.payments_legacy') IS NOT NULL",
+            Boolean.class)).isTrue();
+        assertThat(rerun.created()).isEmpty();
+        assertThat(rerun.archived()).isEmpty();
+        assertThat(meterRegistry.get("payment.partitions.months-ahead").gauge().value()).isEqualTo(3.0);
+
+        // Arşivlenen ödeme okunmaz ama conversation_id claim'i sürer
+        assertThat(repository.findById(archivedPayment.getId())).isEmpty();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Boolean inserted = transaction.execute(status ->
+            repository.saveIfAbsent(newPayment("partition-archived", "buyer-archive")));
+        assertThat(inserted).isFalse();
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList("""
+            SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'payments'::regclass
+            """, String.class);
+    }
+
+    private void insertRaw(String conversationId, String buyerId, LocalDateTime createdAt) {
+        jdbcTemplate.update("""
+            INSERT INTO payments (id, conversation_id, amount, currency, status, payment_type, provider, buyer_id,
+                                  created_at, updated_at, attempted_providers)
+            VALUES (CAST(? AS uuid), ?, 100.00, 'TRY', 'SUCCESS', 'CREDIT_CARD', 'CRAFTGATE', ?, ?, ?, 'CRAFTGATE')
+            """, UuidV7.next(), conversationId, buyerId, createdAt, createdAt);
+    }
+
+    private static Payment newPayment(String conversationId, String buyerId) {
+        CardInfo cardInfo = new CardInfo("John Doe", "5528790000000008", "12", "2030", "123");
+        return new Payment(conversationId, new Money(new BigDecimal("100.00"), Currency.TRY),
+            new PaymentMethod(PaymentType.CREDIT_CARD, cardInfo), PaymentProvider.CRAFTGATE, buyerId);
+    }
+}
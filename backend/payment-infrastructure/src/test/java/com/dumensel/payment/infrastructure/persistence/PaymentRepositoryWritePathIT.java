@@ -0,0 +1,202 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import com.dumensel.payment.domain.model.*;
+import com.dumensel.payment.domain.repository.PaymentRepository;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests + benchmark: JPA vs JDBC payment write path
+ * PaymentService'in yaptığı gibi ödeme başına reserve (saveIfAbsent) ve finalize (save) transaction'ları;
+ * ödeme başına SQL statement sayısı ve throughput karşılaştırılır.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaPaymentRepository.class, CacheInvalidationPublisher.class, ReadYourWritesTracker.class,
+    PaymentRepositoryWritePathIT.StatementCountingConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Payment Repository Write Path Integration Tests")
+class PaymentRepositoryWritePathIT {
+
+    private static final int WARMUP_PAYMENTS = 500;
+    private static final int PAYMENTS = 3_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private JpaPaymentRepository jpaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcPaymentRepository jdbcRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcRepository = new JdbcPaymentRepository(jdbcTemplate, invalidationPublisher);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("JDBC repository should round-trip a payment through insert and a status transition")
+    void jdbcRepositoryShouldRoundTrip() {
+        // Given
+        Payment payment = newPayment("jdbc-roundtrip");
+        assertThat(jdbcRepository.saveIfAbsent(payment)).isTrue();
+        assertThat(jdbcRepository.saveIfAbsent(newPayment("jdbc-roundtrip"))).isFalse();
+
+        // When
+        payment.markAsSuccess("ext-roundtrip");
+        transactionTemplate.executeWithoutResult(status -> jdbcRepository.save(payment));
+
+        // Then - both implementations read the same row
+        Payment viaJdbc = jdbcRepository.findById(payment.getId()).orElseThrow();
+        Payment viaJpa = jpaRepository.findById(payment.getId()).orElseThrow();
+        for (Payment loaded : new Payment[] {viaJdbc, viaJpa}) {
+            assertThat(loaded.getStatus()).isEqualTo(PaymentStatus.SUCCESS);
+            assertThat(loaded.getExternalPaymentId()).isEqualTo("ext-roundtrip");
+            assertThat(loaded.getAmount().getAmount()).isEqualByComparingTo("100.00");
+            assertThat(loaded.getAttemptedProviders()).containsExactly(PaymentProvider.CRAFTGATE);
+        }
+        assertThat(jdbcRepository.findByConversationId("jdbc-roundtrip")).isPresent();
+        assertThat(jdbcRepository.findByExternalPaymentId("ext-roundtrip")).isPresent();
+        assertThat(jdbcRepository.findUpdatedAtById(payment.getId())).contains(viaJpa.getUpdatedAt());
+        assertThat(jdbcRepository.findById("not-a-uuid")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("JDBC write path should issue fewer statements per payment than JPA")
+    void jdbcShouldIssueFewerStatementsPerPayment() {
+        // Given
+        runPayments(jpaRepository, "warmup-jpa", WARMUP_PAYMENTS);
+        runPayments(jdbcRepository, "warmup-jdbc", WARMUP_PAYMENTS);
+
+        // When
+        BenchmarkResult jpa = runPayments(jpaRepository, "jpa", PAYMENTS);
+        BenchmarkResult jdbc = runPayments(jdbcRepository, "jdbc", PAYMENTS);
+
+        for (BenchmarkResult result : new BenchmarkResult[] {jpa, jdbc}) {
+            System.out.printf("%-4s -> %.2f statements/payment, %.0f payments/s%n",
+                result.name(), result.statementsPerPayment(), result.paymentsPerSecond());
+        }
+
+        // Then - JPA: INSERT + merge SELECT + UPDATE + NOTIFY, JDBC: INSERT + UPDATE + NOTIFY
+        assertThat(jdbc.statementsPerPayment()).isEqualTo(3.0);
+        assertThat(jpa.statementsPerPayment()).isGreaterThan(jdbc.statementsPerPayment());
+    }
+
+    private BenchmarkResult runPayments(PaymentRepository repository, String name, int count) {
+        long statementsBefore = StatementCountingConfiguration.STATEMENTS.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Payment payment = newPayment(name + "-" + i);
+            transactionTemplate.executeWithoutResult(status -> repository.saveIfAbsent(payment));
+            payment.markAsSuccess("ext-" + name + "-" + i);
+            transactionTemplate.executeWithoutResult(status -> repository.save(payment));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long statements = StatementCountingConfiguration.STATEMENTS.get() - statementsBefore;
+        return new BenchmarkResult(name, (double) statements / count, count / seconds);
+    }
+
+    private static Payment newPayment(String conversationId) {
+        CardInfo cardInfo = new CardInfo("John Doe", "5528790000000008", "12", "2030", "123");
+        return new Payment(conversationId, new Money(new BigDecimal("100.00"), Currency.TRY),
+            new PaymentMethod(PaymentType.CREDIT_CARD, cardInfo), PaymentProvider.CRAFTGATE, "buyer-write-path");
+    }
+
+    private record BenchmarkResult(String name, double statementsPerPayment, double paymentsPerSecond) {
+    }
+
+    /**
+     * DataSource'u, hazırlanan her statement'ı sayan bir proxy ile sarar
+     */
+    @TestConfiguration
+    static class StatementCountingConfiguration {
+
+        static final AtomicLong STATEMENTS = new AtomicLong();
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return counting(super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement") || method.getName().equals("createStatement")) {
+                        STATEMENTS.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import com.dumensel.payment.domain.model.PointsEntryType;
+import com.dumensel.payment.domain.model.PointsLedgerEntry;
+import com.dumensel.payment.domain.model.UserPoints;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the append-only points ledger (V11) and PointsLedgerCompactor
+ * Bakiye = user_points snapshot + katlanmamış ledger kuyruğu
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaUserPointsRepository.class, UserPointsMapper.class, CacheInvalidationPublisher.class,
+    ReadYourWritesTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Points Ledger Integration Tests")
+class PointsLedgerIT {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private JpaUserPointsRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Every balance change should append a ledger entry; only debits touch the snapshot")
+    void shouldAppendLedgerEntries() {
+        // Given / When
+        repository.addPoints("user-ledger", new BigDecimal("100.00"));
+        repository.deductPoints("user-ledger", new BigDecimal("30.00"));
+        repository.record(new PointsLedgerEntry("user-ledger", PointsEntryType.LOCK, new BigDecimal("20.00")));
+        repository.record(new PointsLedgerEntry("user-ledger", PointsEntryType.UNLOCK, new BigDecimal("5.00")));
+        repository.record(new PointsLedgerEntry("user-ledger", PointsEntryType.CONSUME, new BigDecimal("10.00")));
+
+        // Then
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT entry_type || ':' || points FROM points_ledger WHERE user_id = 'user-ledger' ORDER BY id", String.class))
+            .containsExactly("EARN:100.00", "SPEND:30.00", "LOCK:20.00", "UNLOCK:5.00", "CONSUME:10.00");
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT in_snapshot FROM points_ledger WHERE user_id = 'user-ledger' ORDER BY id", Boolean.class))
+            .containsExactly(false, true, true, true, true);
+        // Kazanım kuyrukta, borçlar snapshot'ta: snapshot tek başına eksi olabilir
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT available_points FROM user_points WHERE user_id = 'user-ledger'", BigDecimal.class))
+            .isEqualByComparingTo("-45.00");
+
+        UserPoints balance = repository.findByUserId("user-ledger").orElseThrow();
+        assertThat(balance.getTotalPoints()).isEqualByComparingTo("100.00");
+        assertThat(balance.getAvailablePoints()).isEqualByComparingTo("55.00");
+        assertThat(balance.getLockedPoints()).isEqualByComparingTo("5.00");
+        assertThat(repository.findLastUpdatedByUserId("user-ledger")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Entries violating UserPoints rules should be rejected without writing anything")
+    void shouldValidateEntriesWithDomainRules() {
+        // Given
+        repository.addPoints("user-ledger-rules", new BigDecimal("10.00"));
+
+        // When / Then
+        assertThatThrownBy(() -> repository.record(
+                new PointsLedgerEntry("user-ledger-rules", PointsEntryType.UNLOCK, new BigDecimal("1.00"))))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Cannot unlock more points than locked");
+        assertThat(repository.deductPoints("user-ledger-rules", new BigDecimal("10.01"))).isEmpty();
+        assertThat(repository.record(
+            new PointsLedgerEntry("user-ledger-missing", PointsEntryType.LOCK, new BigDecimal("1.00")))).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM points_ledger WHERE user_id LIKE 'user-ledger-%'", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Compaction should roll snapshots forward without changing balances")
+    void shouldCompactLedgerIntoSnapshots() {
+        // Given
+        repository.addPoints("user-compact-1", new BigDecimal("40.00"));
+        repository.addPoints("user-compact-1", new BigDecimal("60.00"));
+        repository.deductPoints("user-compact-1", new BigDecimal("25.00"));
+        repository.addPoints("user-compact-2", new BigDecimal("7.50"));
+        repository.record(new PointsLedgerEntry("user-compact-2", PointsEntryType.LOCK, new BigDecimal("2.50")));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PointsLedgerCompactor compactor = new PointsLedgerCompactor(jdbcTemplate, meterRegistry, 1, 0);
+
+        // When
+        PointsLedgerCompactor.CompactionResult result = compactor.compact();
+        PointsLedgerCompactor.CompactionResult rerun = compactor.compact();
+
+        // Then - snapshot'lar ileri taşındı, kuyruk boş, bakiye aynı
+        assertThat(result.entries()).isGreaterThanOrEqualTo(3);
+        assertThat(result.users()).isGreaterThanOrEqualTo(2);
+        assertThat(rerun.entries()).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT available_points FROM user_points WHERE user_id = 'user-compact-1'", BigDecimal.class))
+            .isEqualByComparingTo("75.00");
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT tail_entries FROM user_points_balances WHERE user_id = 'user-compact-1'", Long.class)).isZero();
+
+        UserPoints second = repository.findByUserId("user-compact-2").orElseThrow();
+        assertThat(second.getTotalPoints()).isEqualByComparingTo("7.50");
+        assertThat(second.getAvailablePoints()).isEqualByComparingTo("5.00");
+        assertThat(second.getLockedPoints()).isEqualByComparingTo("2.50");
+        assertThat(meterRegistry.get("payment.points.ledger.compacted.entries").counter().count())
+            .isEqualTo(result.entries());
+
+        // Ledger değişmez: tarihçe tam
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM points_ledger WHERE user_id = 'user-compact-1'", Integer.class)).isEqualTo(3);
+
+        // Sonraki yazmalar kuyruğa gider
+        repository.addPoints("user-compact-1", new BigDecimal("5.00"));
+        assertThat(repository.findByUserId("user-compact-1").orElseThrow().getAvailablePoints())
+            .isEqualByComparingTo("80.00");
+    }
+
+    @Test
+    @DisplayName("An entry committed after compaction started should stay in the tail, not be lost")
+    void shouldNotLoseEntriesOfInFlightTransactions() throws Exception {
+        // Given - açık bir transaction'da yazılmış ama henüz commit edilmemiş entry
+        repository.addPoints("user-in-flight", new BigDecimal("10.00"));
+        PointsLedgerCompactor compactor = new PointsLedgerCompactor(jdbcTemplate, new SimpleMeterRegistry(), 100, 0);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch compacted = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> inFlight = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                repository.addPoints("user-in-flight", new BigDecimal("1.00"));
+                written.countDown();
+                await(compacted);
+            }));
+            assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // When - compaction açık transaction varken çalışır, sonra transaction commit olur
+            compactor.compact();
+            compacted.countDown();
+            inFlight.get(10, TimeUnit.SECONDS);
+        }
+        compactor.compact();
+
+        // Then
+        assertThat(repository.findByUserId("user-in-flight").orElseThrow().getAvailablePoints())
+            .isEqualByComparingTo("11.00");
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT available_points FROM user_points WHERE user_id = 'user-in-flight'", BigDecimal.class))
+            .isEqualByComparingTo("11.00");
+    }
+
+    @Test
+    @DisplayName("save() should overwrite the balance and absorb the existing tail")
+    void shouldOverwriteBalanceOnSave() {
+        // Given
+        repository.addPoints("user-save", new BigDecimal("50.00"));
+        UserPoints current = repository.findByUserId("user-save").orElseThrow();
+        current.lockPoints(new BigDecimal("20.00"));
+
+        // When
+        repository.save(current);
+        new PointsLedgerCompactor(jdbcTemplate, new SimpleMeterRegistry(), 100, 0).compact();
+
+        // Then - EARN entry'si snapshot'ın parçası, iki kez sayılmaz
+        UserPoints reloaded = repository.findByUserId("user-save").orElseThrow();
+        assertThat(reloaded.getTotalPoints()).isEqualByComparingTo("50.00");
+        assertThat(reloaded.getAvailablePoints()).isEqualByComparingTo("30.00");
+        assertThat(reloaded.getLockedPoints()).isEqualByComparingTo("20.00");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                fail("Latch not released within 10s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import com.dumensel.payment.application.dto.EarnPointsRequest;
+import com.dumensel.payment.application.dto.SpendPointsRequest;
+import com.dumensel.payment.application.dto.UserPointsDto;
+import com.dumensel.payment.application.service.UserPointsNotFoundException;
+import com.dumensel.payment.application.service.UserPointsService;
+import com.dumensel.payment.domain.model.UserPoints;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for atomic points earn/spend (ledger append, per-user serialized debits)
+ * Flyway şeması (CHECK constraint'leri dahil), UserPointsService üzerinden gerçek transaction'larla
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserPointsService.class, JpaUserPointsRepository.class, UserPointsMapper.class,
+    CacheInvalidationPublisher.class, ReadYourWritesTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("UserPoints Atomic Update Integration Tests")
+class UserPointsAtomicUpdateIT {
+
+    private static final int CONCURRENT_REQUESTS = 1000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "20");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private UserPointsService userPointsService;
+
+    @Autowired
+    private JpaUserPointsRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("1000 concurrent spends on one user should never overspend or lose an update")
+    void shouldNotOverspendUnderConcurrentSpends() throws Exception {
+        // Given - 1000 harcama isteği, sadece 400'üne yetecek bakiye
+        userPointsService.earnPoints(earn("user-stress-spend", "1000.00"));
+        userPointsService.spendPoints(spend("user-stress-spend", "600.00"));
+
+        // When
+        List<Object> outcomes = runConcurrently(() -> userPointsService.spendPoints(spend("user-stress-spend", "1.00")));
+
+        // Then
+        long succeeded = outcomes.stream().filter(UserPointsDto.class::isInstance).count();
+        long rejected = outcomes.stream().filter(IllegalStateException.class::isInstance).count();
+        assertThat(succeeded).isEqualTo(400);
+        assertThat(rejected).isEqualTo(CONCURRENT_REQUESTS - 400);
+        assertThat(outcomes).allMatch(outcome -> outcome instanceof UserPointsDto || outcome instanceof IllegalStateException);
+
+        UserPoints finalPoints = repository.findByUserId("user-stress-spend").orElseThrow();
+        assertThat(finalPoints.getAvailablePoints()).isEqualByComparingTo("0.00");
+        assertThat(finalPoints.getTotalPoints()).isEqualByComparingTo("1000.00"); // Total never decreases
+
+        // Her başarılı harcama farklı bir bakiye görmüş olmalı (kayıp güncelleme yok)
+        assertThat(outcomes.stream().filter(UserPointsDto.class::isInstance)
+                .map(outcome -> ((UserPointsDto) outcome).getAvailablePoints().stripTrailingZeros())
+                .distinct()
+                .count())
+            .isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("1000 concurrent earns should create the record once and add every point")
+    void shouldAddEveryPointUnderConcurrentEarns() throws Exception {
+        // When - kayıt yokken; ilk kazanımlar ON CONFLICT üzerinden sıralanır
+        List<Object> outcomes = runConcurrently(() -> userPointsService.earnPoints(earn("user-stress-earn", "0.50")));
+
+        // Then
+        assertThat(outcomes).allMatch(UserPointsDto.class::isInstance);
+        UserPoints finalPoints = repository.findByUserId("user-stress-earn").orElseThrow();
+        assertThat(finalPoints.getTotalPoints()).isEqualByComparingTo("500.00");
+        assertThat(finalPoints.getAvailablePoints()).isEqualByComparingTo("500.00");
+        assertThat(finalPoints.getLockedPoints()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    @DisplayName("Should keep the domain rules of spendPoints")
+    void shouldApplyDomainRulesToAtomicSpend() {
+        // Given
+        userPointsService.earnPoints(earn("user-rules", "50.00"));
+
+        // When / Then
+        assertThatThrownBy(() -> userPointsService.spendPoints(spend("user-rules", "50.01")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Insufficient available points. Available: 50.00, Requested: 50.01");
+        assertThatThrownBy(() -> userPointsService.spendPoints(spend("user-rules", "-1.00")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Points must be positive");
+        assertThatThrownBy(() -> userPointsService.spendPoints(spend("user-missing", "1.00")))
+            .isInstanceOf(UserPointsNotFoundException.class);
+
+        UserPointsDto exact = userPointsService.spendPoints(spend("user-rules", "50.00"));
+        assertThat(exact.getAvailablePoints()).isEqualByComparingTo("0.00");
+        assertThat(exact.getTotalPoints()).isEqualByComparingTo("50.00");
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM user_points WHERE user_id = 'user-missing'", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Atomic spend should respect locked points")
+    void shouldNotSpendLockedPoints() {
+        // Given - 100 kazanılmış, 70'i kilitli
+        UserPoints userPoints = new UserPoints("user-locked");
+        userPoints.earnPoints(new BigDecimal("100.00"));
+        userPoints.lockPoints(new BigDecimal("70.00"));
+        repository.save(userPoints);
+
+        // When / Then
+        assertThat(repository.deductPoints("user-locked", new BigDecimal("31.00"))).isEmpty();
+        assertThat(repository.deductPoints("user-locked", new BigDecimal("30.00"))).get()
+            .satisfies(updated -> {
+                assertThat(updated.getAvailablePoints()).isEqualByComparingTo("0.00");
+                assertThat(updated.getLockedPoints()).isEqualByComparingTo("70.00");
+                assertThat(updated.getTotalPoints()).isEqualByComparingTo("100.00");
+            });
+    }
+
+    // Tüm istekler aynı anda başlar; her sonucun dönüş değeri veya fırlattığı exception
+    private static List<Object> runConcurrently(Supplier<?> call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return call.get();
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            start.countDown();
+        }
+        List<Object> outcomes = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            outcomes.add(future.get());
+        }
+        return outcomes;
+    }
+
+    private static EarnPointsRequest earn(String userId, String points) {
+        EarnPointsRequest request = new EarnPointsRequest();
+        request.setUserId(userId);
+        request.setPoints(new BigDecimal(points));
+        return request;
+    }
+
+    private static SpendPointsRequest spend(String userId, String points) {
+        SpendPointsRequest request = new SpendPointsRequest();
+        request.setUserId(userId);
+        request.setPoints(new BigDecimal(points));
+        return request;
+    }
+}
@@ -0,0 +1,327 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import com.dumensel.payment.domain.model.PointsEntryType;
+import com.dumensel.payment.domain.model.PointsLedgerEntry;
+import com.dumensel.payment.domain.model.UserPoints;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationListener;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration tests for UserPointsBalanceCache (write-through)
+ * Listener mock'tur (bağlantı durumu testten verilir): NOTIFY teslimi invalidate() çağrılarıyla taklit edilir
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaUserPointsRepository.class, UserPointsMapper.class, UserPointsBalanceCache.class,
+    CacheInvalidationPublisher.class, ReadYourWritesTracker.class, UserPointsBalanceCacheIT.MetricsConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("UserPoints Balance Cache Integration Tests")
+class UserPointsBalanceCacheIT {
+
+    private static final String BALANCE_SQL = """
+        SELECT total_points, available_points, locked_points, last_updated
+        FROM user_points_balances
+        WHERE user_id = ?
+        """;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private JpaUserPointsRepository repository;
+
+    @Autowired
+    private UserPointsBalanceCache cache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        when(listener.isConnected()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Writes should go through the cache so reads do not hit the database")
+    void shouldServeReadsFromWrittenBalance() {
+        // Given
+        repository.addPoints("cache-user-1", new BigDecimal("100.00"));
+        repository.deductPoints("cache-user-1", new BigDecimal("30.00"));
+        repository.record(new PointsLedgerEntry("cache-user-1", PointsEntryType.LOCK, new BigDecimal("20.00")));
+        double misses = requests("miss");
+
+        // When
+        UserPoints cached = repository.findByUserId("cache-user-1").orElseThrow();
+
+        // Then - view ile birebir aynı (lastUpdated dahil), DB'ye gidilmedi
+        assertMatchesDatabase(cached);
+        assertThat(cached.getAvailablePoints()).isEqualByComparingTo("50.00");
+        assertThat(cached.getLockedPoints()).isEqualByComparingTo("20.00");
+        assertThat(requests("miss")).isEqualTo(misses);
+        assertThat(repository.findLastUpdatedByUserId("cache-user-1")).contains(cached.getLastUpdated());
+    }
+
+    @Test
+    @DisplayName("The node's own notification should keep the entry, another node's write should evict it")
+    void shouldEvictOnlyOnRemoteWrites() {
+        // Given - kendi yazması + başka bir node'un ledger'a eklediği entry
+        repository.addPoints("cache-user-2", new BigDecimal("10.00"));
+        jdbcTemplate.update("""
+            INSERT INTO points_ledger (user_id, entry_type, points, created_at)
+            VALUES ('cache-user-2', 'EARN', 5, now())
+            """);
+
+        // When / Then - kendi NOTIFY'ı
+        cache.invalidate("cache-user-2");
+        assertThat(repository.findByUserId("cache-user-2").orElseThrow().getAvailablePoints())
+            .isEqualByComparingTo("10.00");
+
+        // When / Then - diğer node'un NOTIFY'ı
+        cache.invalidate("cache-user-2");
+        UserPoints reloaded = repository.findByUserId("cache-user-2").orElseThrow();
+        assertThat(reloaded.getAvailablePoints()).isEqualByComparingTo("15.00");
+        assertMatchesDatabase(reloaded);
+    }
+
+    @Test
+    @DisplayName("A rolled back write should not reach the cache, nor should its uncommitted balance")
+    void shouldIgnoreRolledBackWrites() {
+        // Given
+        repository.addPoints("cache-user-3", new BigDecimal("10.00"));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        transaction.executeWithoutResult(status -> {
+            repository.deductPoints("cache-user-3", new BigDecimal("4.00"));
+            assertThat(repository.findByUserId("cache-user-3").orElseThrow().getAvailablePoints())
+                .isEqualByComparingTo("6.00");
+            status.setRollbackOnly();
+        });
+
+        // Then
+        UserPoints cached = repository.findByUserId("cache-user-3").orElseThrow();
+        assertThat(cached.getAvailablePoints()).isEqualByComparingTo("10.00");
+        assertMatchesDatabase(cached);
+    }
+
+    @Test
+    @DisplayName("A bulk invalidation during a write should keep that write out of the cache")
+    void shouldNotCacheWriteOverlappingInvalidateAll() {
+        // Given
+        repository.addPoints("cache-user-4", new BigDecimal("10.00"));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When - örn. kampanya yüklemesi (publishAll) bu transaction sürerken commit oldu
+        transaction.executeWithoutResult(status -> {
+            repository.addPoints("cache-user-4", new BigDecimal("1.00"));
+            cache.invalidateAll();
+        });
+        double misses = requests("miss");
+
+        // Then
+        UserPoints loaded = repository.findByUserId("cache-user-4").orElseThrow();
+        assertThat(requests("miss")).isEqualTo(misses + 1);
+        assertThat(loaded.getAvailablePoints()).isEqualByComparingTo("11.00");
+    }
+
+    @Test
+    @DisplayName("Group committed writes should update the cache for every user of the batch")
+    void shouldWriteThroughGroupCommit() {
+        // Given
+        repository.addPoints("cache-group-1", new BigDecimal("10.00"));
+        repository.addPoints("cache-group-2", new BigDecimal("10.00"));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        transaction.executeWithoutResult(status -> {
+            Map<String, UserPoints> balances = repository.lockBalances(List.of("cache-group-1", "cache-group-2"));
+            assertThat(balances).hasSize(2);
+            repository.recordAll(List.of(
+                new PointsLedgerEntry("cache-group-1", PointsEntryType.SPEND, new BigDecimal("3.00")),
+                new PointsLedgerEntry("cache-group-2", PointsEntryType.EARN, new BigDecimal("2.00")),
+                new PointsLedgerEntry("cache-group-3", PointsEntryType.EARN, new BigDecimal("1.00"))));
+        });
+        double misses = requests("miss");
+
+        // Then
+        assertMatchesDatabase(repository.findByUserId("cache-group-1").orElseThrow());
+        assertMatchesDatabase(repository.findByUserId("cache-group-2").orElseThrow());
+        assertMatchesDatabase(repository.findByUserId("cache-group-3").orElseThrow());
+        assertThat(requests("miss")).isEqualTo(misses);
+    }
+
+    @Test
+    @DisplayName("Reads should bypass the cache while the invalidation listener is disconnected")
+    void shouldBypassCacheWhileListenerIsDisconnected() {
+        // Given - bakiye cache'te; bağlantı koptu ve diğer node'un yazmasının NOTIFY'ı kaçırıldı
+        repository.addPoints("cache-user-5", new BigDecimal("10.00"));
+        when(listener.isConnected()).thenReturn(false);
+        jdbcTemplate.update("""
+            INSERT INTO points_ledger (user_id, entry_type, points, created_at)
+            VALUES ('cache-user-5', 'EARN', 5, now())
+            """);
+        double bypasses = requests("bypass");
+
+        // When
+        UserPoints loaded = repository.findByUserId("cache-user-5").orElseThrow();
+
+        // Then
+        assertThat(loaded.getAvailablePoints()).isEqualByComparingTo("15.00");
+        assertThat(requests("bypass")).isEqualTo(bypasses + 1);
+        assertMatchesDatabase(loaded);
+    }
+
+    @Test
+    @DisplayName("A remote invalidation should not wait for a long write beyond the lock timeout")
+    void shouldClearCacheWhenInvalidationTimesOut() throws Exception {
+        // Given - cache-user-6 cache'te, aynı stripe'ı tutan bir yazma commit'e ulaşmıyor
+        repository.addPoints("cache-user-6", new BigDecimal("10.00"));
+        repository.findByUserId("cache-user-6");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> writer = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                repository.addPoints("cache-user-6", new BigDecimal("1.00"));
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            locked.await();
+
+            // When - yazma sürerken döner (lock-timeout-ms sonunda cache temizlenir)
+            cache.invalidate("cache-user-6");
+
+            // Then
+            assertThat(cache.getIfPresent("cache-user-6")).isEmpty();
+            release.countDown();
+            writer.get();
+            assertMatchesDatabase(repository.findByUserId("cache-user-6").orElseThrow());
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent earns and spends for one user should leave the cache equal to the database")
+    void shouldStayConsistentUnderConcurrentWrites() throws Exception {
+        // Given
+        repository.addPoints("cache-user-hot", new BigDecimal("100.00"));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When - 500 kazanım ve 500 harcama aynı anda
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1000; i++) {
+                boolean earn = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    if (earn) {
+                        repository.addPoints("cache-user-hot", new BigDecimal("1.00"));
+                    } else {
+                        repository.deductPoints("cache-user-hot", new BigDecimal("1.00"));
+                    }
+                    repository.findByUserId("cache-user-hot");
+                    return null;
+                }));
+            }
+            start.countDown();
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        // Then
+        assertMatchesDatabase(repository.findByUserId("cache-user-hot").orElseThrow());
+    }
+
+    private void assertMatchesDatabase(UserPoints cached) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(BALANCE_SQL, cached.getUserId());
+        assertThat(cached.getTotalPoints()).isEqualByComparingTo((BigDecimal) row.get("total_points"));
+        assertThat(cached.getAvailablePoints()).isEqualByComparingTo((BigDecimal) row.get("available_points"));
+        assertThat(cached.getLockedPoints()).isEqualByComparingTo((BigDecimal) row.get("locked_points"));
+        assertThat(cached.getLastUpdated())
+            .isEqualTo(((Timestamp) row.get("last_updated")).toLocalDateTime());
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("payment.cache.requests")
+            .tag("cache", "user-points")
+            .tag("result", result)
+            .counter()
+            .count();
+    }
+
+    @TestConfiguration
+    static class MetricsConfiguration {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        CacheInvalidationListener cacheInvalidationListener() {
+            return mock(CacheInvalidationListener.class);
+        }
+    }
+}
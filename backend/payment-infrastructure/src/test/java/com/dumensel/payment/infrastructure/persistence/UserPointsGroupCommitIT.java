@@ -0,0 +1,201 @@
+package com.dumensel.payment.infrastructure.persistence;
+
+import com.dumensel.payment.application.dto.EarnPointsRequest;
+import com.dumensel.payment.application.dto.SpendPointsRequest;
+import com.dumensel.payment.application.dto.UserPointsDto;
+import com.dumensel.payment.application.service.PointsGroupCommitter;
+import com.dumensel.payment.application.service.UserPointsNotFoundException;
+import com.dumensel.payment.application.service.UserPointsService;
+import com.dumensel.payment.domain.model.UserPoints;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for group-committed points writes (PointsGroupCommitter)
+ * Eşzamanlı istekler birkaç transaction'da toplanır; sonuçlar tek tek commit ile aynı olmalı
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaUserPointsRepository.class, UserPointsMapper.class, CacheInvalidationPublisher.class,
+    ReadYourWritesTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("UserPoints Group Commit Integration Tests")
+class UserPointsGroupCommitIT {
+
+    private static final int CONCURRENT_REQUESTS = 1000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private JpaUserPointsRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PointsGroupCommitter committer;
+    private UserPointsService userPointsService;
+
+    @BeforeEach
+    void setUp() {
+        committer = new PointsGroupCommitter(repository, transactionManager, meterRegistry, 2, 256, 10_000);
+        userPointsService = new UserPointsService(repository, Optional.of(committer));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        committer.shutdown();
+    }
+
+    @Test
+    @DisplayName("1000 concurrent spends should be grouped into few commits without overspending")
+    void shouldGroupConcurrentSpends() throws Exception {
+        // Given - sadece 400 harcamaya yetecek bakiye
+        userPointsService.earnPoints(earn("user-group-spend", "400.00"));
+
+        // When
+        List<Object> outcomes = runConcurrently(() -> userPointsService.spendPoints(spend("user-group-spend", "1.00")));
+
+        // Then
+        assertThat(outcomes.stream().filter(UserPointsDto.class::isInstance).count()).isEqualTo(400);
+        assertThat(outcomes).allMatch(outcome -> outcome instanceof UserPointsDto || outcome instanceof IllegalStateException);
+        assertThat(outcomes.stream().filter(UserPointsDto.class::isInstance)
+                .map(outcome -> ((UserPointsDto) outcome).getAvailablePoints().stripTrailingZeros())
+                .distinct()
+                .count())
+            .isEqualTo(400);
+        assertThat(repository.findByUserId("user-group-spend").orElseThrow().getAvailablePoints())
+            .isEqualByComparingTo("0.00");
+
+        // 400 SPEND entry'si çok daha az transaction'da yazıldı
+        Integer transactions = jdbcTemplate.queryForObject(
+            "SELECT count(DISTINCT xact_id) FROM points_ledger WHERE user_id = 'user-group-spend' AND entry_type = 'SPEND'",
+            Integer.class);
+        assertThat(transactions).isLessThan(400);
+        assertThat(meterRegistry.get("payment.points.group-commit.batch.size").summary().max()).isGreaterThan(1.0);
+    }
+
+    @Test
+    @DisplayName("Concurrent earns for new users should create each record once and add every point")
+    void shouldGroupConcurrentEarns() throws Exception {
+        // When - 1000 kazanım, 10 yeni kullanıcıya dağıtılmış
+        int[] sequence = {0};
+        List<Object> outcomes = runConcurrently(() -> {
+            int user;
+            synchronized (sequence) {
+                user = sequence[0]++ % 10;
+            }
+            return userPointsService.earnPoints(earn("user-group-earn-" + user, "0.50"));
+        });
+
+        // Then
+        assertThat(outcomes).allMatch(UserPointsDto.class::isInstance);
+        for (int user = 0; user < 10; user++) {
+            UserPoints points = repository.findByUserId("user-group-earn-" + user).orElseThrow();
+            assertThat(points.getTotalPoints()).isEqualByComparingTo("50.00");
+            assertThat(points.getAvailablePoints()).isEqualByComparingTo("50.00");
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the per-operation domain rules")
+    void shouldKeepDomainRules() {
+        // Given
+        userPointsService.earnPoints(earn("user-group-rules", "50.00"));
+
+        // When / Then
+        assertThatThrownBy(() -> userPointsService.spendPoints(spend("user-group-rules", "50.01")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Insufficient available points. Available: 50.00, Requested: 50.01");
+        assertThatThrownBy(() -> userPointsService.spendPoints(spend("user-group-missing", "1.00")))
+            .isInstanceOf(UserPointsNotFoundException.class);
+        assertThat(userPointsService.spendPoints(spend("user-group-rules", "50.00")).getAvailablePoints())
+            .isEqualByComparingTo("0.00");
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM user_points WHERE user_id = 'user-group-missing'", Integer.class)).isZero();
+    }
+
+    // Tüm istekler aynı anda başlar; her sonucun dönüş değeri veya fırlattığı exception
+    private static List<Object> runConcurrently(Supplier<?> call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return call.get();
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            start.countDown();
+        }
+        List<Object> outcomes = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            outcomes.add(future.get());
+        }
+        return outcomes;
+    }
+
+    private static EarnPointsRequest earn(String userId, String points) {
+        EarnPointsRequest request = new EarnPointsRequest();
+        request.setUserId(userId);
+        request.setPoints(new BigDecimal(points));
+        return request;
+    }
+
+    private static SpendPointsRequest spend(String userId, String points) {
+        SpendPointsRequest request = new SpendPointsRequest();
+        request.setUserId(userId);
+        request.setPoints(new BigDecimal(points));
+        return request;
+    }
+}
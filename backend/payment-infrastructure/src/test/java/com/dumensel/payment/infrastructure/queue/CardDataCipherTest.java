@@ -0,0 +1,66 @@
+package com.dumensel.payment.infrastructure.queue;
+
+import com.dumensel.payment.domain.model.CardInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for CardDataCipher
+ */
+@DisplayName("CardDataCipher Tests")
+class CardDataCipherTest {
+
+    private static final String KEY = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final CardDataCipher cipher = new CardDataCipher(KEY);
+    private final CardInfo cardInfo = new CardInfo("Test User", "5528790000000008", "12", "2030", "123");
+
+    @Test
+    @DisplayName("Should round-trip card data for the same payment")
+    void shouldRoundTripCardData() {
+        // When
+        byte[] payload = cipher.encrypt("payment-1", cardInfo);
+        CardInfo decrypted = cipher.decrypt("payment-1", payload);
+
+        // Then
+        assertThat(decrypted.getCardNumber()).isEqualTo("5528790000000008");
+        assertThat(decrypted.getCvv()).isEqualTo("123");
+        assertThat(decrypted.getExpireYear()).isEqualTo("2030");
+    }
+
+    @Test
+    @DisplayName("Should not store card number in plain text")
+    void shouldNotStorePlainText() {
+        // When
+        byte[] payload = cipher.encrypt("payment-1", cardInfo);
+
+        // Then
+        assertThat(new String(payload, StandardCharsets.ISO_8859_1)).doesNotContain("5528790000000008");
+    }
+
+    @Test
+    @DisplayName("Should reject payload moved to another payment")
+    void shouldRejectPayloadForAnotherPayment() {
+        // Given
+        byte[] payload = cipher.encrypt("payment-1", cardInfo);
+
+        // When & Then
+        assertThatThrownBy(() -> cipher.decrypt("payment-2", payload))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageNotContaining("5528790000000008");
+    }
+
+    @Test
+    @DisplayName("Should reject keys that are not 256 bits")
+    void shouldRejectShortKey() {
+        String shortKey = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThatThrownBy(() -> new CardDataCipher(shortKey))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,289 @@
+package com.dumensel.payment.infrastructure.queue;
+
+import com.dumensel.payment.application.cache.FinalPaymentCache;
+import com.dumensel.payment.application.dto.CardInfoDto;
+import com.dumensel.payment.application.dto.CreatePaymentRequest;
+import com.dumensel.payment.application.gateway.GatewayFailoverPolicy;
+import com.dumensel.payment.application.gateway.GatewayResilienceRegistry;
+import com.dumensel.payment.application.gateway.GatewayWorkerPool;
+import com.dumensel.payment.application.gateway.PaymentGateway;
+import com.dumensel.payment.application.gateway.PaymentGatewayFactory;
+import com.dumensel.payment.application.gateway.ProviderRouter;
+import com.dumensel.payment.application.gateway.StatusCheckHedger;
+import com.dumensel.payment.application.service.PaymentService;
+import com.dumensel.payment.domain.model.Payment;
+import com.dumensel.payment.domain.model.PaymentStatus;
+import com.dumensel.payment.infrastructure.cache.CacheInvalidationPublisher;
+import com.dumensel.payment.infrastructure.persistence.JpaPaymentRepository;
+import com.dumensel.payment.infrastructure.persistence.PaymentMapper;
+import com.dumensel.payment.infrastructure.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for JdbcPaymentJobQueue and PaymentJobWorker
+ * Uses TestContainers for real PostgreSQL database (Flyway schema)
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaPaymentRepository.class, PaymentMapper.class, CacheInvalidationPublisher.class,
+    ReadYourWritesTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Payment Job Queue Integration Tests")
+class PaymentJobQueueIT {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+        .withDatabaseName("test")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private JpaPaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final CountingCraftgateGateway gateway = new CountingCraftgateGateway();
+    private final List<PaymentJobWorker> workers = new ArrayList<>();
+    private final CardDataCipher cipher = new CardDataCipher(Base64.getEncoder().encodeToString(new byte[32]));
+    private GatewayWorkerPool workerPool;
+    private JdbcPaymentJobQueue jobQueue;
+    private PaymentService paymentService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM payment_jobs");
+        jobQueue = new JdbcPaymentJobQueue(jdbcTemplate, cipher, 1);
+        workerPool = new GatewayWorkerPool(new MockEnvironment(), new SimpleMeterRegistry(), 1, 1);
+        GatewayResilienceRegistry resilience = new GatewayResilienceRegistry(new MockEnvironment(), new SimpleMeterRegistry());
+        PaymentGatewayFactory gatewayFactory = new PaymentGatewayFactory(List.of(gateway), resilience,
+            new StatusCheckHedger(new MockEnvironment(), new SimpleMeterRegistry()));
+        paymentService = new PaymentService(paymentRepository, gatewayFactory,
+            new ProviderRouter(new MockEnvironment(), new SimpleMeterRegistry(), gatewayFactory),
+            new GatewayFailoverPolicy(new MockEnvironment(), new SimpleMeterRegistry(), gatewayFactory),
+            transactionManager, Optional.of(new FinalPaymentCache(new MockEnvironment(), new SimpleMeterRegistry(), () -> true)),
+            workerPool, Optional.of(jobQueue));
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.forEach(PaymentJobWorker::stop);
+        workerPool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should execute every payment exactly once across competing nodes")
+    void shouldExecuteEveryPaymentExactlyOnceAcrossNodes() throws InterruptedException {
+        // Given
+        int paymentCount = 60;
+        List<String> paymentIds = new ArrayList<>();
+        for (int i = 0; i < paymentCount; i++) {
+            paymentIds.add(paymentService.submitPayment(createRequest("conv-" + UUID.randomUUID())).getId());
+        }
+
+        // When - 3 node aynı kuyruğu paylaşır
+        for (int node = 1; node <= 3; node++) {
+            startWorker("node-" + node, new SimpleMeterRegistry());
+        }
+        awaitCompletion(paymentIds);
+
+        // Then
+        assertThat(gateway.calls).hasSize(paymentCount);
+        assertThat(gateway.calls.values()).allMatch(count -> count.get() == 1);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM payment_jobs WHERE status = 'DONE' AND card_payload IS NULL", Integer.class))
+            .isEqualTo(paymentCount);
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT locked_by FROM payment_jobs WHERE locked_by IS NOT NULL"))
+            .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should hand over unstarted job when lease expires")
+    void shouldReclaimUnstartedJobAfterLeaseExpiry() throws InterruptedException {
+        // Given - node-1 claim eder ve çöker (started_at set edilmez)
+        String paymentId = paymentService.submitPayment(createRequest("conv-" + UUID.randomUUID())).getId();
+        assertThat(jobQueue.claim("node-1", 10)).hasSize(1);
+        assertThat(jobQueue.claim("node-2", 10)).isEmpty();
+
+        // When
+        Thread.sleep(1_500);
+        List<PaymentJob> reclaimed = jobQueue.claim("node-2", 10);
+
+        // Then
+        assertThat(reclaimed).extracting(PaymentJob::paymentId).containsExactly(paymentId);
+        assertThat(jobQueue.markStarted(reclaimed.get(0).id(), "node-1")).isFalse();
+        assertThat(jobQueue.markStarted(reclaimed.get(0).id(), "node-2")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should mark started job as STALLED instead of re-running it")
+    void shouldMarkStartedJobAsStalled() throws InterruptedException {
+        // Given - gateway çağrısı başladı ama node çöktü
+        paymentService.submitPayment(createRequest("conv-" + UUID.randomUUID()));
+        PaymentJob job = jobQueue.claim("node-1", 10).get(0);
+        assertThat(jobQueue.markStarted(job.id(), "node-1")).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT card_payload FROM payment_jobs WHERE id = ?", byte[].class, job.id())).isNull();
+
+        // When
+        Thread.sleep(1_500);
+        int stalled = jobQueue.markStalled();
+
+        // Then
+        assertThat(stalled).isEqualTo(1);
+        assertThat(jobQueue.claim("node-2", 10)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT card_payload FROM payment_jobs WHERE id = ?", byte[].class, job.id())).isNull();
+    }
+
+    @Test
+    @DisplayName("Should mark job with undecryptable card data as STALLED without blocking the batch")
+    void shouldStallUndecryptableJobWithoutBlockingOthers() throws InterruptedException {
+        // Given - aynı batch'te bozuk payload'lı bir iş ve sağlam bir iş
+        String corruptedId = paymentService.submitPayment(createRequest("conv-" + UUID.randomUUID())).getId();
+        String healthyId = paymentService.submitPayment(createRequest("conv-" + UUID.randomUUID())).getId();
+        jdbcTemplate.update("UPDATE payment_jobs SET card_payload = ? WHERE payment_id = CAST(? AS uuid)",
+            new byte[32], corruptedId);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        // When
+        startWorker("node-1", meterRegistry);
+        awaitCompletion(List.of(healthyId));
+        awaitJobStatus(corruptedId, "STALLED");
+
+        // Then
+        assertThat(gateway.calls).containsOnlyKeys(healthyId);
+        assertThat(paymentRepository.findById(corruptedId).orElseThrow().getStatus()).isEqualTo(PaymentStatus.PENDING);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT card_payload FROM payment_jobs WHERE payment_id = CAST(? AS uuid)", byte[].class, corruptedId))
+            .isNull();
+        assertThat(meterRegistry.get("payment.jobs.skipped").tag("reason", "undecryptable").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should close the job when an unexpected error already failed the payment")
+    void shouldCloseJobOfFailedPayment() throws InterruptedException {
+        // Given - gateway beklenmeyen bir hata fırlatır; PaymentService ödemeyi FAILED kaydeder ve hatayı yeniden fırlatır
+        String paymentId = paymentService.submitPayment(createRequest("conv-" + UUID.randomUUID())).getId();
+        gateway.failing.add(paymentId);
+
+        // When
+        startWorker("node-1", new SimpleMeterRegistry());
+        awaitJobStatus(paymentId, "DONE");
+
+        // Then - STALLED'a düşmez, kart bilgisi tabloda kalmaz
+        assertThat(paymentRepository.findById(paymentId).orElseThrow().getStatus()).isEqualTo(PaymentStatus.FAILED);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT card_payload FROM payment_jobs WHERE payment_id = CAST(? AS uuid)", byte[].class, paymentId))
+            .isNull();
+        assertThat(jobQueue.markStalled()).isZero();
+    }
+
+    private void startWorker(String nodeId, SimpleMeterRegistry meterRegistry) {
+        PaymentJobWorker worker = new PaymentJobWorker(jobQueue, cipher, paymentRepository, paymentService,
+            meterRegistry, nodeId, 4, 4, 20, false);
+        workers.add(worker);
+        worker.start();
+    }
+
+    private void awaitJobStatus(String paymentId, String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            String current = jdbcTemplate.queryForObject(
+                "SELECT status FROM payment_jobs WHERE payment_id = CAST(? AS uuid)", String.class, paymentId);
+            if (status.equals(current)) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Payment job did not reach " + status + " in time");
+    }
+
+    private void awaitCompletion(List<String> paymentIds) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            boolean allDone = paymentIds.stream()
+                .map(id -> paymentRepository.findById(id).orElseThrow())
+                .allMatch(payment -> payment.getStatus() != PaymentStatus.PENDING);
+            if (allDone) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Payments were not processed in time");
+    }
+
+    private static CreatePaymentRequest createRequest(String conversationId) {
+        CardInfoDto cardInfo = new CardInfoDto("John Doe", "5528790000000008", "12", "2030", "123");
+        return new CreatePaymentRequest(conversationId, new BigDecimal("100.00"),
+            "TRY", "buyer-1", "CRAFTGATE", cardInfo);
+    }
+
+    /**
+     * Provider tespiti sınıf adından yapıldığı için isim "Craftgate" içerir
+     */
+    static class CountingCraftgateGateway implements PaymentGateway {
+
+        final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        final Set<String> failing = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String processPayment(Payment payment) {
+            assertThat(payment.getPaymentMethod().getCardInfo()).isNotNull();
+            calls.computeIfAbsent(payment.getId(), id -> new AtomicInteger()).incrementAndGet();
+            if (failing.contains(payment.getId())) {
+                throw new IllegalStateException("unexpected gateway response");
+            }
+            return "ext-" + payment.getId();
+        }
+
+        @Override
+        public String checkPaymentStatus(String externalPaymentId) {
+            return "SUCCESS";
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.dumensel.payment.interfaces.rest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Strong ETag helper (conditional GET)
+ * ETag kaydın son güncelleme zamanından türetilir; Postgres timestamp hassasiyeti mikro saniye
+ * olduğundan yeni kaydedilmiş (nano) ve DB'den okunmuş değer aynı ETag'i üretir.
+ */
+final class ETags {
+
+    /**
+     * Henüz kaydı olmayan kaynağın sabit ETag'i (örn. puan kaydı olmayan kullanıcı)
+     */
+    static final String ABSENT = "\"0\"";
+
+    private ETags() {
+    }
+
+    /**
+     * "hex(epoch mikro saniye)" - version yoksa null
+     */
+    static String of(LocalDateTime version) {
+        if (version == null) {
+            return null;
+        }
+        LocalDateTime micros = version.truncatedTo(ChronoUnit.MICROS);
+        long epochMicros = ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), micros);
+        return "\"" + Long.toHexString(epochMicros) + "\"";
+    }
+
+    /**
+     * If-None-Match karşılaştırması (RFC 9110: weak comparison, liste ve "*" desteklenir)
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
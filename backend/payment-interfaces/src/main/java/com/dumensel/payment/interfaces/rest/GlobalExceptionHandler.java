@@ -2,6 +2,7 @@ package com.dumensel.payment.interfaces.rest;
 
 import com.dumensel.payment.application.service.PaymentGatewayException;
 import com.dumensel.payment.application.service.PaymentNotFoundException;
+import com.dumensel.payment.application.service.PaymentQueueFullException;
 import com.dumensel.payment.application.service.UserPointsNotFoundException;
 import com.dumensel.payment.application.service.InsufficientPointsException;
 import org.slf4j.Logger;
@@ -84,6 +85,25 @@ public class GlobalExceptionHandler {
         return problemDetail;
     }
 
+    /**
+     * Handle full async payment queue
+     */
+    @ExceptionHandler(PaymentQueueFullException.class)
+    public ProblemDetail handlePaymentQueueFullException(PaymentQueueFullException ex) {
+        logger.warn("Payment queue full: {}", ex.getMessage());
+        
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+            HttpStatus.SERVICE_UNAVAILABLE,
+            ex.getMessage()
+        );
+        problemDetail.setTitle("Payment Queue Full");
+        problemDetail.setProperty("errorCode", "PAYMENT_QUEUE_FULL");
+        problemDetail.setProperty("provider", ex.getProvider());
+        problemDetail.setProperty("timestamp", Instant.now());
+        
+        return problemDetail;
+    }
+
     /**
      * Handle user points not found
      */
@@ -1,15 +1,27 @@
 package com.dumensel.payment.interfaces.rest;
 
 import com.dumensel.payment.application.dto.CreatePaymentRequest;
+import com.dumensel.payment.application.dto.PaymentHistoryPage;
 import com.dumensel.payment.application.dto.PaymentResponse;
+import com.dumensel.payment.application.idempotency.IdempotencyService;
+import com.dumensel.payment.application.idempotency.StoredResponse;
 import com.dumensel.payment.application.service.PaymentService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Optional;
+import java.util.function.Supplier;
+
 /**
  * Payment REST Controller
  * Interface layer - API endpoints
@@ -20,18 +32,27 @@ public class PaymentController {
     
     private static final Logger logger = LoggerFactory.getLogger(PaymentController.class);
     
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService,
+                             IdempotencyService idempotencyService,
+                             ObjectMapper objectMapper) {
         this.paymentService = paymentService;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Create a new payment
-     * İdempotency-Key header ile idempotency sağlanır
+     * İdempotency-Key header ile idempotency sağlanır: aynı key ve aynı içerikle tekrar gelen istek
+     * ilk cevabın byte'larını alır, PaymentService'e gidilmez
      */
     @PostMapping
-    public ResponseEntity<PaymentResponse> createPayment(
+    public ResponseEntity<?> createPayment(
             @Valid @RequestBody CreatePaymentRequest request,
             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         
@@ -45,23 +66,134 @@ public class PaymentController {
         logger.info("Creating payment. ConversationId: {}, BuyerId: {}", 
             request.getConversationId(), request.getBuyerId());
         
-        PaymentResponse response = paymentService.createPayment(request);
+        // PENDING: eşzamanlı tekrar henüz sonuçlanmamış ödemeyi döndü, sonraki retry güncel sonucu almalı
+        return idempotent(idempotencyKey, "POST /api/v1/payments", request, false, () -> {
+            PaymentResponse response = paymentService.createPayment(request);
+            
+            HttpStatus status = response.getStatus().equals("SUCCESS") 
+                ? HttpStatus.CREATED 
+                : HttpStatus.BAD_REQUEST;
+            
+            return ResponseEntity.status(status).body(response);
+        });
+    }
+
+    /**
+     * Create a new payment asynchronously
+     * PENDING ödeme kaydedilir ve 202 Accepted hemen döner; gateway çağrısı worker havuzunda yapılır.
+     * Sonuç GET /api/v1/payments/{paymentId} veya /by-conversation/{conversationId} ile sorgulanır.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<?> submitPayment(
+            @Valid @RequestBody CreatePaymentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         
-        HttpStatus status = response.getStatus().equals("SUCCESS") 
-            ? HttpStatus.CREATED 
-            : HttpStatus.BAD_REQUEST;
+        // İdempotency-Key kontrolü
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            logger.warn("Async payment request without Idempotency-Key. ConversationId: {}", 
+                request.getConversationId());
+        }
+        
+        // CRITICAL: Hassas bilgileri loglama!
+        logger.info("Submitting async payment. ConversationId: {}, BuyerId: {}", 
+            request.getConversationId(), request.getBuyerId());
         
-        return ResponseEntity.status(status).body(response);
+        return idempotent(idempotencyKey, "POST /api/v1/payments/async", request, true, () -> {
+            PaymentResponse response = paymentService.submitPayment(request);
+            
+            // İdempotent tekrar ve ödeme zaten sonuçlanmışsa 200, aksi halde 202
+            HttpStatus status = response.getStatus().equals("PENDING") 
+                ? HttpStatus.ACCEPTED 
+                : HttpStatus.OK;
+            
+            return ResponseEntity.status(status)
+                .location(URI.create("/api/v1/payments/" + response.getId()))
+                .body(response);
+        });
+    }
+
+    /**
+     * Idempotency-Key varsa kaydedilmiş cevabı aynen dön, yoksa çağrıyı yap ve cevabı kaydet
+     * Hata cevapları (exception) kaydedilmez; client aynı key ile tekrar deneyebilir
+     *
+     * @param storePending false ise PENDING cevaplar kaydedilmez
+     */
+    private ResponseEntity<?> idempotent(String idempotencyKey, String operation, CreatePaymentRequest request,
+                                         boolean storePending, Supplier<ResponseEntity<PaymentResponse>> call) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || !idempotencyService.isEnabled()) {
+            return call.get();
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                "Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        
+        String fingerprint = IdempotencyService.fingerprint(operation, request);
+        Optional<StoredResponse> stored = idempotencyService.find(idempotencyKey, fingerprint);
+        if (stored.isPresent()) {
+            logger.info("Replaying stored response. ConversationId: {}", request.getConversationId());
+            return replay(stored.get());
+        }
+        
+        ResponseEntity<PaymentResponse> response = call.get();
+        PaymentResponse body = response.getBody();
+        if (body == null || (!storePending && "PENDING".equals(body.getStatus()))) {
+            return response;
+        }
+        
+        URI location = response.getHeaders().getLocation();
+        StoredResponse remembered = idempotencyService.remember(idempotencyKey, fingerprint,
+            response.getStatusCode().value(), location == null ? null : location.toString(), serialize(body));
+        return replay(remembered);
+    }
+
+    private ResponseEntity<byte[]> replay(StoredResponse stored) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.httpStatus())
+            .contentType(MediaType.APPLICATION_JSON);
+        if (stored.location() != null) {
+            builder.location(URI.create(stored.location()));
+        }
+        return builder.body(stored.body());
+    }
+
+    private byte[] serialize(PaymentResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Payment response could not be serialized", e);
+        }
     }
 
     /**
      * Get payment by ID
+     * If-None-Match verilirse önce sadece versiyon (updatedAt) kontrol edilir; değişmemişse 304 döner
      */
     @GetMapping("/{paymentId}")
-    public ResponseEntity<PaymentResponse> getPayment(@PathVariable String paymentId) {
+    public ResponseEntity<PaymentResponse> getPayment(
+            @PathVariable String paymentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Retrieving payment: {}", paymentId);
+        if (ifNoneMatch != null) {
+            String currentETag = ETags.of(paymentService.getPaymentVersion(paymentId).orElse(null));
+            if (ETags.matches(ifNoneMatch, currentETag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).build();
+            }
+        }
         PaymentResponse response = paymentService.getPayment(paymentId);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(ETags.of(response.getUpdatedAt())).body(response);
+    }
+
+    /**
+     * Buyer payment history, newest first
+     * Keyset pagination: bir sonraki sayfa için cevaptaki nextCursor "after" olarak gönderilir
+     */
+    @GetMapping
+    public ResponseEntity<PaymentHistoryPage> getPaymentHistory(
+            @RequestParam String buyerId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        logger.info("Retrieving payment history for buyer: {}", buyerId);
+        return ResponseEntity.ok(paymentService.getPaymentHistory(buyerId, after, limit));
     }
 
     /**
@@ -0,0 +1,62 @@
+package com.dumensel.payment.interfaces.rest;
+
+import com.dumensel.payment.application.export.PaymentExportFilter;
+import com.dumensel.payment.application.export.PaymentExportFormat;
+import com.dumensel.payment.application.export.PaymentExportService;
+import com.dumensel.payment.domain.model.PaymentProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payment Export REST Controller
+ * Finans dökümü: satırlar DB cursor'ından doğrudan response'a akar (NDJSON / CSV)
+ */
+@RestController
+@RequestMapping("/api/v1/payments/export")
+public class PaymentExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentExportController.class);
+
+    private final PaymentExportService exportService;
+
+    public PaymentExportController(PaymentExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Export payments created in [from, to), optionally for one provider
+     * Örn: GET /api/v1/payments/export?from=2024-01-15T00:00:00&to=2024-01-16T00:00:00&format=csv
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String provider,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        // Parametre hataları stream başlamadan 400 olarak dönsün
+        PaymentExportFormat exportFormat = PaymentExportFormat.from(format);
+        PaymentExportFilter filter = new PaymentExportFilter(from, to,
+            provider == null || provider.isBlank() ? null : PaymentProvider.valueOf(provider.toUpperCase()));
+        logger.info("Payment export requested. Format: {}, from: {}, to: {}", exportFormat, from, to);
+
+        String filename = "payments-" + from.toLocalDate() + "." + exportFormat.getFileExtension();
+        StreamingResponseBody body = out -> exportService.export(filter, exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
+    }
+}
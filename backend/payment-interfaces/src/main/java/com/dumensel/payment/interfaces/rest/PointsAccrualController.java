@@ -0,0 +1,77 @@
+package com.dumensel.payment.interfaces.rest;
+
+import com.dumensel.payment.application.accrual.PointsAccrualFormat;
+import com.dumensel.payment.application.accrual.PointsAccrualService;
+import com.dumensel.payment.application.accrual.PointsAccrualState;
+import com.dumensel.payment.application.accrual.PointsAccrualStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Points Accrual REST Controller
+ * Kampanya puan yüklemeleri: body (NDJSON / CSV) DB'ye doğrudan akar, uygulama arka planda chunk'lar halinde
+ */
+@RestController
+@RequestMapping("/api/v1/user-points/accruals")
+public class PointsAccrualController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PointsAccrualController.class);
+
+    private final PointsAccrualService accrualService;
+
+    public PointsAccrualController(PointsAccrualService accrualService) {
+        this.accrualService = accrualService;
+    }
+
+    /**
+     * Upload a campaign file; aynı campaignId ile tekrar PUT idempotent (FAILED kampanya yeniden yüklenir)
+     * Örn: PUT /api/v1/user-points/accruals/summer-2024?format=csv (body: userId,points satırları)
+     */
+    @PutMapping("/{campaignId}")
+    public ResponseEntity<PointsAccrualStatus> upload(
+            @PathVariable String campaignId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            InputStream body) throws IOException {
+        PointsAccrualFormat accrualFormat = PointsAccrualFormat.from(format);
+        logger.info("Points accrual upload requested. Campaign: {}, format: {}", campaignId, accrualFormat);
+
+        PointsAccrualStatus status = accrualService.submit(campaignId, accrualFormat, body);
+        return ResponseEntity.status(statusCode(status)).body(status);
+    }
+
+    /**
+     * Campaign progress (appliedRows / totalRows)
+     */
+    @GetMapping("/{campaignId}")
+    public ResponseEntity<PointsAccrualStatus> getStatus(@PathVariable String campaignId) {
+        return ResponseEntity.of(accrualService.getStatus(campaignId));
+    }
+
+    /**
+     * Resume applying a stalled or failed campaign from its last applied row
+     */
+    @PostMapping("/{campaignId}/resume")
+    public ResponseEntity<PointsAccrualStatus> resume(@PathVariable String campaignId) {
+        logger.info("Points accrual resume requested. Campaign: {}", campaignId);
+
+        return accrualService.resume(campaignId)
+            .map(status -> ResponseEntity.status(statusCode(status)).body(status))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static HttpStatus statusCode(PointsAccrualStatus status) {
+        return status.state() == PointsAccrualState.COMPLETED ? HttpStatus.OK : HttpStatus.ACCEPTED;
+    }
+}
@@ -5,6 +5,7 @@ import com.dumensel.payment.application.service.UserPointsService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -30,12 +31,24 @@ public class UserPointsController {
      * Kullanıcı puan sorgulama endpoint
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<UserPointsDto> getUserPoints(@PathVariable String userId) {
+    public ResponseEntity<UserPointsDto> getUserPoints(
+            @PathVariable String userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Querying points for user: {}", userId);
         
+        // Conditional GET: sadece lastUpdated okunur, değişmemişse 304
+        if (ifNoneMatch != null) {
+            String currentETag = userPointsService.getUserPointsVersion(userId).map(ETags::of).orElse(ETags.ABSENT);
+            if (ETags.matches(ifNoneMatch, currentETag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).build();
+            }
+        }
+        
         UserPointsDto userPoints = userPointsService.getUserPoints(userId);
         
-        return ResponseEntity.ok(userPoints);
+        // Kaydı olmayan kullanıcı sıfır bakiye ile döner (lastUpdated yok)
+        String eTag = userPoints.getLastUpdated() == null ? ETags.ABSENT : ETags.of(userPoints.getLastUpdated());
+        return ResponseEntity.ok().eTag(eTag).body(userPoints);
     }
 
     /**
@@ -90,21 +90,37 @@ class UserPointsControllerFT {
         }
 
         @Test
-        @DisplayName("Should create new user points with zero balance when not exists")
-        void shouldCreateNewUserPointsWithZeroBalanceWhenNotExists() {
+        @DisplayName("Should return zero balance for unknown user without creating a record")
+        void shouldReturnZeroBalanceForUnknownUserWithoutCreatingRecord() {
             // Given
             String userId = "ft-user-new-001";
 
-            // When & Then
+            // When & Then - okuma read-only transaction'da, kayıt oluşturulmaz
             given()
             .when()
                 .get("/user-points/" + userId)
             .then()
                 .statusCode(200)
+                .header("ETag", equalTo(ETags.ABSENT))
                 .body("userId", equalTo(userId))
                 .body("totalPoints", equalTo(0.0f))
                 .body("availablePoints", equalTo(0.0f))
                 .body("lockedPoints", equalTo(0.0f));
+
+            // Then - kayıt hâlâ yok: harcama 404 döner
+            given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                    {
+                      "userId": "%s",
+                      "points": 1.00,
+                      "reason": "Record check"
+                    }
+                    """, userId))
+            .when()
+                .post("/user-points/spend")
+            .then()
+                .statusCode(404);
         }
 
         @Test
@@ -121,6 +137,53 @@ class UserPointsControllerFT {
                 .statusCode(200)
                 .body("userId", equalTo(userId));
         }
+
+        @Test
+        @DisplayName("Should return 304 for a matching If-None-Match and 200 after points change")
+        void shouldReturnNotModifiedForMatchingETag() {
+            // Given
+            String userId = "ft-user-etag-001";
+            String etag = given()
+            .when()
+                .get("/user-points/" + userId)
+            .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+            // When & Then - unchanged
+            given()
+                .header("If-None-Match", etag)
+            .when()
+                .get("/user-points/" + userId)
+            .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag));
+
+            // When & Then - changed
+            given()
+                .contentType(ContentType.JSON)
+                .body(String.format("""
+                    {
+                      "userId": "%s",
+                      "points": 10.00,
+                      "reason": "ETag test"
+                    }
+                    """, userId))
+            .when()
+                .post("/user-points/earn")
+            .then()
+                .statusCode(201);
+
+            given()
+                .header("If-None-Match", etag)
+            .when()
+                .get("/user-points/" + userId)
+            .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .body("totalPoints", equalTo(10.0f));
+        }
     }
 
     @Nested